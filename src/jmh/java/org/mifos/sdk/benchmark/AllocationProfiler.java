@@ -0,0 +1,93 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerResult;
+import org.openjdk.jmh.results.AggregationPolicy;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reports the bytes allocated by the benchmark during each iteration, and their
+ * rate, next to its score. The {@code gc} profiler of JMH 1.4.1 only counts the
+ * collections, so this one reads the allocation counters of the threads from the
+ * HotSpot {@code ThreadMXBean}. Run with {@code -prof alloc}.
+ */
+public class AllocationProfiler implements InternalProfiler {
+
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    private long startNanos;
+    private long startBytes;
+
+    @Override
+    public boolean checkSupport(final List<String> msgs) {
+        final com.sun.management.ThreadMXBean threads = threads();
+        if (threads == null || !threads.isThreadAllocatedMemorySupported()) {
+            msgs.add("The JVM does not count the bytes allocated by its threads");
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String label() {
+        return "alloc";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Allocation rate via the thread allocation counters";
+    }
+
+    @Override
+    public void beforeIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+        this.startBytes = allocatedBytes();
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public List<ProfilerResult> afterIteration(final BenchmarkParams benchmarkParams,
+                                               final IterationParams iterationParams) {
+        final long nanos = System.nanoTime() - this.startNanos;
+        final long bytes = allocatedBytes() - this.startBytes;
+        if (nanos <= 0 || bytes < 0) {
+            return Collections.<ProfilerResult>emptyList();
+        }
+        return Arrays.asList(
+            new ProfilerResult("@alloc.rate", bytes / BYTES_PER_MB / (nanos / 1e9), "MB/sec",
+                AggregationPolicy.AVG),
+            new ProfilerResult("@alloc.bytes", bytes, "bytes", AggregationPolicy.AVG));
+    }
+
+    /**
+     * Returns the bytes allocated so far by the live threads, the benchmark threads
+     * being kept from one iteration to the next.
+     */
+    private static long allocatedBytes() {
+        final com.sun.management.ThreadMXBean threads = threads();
+        long total = 0;
+        for (final long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads instanceof com.sun.management.ThreadMXBean
+            ? (com.sun.management.ThreadMXBean) threads : null;
+    }
+
+}
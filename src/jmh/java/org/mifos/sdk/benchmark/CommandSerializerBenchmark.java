@@ -0,0 +1,119 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.mifos.sdk.client.domain.commands.ActivateClientCommand;
+import org.mifos.sdk.client.domain.commands.CloseClientCommand;
+import org.mifos.sdk.group.domain.commands.ActivateGroupCommand;
+import org.mifos.sdk.group.domain.commands.CloseGroupCommand;
+import org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand;
+import org.mifos.sdk.internal.serializers.commands.client.ActivateClientSerializer;
+import org.mifos.sdk.internal.serializers.commands.client.CloseClientSerializer;
+import org.mifos.sdk.internal.serializers.commands.group.ActivateGroupSerializer;
+import org.mifos.sdk.internal.serializers.commands.group.CloseGroupSerializer;
+import org.mifos.sdk.internal.serializers.commands.group.GenerateCollectionSheetSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes the bodies of the client and group commands through their registered
+ * serializers, which build a tree of the body and format its date for every call.
+ * {@link SaveCollectionSheetBenchmark} covers the collection sheets.
+ * Run with {@code -prof alloc} to report the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandSerializerBenchmark {
+
+    private static final String DATE_FORMAT = "dd MMMM yyyy";
+    private static final String LOCALE = "en";
+
+    private Gson gson;
+    private ActivateClientCommand activateClient;
+    private CloseClientCommand closeClient;
+    private ActivateGroupCommand activateGroup;
+    private CloseGroupCommand closeGroup;
+    private GenerateCollectionSheetCommand generateCollectionSheet;
+
+    @Setup
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(ActivateClientCommand.class, new ActivateClientSerializer())
+            .registerTypeAdapter(CloseClientCommand.class, new CloseClientSerializer())
+            .registerTypeAdapter(ActivateGroupCommand.class, new ActivateGroupSerializer())
+            .registerTypeAdapter(CloseGroupCommand.class, new CloseGroupSerializer())
+            .registerTypeAdapter(GenerateCollectionSheetCommand.class, new GenerateCollectionSheetSerializer())
+            .create();
+
+        final Date date = new Date(1400000000000L);
+        this.activateClient = ActivateClientCommand.locale(LOCALE)
+            .dateFormat(DATE_FORMAT)
+            .activationDate(date)
+            .build();
+        this.closeClient = CloseClientCommand.locale(LOCALE)
+            .dateFormat(DATE_FORMAT)
+            .closureDate(date)
+            .closureReasonId("17")
+            .build();
+        this.activateGroup = ActivateGroupCommand.locale(LOCALE)
+            .dateFormat(DATE_FORMAT)
+            .activationDate(date)
+            .build();
+        this.closeGroup = CloseGroupCommand.locale(LOCALE)
+            .dateFormat(DATE_FORMAT)
+            .closureDate(date)
+            .closureReasonId("17")
+            .build();
+        this.generateCollectionSheet = GenerateCollectionSheetCommand.locale(LOCALE)
+            .dateFormat(DATE_FORMAT)
+            .calendarId(4L)
+            .transactionDate(date)
+            .build();
+    }
+
+    @Benchmark
+    public String activateClient() {
+        return this.gson.toJson(this.activateClient, ActivateClientCommand.class);
+    }
+
+    @Benchmark
+    public String closeClient() {
+        return this.gson.toJson(this.closeClient, CloseClientCommand.class);
+    }
+
+    @Benchmark
+    public String activateGroup() {
+        return this.gson.toJson(this.activateGroup, ActivateGroupCommand.class);
+    }
+
+    @Benchmark
+    public String closeGroup() {
+        return this.gson.toJson(this.closeGroup, CloseGroupCommand.class);
+    }
+
+    @Benchmark
+    public String generateCollectionSheet() {
+        return this.gson.toJson(this.generateCollectionSheet, GenerateCollectionSheetCommand.class);
+    }
+
+}
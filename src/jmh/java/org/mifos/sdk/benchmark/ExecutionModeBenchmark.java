@@ -0,0 +1,142 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.mifos.sdk.MifosXClient;
+import org.mifos.sdk.MifosXClientFactory;
+import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.office.AsyncOfficeService;
+import org.mifos.sdk.office.domain.Office;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares platform-thread pools against virtual threads when fanning out blocking
+ * calls through the real transport to a local server answering after a fixed latency.
+ * The platform threads run as many calls at a time as the pool has threads, the
+ * maximum number of asynchronous requests per host, while every virtual thread sends
+ * its call right away. The virtual thread mode needs the benchmarks to run on Java 21
+ * or later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final byte[] OFFICE_JSON = ("{\"id\":1,\"name\":\"Head Office\","
+        + "\"openingDate\":[2009,1,1]}").getBytes(Charset.forName("UTF-8"));
+    private static final byte[] AUTHENTICATION_JSON = "{\"base64EncodedAuthenticationKey\":\"key\"}"
+        .getBytes(Charset.forName("UTF-8"));
+
+    /** Kind of threads running the calls. */
+    @Param({"PLATFORM_THREADS", "VIRTUAL_THREADS"})
+    public MifosXProperties.ExecutionMode executionMode;
+
+    /** Maximum number of asynchronous requests per host, the size of the platform thread pool. */
+    @Param({"5", "64", "512"})
+    public int maxRequestsPerHost;
+
+    /** Number of calls in flight per operation. */
+    @Param({"1000"})
+    public int calls;
+
+    /** Latency of the local server in milliseconds. */
+    @Param({"10"})
+    public int latencyMillis;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private MifosXClient client;
+    private AsyncOfficeService officeService;
+
+    @Setup
+    public void setup() throws Exception {
+        // writes the response headers and body without waiting for the delayed acknowledgements
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), this.calls);
+        this.server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                final byte[] body;
+                if (exchange.getRequestURI().getPath().endsWith("/authentication")) {
+                    body = AUTHENTICATION_JSON;
+                } else {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(latencyMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    body = OFFICE_JSON;
+                }
+                exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        this.serverExecutor = Executors.newCachedThreadPool();
+        this.server.setExecutor(this.serverExecutor);
+        this.server.start();
+
+        this.client = MifosXClientFactory.get(MifosXProperties
+            .url("http://127.0.0.1:" + this.server.getAddress().getPort() + "/mifosng-provider/api/v1")
+            .username("mifos")
+            .password("password")
+            .tenant("default")
+            .executionMode(this.executionMode)
+            .maxRequestsPerHost(this.maxRequestsPerHost)
+            .maxIdleConnections(this.maxRequestsPerHost)
+            .build());
+        this.client.login();
+        this.officeService = this.client.asyncOfficeService();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.client.logout();
+        this.server.stop(0);
+        this.serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Office> fanOut() throws Exception {
+        final List<ListenableFuture<Office>> futures = new ArrayList<>(this.calls);
+        for (int i = 0; i < this.calls; i++) {
+            futures.add(this.officeService.findOffice((long) i));
+        }
+        return Futures.allAsList(futures).get();
+    }
+
+}
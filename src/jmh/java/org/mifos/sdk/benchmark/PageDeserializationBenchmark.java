@@ -0,0 +1,86 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import org.mifos.sdk.client.domain.Client;
+import org.mifos.sdk.client.domain.PageableClients;
+import org.mifos.sdk.group.domain.Group;
+import org.mifos.sdk.group.domain.PageableGroups;
+import org.mifos.sdk.internal.accounts.Timeline;
+import org.mifos.sdk.internal.serializers.ClientSerializer;
+import org.mifos.sdk.internal.serializers.GroupSerializer;
+import org.mifos.sdk.internal.serializers.TimelineSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserializes recorded client and group pages, reading the items straight from
+ * the token stream or building the tree of the page first. Run with
+ * {@code -prof alloc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageDeserializationBenchmark {
+
+    /** Number of items per page. */
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private Gson gson;
+    private String clientPage;
+    private String groupPage;
+
+    @Setup
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(Timeline.class, new TimelineSerializer())
+            .registerTypeAdapter(Client.class, new ClientSerializer())
+            .registerTypeAdapter(Group.class, new GroupSerializer())
+            .create();
+        this.clientPage = Payloads.page(Payloads.load("client.json"), this.pageSize);
+        this.groupPage = Payloads.page(Payloads.load("group.json"), this.pageSize);
+    }
+
+    @Benchmark
+    public PageableClients clientsStreaming() {
+        return this.gson.fromJson(new StringReader(this.clientPage), PageableClients.class);
+    }
+
+    @Benchmark
+    public PageableClients clientsTreeFirst() {
+        return this.gson.fromJson(new JsonParser().parse(this.clientPage), PageableClients.class);
+    }
+
+    @Benchmark
+    public PageableGroups groupsStreaming() {
+        return this.gson.fromJson(new StringReader(this.groupPage), PageableGroups.class);
+    }
+
+    @Benchmark
+    public PageableGroups groupsTreeFirst() {
+        return this.gson.fromJson(new JsonParser().parse(this.groupPage), PageableGroups.class);
+    }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.mifos.sdk.internal.ParseUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes dates to strings and decodes [year, month, day] arrays to dates
+ * through {@link ParseUtil}, from one thread and from several.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseUtilBenchmark {
+
+    /** Date format of the encoded dates. */
+    @Param({"dd MMMM yyyy", "yyyy-MM-dd"})
+    public String dateFormat;
+
+    /** Language of the encoded dates. */
+    @Param({"en"})
+    public String locale;
+
+    private Date date;
+    private JsonArray array;
+
+    @Setup
+    public void setup() {
+        this.date = new Date(1400000000000L);
+        this.array = new JsonParser().parse("[2014,5,13]").getAsJsonArray();
+    }
+
+    @Benchmark
+    public String encode() {
+        return ParseUtil.parseDateToString(this.date, this.dateFormat, this.locale);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String encodeContended() {
+        return ParseUtil.parseDateToString(this.date, this.dateFormat, this.locale);
+    }
+
+    @Benchmark
+    public Date decodeParts() {
+        return ParseUtil.parseDate(2014, 5, 13);
+    }
+
+    @Benchmark
+    public Date decodeJsonArray() {
+        return ParseUtil.parseDateFromJsonArray(this.array);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Date decodeContended() {
+        return ParseUtil.parseDate(2014, 5, 13);
+    }
+
+}
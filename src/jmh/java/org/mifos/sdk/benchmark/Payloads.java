@@ -0,0 +1,51 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+
+import java.io.IOException;
+
+/**
+ * Loads the recorded server payloads under {@code /payloads} and builds
+ * paged responses of a given size out of them.
+ */
+public final class Payloads {
+
+    private Payloads() {}
+
+    /**
+     * Returns a recorded payload.
+     * @param name the file name of the payload
+     */
+    public static String load(final String name) {
+        try {
+            return Resources.toString(Resources.getResource(Payloads.class, "/payloads/" + name),
+                Charsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load the payload " + name, e);
+        }
+    }
+
+    /**
+     * Returns a paged response repeating one recorded item.
+     * @param item the JSON of one item
+     * @param size the number of items in the page
+     */
+    public static String page(final String item, final int size) {
+        final StringBuilder json = new StringBuilder(item.length() * size + 64)
+            .append("{\"totalFilteredRecords\":").append(size).append(",\"pageItems\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(item);
+        }
+        return json.append("]}").toString();
+    }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.internal.serializers.OfficeSerializer;
+import org.mifos.sdk.office.domain.Office;
+import org.mifos.sdk.office.internal.RestOfficeService;
+import org.mifos.sdk.office.internal.RetrofitOfficeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import retrofit.RestAdapter;
+import retrofit.converter.GsonConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating a Retrofit proxy for every call, as the services used
+ * to do, against the proxy cached by {@link RestOfficeService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyCreationBenchmark {
+
+    private static final String OFFICE_JSON = "{\"id\":1,\"name\":\"Head Office\","
+        + "\"nameDecorated\":\"Head Office\",\"externalId\":\"1\","
+        + "\"openingDate\":[2009,1,1],\"hierarchy\":\".\"}";
+
+    private MifosXProperties properties;
+    private RestAdapter restAdapter;
+    private RestOfficeService officeService;
+
+    @Setup
+    public void setup() {
+        final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Office.class, new OfficeSerializer())
+            .create();
+        this.properties = MifosXProperties
+            .url("http://localhost/mifosng-provider/api/v1")
+            .username("mifos")
+            .password("password")
+            .tenant("default")
+            .build();
+        this.restAdapter = new RestAdapter.Builder()
+            .setEndpoint(this.properties.getUrl())
+            .setClient(new StubClient(OFFICE_JSON))
+            .setConverter(new GsonConverter(gson))
+            .build();
+        this.officeService = new RestOfficeService(this.properties, this.restAdapter, "key");
+    }
+
+    @Benchmark
+    public Object createProxy() {
+        return this.restAdapter.create(RetrofitOfficeService.class);
+    }
+
+    @Benchmark
+    public Office proxyPerCall() {
+        final RetrofitOfficeService service = this.restAdapter.create(RetrofitOfficeService.class);
+        return service.findOffice("Basic key", this.properties.getTenant(), 1L);
+    }
+
+    @Benchmark
+    public Office cachedProxy() throws MifosXConnectException, MifosXResourceException {
+        return this.officeService.findOffice(1L);
+    }
+
+}
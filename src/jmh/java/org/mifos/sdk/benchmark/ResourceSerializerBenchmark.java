@@ -0,0 +1,135 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.mifos.sdk.client.domain.Client;
+import org.mifos.sdk.group.domain.Group;
+import org.mifos.sdk.internal.accounts.Timeline;
+import org.mifos.sdk.internal.serializers.ClientSerializer;
+import org.mifos.sdk.internal.serializers.GroupSerializer;
+import org.mifos.sdk.internal.serializers.OfficeSerializer;
+import org.mifos.sdk.internal.serializers.StaffSerializer;
+import org.mifos.sdk.internal.serializers.TimelineSerializer;
+import org.mifos.sdk.office.domain.Office;
+import org.mifos.sdk.staff.domain.Staff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes recorded offices, staff, clients and groups through their registered
+ * serializers, and encodes the same resources as the bodies of the requests
+ * creating them. Run with {@code -prof alloc} to report the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceSerializerBenchmark {
+
+    private static final String DATE_FORMAT = "dd MMMM yyyy";
+    private static final String LOCALE = "en";
+
+    /** Recorded resource payload, the pending clients and groups being the smaller ones. */
+    @Param({"office.json", "staff.json", "client_pending.json", "client.json",
+        "group_pending.json", "group.json"})
+    public String payload;
+
+    private Gson gson;
+    private String json;
+    private Class<?> type;
+    private Object request;
+
+    @Setup
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(Timeline.class, new TimelineSerializer())
+            .registerTypeAdapter(Office.class, new OfficeSerializer())
+            .registerTypeAdapter(Staff.class, new StaffSerializer())
+            .registerTypeAdapter(Client.class, new ClientSerializer())
+            .registerTypeAdapter(Group.class, new GroupSerializer())
+            .create();
+        this.json = Payloads.load(this.payload);
+
+        if (this.payload.startsWith("office")) {
+            final Office office = this.gson.fromJson(this.json, Office.class);
+            this.type = Office.class;
+            this.request = Office.name(office.getName())
+                .parentId(1L)
+                .openingDate(office.getOpeningDate())
+                .nameDecorated(office.getNameDecorated())
+                .externalId(office.getExternalId())
+                .dateFormat(DATE_FORMAT)
+                .locale(LOCALE)
+                .build();
+        } else if (this.payload.startsWith("staff")) {
+            final Staff staff = this.gson.fromJson(this.json, Staff.class);
+            this.type = Staff.class;
+            this.request = Staff.officeId(staff.getOfficeId())
+                .firstname(staff.getFirstname())
+                .lastname(staff.getLastname())
+                .isLoanOfficer(staff.getIsLoanOfficer())
+                .externalId(staff.getExternalId())
+                .mobileNo(staff.getMobileNo())
+                .isActive(staff.getIsActive())
+                .joiningDate(staff.getJoiningDate())
+                .dateFormat(DATE_FORMAT)
+                .locale(LOCALE)
+                .build();
+        } else if (this.payload.startsWith("client")) {
+            final Client client = this.gson.fromJson(this.json, Client.class);
+            this.type = Client.class;
+            this.request = Client.firstname(client.getFirstname())
+                .lastname(client.getLastname())
+                .officeId(client.getOfficeId())
+                .active(client.getActive())
+                .activationDate(client.getActivationDate())
+                .dateFormat(DATE_FORMAT)
+                .locale(LOCALE)
+                .externalId(client.getExternalId())
+                .staffId(client.getStaffId())
+                .mobileNo(client.getMobileNo())
+                .build();
+        } else {
+            final Group group = this.gson.fromJson(this.json, Group.class);
+            this.type = Group.class;
+            this.request = Group.name(group.getName())
+                .officeId(group.getOfficeId())
+                .active(group.isActive())
+                .activationDate(group.getActivationDate())
+                .dateFormat(DATE_FORMAT)
+                .locale(LOCALE)
+                .externalId(group.getExternalId())
+                .staffId(group.getStaffId())
+                .build();
+        }
+    }
+
+    @Benchmark
+    public Object decode() {
+        return this.gson.fromJson(this.json, this.type);
+    }
+
+    @Benchmark
+    public String encode() {
+        return this.gson.toJson(this.request, this.type);
+    }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
+import org.mifos.sdk.internal.http.StreamingGsonConverter;
+import org.mifos.sdk.internal.serializers.commands.group.SaveCollectionSheetSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import retrofit.converter.Converter;
+import retrofit.converter.GsonConverter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the request body of a collection sheet with the given number of
+ * transactions, split between attendance, repayments and disbursements, either
+ * encoded up front or streamed while it is sent.
+ * Run with {@code -prof alloc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveCollectionSheetBenchmark {
+
+    /** Number of transactions in the collection sheet. */
+    @Param({"10", "200", "2000"})
+    public int transactions;
+
+    private Converter buffered;
+    private Converter streamed;
+    private SaveCollectionSheetCommand command;
+
+    @Setup
+    public void setup() {
+        final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(SaveCollectionSheetCommand.class, new SaveCollectionSheetSerializer())
+            .create();
+        this.buffered = new GsonConverter(gson);
+        this.streamed = new StreamingGsonConverter(gson, SaveCollectionSheetCommand.class);
+
+        final List<SaveCollectionSheetCommand.ClientAttendance> attendance = new ArrayList<>();
+        final List<SaveCollectionSheetCommand.BulkRepaymentTransaction> repayments = new ArrayList<>();
+        final List<SaveCollectionSheetCommand.BulkDisbursementTransaction> disbursements = new ArrayList<>();
+        this.command = SaveCollectionSheetCommand.calendarId(4L)
+            .transactionDate(new Date(1400000000000L))
+            .actualDisbursementDate(new Date(1400000000000L))
+            .dateFormat("dd MMMM yyyy")
+            .locale("en")
+            .clientsAttendance(attendance)
+            .bulkRepaymentTransactions(repayments)
+            .bulkDisbursementTransactions(disbursements)
+            .build();
+        for (long i = 0; i < this.transactions; i++) {
+            if (i % 3 == 0) {
+                final SaveCollectionSheetCommand.ClientAttendance client = this.command.new ClientAttendance();
+                client.setClientId(i);
+                client.setAttendanceType(1L);
+                attendance.add(client);
+            } else if (i % 3 == 1) {
+                final SaveCollectionSheetCommand.BulkRepaymentTransaction repayment =
+                    this.command.new BulkRepaymentTransaction();
+                repayment.setLoanId(i);
+                repayment.setTransactionAmount(new BigDecimal("1250.75"));
+                repayments.add(repayment);
+            } else {
+                final SaveCollectionSheetCommand.BulkDisbursementTransaction disbursement =
+                    this.command.new BulkDisbursementTransaction();
+                disbursement.setLoanId(i);
+                disbursement.setTransactionAmount(new BigDecimal("15000"));
+                disbursements.add(disbursement);
+            }
+        }
+    }
+
+    @Benchmark
+    public long buffered() throws IOException {
+        return write(this.buffered);
+    }
+
+    @Benchmark
+    public long streamed() throws IOException {
+        return write(this.streamed);
+    }
+
+    private long write(final Converter converter) throws IOException {
+        final CountingOutputStream out = new CountingOutputStream();
+        converter.toBody(this.command).writeTo(out);
+        return out.count;
+    }
+
+    /**
+     * Counts the bytes of the request body, standing in for the socket.
+     */
+    private static final class CountingOutputStream extends java.io.OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(final int b) {
+            this.count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            this.count += len;
+        }
+
+    }
+
+}
@@ -0,0 +1,128 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.ScanOptions;
+import org.mifos.sdk.client.domain.Client;
+import org.mifos.sdk.client.internal.RestClientService;
+import org.mifos.sdk.internal.AsyncExecutors;
+import org.mifos.sdk.internal.serializers.ClientSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import retrofit.RestAdapter;
+import retrofit.converter.GsonConverter;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the wall-clock time of a full client scan against a server answering
+ * every page after a fixed latency, fetching the pages one ahead or fanned out
+ * in parallel once the first page has returned the total number of records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScanBenchmark {
+
+    /** Maximum number of pages fetched in parallel. */
+    @Param({"1", "4", "16"})
+    public int concurrency;
+
+    /** Whether the pages are delivered in order. */
+    @Param({"true", "false"})
+    public boolean ordered;
+
+    /** Number of records in the scanned tenant. */
+    @Param({"20000"})
+    public int records;
+
+    /** Number of records per page. */
+    @Param({"200"})
+    public int pageSize;
+
+    /** Latency of the stand-in server in milliseconds. */
+    @Param({"10"})
+    public int latencyMillis;
+
+    private ListeningExecutorService executor;
+    private RestClientService clientService;
+    private ScanOptions options;
+
+    @Setup
+    public void setup() {
+        final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Client.class, new ClientSerializer())
+            .create();
+        final MifosXProperties properties = MifosXProperties
+            .url("http://localhost/mifosng-provider/api/v1")
+            .username("mifos")
+            .password("password")
+            .tenant("default")
+            .maxRequestsPerHost(16)
+            .build();
+        final RestAdapter restAdapter = new RestAdapter.Builder()
+            .setEndpoint(properties.getUrl())
+            .setClient(new StubClient(page(this.records, this.pageSize), this.latencyMillis, TimeUnit.MILLISECONDS))
+            .setConverter(new GsonConverter(gson))
+            .build();
+        this.executor = AsyncExecutors.forProperties(properties);
+        this.clientService = new RestClientService(properties, restAdapter, "key", this.executor);
+        this.options = ScanOptions.pageSize(this.pageSize)
+            .concurrency(this.concurrency)
+            .ordered(this.ordered)
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public long scan() {
+        long sum = 0;
+        final Iterator<Client> clients = this.clientService.scanClients(this.options);
+        while (clients.hasNext()) {
+            sum += clients.next().getClientId();
+        }
+        return sum;
+    }
+
+    private static String page(final int total, final int size) {
+        final StringBuilder json = new StringBuilder("{\"totalFilteredRecords\":").append(total)
+            .append(",\"pageItems\":[");
+        for (int id = 1; id <= size; id++) {
+            if (id > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(id).append(",\"accountNo\":\"00000000").append(id)
+                .append("\",\"active\":true,\"activationDate\":[2014,6,1],\"firstname\":\"Client\",")
+                .append("\"lastname\":\"").append(id).append("\",\"displayName\":\"Client ").append(id)
+                .append("\",\"officeId\":1,\"officeName\":\"Head Office\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+}
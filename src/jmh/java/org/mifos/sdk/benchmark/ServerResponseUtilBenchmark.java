@@ -0,0 +1,78 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.common.base.Charsets;
+import com.google.gson.JsonParser;
+import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.internal.ServerResponseUtil;
+import org.mifos.sdk.limit.ConcurrencyLimitExceededException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import retrofit.RetrofitError;
+import retrofit.client.Header;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracts the message of recorded error responses through {@link ServerResponseUtil},
+ * from the body of a failed call and from the body of a failed batch request, and
+ * classifies a network error. Run with {@code -prof alloc} to report the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerResponseUtilBenchmark {
+
+    /** Recorded error payload, with one error or with several validation errors. */
+    @Param({"error_not_found.json", "error_validation.json"})
+    public String payload;
+
+    private String json;
+    private Response response;
+    private RetrofitError networkError;
+
+    @Setup
+    public void setup() {
+        this.json = Payloads.load(this.payload);
+        this.response = new Response("http://localhost/mifosng-provider/api/v1/clients", 400, "Bad Request",
+            Collections.<Header>emptyList(),
+            new TypedByteArray("application/json", this.json.getBytes(Charsets.UTF_8)));
+        this.networkError = RetrofitError.networkError("http://localhost/mifosng-provider/api/v1/clients",
+            new ConcurrencyLimitExceededException("Request rejected by the concurrency limiter"));
+    }
+
+    @Benchmark
+    public String parseResponse() {
+        return ServerResponseUtil.parseResponse(this.response);
+    }
+
+    @Benchmark
+    public String parseErrorMessage() {
+        return ServerResponseUtil.parseErrorMessage(new JsonParser().parse(this.json).getAsJsonObject());
+    }
+
+    @Benchmark
+    public ErrorCode networkErrorCode() {
+        return ServerResponseUtil.networkErrorCode(this.networkError);
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.internal.RestMifosXClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import retrofit.RestAdapter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the service getters of {@link RestMifosXClient} under contention:
+ * threads sharing one logged in client, and threads each logging their own
+ * client in and out, which initialises every service again for each session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ServiceHolderBenchmark {
+
+    private static final String LOGIN_JSON = "{\"base64EncodedAuthenticationKey\":\"key\"}";
+
+    /**
+     * A client logged in once and shared by all the threads.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedClient {
+
+        RestMifosXClient client;
+
+        @Setup
+        public void setup() throws MifosXConnectException {
+            this.client = newClient();
+            this.client.login();
+        }
+
+    }
+
+    /**
+     * A client owned by a single thread.
+     */
+    @State(Scope.Thread)
+    public static class OwnClient {
+
+        RestMifosXClient client;
+
+        @Setup
+        public void setup() {
+            this.client = newClient();
+        }
+
+    }
+
+    @Benchmark
+    public void sharedClient(final SharedClient state, final Blackhole blackhole) throws MifosXConnectException {
+        getServices(state.client, blackhole);
+    }
+
+    @Benchmark
+    public void sessionPerCall(final OwnClient state, final Blackhole blackhole) throws MifosXConnectException {
+        state.client.login();
+        getServices(state.client, blackhole);
+        state.client.logout();
+    }
+
+    private static void getServices(final RestMifosXClient client, final Blackhole blackhole)
+        throws MifosXConnectException {
+        blackhole.consume(client.officeService());
+        blackhole.consume(client.staffService());
+        blackhole.consume(client.clientService());
+        blackhole.consume(client.groupService());
+        blackhole.consume(client.batchService());
+        blackhole.consume(client.asyncClientService());
+        blackhole.consume(client.asyncGroupService());
+    }
+
+    private static RestMifosXClient newClient() {
+        final MifosXProperties properties = MifosXProperties
+            .url("http://localhost/mifosng-provider/api/v1")
+            .username("mifos")
+            .password("password")
+            .tenant("default")
+            .build();
+        final RestAdapter restAdapter = new RestAdapter.Builder()
+            .setEndpoint(properties.getUrl())
+            .setClient(new StubClient(LOGIN_JSON))
+            .build();
+        return new RestMifosXClient(properties, restAdapter);
+    }
+
+}
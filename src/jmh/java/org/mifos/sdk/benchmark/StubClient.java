@@ -0,0 +1,64 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retrofit {@link Client} which answers every request with a canned JSON
+ * body, optionally after a fixed latency. Stands in for the MifosX server
+ * so the benchmarks measure only the SDK.
+ */
+public class StubClient implements Client {
+
+    private static final String MIME_TYPE = "application/json; charset=UTF-8";
+
+    private final byte[] body;
+    private final long latencyNanos;
+
+    /**
+     * Constructs a new {@link StubClient} responding without delay.
+     * @param body the JSON body of every response
+     */
+    public StubClient(final String body) {
+        this(body, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructs a new {@link StubClient} responding after the given latency.
+     * @param body the JSON body of every response
+     * @param latency the time to wait before responding
+     * @param unit the unit of the latency
+     */
+    public StubClient(final String body, final long latency, final TimeUnit unit) {
+        this.body = body.getBytes(Charset.forName("UTF-8"));
+        this.latencyNanos = unit.toNanos(latency);
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        if (this.latencyNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(this.latencyNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the stub response", e);
+            }
+        }
+        return new Response(request.getUrl(), 200, "OK", Collections.<Header>emptyList(),
+            new TypedByteArray(MIME_TYPE, this.body));
+    }
+
+}
@@ -0,0 +1,65 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.mifos.sdk.internal.accounts.Timeline;
+import org.mifos.sdk.internal.serializers.TimelineSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes recorded timelines of clients and loan accounts through the
+ * registered {@link TimelineSerializer}, and encodes them back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimelineBenchmark {
+
+    /** Recorded timeline payload. */
+    @Param({"timeline_client.json", "timeline_loan.json"})
+    public String payload;
+
+    private Gson gson;
+    private String json;
+    private Timeline timeline;
+
+    @Setup
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(Timeline.class, new TimelineSerializer())
+            .create();
+        this.json = Payloads.load(this.payload);
+        this.timeline = this.gson.fromJson(this.json, Timeline.class);
+    }
+
+    @Benchmark
+    public Timeline decode() {
+        return this.gson.fromJson(this.json, Timeline.class);
+    }
+
+    @Benchmark
+    public String encode() {
+        return this.gson.toJson(this.timeline, Timeline.class);
+    }
+
+}
@@ -5,9 +5,15 @@
  */
 package org.mifos.sdk;
 
+import org.mifos.sdk.batch.BatchService;
+import org.mifos.sdk.client.AsyncClientService;
 import org.mifos.sdk.client.ClientService;
+import org.mifos.sdk.group.AsyncGroupService;
 import org.mifos.sdk.group.GroupService;
+import org.mifos.sdk.metrics.MetricsRecorder;
+import org.mifos.sdk.office.AsyncOfficeService;
 import org.mifos.sdk.office.OfficeService;
+import org.mifos.sdk.staff.AsyncStaffService;
 import org.mifos.sdk.staff.StaffService;
 
 /**
@@ -52,4 +58,40 @@ public interface MifosXClient {
      */
     GroupService groupService() throws MifosXConnectException;
 
+    /**
+     * Returns an instance of {@link BatchService} to send many requests in one round trip.
+     * @throws MifosXConnectException
+     */
+    BatchService batchService() throws MifosXConnectException;
+
+    /**
+     * Returns an instance of {@link AsyncOfficeService} to use the Office API asynchronously.
+     * @throws MifosXConnectException
+     */
+    AsyncOfficeService asyncOfficeService() throws MifosXConnectException;
+
+    /**
+     * Returns an instance of {@link AsyncStaffService} to use the Staff API asynchronously.
+     * @throws MifosXConnectException
+     */
+    AsyncStaffService asyncStaffService() throws MifosXConnectException;
+
+    /**
+     * Returns an instance of {@link AsyncClientService} to use the Client API asynchronously.
+     * @throws MifosXConnectException
+     */
+    AsyncClientService asyncClientService() throws MifosXConnectException;
+
+    /**
+     * Returns an instance of {@link AsyncGroupService} to use the Groups API asynchronously.
+     * @throws MifosXConnectException
+     */
+    AsyncGroupService asyncGroupService() throws MifosXConnectException;
+
+    /**
+     * Returns the {@link MetricsRecorder} holding the latencies, body sizes and errors
+     * of the calls made through the services, per service method.
+     */
+    MetricsRecorder metrics();
+
 }
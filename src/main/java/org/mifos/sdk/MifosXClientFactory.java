@@ -5,9 +5,13 @@
  */
 package org.mifos.sdk;
 
+import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.squareup.okhttp.ConnectionPool;
 import com.squareup.okhttp.OkHttpClient;
+import org.mifos.sdk.batch.domain.BatchRequest;
+import org.mifos.sdk.batch.domain.BatchResponse;
 import org.mifos.sdk.client.domain.Client;
 import org.mifos.sdk.client.domain.ClientIdentifier;
 import org.mifos.sdk.client.domain.commands.ActivateClientCommand;
@@ -17,12 +21,29 @@ import org.mifos.sdk.group.domain.commands.ActivateGroupCommand;
 import org.mifos.sdk.group.domain.commands.CloseGroupCommand;
 import org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand;
 import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
+import org.mifos.sdk.internal.AsyncExecutors;
+import org.mifos.sdk.internal.AuthenticationKeyHolder;
+import org.mifos.sdk.internal.OAuthAuthenticator;
+import org.mifos.sdk.internal.RestConstants;
 import org.mifos.sdk.internal.RestMifosXClient;
 import org.mifos.sdk.internal.accounts.Timeline;
+import org.mifos.sdk.internal.http.AuthenticatingClient;
+import org.mifos.sdk.internal.http.CircuitBreakingClient;
+import org.mifos.sdk.internal.http.ConcurrencyLimitingClient;
+import org.mifos.sdk.internal.http.ConnectionTiming;
+import org.mifos.sdk.internal.http.HedgingClient;
+import org.mifos.sdk.internal.http.MeteringClient;
+import org.mifos.sdk.internal.http.OkHttpCallClient;
+import org.mifos.sdk.internal.http.RequestTimingClient;
+import org.mifos.sdk.internal.http.RetryingClient;
+import org.mifos.sdk.internal.http.StreamingGsonConverter;
+import org.mifos.sdk.internal.serializers.BatchRequestSerializer;
+import org.mifos.sdk.internal.serializers.BatchResponseSerializer;
 import org.mifos.sdk.internal.serializers.ClientIdentifierSerializer;
 import org.mifos.sdk.internal.serializers.ClientSerializer;
 import org.mifos.sdk.internal.serializers.GroupSerializer;
 import org.mifos.sdk.internal.serializers.OfficeSerializer;
+import org.mifos.sdk.internal.serializers.RecordedTypeAdapterFactory;
 import org.mifos.sdk.internal.serializers.StaffSerializer;
 import org.mifos.sdk.internal.serializers.TimelineSerializer;
 import org.mifos.sdk.internal.serializers.commands.client.ActivateClientSerializer;
@@ -31,23 +52,98 @@ import org.mifos.sdk.internal.serializers.commands.group.ActivateGroupSerializer
 import org.mifos.sdk.internal.serializers.commands.group.CloseGroupSerializer;
 import org.mifos.sdk.internal.serializers.commands.group.GenerateCollectionSheetSerializer;
 import org.mifos.sdk.internal.serializers.commands.group.SaveCollectionSheetSerializer;
+import org.mifos.sdk.management.ManagementBeans;
+import org.mifos.sdk.metrics.RequestListener;
 import org.mifos.sdk.office.domain.Office;
 import org.mifos.sdk.staff.domain.Staff;
 import retrofit.RequestInterceptor;
 import retrofit.RestAdapter;
-import retrofit.client.OkClient;
-import retrofit.converter.GsonConverter;
+import retrofit.converter.Converter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class to return instances of {@link MifosXClient}
  */
 public final class MifosXClientFactory {
 
+    private static final List<RequestListener> REQUEST_LISTENERS = new CopyOnWriteArrayList<>();
+
     /**
      * Returns a new instance of {@link MifosXClient}
      * @param properties the {@link MifosXProperties} for authentication
      */
     public static MifosXClient get(final MifosXProperties properties) {
+        final RestMifosXClient mifosXClient = create(properties, createConverter(), createTransport(properties));
+        if (properties.getManagementName() != null) {
+            ManagementBeans.registerClient(properties, mifosXClient);
+        }
+        return mifosXClient;
+    }
+
+    /**
+     * Adds a {@link RequestListener} receiving the phase timings of every request sent
+     * by the clients of this factory, including the clients created before.
+     * @param listener the {@link RequestListener}
+     */
+    public static void addRequestListener(final RequestListener listener) {
+        Preconditions.checkNotNull(listener);
+
+        REQUEST_LISTENERS.add(listener);
+    }
+
+    /**
+     * Removes a {@link RequestListener} added with {@link #addRequestListener(RequestListener)}.
+     * @param listener the {@link RequestListener}
+     */
+    public static void removeRequestListener(final RequestListener listener) {
+        REQUEST_LISTENERS.remove(listener);
+    }
+
+    /**
+     * Creates a client sending its requests through the given converter and transport,
+     * which may be shared with other clients. The management beans of the client are
+     * left to the caller to register, once the client is in use.
+     * @param properties the {@link MifosXProperties} for authentication
+     * @param converter the {@link Converter} of the request and response bodies
+     * @param transport the {@link retrofit.client.Client} executing the requests
+     */
+    static RestMifosXClient create(final MifosXProperties properties,
+                                   final Converter converter,
+                                   final retrofit.client.Client transport) {
+        final boolean oauth = properties.getAuthenticationMode() == MifosXProperties.AuthenticationMode.OAUTH2;
+        final AuthenticationKeyHolder authenticationKeys = new AuthenticationKeyHolder(oauth
+            ? RestConstants.AUTHORIZATION_BEARER : RestConstants.AUTHORIZATION_BASIC);
+        final retrofit.client.Client client = new RequestTimingClient(new MeteringClient(
+            new AuthenticatingClient(transport, authenticationKeys)), REQUEST_LISTENERS, properties.getUrl());
+        final RestAdapter restAdapter = new RestAdapter.Builder()
+                .setClient(client)
+                .setEndpoint(properties.getUrl())
+                .setConverter(converter)
+                .setRequestInterceptor(new RequestInterceptor() {
+                    @Override
+                    public void intercept(RequestFacade request) {
+                        request.addHeader("Content-Type", "application/json");
+                    }
+                })
+                .build();
+
+        final RestMifosXClient mifosXClient = oauth
+            ? new RestMifosXClient(properties, restAdapter, authenticationKeys,
+                new OAuthAuthenticator(properties, client, authenticationKeys, AsyncExecutors.scheduler(),
+                    AsyncExecutors.renewal()))
+            : new RestMifosXClient(properties, restAdapter, authenticationKeys);
+        return mifosXClient;
+    }
+
+    /**
+     * Creates the {@link Converter} with the serializers of all the resources, the
+     * invocations of the resource and command serializers being recorded as Java
+     * Flight Recorder events where they are supported.
+     */
+    static Converter createConverter() {
         final Gson gson = new GsonBuilder()
                 .registerTypeAdapter(Timeline.class, new TimelineSerializer())
                 // serializers
@@ -64,20 +160,64 @@ public final class MifosXClientFactory {
                 .registerTypeAdapter(SaveCollectionSheetCommand.class, new SaveCollectionSheetSerializer())
                 // identifier serializers
                 .registerTypeAdapter(ClientIdentifier.class, new ClientIdentifierSerializer())
+                // batch serializers
+                .registerTypeAdapter(BatchRequest.class, new BatchRequestSerializer())
+                .registerTypeAdapter(BatchResponse.class, new BatchResponseSerializer())
+                // recorded serializers, registered last to wrap the ones above
+                .registerTypeAdapterFactory(new RecordedTypeAdapterFactory(Timeline.class, Client.class, Group.class,
+                    ActivateClientCommand.class, CloseClientCommand.class, ActivateGroupCommand.class,
+                    CloseGroupCommand.class, GenerateCollectionSheetCommand.class, SaveCollectionSheetCommand.class))
                 .create();
-        final RestAdapter restAdapter = new RestAdapter.Builder()
-                .setClient(new OkClient(new OkHttpClient()))
-                .setEndpoint(properties.getUrl())
-                .setConverter(new GsonConverter(gson))
-                .setRequestInterceptor(new RequestInterceptor() {
-                    @Override
-                    public void intercept(RequestFacade request) {
-                        request.addHeader("Content-Type", "application/json");
-                    }
-                })
-                .build();
+        return new StreamingGsonConverter(gson, SaveCollectionSheetCommand.class);
+    }
 
-        return new RestMifosXClient(properties, restAdapter);
+    /**
+     * Creates the transport executing the requests over a connection pool configured
+     * in the properties, behind the retries, the circuit breakers, the concurrency
+     * limiter and the hedging of reads if they are set. A hedged read and its second
+     * attempt count as one request for the limiter and the breakers. Its management
+     * beans are registered if the properties name them.
+     * @param properties the {@link MifosXProperties} with the transport settings
+     */
+    static retrofit.client.Client createTransport(final MifosXProperties properties) {
+        final OkHttpCallClient okHttpCallClient = new OkHttpCallClient(createHttpClient(properties),
+            properties.getMaxBlockingRequestsPerHost());
+        retrofit.client.Client transport = okHttpCallClient;
+        if (properties.getHedgingPolicy() != null) {
+            transport = new HedgingClient(okHttpCallClient, properties.getHedgingPolicy(), properties.getUrl(),
+                AsyncExecutors.scheduler(), AsyncExecutors.hedging());
+        }
+        if (properties.getConcurrencyLimiter() != null) {
+            transport = new ConcurrencyLimitingClient(transport, properties.getConcurrencyLimiter());
+        }
+        if (properties.getCircuitBreakers() != null) {
+            transport = new CircuitBreakingClient(transport, properties.getCircuitBreakers(), properties.getUrl());
+        }
+        if (properties.getRetryPolicy() != null) {
+            transport = new RetryingClient(transport, properties.getRetryPolicy());
+        }
+        if (properties.getManagementName() != null) {
+            ManagementBeans.registerTransport(properties, okHttpCallClient.getOkHttpClient());
+        }
+        return transport;
+    }
+
+    /**
+     * Creates the {@link OkHttpClient} shared by all the services using the transport,
+     * with the connection pool and timeouts configured in the properties, its new
+     * connections timed for the {@link RequestListener}s.
+     * @param properties the {@link MifosXProperties} with the transport settings
+     */
+    private static OkHttpClient createHttpClient(final MifosXProperties properties) {
+        final OkHttpClient httpClient = new OkHttpClient();
+        httpClient.setConnectionPool(new ConnectionPool(properties.getMaxIdleConnections(),
+            properties.getKeepAliveDurationMillis()));
+        httpClient.setConnectTimeout(properties.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS);
+        httpClient.setReadTimeout(properties.getReadTimeoutMillis(), TimeUnit.MILLISECONDS);
+        httpClient.setWriteTimeout(properties.getWriteTimeoutMillis(), TimeUnit.MILLISECONDS);
+        httpClient.getDispatcher().setMaxRequestsPerHost(properties.getMaxRequestsPerHost());
+        ConnectionTiming.install(httpClient);
+        return httpClient;
     }
 
 }
@@ -0,0 +1,241 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.mifos.sdk.internal.AsyncExecutors;
+import org.mifos.sdk.internal.RestMifosXClient;
+import org.mifos.sdk.management.ManagementBeans;
+import retrofit.client.Client;
+import retrofit.converter.Converter;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the clients of many tenants served from one JVM. All the clients share
+ * one connection pool, one converter and one executor for the asynchronous services,
+ * while each tenant keeps its own credentials and authentication key. The least
+ * recently used tenants are evicted and logged out beyond the maximum number of
+ * tenants, as are tenants left idle for longer than the idle timeout; the next call
+ * for an evicted tenant creates its client again. When the shared properties name
+ * management beans, each tenant registers its own, keyed by tenant.
+ */
+public final class MifosXClientRegistry {
+
+    /** Default maximum number of tenants held at once. */
+    public static final int DEFAULT_MAX_TENANTS = 100;
+    /** Default time after which an idle tenant is evicted, 30 minutes. */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    /**
+     * Utility class to ease the process of building a
+     * new instance of {@link MifosXClientRegistry}
+     */
+    public static class Builder {
+
+        private final MifosXProperties properties;
+        private int maxTenants = DEFAULT_MAX_TENANTS;
+        private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+
+        private Builder(final MifosXProperties properties) {
+            this.properties = properties;
+        }
+
+        /**
+         * Sets the maximum number of tenants held at once.
+         * @param tenants the maximum number of tenants
+         * @return instance of the current {@link Builder}
+         */
+        public Builder maxTenants(final int tenants) {
+            Preconditions.checkArgument(tenants > 0, "Max tenants must be positive!");
+            this.maxTenants = tenants;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a tenant without any call is evicted.
+         * @param timeout the idle timeout
+         * @param unit the unit of the timeout
+         * @return instance of the current {@link Builder}
+         */
+        public Builder idleTimeout(final long timeout, final TimeUnit unit) {
+            Preconditions.checkNotNull(unit);
+            Preconditions.checkArgument(timeout > 0, "Idle timeout must be positive!");
+            this.idleTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Constructs a new MifosXClientRegistry instance
+         * with the provided properties.
+         * @return a new instance of {@link MifosXClientRegistry}
+         */
+        public MifosXClientRegistry build() {
+            return new MifosXClientRegistry(this);
+        }
+
+    }
+
+    private final MifosXProperties sharedProperties;
+    private final Converter converter;
+    private final Client transport;
+    private final Cache<String, Tenant> tenants;
+
+    private MifosXClientRegistry(final Builder builder) {
+        this.sharedProperties = MifosXProperties.from(builder.properties)
+            .executor(AsyncExecutors.forProperties(builder.properties))
+            .build();
+        this.converter = MifosXClientFactory.createConverter();
+        this.transport = MifosXClientFactory.createTransport(this.sharedProperties);
+        this.tenants = CacheBuilder.newBuilder()
+            .maximumSize(builder.maxTenants)
+            .expireAfterAccess(builder.idleTimeoutMillis, TimeUnit.MILLISECONDS)
+            .removalListener(new RemovalListener<String, Tenant>() {
+                @Override
+                public void onRemoval(final RemovalNotification<String, Tenant> notification) {
+                    notification.getValue().client.logout();
+                    if (sharedProperties.getManagementName() != null) {
+                        // a no-op once the beans of the tenant belong to its replacement
+                        ManagementBeans.unregisterClient(notification.getValue().properties,
+                            notification.getValue().client);
+                    }
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Returns the client of a tenant, creating it if the tenant is not held yet or
+     * was registered with other credentials. The client still has to
+     * {@link MifosXClient#login()}, which does nothing once it is logged in.
+     * @param tenantId the tenant identifier
+     * @param username the username of the tenant
+     * @param password the password of the tenant
+     * @return the {@link MifosXClient} of the tenant
+     * @throws IllegalStateException if the management beans of the client cannot be
+     *         registered, another client of the tenant being registered under their name
+     */
+    public MifosXClient client(final String tenantId, final String username, final String password) {
+        Preconditions.checkNotNull(tenantId);
+        Preconditions.checkArgument(!tenantId.isEmpty());
+        Preconditions.checkNotNull(username);
+        Preconditions.checkNotNull(password);
+
+        final Tenant tenant;
+        try {
+            tenant = this.tenants.get(tenantId, new Callable<Tenant>() {
+                @Override
+                public Tenant call() {
+                    return registerBeans(createTenant(tenantId, username, password));
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+        if (tenant.hasCredentials(username, password)) {
+            return tenant.client;
+        }
+
+        final Tenant replacement = createTenant(tenantId, username, password);
+        synchronized (this) {
+            // registered under the lock so that the beans of concurrent replacements
+            // are registered in the order the replacements won
+            if (this.tenants.asMap().replace(tenantId, tenant, replacement)) {
+                return registerBeans(replacement).client;
+            }
+        }
+        return this.client(tenantId, username, password);
+    }
+
+    /**
+     * Evicts a tenant and logs its client out.
+     * @param tenantId the tenant identifier
+     */
+    public void evict(final String tenantId) {
+        Preconditions.checkNotNull(tenantId);
+        this.tenants.invalidate(tenantId);
+    }
+
+    /**
+     * Returns the number of tenants held.
+     */
+    public long size() {
+        this.tenants.cleanUp();
+        return this.tenants.size();
+    }
+
+    private Tenant createTenant(final String tenantId, final String username, final String password) {
+        final MifosXProperties properties = MifosXProperties.from(this.sharedProperties)
+            .tenant(tenantId)
+            .username(username)
+            .password(password)
+            .build();
+        return new Tenant(username, password, properties,
+            MifosXClientFactory.create(properties, this.converter, this.transport));
+    }
+
+    /**
+     * Registers the management beans of a tenant held by the registry, replacing those
+     * of the client it replaced, even if that client's removal has not been notified yet.
+     * A client discarded after losing a race is never registered.
+     * @param tenant the {@link Tenant}
+     * @return the tenant
+     */
+    private Tenant registerBeans(final Tenant tenant) {
+        if (this.sharedProperties.getManagementName() != null) {
+            ManagementBeans.registerClient(tenant.properties, tenant.client, this);
+        }
+        return tenant;
+    }
+
+    /**
+     * Sets the properties shared by all the tenants: the API URL, the transport and
+     * executor settings and the authentication mode. Their tenant and credentials are ignored.
+     * @return a new {@link Builder} instance
+     * @param properties the shared {@link MifosXProperties}
+     */
+    public static Builder properties(final MifosXProperties properties) {
+        Preconditions.checkNotNull(properties);
+        Preconditions.checkNotNull(properties.getUrl());
+
+        return new Builder(properties);
+    }
+
+    /**
+     * Holds the client of a tenant with the credentials it was created with.
+     */
+    private static final class Tenant {
+
+        private final String username;
+        private final String password;
+        private final MifosXProperties properties;
+        private final RestMifosXClient client;
+
+        private Tenant(final String username, final String password, final MifosXProperties properties,
+                       final RestMifosXClient client) {
+            this.username = username;
+            this.password = password;
+            this.properties = properties;
+            this.client = client;
+        }
+
+        private boolean hasCredentials(final String username, final String password) {
+            return Objects.equal(this.username, username) && Objects.equal(this.password, password);
+        }
+
+    }
+
+}
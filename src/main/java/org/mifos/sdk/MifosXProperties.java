@@ -5,11 +5,70 @@
  */
 package org.mifos.sdk;
 
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.breaker.CircuitBreakers;
+import org.mifos.sdk.limit.ConcurrencyLimiter;
+import org.mifos.sdk.metrics.MetricsSink;
+import org.mifos.sdk.retry.HedgingPolicy;
+import org.mifos.sdk.retry.RetryPolicy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Configures properties for authentication into the MifosX platform.
  */
 public final class MifosXProperties {
 
+    /**
+     * Enum to hold the kinds of threads running the asynchronous services.
+     */
+    public enum ExecutionMode {
+
+        /** A bounded pool of platform threads. */
+        PLATFORM_THREADS,
+
+        /**
+         * One virtual thread per call, requires Java 21 or later. The requests sent
+         * to one host are still capped by the maximum number of requests per host.
+         */
+        VIRTUAL_THREADS
+
+    }
+
+    /**
+     * Enum to hold the ways of authenticating with the MifosX platform.
+     */
+    public enum AuthenticationMode {
+
+        /** A key obtained from /authentication, the credentials being checked again on every request. */
+        BASIC,
+
+        /**
+         * OAuth2 bearer tokens obtained with the password grant and renewed in the
+         * background with the refresh token before they expire.
+         */
+        OAUTH2
+
+    }
+
+    /** Default OAuth2 client ID, the one of the community app. */
+    public static final String DEFAULT_OAUTH_CLIENT_ID = "community-app";
+    /** Default OAuth2 client secret, the one of the community app. */
+    public static final String DEFAULT_OAUTH_CLIENT_SECRET = "123";
+    /** Default maximum number of idle pooled connections. */
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    /** Default keep-alive duration of idle pooled connections, 5 minutes. */
+    public static final long DEFAULT_KEEP_ALIVE_DURATION_MILLIS = 5 * 60 * 1000L;
+    /** Default connect timeout, 15 seconds. */
+    public static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 15 * 1000L;
+    /** Default read timeout, 20 seconds. */
+    public static final long DEFAULT_READ_TIMEOUT_MILLIS = 20 * 1000L;
+    /** Default write timeout, 20 seconds. */
+    public static final long DEFAULT_WRITE_TIMEOUT_MILLIS = 20 * 1000L;
+    /** Default maximum number of concurrent asynchronous requests per host. */
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
     /**
      * Utility class to ease the process of building a
      * new instance of {@link MifosXProperties}
@@ -20,6 +79,25 @@ public final class MifosXProperties {
         private String tenantId;
         private String username;
         private String password;
+        private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+        private long keepAliveDurationMillis = DEFAULT_KEEP_ALIVE_DURATION_MILLIS;
+        private long connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+        private long readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+        private long writeTimeoutMillis = DEFAULT_WRITE_TIMEOUT_MILLIS;
+        private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+        private int maxBlockingRequestsPerHost;
+        private ExecutorService executor;
+        private ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+        private AuthenticationMode authenticationMode = AuthenticationMode.BASIC;
+        private String oauthClientId = DEFAULT_OAUTH_CLIENT_ID;
+        private String oauthClientSecret = DEFAULT_OAUTH_CLIENT_SECRET;
+        private String oauthTokenUrl;
+        private ConcurrencyLimiter concurrencyLimiter;
+        private CircuitBreakers circuitBreakers;
+        private RetryPolicy retryPolicy;
+        private HedgingPolicy hedgingPolicy;
+        private MetricsSink metricsSink;
+        private String managementName;
 
         private Builder(final String loginUrl) {
             this.url = loginUrl;
@@ -55,31 +133,320 @@ public final class MifosXProperties {
             return this;
         }
 
+        /**
+         * Sets the maximum number of idle connections kept in the connection pool.
+         * @param connections the maximum number of idle connections
+         * @return instance of the current {@link Builder}
+         */
+        public Builder maxIdleConnections(final int connections) {
+            Preconditions.checkArgument(connections >= 0, "Max idle connections cannot be negative!");
+            this.maxIdleConnections = connections;
+            return this;
+        }
+
+        /**
+         * Sets how long an idle pooled connection is kept alive before being evicted.
+         * @param duration the keep-alive duration
+         * @param unit the {@link TimeUnit} of the duration
+         * @return instance of the current {@link Builder}
+         */
+        public Builder keepAliveDuration(final long duration, final TimeUnit unit) {
+            this.keepAliveDurationMillis = toMillis(duration, unit);
+            return this;
+        }
+
+        /**
+         * Sets the connect timeout, zero meaning no timeout.
+         * @param timeout the connect timeout
+         * @param unit the {@link TimeUnit} of the timeout
+         * @return instance of the current {@link Builder}
+         */
+        public Builder connectTimeout(final long timeout, final TimeUnit unit) {
+            this.connectTimeoutMillis = toMillis(timeout, unit);
+            return this;
+        }
+
+        /**
+         * Sets the read timeout, zero meaning no timeout.
+         * @param timeout the read timeout
+         * @param unit the {@link TimeUnit} of the timeout
+         * @return instance of the current {@link Builder}
+         */
+        public Builder readTimeout(final long timeout, final TimeUnit unit) {
+            this.readTimeoutMillis = toMillis(timeout, unit);
+            return this;
+        }
+
+        /**
+         * Sets the write timeout, zero meaning no timeout.
+         * @param timeout the write timeout
+         * @param unit the {@link TimeUnit} of the timeout
+         * @return instance of the current {@link Builder}
+         */
+        public Builder writeTimeout(final long timeout, final TimeUnit unit) {
+            this.writeTimeoutMillis = toMillis(timeout, unit);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of asynchronous requests executing concurrently
+         * against a single host, as the dispatcher of OkHttp does: it sizes the pool of
+         * platform threads running the asynchronous services, whose further calls are
+         * queued. Synchronous calls are not capped, see {@link #maxBlockingRequestsPerHost(int)}.
+         * @param requests the maximum number of asynchronous requests per host
+         * @return instance of the current {@link Builder}
+         */
+        public Builder maxRequestsPerHost(final int requests) {
+            Preconditions.checkArgument(requests > 0, "Max requests per host must be positive!");
+            this.maxRequestsPerHost = requests;
+            return this;
+        }
+
+        /**
+         * Caps the requests executing concurrently against a single host from every
+         * thread, the synchronous calls and the virtual threads included. Further
+         * requests block until one of them completes. Not set by default, so that
+         * synchronous calls are as unbounded as they are with OkHttp.
+         * @param requests the maximum number of requests per host
+         * @return instance of the current {@link Builder}
+         */
+        public Builder maxBlockingRequestsPerHost(final int requests) {
+            Preconditions.checkArgument(requests > 0, "Max blocking requests per host must be positive!");
+            this.maxBlockingRequestsPerHost = requests;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the calls of the asynchronous services. When not set,
+         * a pool of {@link #maxRequestsPerHost(int)} daemon threads is used. The executor
+         * is not shut down by the SDK.
+         * @param asyncExecutor the {@link ExecutorService} for asynchronous calls
+         * @return instance of the current {@link Builder}
+         */
+        public Builder executor(final ExecutorService asyncExecutor) {
+            Preconditions.checkNotNull(asyncExecutor);
+            this.executor = asyncExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the kind of threads running the asynchronous services when no
+         * {@link #executor(ExecutorService)} is set. With {@link ExecutionMode#VIRTUAL_THREADS}
+         * every call gets its own virtual thread, so thousands of calls can wait at almost
+         * no cost instead of queueing for a pool thread; creating the client fails on JVMs
+         * older than Java 21. Virtual threads are not capped by {@link #maxRequestsPerHost(int)}:
+         * bound large fan-outs with {@link #maxBlockingRequestsPerHost(int)} or a
+         * {@link #concurrencyLimiter(ConcurrencyLimiter)}, so that the calls wait for a
+         * permit instead of opening a connection each.
+         * @param mode the {@link ExecutionMode}
+         * @return instance of the current {@link Builder}
+         */
+        public Builder executionMode(final ExecutionMode mode) {
+            Preconditions.checkNotNull(mode);
+            this.executionMode = mode;
+            return this;
+        }
+
+        /**
+         * Sets how the client authenticates with the platform.
+         * @param mode the {@link AuthenticationMode}
+         * @return instance of the current {@link Builder}
+         */
+        public Builder authenticationMode(final AuthenticationMode mode) {
+            Preconditions.checkNotNull(mode);
+            this.authenticationMode = mode;
+            return this;
+        }
+
+        /**
+         * Sets the OAuth2 client credentials used with {@link AuthenticationMode#OAUTH2}.
+         * @param clientId the client ID
+         * @param clientSecret the client secret
+         * @return instance of the current {@link Builder}
+         */
+        public Builder oauthClient(final String clientId, final String clientSecret) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkArgument(!clientId.isEmpty());
+            Preconditions.checkNotNull(clientSecret);
+            this.oauthClientId = clientId;
+            this.oauthClientSecret = clientSecret;
+            return this;
+        }
+
+        /**
+         * Sets the URL of the OAuth2 token endpoint. When not set, it is the API URL
+         * with its version replaced by /oauth/token.
+         * @param tokenUrl the URL of the token endpoint
+         * @return instance of the current {@link Builder}
+         */
+        public Builder oauthTokenUrl(final String tokenUrl) {
+            Preconditions.checkNotNull(tokenUrl);
+            Preconditions.checkArgument(!tokenUrl.isEmpty());
+            this.oauthTokenUrl = tokenUrl;
+            return this;
+        }
+
+        /**
+         * Sets the {@link ConcurrencyLimiter} admitting the requests of the clients created
+         * with these properties, so that they adapt to the concurrency the server sustains
+         * instead of overloading it. When not set, requests are only capped by
+         * {@link #maxBlockingRequestsPerHost(int)}, if set.
+         * @param limiter the {@link ConcurrencyLimiter}
+         * @return instance of the current {@link Builder}
+         */
+        public Builder concurrencyLimiter(final ConcurrencyLimiter limiter) {
+            Preconditions.checkNotNull(limiter);
+            this.concurrencyLimiter = limiter;
+            return this;
+        }
+
+        /**
+         * Sets the {@link CircuitBreakers} guarding the endpoints called by the clients
+         * created with these properties. A call to an endpoint whose circuit is open fails
+         * immediately with {@link org.mifos.sdk.internal.ErrorCode#CIRCUIT_OPEN} instead of
+         * waiting for the timeouts. When not set, every call is sent.
+         * @param breakers the {@link CircuitBreakers}
+         * @return instance of the current {@link Builder}
+         */
+        public Builder circuitBreakers(final CircuitBreakers breakers) {
+            Preconditions.checkNotNull(breakers);
+            this.circuitBreakers = breakers;
+            return this;
+        }
+
+        /**
+         * Sets the {@link RetryPolicy} applied to the transient failures of reads and of
+         * commands built with an idempotency key. When not set, no request is retried.
+         * @param policy the {@link RetryPolicy}
+         * @return instance of the current {@link Builder}
+         */
+        public Builder retryPolicy(final RetryPolicy policy) {
+            Preconditions.checkNotNull(policy);
+            this.retryPolicy = policy;
+            return this;
+        }
+
+        /**
+         * Sets the {@link HedgingPolicy} sending a second attempt of the GET requests
+         * answering slower than usual. When not set, no request is hedged.
+         * @param policy the {@link HedgingPolicy}
+         * @return instance of the current {@link Builder}
+         */
+        public Builder hedgingPolicy(final HedgingPolicy policy) {
+            Preconditions.checkNotNull(policy);
+            this.hedgingPolicy = policy;
+            return this;
+        }
+
+        /**
+         * Sets a {@link MetricsSink} receiving the measurements of every service call,
+         * for instance to export them, in addition to the recorder returned by
+         * {@link MifosXClient#metrics()}.
+         * @param sink the {@link MetricsSink}
+         * @return instance of the current {@link Builder}
+         */
+        public Builder metricsSink(final MetricsSink sink) {
+            Preconditions.checkNotNull(sink);
+            this.metricsSink = sink;
+            return this;
+        }
+
+        /**
+         * Registers the management beans of the clients created with these properties
+         * and of their transport in the platform MBean server, under the given name
+         * and the "org.mifos.sdk" domain. They expose the connection pool, the login
+         * state and the counters of the services, and let the timeouts and the
+         * concurrency limits be changed while running. When not set, nothing is registered.
+         * Only one client of a tenant is registered under a name at a time, so creating a
+         * second one outside of a {@link org.mifos.sdk.MifosXClientRegistry} fails until
+         * the beans of the first are unregistered.
+         * @param name the name of the beans
+         * @return instance of the current {@link Builder}
+         */
+        public Builder managementName(final String name) {
+            Preconditions.checkNotNull(name);
+            Preconditions.checkArgument(!name.isEmpty());
+            this.managementName = name;
+            return this;
+        }
+
         /**
          * Constructs a new MifosXProperties instance
          * with the provided properties.
          * @return a new instance of {@link MifosXProperties}
          */
         public MifosXProperties build() {
-            return new MifosXProperties(this.url, this.tenantId,
-                    this.username, this.password);
+            return new MifosXProperties(this);
+        }
+
+        private String defaultOAuthTokenUrl() {
+            if (this.url == null) {
+                return null;
+            }
+            String base = this.url.endsWith("/") ? this.url.substring(0, this.url.length() - 1) : this.url;
+            if (base.endsWith("/v1")) {
+                base = base.substring(0, base.length() - "/v1".length());
+            }
+            return base + "/oauth/token";
+        }
+
+        private static long toMillis(final long duration, final TimeUnit unit) {
+            Preconditions.checkNotNull(unit);
+            Preconditions.checkArgument(duration >= 0, "Duration cannot be negative!");
+            return unit.toMillis(duration);
         }
 
     }
 
+
     private String url;
     private String tenantId;
     private String username;
     private String password;
+    private int maxIdleConnections;
+    private long keepAliveDurationMillis;
+    private long connectTimeoutMillis;
+    private long readTimeoutMillis;
+    private long writeTimeoutMillis;
+    private int maxRequestsPerHost;
+    private int maxBlockingRequestsPerHost;
+    private ExecutorService executor;
+    private ExecutionMode executionMode;
+    private AuthenticationMode authenticationMode;
+    private String oauthClientId;
+    private String oauthClientSecret;
+    private String oauthTokenUrl;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private CircuitBreakers circuitBreakers;
+    private RetryPolicy retryPolicy;
+    private HedgingPolicy hedgingPolicy;
+    private MetricsSink metricsSink;
+    private String managementName;
 
-    private MifosXProperties(final String loginUrl,
-                             final String tenant,
-                             final String loginUsername,
-                             final String loginPassword) {
-        this.url = loginUrl;
-        this.tenantId = tenant;
-        this.username = loginUsername;
-        this.password = loginPassword;
+    private MifosXProperties(final Builder builder) {
+        this.url = builder.url;
+        this.tenantId = builder.tenantId;
+        this.username = builder.username;
+        this.password = builder.password;
+        this.maxIdleConnections = builder.maxIdleConnections;
+        this.keepAliveDurationMillis = builder.keepAliveDurationMillis;
+        this.connectTimeoutMillis = builder.connectTimeoutMillis;
+        this.readTimeoutMillis = builder.readTimeoutMillis;
+        this.writeTimeoutMillis = builder.writeTimeoutMillis;
+        this.maxRequestsPerHost = builder.maxRequestsPerHost;
+        this.maxBlockingRequestsPerHost = builder.maxBlockingRequestsPerHost;
+        this.executor = builder.executor;
+        this.executionMode = builder.executionMode;
+        this.authenticationMode = builder.authenticationMode;
+        this.oauthClientId = builder.oauthClientId;
+        this.oauthClientSecret = builder.oauthClientSecret;
+        this.oauthTokenUrl = builder.oauthTokenUrl != null ? builder.oauthTokenUrl : builder.defaultOAuthTokenUrl();
+        this.concurrencyLimiter = builder.concurrencyLimiter;
+        this.circuitBreakers = builder.circuitBreakers;
+        this.retryPolicy = builder.retryPolicy;
+        this.hedgingPolicy = builder.hedgingPolicy;
+        this.metricsSink = builder.metricsSink;
+        this.managementName = builder.managementName;
     }
 
     /** Returns the URL. */
@@ -102,6 +469,101 @@ public final class MifosXProperties {
         return this.password;
     }
 
+    /** Returns the maximum number of idle pooled connections. */
+    public int getMaxIdleConnections() {
+        return this.maxIdleConnections;
+    }
+
+    /** Returns the keep-alive duration of idle pooled connections in milliseconds. */
+    public long getKeepAliveDurationMillis() {
+        return this.keepAliveDurationMillis;
+    }
+
+    /** Returns the connect timeout in milliseconds. */
+    public long getConnectTimeoutMillis() {
+        return this.connectTimeoutMillis;
+    }
+
+    /** Returns the read timeout in milliseconds. */
+    public long getReadTimeoutMillis() {
+        return this.readTimeoutMillis;
+    }
+
+    /** Returns the write timeout in milliseconds. */
+    public long getWriteTimeoutMillis() {
+        return this.writeTimeoutMillis;
+    }
+
+    /** Returns the maximum number of concurrent asynchronous requests per host. */
+    public int getMaxRequestsPerHost() {
+        return this.maxRequestsPerHost;
+    }
+
+    /** Returns the maximum number of concurrent requests per host from every thread, 0 if uncapped. */
+    public int getMaxBlockingRequestsPerHost() {
+        return this.maxBlockingRequestsPerHost;
+    }
+
+    /** Returns the executor for asynchronous calls, null if none was set. */
+    public ExecutorService getExecutor() {
+        return this.executor;
+    }
+
+    /** Returns the {@link ExecutionMode} of the asynchronous services. */
+    public ExecutionMode getExecutionMode() {
+        return this.executionMode;
+    }
+
+    /** Returns the {@link AuthenticationMode}. */
+    public AuthenticationMode getAuthenticationMode() {
+        return this.authenticationMode;
+    }
+
+    /** Returns the OAuth2 client ID. */
+    public String getOAuthClientId() {
+        return this.oauthClientId;
+    }
+
+    /** Returns the OAuth2 client secret. */
+    public String getOAuthClientSecret() {
+        return this.oauthClientSecret;
+    }
+
+    /** Returns the URL of the OAuth2 token endpoint. */
+    public String getOAuthTokenUrl() {
+        return this.oauthTokenUrl;
+    }
+
+    /** Returns the {@link ConcurrencyLimiter}, null if none was set. */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return this.concurrencyLimiter;
+    }
+
+    /** Returns the {@link CircuitBreakers}, null if none were set. */
+    public CircuitBreakers getCircuitBreakers() {
+        return this.circuitBreakers;
+    }
+
+    /** Returns the {@link RetryPolicy}, null if none was set. */
+    public RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    /** Returns the {@link HedgingPolicy}, null if none was set. */
+    public HedgingPolicy getHedgingPolicy() {
+        return this.hedgingPolicy;
+    }
+
+    /** Returns the {@link MetricsSink}, null if none was set. */
+    public MetricsSink getMetricsSink() {
+        return this.metricsSink;
+    }
+
+    /** Returns the name of the management beans, null if none was set. */
+    public String getManagementName() {
+        return this.managementName;
+    }
+
     /**
      * Sets the API endpoint URL.
      * @return a new {@link Builder} instance
@@ -111,4 +573,39 @@ public final class MifosXProperties {
         return new Builder(url);
     }
 
+    /**
+     * Starts from all the settings of existing properties, for instance to change
+     * only the tenant and its credentials.
+     * @return a new {@link Builder} instance
+     * @param properties the {@link MifosXProperties} to copy
+     */
+    public static Builder from(final MifosXProperties properties) {
+        Preconditions.checkNotNull(properties);
+
+        final Builder builder = new Builder(properties.url);
+        builder.tenantId = properties.tenantId;
+        builder.username = properties.username;
+        builder.password = properties.password;
+        builder.maxIdleConnections = properties.maxIdleConnections;
+        builder.keepAliveDurationMillis = properties.keepAliveDurationMillis;
+        builder.connectTimeoutMillis = properties.connectTimeoutMillis;
+        builder.readTimeoutMillis = properties.readTimeoutMillis;
+        builder.writeTimeoutMillis = properties.writeTimeoutMillis;
+        builder.maxRequestsPerHost = properties.maxRequestsPerHost;
+        builder.maxBlockingRequestsPerHost = properties.maxBlockingRequestsPerHost;
+        builder.executor = properties.executor;
+        builder.executionMode = properties.executionMode;
+        builder.authenticationMode = properties.authenticationMode;
+        builder.oauthClientId = properties.oauthClientId;
+        builder.oauthClientSecret = properties.oauthClientSecret;
+        builder.oauthTokenUrl = properties.oauthTokenUrl;
+        builder.concurrencyLimiter = properties.concurrencyLimiter;
+        builder.circuitBreakers = properties.circuitBreakers;
+        builder.retryPolicy = properties.retryPolicy;
+        builder.hedgingPolicy = properties.hedgingPolicy;
+        builder.metricsSink = properties.metricsSink;
+        builder.managementName = properties.managementName;
+        return builder;
+    }
+
 }
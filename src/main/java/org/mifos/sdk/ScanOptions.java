@@ -0,0 +1,166 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+
+/**
+ * Configures how a scan walks over all the pages of a paged API.
+ */
+public final class ScanOptions {
+
+    /**
+     * Utility class to ease the process of building a
+     * new instance of {@link ScanOptions}
+     */
+    public static class Builder {
+
+        private int pageSize;
+        private int prefetchPages = 1;
+        private int concurrency = 1;
+        private boolean ordered = true;
+        private Map<String, Object> filters = ImmutableMap.of();
+
+        private Builder(final int size) {
+            this.pageSize = size;
+        }
+
+        /**
+         * Sets the number of pages fetched ahead while the current page is being
+         * consumed. At most this many pages plus the current one are held in memory;
+         * zero fetches every page only when it is needed.
+         * @param pages the number of pages to fetch ahead
+         * @return the current instance of {@link Builder}
+         */
+        public Builder prefetchPages(final int pages) {
+            Preconditions.checkArgument(pages >= 0, "Prefetched pages cannot be negative!");
+            this.prefetchPages = pages;
+
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of pages fetched at the same time. Once the first
+         * page has returned the total number of records, the remaining offsets are
+         * known and up to this many pages are requested in parallel; at most this
+         * many pages plus the current one are held in memory. The requests are still
+         * bounded by the threads of the executor and, if set, the maximum blocking
+         * requests per host: a concurrency above the maximum requests per host, the
+         * size of the default executor, only queues more pages behind its threads.
+         * The pages are fetched one at a time when needed if no page is prefetched, or
+         * if the scan is consumed on a thread of the executor itself.
+         * @param pages the maximum number of pages fetched in parallel
+         * @return the current instance of {@link Builder}
+         */
+        public Builder concurrency(final int pages) {
+            Preconditions.checkArgument(pages > 0, "Concurrency must be positive!");
+            this.concurrency = pages;
+
+            return this;
+        }
+
+        /**
+         * Sets whether the records are delivered in the order of their pages. If not,
+         * every page is delivered as soon as it arrives, so one slow page does not
+         * hold back the ones fetched after it.
+         * @param inOrder true to deliver the pages in order, false otherwise
+         * @return the current instance of {@link Builder}
+         */
+        public Builder ordered(final boolean inOrder) {
+            this.ordered = inOrder;
+
+            return this;
+        }
+
+        /**
+         * Sets the query parameters filtering the scanned resources. The paging
+         * parameters are set by the scan and must not be included.
+         * @param queryMap a {@link Map} with the query parameters
+         * @return the current instance of {@link Builder}
+         */
+        public Builder filters(final Map<String, Object> queryMap) {
+            Preconditions.checkNotNull(queryMap);
+            Preconditions.checkArgument(!queryMap.containsKey("offset") && !queryMap.containsKey("limit"),
+                "Offset and limit are set by the scan!");
+            this.filters = ImmutableMap.copyOf(queryMap);
+
+            return this;
+        }
+
+        /**
+         * Constructs a new ScanOptions instance with the provided parameters.
+         * @return a new instance of {@link ScanOptions}
+         */
+        public ScanOptions build() {
+            return new ScanOptions(this);
+        }
+
+    }
+
+    private int pageSize;
+    private int prefetchPages;
+    private int concurrency;
+    private boolean ordered;
+    private Map<String, Object> filters;
+
+    private ScanOptions(final Builder builder) {
+        this.pageSize = builder.pageSize;
+        this.prefetchPages = builder.prefetchPages;
+        this.concurrency = builder.concurrency;
+        this.ordered = builder.ordered;
+        this.filters = builder.filters;
+    }
+
+    /**
+     * Returns the number of records requested per page.
+     */
+    public int getPageSize() {
+        return this.pageSize;
+    }
+
+    /**
+     * Returns the number of pages fetched ahead of the current one.
+     */
+    public int getPrefetchPages() {
+        return this.prefetchPages;
+    }
+
+    /**
+     * Returns the maximum number of pages fetched in parallel.
+     */
+    public int getConcurrency() {
+        return this.concurrency;
+    }
+
+    /**
+     * Returns true if the pages are delivered in order, false otherwise.
+     */
+    public boolean isOrdered() {
+        return this.ordered;
+    }
+
+    /**
+     * Returns the query parameters filtering the scanned resources.
+     */
+    public Map<String, Object> getFilters() {
+        return this.filters;
+    }
+
+    /**
+     * Sets the number of records requested per page.
+     * @param size the page size
+     * @return a new instance of {@link Builder}
+     */
+    public static Builder pageSize(final int size) {
+        Preconditions.checkArgument(size > 0, "Page size must be positive!");
+
+        return new Builder(size);
+    }
+
+}
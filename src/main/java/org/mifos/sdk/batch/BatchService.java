@@ -0,0 +1,30 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.batch;
+
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.batch.domain.Batch;
+import org.mifos.sdk.batch.domain.BatchResponse;
+
+import java.util.List;
+
+/**
+ * Interface to communicate with the Batch API.
+ */
+public interface BatchService {
+
+    /**
+     * Sends all the requests of a batch in one round trip. A failing request does
+     * not throw; its {@link BatchResponse} carries the status code and error message.
+     * @param batch the {@link Batch} to send
+     * @return a {@link BatchResponse} for every request that was run
+     * @throws MifosXConnectException
+     * @throws MifosXResourceException
+     */
+    List<BatchResponse> executeBatch(final Batch batch) throws MifosXConnectException, MifosXResourceException;
+
+}
@@ -0,0 +1,381 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.batch.domain;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.client.domain.Client;
+import org.mifos.sdk.client.domain.commands.AcceptClientTransferCommand;
+import org.mifos.sdk.client.domain.commands.ActivateClientCommand;
+import org.mifos.sdk.client.domain.commands.CloseClientCommand;
+import org.mifos.sdk.client.domain.commands.ProposeAndAcceptClientTransferCommand;
+import org.mifos.sdk.client.domain.commands.ProposeClientTransferCommand;
+import org.mifos.sdk.client.domain.commands.UpdateSavingsAccountCommand;
+import org.mifos.sdk.client.domain.commands.WithdrawRejectClientTransferCommand;
+import org.mifos.sdk.group.domain.Group;
+import org.mifos.sdk.group.domain.commands.ActivateGroupCommand;
+import org.mifos.sdk.group.domain.commands.AssignUpdateRoleCommand;
+import org.mifos.sdk.group.domain.commands.AssociateDisassociateClientsCommand;
+import org.mifos.sdk.group.domain.commands.CloseGroupCommand;
+import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
+import org.mifos.sdk.group.domain.commands.TransferClientsCommand;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects requests of the Clients and Groups APIs to be sent in a single
+ * round trip to the batch API.
+ */
+public final class Batch {
+
+    /**
+     * Utility class to ease the process of building a
+     * new instance of {@link Batch}
+     */
+    public static class Builder {
+
+        private final boolean enclosingTransaction;
+        private final List<BatchRequest> requests;
+
+        private Builder(final boolean transaction) {
+            this.enclosingTransaction = transaction;
+            this.requests = new ArrayList<>();
+        }
+
+        /**
+         * Adds a request creating a new client.
+         * @param client the {@link Client} to create
+         * @return the current instance of {@link Builder}
+         */
+        public Builder createClient(final Client client) {
+            Preconditions.checkNotNull(client);
+            return add("POST", "clients", client);
+        }
+
+        /**
+         * Adds a request updating a client.
+         * @param clientId the client ID
+         * @param client a {@link Client} with the changes to be made
+         * @return the current instance of {@link Builder}
+         */
+        public Builder updateClient(final Long clientId, final Client client) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(client);
+            return add("PUT", "clients/" + clientId, client);
+        }
+
+        /**
+         * Adds a request activating a pending client.
+         * @param clientId the client ID
+         * @param command the {@link ActivateClientCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder activateClient(final Long clientId, final ActivateClientCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "activate"), command);
+        }
+
+        /**
+         * Adds a request closing a client.
+         * @param clientId the client ID
+         * @param command the {@link CloseClientCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder closeClient(final Long clientId, final CloseClientCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "close"), command);
+        }
+
+        /**
+         * Adds a request assigning staff to a client.
+         * @param clientId the client ID
+         * @param command the client {@link org.mifos.sdk.client.domain.commands.AssignUnassignStaffCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder assignClientStaff(final Long clientId,
+                                         final org.mifos.sdk.client.domain.commands.AssignUnassignStaffCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "assignStaff"), command);
+        }
+
+        /**
+         * Adds a request un-assigning staff from a client.
+         * @param clientId the client ID
+         * @param command the client {@link org.mifos.sdk.client.domain.commands.AssignUnassignStaffCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder unassignClientStaff(final Long clientId,
+                                           final org.mifos.sdk.client.domain.commands.AssignUnassignStaffCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "unassignStaff"), command);
+        }
+
+        /**
+         * Adds a request updating the default savings account of a client.
+         * @param clientId the client ID
+         * @param command the {@link UpdateSavingsAccountCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder updateSavingsAccount(final Long clientId, final UpdateSavingsAccountCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "updateSavingsAccount"), command);
+        }
+
+        /**
+         * Adds a request proposing the transfer of a client.
+         * @param clientId the client ID
+         * @param command the {@link ProposeClientTransferCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder proposeTransfer(final Long clientId, final ProposeClientTransferCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "proposeTransfer"), command);
+        }
+
+        /**
+         * Adds a request withdrawing the transfer of a client.
+         * @param clientId the client ID
+         * @param command the {@link WithdrawRejectClientTransferCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder withdrawTransfer(final Long clientId, final WithdrawRejectClientTransferCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "withdrawTransfer"), command);
+        }
+
+        /**
+         * Adds a request rejecting the transfer of a client.
+         * @param clientId the client ID
+         * @param command the {@link WithdrawRejectClientTransferCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder rejectTransfer(final Long clientId, final WithdrawRejectClientTransferCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "rejectTransfer"), command);
+        }
+
+        /**
+         * Adds a request accepting the transfer of a client.
+         * @param clientId the client ID
+         * @param command the {@link AcceptClientTransferCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder acceptTransfer(final Long clientId, final AcceptClientTransferCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "acceptTransfer"), command);
+        }
+
+        /**
+         * Adds a request proposing and accepting the transfer of a client.
+         * @param clientId the client ID
+         * @param command the {@link ProposeAndAcceptClientTransferCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder proposeAndAcceptTransfer(final Long clientId,
+                                                final ProposeAndAcceptClientTransferCommand command) {
+            Preconditions.checkNotNull(clientId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("clients", clientId, "proposeAndAcceptTransfer"), command);
+        }
+
+        /**
+         * Adds a request creating a new group.
+         * @param group the {@link Group} to create
+         * @return the current instance of {@link Builder}
+         */
+        public Builder createGroup(final Group group) {
+            Preconditions.checkNotNull(group);
+            return add("POST", "groups", group);
+        }
+
+        /**
+         * Adds a request updating a group.
+         * @param groupId the group ID
+         * @param group a {@link Group} with the changes to be made
+         * @return the current instance of {@link Builder}
+         */
+        public Builder updateGroup(final Long groupId, final Group group) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(group);
+            return add("PUT", "groups/" + groupId, group);
+        }
+
+        /**
+         * Adds a request activating a pending group.
+         * @param groupId the group ID
+         * @param command the {@link ActivateGroupCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder activateGroup(final Long groupId, final ActivateGroupCommand command) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("groups", groupId, "activate"), command);
+        }
+
+        /**
+         * Adds a request associating clients with a group.
+         * @param groupId the group ID
+         * @param command the {@link AssociateDisassociateClientsCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder associateClients(final Long groupId, final AssociateDisassociateClientsCommand command) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("groups", groupId, "associateClients"), command);
+        }
+
+        /**
+         * Adds a request disassociating clients from a group.
+         * @param groupId the group ID
+         * @param command the {@link AssociateDisassociateClientsCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder disassociateClients(final Long groupId,
+                                           final AssociateDisassociateClientsCommand command) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("groups", groupId, "disassociateClients"), command);
+        }
+
+        /**
+         * Adds a request transferring clients between groups.
+         * @param groupId the group ID
+         * @param command the {@link TransferClientsCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder transferClients(final Long groupId, final TransferClientsCommand command) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("groups", groupId, "transferClients"), command);
+        }
+
+        /**
+         * Adds a request assigning staff to a group.
+         * @param groupId the group ID
+         * @param command the group {@link org.mifos.sdk.group.domain.commands.AssignUnassignStaffCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder assignGroupStaff(final Long groupId,
+                                        final org.mifos.sdk.group.domain.commands.AssignUnassignStaffCommand command) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("groups", groupId, "assignStaff"), command);
+        }
+
+        /**
+         * Adds a request un-assigning staff from a group.
+         * @param groupId the group ID
+         * @param command the group {@link org.mifos.sdk.group.domain.commands.AssignUnassignStaffCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder unassignGroupStaff(final Long groupId,
+                                          final org.mifos.sdk.group.domain.commands.AssignUnassignStaffCommand command) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("groups", groupId, "unassignStaff"), command);
+        }
+
+        /**
+         * Adds a request assigning a role to a group.
+         * @param groupId the group ID
+         * @param command the {@link AssignUpdateRoleCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder assignRole(final Long groupId, final AssignUpdateRoleCommand command) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("groups", groupId, "assignRole"), command);
+        }
+
+        /**
+         * Adds a request saving the collection sheet of a group.
+         * @param groupId the group ID
+         * @param command the {@link SaveCollectionSheetCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder saveCollectionSheet(final Long groupId, final SaveCollectionSheetCommand command) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("groups", groupId, "saveCollectionSheet"), command);
+        }
+
+        /**
+         * Adds a request closing a group.
+         * @param groupId the group ID
+         * @param command the {@link CloseGroupCommand}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder closeGroup(final Long groupId, final CloseGroupCommand command) {
+            Preconditions.checkNotNull(groupId);
+            Preconditions.checkNotNull(command);
+            return add("POST", command("groups", groupId, "close"), command);
+        }
+
+        /**
+         * Constructs a new Batch instance with the provided requests.
+         * @return a new instance of {@link Batch}
+         */
+        public Batch build() {
+            Preconditions.checkState(!this.requests.isEmpty(), "A batch needs at least one request!");
+
+            return new Batch(this.enclosingTransaction, this.requests);
+        }
+
+        private Builder add(final String method, final String relativeUrl, final Object body) {
+            this.requests.add(new BatchRequest((long) this.requests.size() + 1, method, relativeUrl, body));
+
+            return this;
+        }
+
+        private static String command(final String resource, final Long id, final String command) {
+            return resource + "/" + id + "?command=" + command;
+        }
+
+    }
+
+    private boolean enclosingTransaction;
+    private List<BatchRequest> requests;
+
+    private Batch(final boolean transaction, final List<BatchRequest> batchRequests) {
+        this.enclosingTransaction = transaction;
+        this.requests = Collections.unmodifiableList(new ArrayList<>(batchRequests));
+    }
+
+    /**
+     * Returns whether all the requests run in a single transaction.
+     */
+    public boolean isEnclosingTransaction() {
+        return this.enclosingTransaction;
+    }
+
+    /**
+     * Returns the requests in the order they were added, numbered from 1.
+     */
+    public List<BatchRequest> getRequests() {
+        return this.requests;
+    }
+
+    /**
+     * Sets whether all the requests run in a single transaction, rolled back
+     * entirely if any of them fails.
+     * @param transaction true to enclose the requests in a transaction
+     * @return a new instance of {@link Builder}
+     */
+    public static Builder enclosingTransaction(final boolean transaction) {
+        return new Builder(transaction);
+    }
+
+}
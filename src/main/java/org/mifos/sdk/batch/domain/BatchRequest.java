@@ -0,0 +1,53 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.batch.domain;
+
+/**
+ * A single request of a {@link Batch}, created by the {@link Batch.Builder}.
+ */
+public final class BatchRequest {
+
+    private Long requestId;
+    private String method;
+    private String relativeUrl;
+    private Object body;
+
+    BatchRequest(final Long id, final String httpMethod, final String url, final Object requestBody) {
+        this.requestId = id;
+        this.method = httpMethod;
+        this.relativeUrl = url;
+        this.body = requestBody;
+    }
+
+    /**
+     * Returns the request ID, unique within its batch.
+     */
+    public Long getRequestId() {
+        return this.requestId;
+    }
+
+    /**
+     * Returns the HTTP method.
+     */
+    public String getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Returns the URL relative to the API endpoint.
+     */
+    public String getRelativeUrl() {
+        return this.relativeUrl;
+    }
+
+    /**
+     * Returns the request body, serialized like the matching single request.
+     */
+    public Object getBody() {
+        return this.body;
+    }
+
+}
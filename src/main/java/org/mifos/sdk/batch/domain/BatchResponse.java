@@ -0,0 +1,78 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.batch.domain;
+
+/**
+ * The result of a single {@link BatchRequest}.
+ */
+public final class BatchResponse {
+
+    private Long requestId;
+    private Integer statusCode;
+    private String body;
+    private Long resourceId;
+    private String errorMessage;
+
+    /**
+     * Constructs a new instance of {@link BatchResponse}.
+     * @param id the ID of the matching {@link BatchRequest}
+     * @param status the HTTP status code of the request
+     * @param responseBody the raw JSON response body
+     * @param resource the ID of the affected resource, if any
+     * @param message the error message if the request failed
+     */
+    public BatchResponse(final Long id, final Integer status, final String responseBody,
+                         final Long resource, final String message) {
+        this.requestId = id;
+        this.statusCode = status;
+        this.body = responseBody;
+        this.resourceId = resource;
+        this.errorMessage = message;
+    }
+
+    /**
+     * Returns the ID of the matching {@link BatchRequest}.
+     */
+    public Long getRequestId() {
+        return this.requestId;
+    }
+
+    /**
+     * Returns the HTTP status code of the request.
+     */
+    public Integer getStatusCode() {
+        return this.statusCode;
+    }
+
+    /**
+     * Returns the raw JSON response body.
+     */
+    public String getBody() {
+        return this.body;
+    }
+
+    /**
+     * Returns the ID of the created or changed resource, null if none.
+     */
+    public Long getResourceId() {
+        return this.resourceId;
+    }
+
+    /**
+     * Returns the error message of a failed request, null if it succeeded.
+     */
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+
+    /**
+     * Returns whether the request succeeded.
+     */
+    public boolean isSuccessful() {
+        return this.statusCode != null && this.statusCode >= 200 && this.statusCode < 300;
+    }
+
+}
@@ -0,0 +1,98 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.batch.internal;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.batch.BatchService;
+import org.mifos.sdk.batch.domain.Batch;
+import org.mifos.sdk.batch.domain.BatchResponse;
+import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.internal.ServerResponseUtil;
+import retrofit.RestAdapter;
+import retrofit.RetrofitError;
+
+import java.util.List;
+
+/**
+ * Implements {@link BatchService} and the inner lying methods
+ * for communication with the Batch API.
+ */
+public class RestBatchService implements BatchService {
+
+    private final MifosXProperties connectionProperties;
+    private final RestAdapter restAdapter;
+    private final String authenticationKey;
+    private volatile RetrofitBatchService retrofitService;
+
+    /**
+     * Constructs a new instance of {@link RestBatchService} with the
+     * provided properties, adapter and authKey.
+     * @param properties the {@link MifosXProperties} with the API URL endpoint
+     * @param adapter the rest adapter used for creating Retrofit services
+     * @param authKey the authentication key obtain by calling {@link org.mifos.sdk.MifosXClient#login()}
+     */
+    public RestBatchService(final MifosXProperties properties,
+                            final RestAdapter adapter,
+                            final String authKey) {
+        super();
+
+        Preconditions.checkNotNull(properties);
+        Preconditions.checkNotNull(adapter);
+        Preconditions.checkNotNull(authKey);
+
+        this.connectionProperties = properties;
+        this.authenticationKey = "Basic " + authKey;
+        this.restAdapter = adapter;
+    }
+
+    /**
+     * Sends all the requests of a batch in one round trip.
+     * @param batch the {@link Batch} to send
+     * @return a {@link BatchResponse} for every request that was run
+     * @throws MifosXConnectException
+     * @throws MifosXResourceException
+     */
+    public List<BatchResponse> executeBatch(final Batch batch) throws MifosXConnectException,
+        MifosXResourceException {
+        Preconditions.checkNotNull(batch);
+        final RetrofitBatchService batchService = this.retrofitService();
+        List<BatchResponse> responses = null;
+        try {
+            responses = batchService.executeBatch(this.authenticationKey, this.connectionProperties.getTenant(),
+                batch.isEnclosingTransaction(), batch.getRequests());
+        } catch (RetrofitError error) {
+            if (error.getKind() == RetrofitError.Kind.NETWORK) {
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
+            } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
+                error.getResponse().getStatus() == 401) {
+                throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
+            } else if (error.getResponse().getStatus() == 403) {
+                final String message = ServerResponseUtil.parseResponse(error.getResponse());
+                throw new MifosXResourceException(message);
+            } else {
+                throw new MifosXConnectException(ErrorCode.UNKNOWN);
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Returns the {@link RetrofitBatchService} proxy, creating it on first use. The proxy
+     * holds no per-call state, so it is shared by all the calls made through this service.
+     */
+    private RetrofitBatchService retrofitService() {
+        RetrofitBatchService service = this.retrofitService;
+        if (service == null) {
+            service = this.restAdapter.create(RetrofitBatchService.class);
+            this.retrofitService = service;
+        }
+        return service;
+    }
+
+}
@@ -0,0 +1,189 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.breaker;
+
+/**
+ * Circuit breaker of one endpoint. While closed, it records the outcome of the last
+ * calls and opens once too many of them failed or were slow. While open, every call
+ * fails immediately; after the open duration it turns half-open and lets a few probe
+ * calls through, which either close it again or open it for another period.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * Enum to hold the states of a circuit breaker.
+     */
+    public enum State {
+
+        /** Calls go through and their outcomes are recorded. */
+        CLOSED,
+
+        /** Calls fail immediately. */
+        OPEN,
+
+        /** A limited number of probe calls go through. */
+        HALF_OPEN
+
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String endpoint;
+    private final CircuitBreakers settings;
+    private final byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesLeft;
+
+    CircuitBreaker(final String endpoint, final CircuitBreakers settings) {
+        this.endpoint = endpoint;
+        this.settings = settings;
+        this.outcomes = new byte[settings.getWindow()];
+    }
+
+    /**
+     * Returns the endpoint guarded by this circuit breaker.
+     */
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Returns the current {@link State}.
+     */
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * Returns the percentage of failed calls among the recorded ones.
+     */
+    public synchronized int getFailureRate() {
+        return this.recorded == 0 ? 0 : this.failures * 100 / this.recorded;
+    }
+
+    /**
+     * Returns the percentage of slow calls among the recorded ones.
+     */
+    public synchronized int getSlowCallRate() {
+        return this.recorded == 0 ? 0 : this.slowCalls * 100 / this.recorded;
+    }
+
+    /**
+     * Asks for a call to go through, turning an open circuit half-open once the
+     * open duration has passed.
+     * @return true if the call may be sent, false if it must fail immediately
+     */
+    public boolean tryAcquire() {
+        final boolean permitted;
+        final boolean probing;
+        synchronized (this) {
+            probing = this.state == State.OPEN
+                && System.nanoTime() - this.openedAt >= this.settings.getOpenDurationNanos();
+            if (probing) {
+                this.state = State.HALF_OPEN;
+                this.probesLeft = this.settings.getHalfOpenCalls();
+                reset();
+            }
+
+            if (this.state == State.CLOSED) {
+                permitted = true;
+            } else if (this.state == State.HALF_OPEN && this.probesLeft > 0) {
+                this.probesLeft--;
+                permitted = true;
+            } else {
+                permitted = false;
+            }
+        }
+        if (probing) {
+            this.settings.fireStateChange(this, State.OPEN, State.HALF_OPEN);
+        }
+        return permitted;
+    }
+
+    /**
+     * Gives back the permit of a call let through by {@link #tryAcquire()} but
+     * never sent, without recording any outcome.
+     */
+    public synchronized void release() {
+        if (this.state == State.HALF_OPEN) {
+            this.probesLeft++;
+        }
+    }
+
+    /**
+     * Records the outcome of a call let through by {@link #tryAcquire()}.
+     * @param durationNanos the duration of the call
+     * @param failed true if the call failed
+     */
+    public void onResult(final long durationNanos, final boolean failed) {
+        final State from;
+        final State to;
+        synchronized (this) {
+            from = this.state;
+            if (from == State.OPEN) {
+                // a call sent before the circuit opened
+                return;
+            }
+            record(failed, durationNanos > this.settings.getSlowCallDurationNanos());
+
+            if (from == State.HALF_OPEN) {
+                if (this.recorded < Math.min(this.settings.getHalfOpenCalls(), this.outcomes.length)) {
+                    return;
+                }
+                to = exceedsThresholds() ? State.OPEN : State.CLOSED;
+            } else if (this.recorded >= this.settings.getMinimumCalls() && exceedsThresholds()) {
+                to = State.OPEN;
+            } else {
+                return;
+            }
+
+            this.state = to;
+            this.openedAt = System.nanoTime();
+            reset();
+        }
+        this.settings.fireStateChange(this, from, to);
+    }
+
+    private void record(final boolean failed, final boolean slow) {
+        if (this.recorded == this.outcomes.length) {
+            final byte evicted = this.outcomes[this.next];
+            this.failures -= evicted & FAILED;
+            this.slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            this.recorded++;
+        }
+
+        final byte outcome = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        this.outcomes[this.next] = outcome;
+        this.next = (this.next + 1) % this.outcomes.length;
+        this.failures += outcome & FAILED;
+        this.slowCalls += (outcome & SLOW) >> 1;
+    }
+
+    private boolean exceedsThresholds() {
+        return this.failures * 100 >= this.settings.getFailureRateThreshold() * this.recorded
+            || this.slowCalls * 100 >= this.settings.getSlowCallRateThreshold() * this.recorded;
+    }
+
+    private void reset() {
+        this.next = 0;
+        this.recorded = 0;
+        this.failures = 0;
+        this.slowCalls = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker [endpoint=" + this.endpoint + ", state=" + getState() + "]";
+    }
+
+}
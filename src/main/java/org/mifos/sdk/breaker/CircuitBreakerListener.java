@@ -0,0 +1,22 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.breaker;
+
+/**
+ * Receives the state transitions of the circuit breakers. It is called on the
+ * thread completing the call that caused the transition and should return quickly.
+ */
+public interface CircuitBreakerListener {
+
+    /**
+     * Called once a circuit breaker has changed state.
+     * @param breaker the {@link CircuitBreaker} of the endpoint
+     * @param from the previous state
+     * @param to the new state
+     */
+    void onStateChange(CircuitBreaker breaker, CircuitBreaker.State from, CircuitBreaker.State to);
+
+}
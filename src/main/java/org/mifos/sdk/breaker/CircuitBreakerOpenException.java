@@ -0,0 +1,24 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.breaker;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request to an endpoint whose circuit breaker is open.
+ * The services report it as {@link org.mifos.sdk.internal.ErrorCode#CIRCUIT_OPEN}.
+ */
+public class CircuitBreakerOpenException extends IOException {
+
+    /**
+     * Constructs a new {@link CircuitBreakerOpenException}.
+     * @param endpoint the endpoint whose circuit breaker is open
+     */
+    public CircuitBreakerOpenException(final String endpoint) {
+        super("Circuit breaker open for " + endpoint);
+    }
+
+}
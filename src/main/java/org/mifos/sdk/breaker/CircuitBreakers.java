@@ -0,0 +1,254 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.breaker;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds one {@link CircuitBreaker} per endpoint, all configured alike. Set in the
+ * properties, they are shared by every client created with them, so that calls to
+ * an endpoint of a degraded server fail immediately instead of waiting for the
+ * timeouts, while the other endpoints keep working.
+ */
+public final class CircuitBreakers {
+
+    /** Default number of last calls the rates are computed over. */
+    public static final int DEFAULT_WINDOW = 20;
+    /** Default number of calls recorded before the rates are considered. */
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+    /** Default percentage of failed calls opening the circuit. */
+    public static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    /** Default percentage of slow calls opening the circuit. */
+    public static final int DEFAULT_SLOW_CALL_RATE_THRESHOLD = 50;
+    /** Default duration above which a call is slow, 10 seconds. */
+    public static final long DEFAULT_SLOW_CALL_DURATION_MILLIS = 10 * 1000L;
+    /** Default time an open circuit fails calls before probing, 30 seconds. */
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 30 * 1000L;
+    /** Default number of probe calls let through by a half-open circuit. */
+    public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    /**
+     * Utility class to ease the process of building a
+     * new instance of {@link CircuitBreakers}
+     */
+    public static class Builder {
+
+        private final int window;
+        private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+        private int failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        private int slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+        private long slowCallDurationMillis = DEFAULT_SLOW_CALL_DURATION_MILLIS;
+        private long openDurationMillis = DEFAULT_OPEN_DURATION_MILLIS;
+        private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+        private final List<CircuitBreakerListener> listeners = new ArrayList<>();
+
+        private Builder(final int window) {
+            this.window = window;
+        }
+
+        /**
+         * Sets the number of calls recorded before the rates can open the circuit.
+         * @param calls the minimum number of calls, at most the window
+         * @return instance of the current {@link Builder}
+         */
+        public Builder minimumCalls(final int calls) {
+            Preconditions.checkArgument(calls > 0 && calls <= this.window,
+                "Minimum calls must be positive and at most the window!");
+            this.minimumCalls = calls;
+            return this;
+        }
+
+        /**
+         * Sets the percentage of failed calls opening the circuit. A call fails when
+         * the server cannot be reached or answers with a 5xx status.
+         * @param percent the failure rate threshold, from 1 to 100
+         * @return instance of the current {@link Builder}
+         */
+        public Builder failureRateThreshold(final int percent) {
+            Preconditions.checkArgument(percent > 0 && percent <= 100, "Threshold must be in [1, 100]!");
+            this.failureRateThreshold = percent;
+            return this;
+        }
+
+        /**
+         * Sets the percentage of slow calls opening the circuit.
+         * @param percent the slow call rate threshold, from 1 to 100
+         * @return instance of the current {@link Builder}
+         */
+        public Builder slowCallRateThreshold(final int percent) {
+            Preconditions.checkArgument(percent > 0 && percent <= 100, "Threshold must be in [1, 100]!");
+            this.slowCallRateThreshold = percent;
+            return this;
+        }
+
+        /**
+         * Sets the duration above which a call is slow.
+         * @param duration the slow call duration
+         * @param unit the unit of the duration
+         * @return instance of the current {@link Builder}
+         */
+        public Builder slowCallDuration(final long duration, final TimeUnit unit) {
+            Preconditions.checkNotNull(unit);
+            Preconditions.checkArgument(duration > 0, "Slow call duration must be positive!");
+            this.slowCallDurationMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Sets how long an open circuit fails every call before letting probes through.
+         * @param duration the open duration
+         * @param unit the unit of the duration
+         * @return instance of the current {@link Builder}
+         */
+        public Builder openDuration(final long duration, final TimeUnit unit) {
+            Preconditions.checkNotNull(unit);
+            Preconditions.checkArgument(duration >= 0, "Open duration cannot be negative!");
+            this.openDurationMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Sets the number of probe calls let through by a half-open circuit; the circuit
+         * closes if their rates are below the thresholds and opens again otherwise.
+         * @param calls the number of probe calls
+         * @return instance of the current {@link Builder}
+         */
+        public Builder halfOpenCalls(final int calls) {
+            Preconditions.checkArgument(calls > 0, "Half-open calls must be positive!");
+            this.halfOpenCalls = calls;
+            return this;
+        }
+
+        /**
+         * Adds a listener receiving the state transitions of every circuit breaker.
+         * @param listener the {@link CircuitBreakerListener}
+         * @return instance of the current {@link Builder}
+         */
+        public Builder listener(final CircuitBreakerListener listener) {
+            Preconditions.checkNotNull(listener);
+            this.listeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Constructs a new CircuitBreakers instance
+         * with the provided properties.
+         * @return a new instance of {@link CircuitBreakers}
+         */
+        public CircuitBreakers build() {
+            return new CircuitBreakers(this);
+        }
+
+    }
+
+    private final int window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallDurationNanos;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final List<CircuitBreakerListener> listeners;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private CircuitBreakers(final Builder builder) {
+        this.window = builder.window;
+        this.minimumCalls = Math.min(builder.minimumCalls, builder.window);
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDurationNanos = TimeUnit.MILLISECONDS.toNanos(builder.slowCallDurationMillis);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(builder.openDurationMillis);
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.listeners = ImmutableList.copyOf(builder.listeners);
+    }
+
+    /**
+     * Returns the circuit breaker of an endpoint, creating it on first use.
+     * @param endpoint the endpoint, for instance "GET /clients/{id}/images"
+     * @return the {@link CircuitBreaker} of the endpoint
+     */
+    public CircuitBreaker forEndpoint(final String endpoint) {
+        Preconditions.checkNotNull(endpoint);
+
+        CircuitBreaker breaker = this.breakers.get(endpoint);
+        if (breaker == null) {
+            final CircuitBreaker created = new CircuitBreaker(endpoint, this);
+            breaker = this.breakers.putIfAbsent(endpoint, created);
+            if (breaker == null) {
+                breaker = created;
+            }
+        }
+        return breaker;
+    }
+
+    /**
+     * Returns the circuit breakers of all the endpoints called so far.
+     */
+    public Collection<CircuitBreaker> getCircuitBreakers() {
+        return ImmutableList.copyOf(this.breakers.values());
+    }
+
+    int getWindow() {
+        return this.window;
+    }
+
+    int getMinimumCalls() {
+        return this.minimumCalls;
+    }
+
+    int getFailureRateThreshold() {
+        return this.failureRateThreshold;
+    }
+
+    int getSlowCallRateThreshold() {
+        return this.slowCallRateThreshold;
+    }
+
+    long getSlowCallDurationNanos() {
+        return this.slowCallDurationNanos;
+    }
+
+    long getOpenDurationNanos() {
+        return this.openDurationNanos;
+    }
+
+    int getHalfOpenCalls() {
+        return this.halfOpenCalls;
+    }
+
+    void fireStateChange(final CircuitBreaker breaker, final CircuitBreaker.State from,
+                         final CircuitBreaker.State to) {
+        for (final CircuitBreakerListener listener : this.listeners) {
+            try {
+                listener.onStateChange(breaker, from, to);
+            } catch (RuntimeException e) {
+                // a failing listener must not fail the call
+            }
+        }
+    }
+
+    /**
+     * Sets the number of last calls per endpoint the failure and slow call rates
+     * are computed over, {@link #DEFAULT_WINDOW} unless the endpoints are called
+     * very often or very rarely.
+     * @return a new {@link Builder} instance
+     * @param calls the size of the window
+     */
+    public static Builder window(final int calls) {
+        Preconditions.checkArgument(calls > 0, "Window must be positive!");
+
+        return new Builder(calls);
+    }
+
+}
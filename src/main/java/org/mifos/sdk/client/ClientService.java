@@ -5,11 +5,13 @@
  */
 package org.mifos.sdk.client;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.mifos.sdk.MifosXConnectException;
 import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.ScanOptions;
 import org.mifos.sdk.client.domain.Client;
 import org.mifos.sdk.client.domain.ClientIdentifier;
 import org.mifos.sdk.client.domain.ClientImage;
@@ -38,6 +40,16 @@ public interface ClientService {
      */
     PageableClients fetchClients(final Map<String, Object> queryMap) throws MifosXConnectException;
 
+    /**
+     * Iterates lazily over all the clients matching the filters, fetching them page by page
+     * and prefetching the following pages in the background, up to the configured concurrency
+     * in parallel once the total is known. Iterating throws an {@link IllegalStateException}
+     * caused by the {@link MifosXConnectException} if a page cannot be fetched.
+     * @param options the {@link ScanOptions} with the page size and filters
+     * @return an {@link Iterator} over the {@link Client}s
+     */
+    Iterator<Client> scanClients(final ScanOptions options);
+
     /**
      * Retrieves one particular client.
      * @param clientId the client ID
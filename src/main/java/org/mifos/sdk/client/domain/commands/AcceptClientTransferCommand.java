@@ -21,6 +21,7 @@ public final class AcceptClientTransferCommand {
         private Long destinationGroupId;
         private Long staffId;
         private String note;
+        private String idempotencyKey;
 
         private Builder(final Long id) {
             this.destinationGroupId = id;
@@ -51,12 +52,29 @@ public final class AcceptClientTransferCommand {
             return this;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new AcceptClientTransfer instance with the provided parameter.
          * @return a new instance of {@link AcceptClientTransferCommand}
          */
         public AcceptClientTransferCommand build() {
-            return new AcceptClientTransferCommand(this.destinationGroupId, this.staffId, this.note);
+            final AcceptClientTransferCommand command = new AcceptClientTransferCommand(this.destinationGroupId,
+                    this.staffId, this.note);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
@@ -64,6 +82,7 @@ public final class AcceptClientTransferCommand {
     private Long destinationGroupId;
     private Long staffId;
     private String note;
+    private transient String idempotencyKey;
 
     private AcceptClientTransferCommand(final Long destinationGroupId,
                                         final Long staffId,
@@ -94,6 +113,13 @@ public final class AcceptClientTransferCommand {
         return this.note;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the destination group ID.
      * @param id the destination group ID
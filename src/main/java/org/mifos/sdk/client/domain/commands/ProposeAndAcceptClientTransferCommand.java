@@ -22,6 +22,7 @@ public final class ProposeAndAcceptClientTransferCommand {
         private Long destinationGroupId;
         private Long staffId;
         private String note;
+        private String idempotencyKey;
 
         private Builder(final Long id) {
             this.destinationOfficeId = id;
@@ -64,13 +65,29 @@ public final class ProposeAndAcceptClientTransferCommand {
             return this;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new ProposeAndAcceptClientTransfer instance with the provided parameter.
          * @return a new instance of {@link ProposeAndAcceptClientTransferCommand}
          */
         public ProposeAndAcceptClientTransferCommand build() {
-            return new ProposeAndAcceptClientTransferCommand(this.destinationOfficeId,
-                    this.destinationGroupId, this.staffId, this.note);
+            final ProposeAndAcceptClientTransferCommand command = new ProposeAndAcceptClientTransferCommand(
+                    this.destinationOfficeId, this.destinationGroupId, this.staffId, this.note);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
@@ -79,6 +96,7 @@ public final class ProposeAndAcceptClientTransferCommand {
     private Long destinationGroupId;
     private Long staffId;
     private String note;
+    private transient String idempotencyKey;
 
     private ProposeAndAcceptClientTransferCommand(final Long destinationOfficeId,
                                                   final Long destinationGroupId,
@@ -118,6 +136,13 @@ public final class ProposeAndAcceptClientTransferCommand {
         return this.note;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the destination office ID.
      * @param id the destination office ID
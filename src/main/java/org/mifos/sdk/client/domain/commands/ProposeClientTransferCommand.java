@@ -20,6 +20,7 @@ public final class ProposeClientTransferCommand {
 
         private Long destinationOfficeId;
         private String note;
+        private String idempotencyKey;
 
         private Builder(final Long id) {
             this.destinationOfficeId = id;
@@ -38,18 +39,36 @@ public final class ProposeClientTransferCommand {
             return this;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new ProposeClientTransfer instance with the provided parameter.
          * @return a new instance of {@link ProposeClientTransferCommand}
          */
         public ProposeClientTransferCommand build() {
-            return new ProposeClientTransferCommand(this.destinationOfficeId, this.note);
+            final ProposeClientTransferCommand command = new ProposeClientTransferCommand(this.destinationOfficeId,
+                    this.note);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
 
     private Long destinationOfficeId;
     private String note;
+    private transient String idempotencyKey;
 
     private ProposeClientTransferCommand(final Long id,
                                          final String description) {
@@ -71,6 +90,13 @@ public final class ProposeClientTransferCommand {
         return this.note;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the destination office ID.
      * @param id the destination office ID
@@ -19,22 +19,40 @@ public final class UpdateSavingsAccountCommand {
     public static class Builder {
 
         private Long savingsAccountId;
+        private String idempotencyKey;
 
         private Builder(final Long id) {
             this.savingsAccountId = id;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new UpdateSavingsAccount instance with the provided parameter.
          * @return a new instance of {@link UpdateSavingsAccountCommand}
          */
         public UpdateSavingsAccountCommand build() {
-            return new UpdateSavingsAccountCommand(this.savingsAccountId);
+            final UpdateSavingsAccountCommand command = new UpdateSavingsAccountCommand(this.savingsAccountId);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
 
     private Long savingsAccountId;
+    private transient String idempotencyKey;
 
     private UpdateSavingsAccountCommand(final Long id) {
         this.savingsAccountId = id;
@@ -47,6 +65,13 @@ public final class UpdateSavingsAccountCommand {
         return this.savingsAccountId;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the savings account ID of the client.
      * @param id the savings account ID
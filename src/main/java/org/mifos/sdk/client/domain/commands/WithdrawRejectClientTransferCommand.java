@@ -19,22 +19,40 @@ public final class WithdrawRejectClientTransferCommand {
     public static class Builder {
 
         private String note;
+        private String idempotencyKey;
 
         private Builder(final String description) {
             this.note = description;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new WithdrawRejectClientTransfer instance with the provided parameter.
          * @return a new instance of {@link WithdrawRejectClientTransferCommand}
          */
         public WithdrawRejectClientTransferCommand build() {
-            return new WithdrawRejectClientTransferCommand(this.note);
+            final WithdrawRejectClientTransferCommand command = new WithdrawRejectClientTransferCommand(this.note);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
 
     private String note;
+    private transient String idempotencyKey;
 
     private WithdrawRejectClientTransferCommand(final String description) {
         this.note = description;
@@ -47,6 +65,13 @@ public final class WithdrawRejectClientTransferCommand {
         return this.note;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the note with the reason, cannot be null or empty.
      * @param description the note with the reason
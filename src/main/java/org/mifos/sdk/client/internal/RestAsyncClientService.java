@@ -0,0 +1,302 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.client.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.mifos.sdk.client.AsyncClientService;
+import org.mifos.sdk.client.ClientService;
+import org.mifos.sdk.client.domain.Client;
+import org.mifos.sdk.client.domain.ClientIdentifier;
+import org.mifos.sdk.client.domain.ClientImage;
+import org.mifos.sdk.client.domain.PageableClients;
+import org.mifos.sdk.client.domain.commands.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Implements {@link AsyncClientService} by running the calls of a blocking
+ * {@link ClientService} on an executor.
+ */
+public class RestAsyncClientService implements AsyncClientService {
+
+    private final ClientService delegate;
+    private final ListeningExecutorService executor;
+
+    /**
+     * Constructs a new instance of {@link RestAsyncClientService} with the
+     * provided service and executor.
+     * @param service the blocking {@link ClientService} executing the calls
+     * @param executor the executor running the calls
+     */
+    public RestAsyncClientService(final ClientService service,
+                                  final ListeningExecutorService executor) {
+        Preconditions.checkNotNull(service);
+        Preconditions.checkNotNull(executor);
+        this.delegate = service;
+        this.executor = executor;
+    }
+
+    @Override
+    public ListenableFuture<Client> createClient(final Client client) {
+        return this.executor.submit(new Callable<Client>() {
+            @Override
+            public Client call() throws Exception {
+                return delegate.createClient(client);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<PageableClients> fetchClients(final Map<String, Object> queryMap) {
+        return this.executor.submit(new Callable<PageableClients>() {
+            @Override
+            public PageableClients call() throws Exception {
+                return delegate.fetchClients(queryMap);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Client> findClient(final Long clientId) {
+        return this.executor.submit(new Callable<Client>() {
+            @Override
+            public Client call() throws Exception {
+                return delegate.findClient(clientId);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> updateClient(final Long clientId, final Client client) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.updateClient(clientId, client);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteClient(final Long clientId) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.deleteClient(clientId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> activateClient(final Long clientId, final ActivateClientCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.activateClient(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> closeClient(final Long clientId, final CloseClientCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.closeClient(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> assignStaff(final Long clientId, final AssignUnassignStaffCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.assignStaff(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> unassignStaff(final Long clientId, final AssignUnassignStaffCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.unassignStaff(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> updateSavingsAccount(final Long clientId, final UpdateSavingsAccountCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.updateSavingsAccount(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> proposeTransfer(final Long clientId, final ProposeClientTransferCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.proposeTransfer(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> withdrawTransfer(final Long clientId, final WithdrawRejectClientTransferCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.withdrawTransfer(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> rejectTransfer(final Long clientId, final WithdrawRejectClientTransferCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.rejectTransfer(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> acceptTransfer(final Long clientId, final AcceptClientTransferCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.acceptTransfer(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> proposeAndAcceptTransfer(final Long clientId, final ProposeAndAcceptClientTransferCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.proposeAndAcceptTransfer(clientId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<ClientIdentifier> createIdentifier(final Long clientId, final ClientIdentifier identifier) {
+        return this.executor.submit(new Callable<ClientIdentifier>() {
+            @Override
+            public ClientIdentifier call() throws Exception {
+                return delegate.createIdentifier(clientId, identifier);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<List<ClientIdentifier>> fetchIdentifiers(final Long clientId) {
+        return this.executor.submit(new Callable<List<ClientIdentifier>>() {
+            @Override
+            public List<ClientIdentifier> call() throws Exception {
+                return delegate.fetchIdentifiers(clientId);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<ClientIdentifier> findIdentifier(final Long clientId, final Long identifierId) {
+        return this.executor.submit(new Callable<ClientIdentifier>() {
+            @Override
+            public ClientIdentifier call() throws Exception {
+                return delegate.findIdentifier(clientId, identifierId);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> updateIdentifier(final Long clientId, final Long identifierId, final ClientIdentifier identifier) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.updateIdentifier(clientId, identifierId, identifier);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteIdentifier(final Long clientId, final Long identifierId) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.deleteIdentifier(clientId, identifierId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<ClientImage> uploadImage(final Long clientId, final ClientImage clientImage) {
+        return this.executor.submit(new Callable<ClientImage>() {
+            @Override
+            public ClientImage call() throws Exception {
+                return delegate.uploadImage(clientId, clientImage);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<ClientImage> findImage(final Long clientId, final Long maxWidth, final Long maxHeight) {
+        return this.executor.submit(new Callable<ClientImage>() {
+            @Override
+            public ClientImage call() throws Exception {
+                return delegate.findImage(clientId, maxWidth, maxHeight);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> updateImage(final Long clientId, final ClientImage clientImage) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.updateImage(clientId, clientImage);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteImage(final Long clientId) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.deleteImage(clientId);
+                return null;
+            }
+        });
+    }
+
+}
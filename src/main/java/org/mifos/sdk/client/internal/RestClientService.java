@@ -6,12 +6,16 @@
 package org.mifos.sdk.client.internal;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableMap;
-import com.squareup.okhttp.OkHttpClient;
+import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.commons.codec.binary.Base64;
 import org.mifos.sdk.MifosXConnectException;
 import org.mifos.sdk.MifosXProperties;
 import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.ScanOptions;
 import org.mifos.sdk.client.ClientService;
 import org.mifos.sdk.client.domain.Client;
 import org.mifos.sdk.client.domain.ClientIdentifier;
@@ -19,14 +23,12 @@ import org.mifos.sdk.client.domain.ClientImage;
 import org.mifos.sdk.client.domain.PageableClients;
 import org.mifos.sdk.client.domain.commands.*;
 import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.internal.PageIterator;
 import org.mifos.sdk.internal.ServerResponseUtil;
 import retrofit.RestAdapter;
 import retrofit.RetrofitError;
-import retrofit.client.OkClient;
-import retrofit.converter.ConversionException;
-import retrofit.converter.Converter;
+import retrofit.client.Response;
 import retrofit.mime.TypedInput;
-import retrofit.mime.TypedOutput;
 import retrofit.mime.TypedString;
 
 import javax.imageio.ImageIO;
@@ -34,10 +36,10 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.InputStreamReader;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 
 /**
  * Implements {@link ClientService} and the inner lying methods
@@ -48,10 +50,12 @@ public class RestClientService implements ClientService {
     private final MifosXProperties connectionProperties;
     private final RestAdapter restAdapter;
     private final String authenticationKey;
+    private final ListeningExecutorService executor;
+    private volatile RetrofitClientService retrofitService;
 
     /**
      * Constructs a new instance of {@link RestClientService} with the
-     * provided properties, adapter and authKey.
+     * provided properties, adapter and authKey. Scans fetch their pages on the calling thread.
      * @param properties the {@link MifosXProperties} with the API URL endpoint
      * @param adapter the rest adapter used for creating Retrofit services
      * @param authKey the authentication key obtain by calling {@link org.mifos.sdk.MifosXClient#login()}
@@ -59,15 +63,32 @@ public class RestClientService implements ClientService {
     public RestClientService(final MifosXProperties properties,
                              final RestAdapter adapter,
                              final String authKey) {
+        this(properties, adapter, authKey, MoreExecutors.sameThreadExecutor());
+    }
+
+    /**
+     * Constructs a new instance of {@link RestClientService} with the
+     * provided properties, adapter, authKey and executor.
+     * @param properties the {@link MifosXProperties} with the API URL endpoint
+     * @param adapter the rest adapter used for creating Retrofit services
+     * @param authKey the authentication key obtain by calling {@link org.mifos.sdk.MifosXClient#login()}
+     * @param executor the executor prefetching the pages of scans
+     */
+    public RestClientService(final MifosXProperties properties,
+                             final RestAdapter adapter,
+                             final String authKey,
+                             final ListeningExecutorService executor) {
         super();
 
         Preconditions.checkNotNull(properties);
         Preconditions.checkNotNull(adapter);
         Preconditions.checkNotNull(authKey);
+        Preconditions.checkNotNull(executor);
 
         this.connectionProperties = properties;
         this.authenticationKey = "Basic " + authKey;
         this.restAdapter = adapter;
+        this.executor = executor;
     }
 
     /**
@@ -79,14 +100,14 @@ public class RestClientService implements ClientService {
      */
     public Client createClient(Client client) throws MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(client);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         Client responseClient = null;
         try {
             responseClient = clientService.createClient(this.authenticationKey,
                     this.connectionProperties.getTenant(), client);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -107,14 +128,14 @@ public class RestClientService implements ClientService {
      * @throws MifosXConnectException
      */
     public PageableClients fetchClients(Map<String, Object> queryMap) throws MifosXConnectException {
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         PageableClients clients = null;
         try {
             clients = clientService.fetchClients(this.authenticationKey,
                     this.connectionProperties.getTenant(), queryMap);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -125,6 +146,23 @@ public class RestClientService implements ClientService {
         return clients;
     }
 
+    /**
+     * Iterates lazily over all the clients matching the filters, fetching them page by page.
+     * @param options the {@link ScanOptions} with the page size and filters
+     * @return an {@link Iterator} over the {@link Client}s
+     */
+    public Iterator<Client> scanClients(final ScanOptions options) {
+        Preconditions.checkNotNull(options);
+        return new PageIterator<>(new PageIterator.PageFetcher<Client>() {
+            @Override
+            public PageIterator.Page<Client> fetch(final long offset, final int limit) throws MifosXConnectException {
+                final Map<String, Object> queryMap = PageIterator.pageQuery(options.getFilters(), offset, limit);
+                final PageableClients page = fetchClients(queryMap);
+                return new PageIterator.Page<>(page.getClients(), page.getTotalFilteredRecords());
+            }
+        }, this.executor, options);
+    }
+
     /**
      * Retrieves one particular staff.
      * @param clientId the client ID
@@ -134,14 +172,14 @@ public class RestClientService implements ClientService {
      */
     public Client findClient(Long clientId) throws MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         Client responseClient = null;
         try {
             responseClient = clientService.findClient(this.authenticationKey,
                     this.connectionProperties.getTenant(), clientId);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -168,13 +206,13 @@ public class RestClientService implements ClientService {
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(client);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.updateClient(this.authenticationKey, this.connectionProperties.getTenant(),
                     clientId, client);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -197,13 +235,13 @@ public class RestClientService implements ClientService {
      */
     public void deleteClient(Long clientId) throws MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.deleteClient(this.authenticationKey, this.connectionProperties.getTenant(),
                     clientId);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -229,13 +267,13 @@ public class RestClientService implements ClientService {
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "activate", command);
+                    clientId, "activate", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -261,13 +299,13 @@ public class RestClientService implements ClientService {
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "close", command);
+                    clientId, "close", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -293,13 +331,13 @@ public class RestClientService implements ClientService {
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "assignStaff", command);
+                    clientId, "assignStaff", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -325,13 +363,13 @@ public class RestClientService implements ClientService {
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "unassignStaff", command);
+                    clientId, "unassignStaff", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -357,13 +395,13 @@ public class RestClientService implements ClientService {
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "updateSavingsAccount", command);
+                    clientId, "updateSavingsAccount", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -389,13 +427,13 @@ public class RestClientService implements ClientService {
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "proposeTransfer", command);
+                    clientId, "proposeTransfer", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -421,13 +459,13 @@ public class RestClientService implements ClientService {
             MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "withdrawTransfer", command);
+                    clientId, "withdrawTransfer", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -453,13 +491,13 @@ public class RestClientService implements ClientService {
             MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "rejectTransfer", command);
+                    clientId, "rejectTransfer", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -485,13 +523,13 @@ public class RestClientService implements ClientService {
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "acceptTransfer", command);
+                    clientId, "acceptTransfer", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -517,13 +555,13 @@ public class RestClientService implements ClientService {
             MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(command);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.executeCommand(this.authenticationKey, this.connectionProperties.getTenant(),
-                    clientId, "proposeAndAcceptTransfer", command);
+                    clientId, "proposeAndAcceptTransfer", command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -550,14 +588,14 @@ public class RestClientService implements ClientService {
             MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(identifier);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         ClientIdentifier responseIdentifier = null;
         try {
             responseIdentifier = clientService.createIdentifier(this.authenticationKey,
                     this.connectionProperties.getTenant(), clientId, identifier);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -583,14 +621,14 @@ public class RestClientService implements ClientService {
     public List<ClientIdentifier> fetchIdentifiers(Long clientId) throws MifosXConnectException,
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         List<ClientIdentifier> identifiers = null;
         try {
             identifiers = clientService.fetchIdentifiers(this.authenticationKey,
                     this.connectionProperties.getTenant(), clientId);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -615,14 +653,14 @@ public class RestClientService implements ClientService {
             MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(identifierId);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         ClientIdentifier responseIdentifier = null;
         try {
             responseIdentifier = clientService.findIdentifier(this.authenticationKey,
                     this.connectionProperties.getTenant(), clientId, identifierId);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -651,13 +689,13 @@ public class RestClientService implements ClientService {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(identifierId);
         Preconditions.checkNotNull(identifier);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.updateIdentifier(this.authenticationKey, this.connectionProperties.getTenant(),
                     clientId, identifierId, identifier);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -683,13 +721,13 @@ public class RestClientService implements ClientService {
             MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(identifierId);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.deleteIdentifier(this.authenticationKey, this.connectionProperties.getTenant(),
                 clientId, identifierId);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -716,7 +754,7 @@ public class RestClientService implements ClientService {
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(clientImage);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         ClientImage responseClientImage = null;
         try {
             final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -734,7 +772,7 @@ public class RestClientService implements ClientService {
                 this.connectionProperties.getTenant(), clientId, new TypedString(base64Data));
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -762,27 +800,11 @@ public class RestClientService implements ClientService {
     public ClientImage findImage(Long clientId, Long maxWidth, Long maxHeight) throws
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
-        final RestAdapter adapter = new RestAdapter.Builder()
-            .setClient(new OkClient(new OkHttpClient()))
-            .setEndpoint(this.connectionProperties.getUrl())
-            .setConverter(new Converter() {
-                @Override
-                public Object fromBody(TypedInput body, Type type) throws ConversionException {
-                    try {
-                        Scanner s = new Scanner(body.in()).useDelimiter("\\A");
-                        return s.hasNext() ? s.next() : "";
-                    } catch (IOException e) {}
-                    return null;
-                }
-                @Override
-                public TypedOutput toBody(Object object) { return null; }
-            })
-            .build();
-        final RetrofitClientService clientService = adapter.create(RetrofitClientService.class);
         ClientImage clientImage = null;
         try {
-            final String responseString = clientService.findImage(this.authenticationKey,
+            final Response response = this.retrofitService().findImage(this.authenticationKey,
                 this.connectionProperties.getTenant(), clientId, maxWidth, maxHeight);
+            final String responseString = readBody(response);
             final byte[] responseBinaryData = Base64.decodeBase64(responseString.split(",")[1]);
             try {
                 final ByteArrayInputStream inputStream = new ByteArrayInputStream(responseBinaryData);
@@ -801,7 +823,7 @@ public class RestClientService implements ClientService {
             }
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -828,7 +850,7 @@ public class RestClientService implements ClientService {
         MifosXResourceException {
         Preconditions.checkNotNull(clientId);
         Preconditions.checkNotNull(clientImage);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             String base64Data = null;
@@ -845,7 +867,7 @@ public class RestClientService implements ClientService {
                 this.connectionProperties.getTenant(), clientId, new TypedString(base64Data));
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -868,13 +890,13 @@ public class RestClientService implements ClientService {
      */
     public void deleteImage(Long clientId) throws MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(clientId);
-        final RetrofitClientService clientService = this.restAdapter.create(RetrofitClientService.class);
+        final RetrofitClientService clientService = this.retrofitService();
         try {
             clientService.deleteImage(this.authenticationKey, this.connectionProperties.getTenant(),
                 clientId);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -889,4 +911,33 @@ public class RestClientService implements ClientService {
         }
     }
 
+    /**
+     * Reads the whole body of a response as a string, empty if there is no body.
+     * @param response the server {@link Response}
+     */
+    private static String readBody(final Response response) {
+        final TypedInput body = response.getBody();
+        if (body == null) {
+            return "";
+        }
+        try {
+            return CharStreams.toString(new InputStreamReader(body.in(), Charsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@link RetrofitClientService} proxy, creating it on first use. The proxy
+     * holds no per-call state, so it is shared by all the calls made through this service.
+     */
+    private RetrofitClientService retrofitService() {
+        RetrofitClientService service = this.retrofitService;
+        if (service == null) {
+            service = this.restAdapter.create(RetrofitClientService.class);
+            this.retrofitService = service;
+        }
+        return service;
+    }
+
 }
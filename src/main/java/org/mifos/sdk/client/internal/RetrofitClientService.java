@@ -12,7 +12,6 @@ import org.mifos.sdk.client.domain.PageableClients;
 import org.mifos.sdk.internal.RestConstants;
 import retrofit.client.Response;
 import retrofit.http.*;
-import retrofit.mime.TypedFile;
 import retrofit.mime.TypedString;
 
 import java.util.List;
@@ -97,6 +96,7 @@ public interface RetrofitClientService {
      * @param clientId the client ID
      * @param command the command which is to be executed
      * @param commandBody the command request body with all its parameters
+     * @param idempotencyKey the idempotency key of the command, null if it must not be retried
      * @return the server {@link retrofit.client.Response}
      */
     @POST("/clients/{clientId}")
@@ -104,7 +104,8 @@ public interface RetrofitClientService {
                                    @Header(RestConstants.HEADER_TENANTID) String tenantId,
                                    @Path("clientId") Long clientId,
                                    @Query(RestConstants.QUERY_COMMAND) String command,
-                                   @Body Object commandBody);
+                                   @Body Object commandBody,
+                                   @Header(RestConstants.HEADER_IDEMPOTENCY_KEY) String idempotencyKey);
 
     /**
      * Creates a new identifier.
@@ -204,10 +205,10 @@ public interface RetrofitClientService {
      * @param clientId the client ID
      * @param maxWidth Optional: the maximum width of the image
      * @param maxHeight Optional: the maximum height of the image
-     * @return a {@link TypedFile} of the client image if found, null otherwise
+     * @return the server {@link retrofit.client.Response} with the Base64 Data URI of the image
      */
     @GET("/clients/{clientId}/images")
-    public String findImage(@Header(RestConstants.HEADER_AUTHORIZATION) String authenticationKey,
+    public Response findImage(@Header(RestConstants.HEADER_AUTHORIZATION) String authenticationKey,
                             @Header(RestConstants.HEADER_TENANTID) String tenantId,
                             @Path("clientId") Long clientId,
                             @Query("maxWidth") Long maxWidth,
@@ -0,0 +1,178 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.group;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.mifos.sdk.group.domain.CollectionSheet;
+import org.mifos.sdk.group.domain.Group;
+import org.mifos.sdk.group.domain.GroupAccountsSummary;
+import org.mifos.sdk.group.domain.PageableGroups;
+import org.mifos.sdk.group.domain.commands.ActivateGroupCommand;
+import org.mifos.sdk.group.domain.commands.AssignUnassignStaffCommand;
+import org.mifos.sdk.group.domain.commands.AssignUpdateRoleCommand;
+import org.mifos.sdk.group.domain.commands.AssociateDisassociateClientsCommand;
+import org.mifos.sdk.group.domain.commands.CloseGroupCommand;
+import org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand;
+import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
+import org.mifos.sdk.group.domain.commands.TransferClientsCommand;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link GroupService} to communicate with the Groups API.
+ * Every call returns immediately with a {@link ListenableFuture}; a failed call
+ * completes the future with the same {@link org.mifos.sdk.MifosXConnectException}
+ * or {@link org.mifos.sdk.MifosXResourceException} the blocking method would throw,
+ * as the cause of the {@link java.util.concurrent.ExecutionException}.
+ */
+public interface AsyncGroupService {
+
+    /**
+     * Creates a new group.
+     * @param group the {@link Group} to create
+     * @return a {@link ListenableFuture} completing with a {@link Group} with the response parameters
+     */
+    ListenableFuture<Group> createGroup(final Group group);
+
+    /**
+     * Retrieves all available groups.
+     * @param queryMap a {@link Map} with all the query parameters
+     * @return a {@link ListenableFuture} completing with a {@link PageableGroups} with the list of {@link
+     *         Group}s
+     */
+    ListenableFuture<PageableGroups> fetchGroups(final Map<String, Object> queryMap);
+
+    /**
+     * Retrieves oe particular group.
+     * @param groupId the group ID
+     * @param queryMap a {@link Map} with all the query parameters
+     * @return a {@link ListenableFuture} completing with the {@link Group} with all the details of the
+     *         searched group
+     */
+    ListenableFuture<Group> findGroup(final Long groupId, final Map<String, Object> queryMap);
+
+    /**
+     * Retrieves the accounts summary of a group.
+     * @param groupId the group ID
+     * @param fields a {@link List} of fields to include in the response
+     * @return a {@link ListenableFuture} completing with the {@link Group} with its accounts summary
+     */
+    ListenableFuture<GroupAccountsSummary> findGroupsAccountsSummary(final Long groupId, final List<String> fields);
+
+    /**
+     * Updates a particular group.
+     * @param groupId the group ID
+     * @param group the {@link Group} object with all the changes to be made
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> updateGroup(final Long groupId, final Group group);
+
+    /**
+     * Deletes a particular group.
+     * @param groupId the group ID
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> deleteGroup(final Long groupId);
+
+    /**
+     * Activates a pending group or results in an error if the group is already activated.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.ActivateGroupCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> activateGroup(final Long groupId, final ActivateGroupCommand command);
+
+    /**
+     * Associates clients with a group.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.AssociateDisassociateClientsCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> associateClients(final Long groupId, final AssociateDisassociateClientsCommand command);
+
+    /**
+     * Disassociates clients from a group.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.AssociateDisassociateClientsCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> disassociateClients(final Long groupId, final AssociateDisassociateClientsCommand command);
+
+    /**
+     * Transfers clients from a group to another.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.TransferClientsCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> transferClients(final Long groupId, final TransferClientsCommand command);
+
+    /**
+     * Generates the collection sheet for the group.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand}
+     * @return a {@link ListenableFuture} completing with the {@link CollectionSheet}
+     */
+    ListenableFuture<CollectionSheet> generateCollectionSheet(final Long groupId, final GenerateCollectionSheetCommand command);
+
+    /**
+     * Saves the collection sheet of a group.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> saveCollectionSheet(final Long groupId, final SaveCollectionSheetCommand command);
+
+    /**
+     * Un-assigns staff from a group.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.AssignUnassignStaffCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> unassignStaff(final Long groupId, final AssignUnassignStaffCommand command);
+
+    /**
+     * Assigns staff to a group.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.AssignUnassignStaffCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> assignStaff(final Long groupId, final AssignUnassignStaffCommand command);
+
+    /**
+     * Closes a group.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.CloseGroupCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> closeGroup(final Long groupId, final CloseGroupCommand command);
+
+    /**
+     * Assigns a role to a group.
+     * @param groupId the group ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.AssignUpdateRoleCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> assignRole(final Long groupId, final AssignUpdateRoleCommand command);
+
+    /**
+     * Un-assigns a role from a group.
+     * @param groupId the group ID
+     * @param roleId the role ID
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> unassignRole(final Long groupId, final Long roleId);
+
+    /**
+     * Updates an existing role of a group.
+     * @param groupId the group ID
+     * @param roleId the role ID
+     * @param command the {@link org.mifos.sdk.group.domain.commands.AssignUpdateRoleCommand}
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> updateRole(final Long groupId, final Long roleId, final AssignUpdateRoleCommand command);
+
+}
@@ -7,6 +7,8 @@ package org.mifos.sdk.group;
 
 import org.mifos.sdk.MifosXConnectException;
 import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.ScanOptions;
+import org.mifos.sdk.group.domain.CollectionSheet;
 import org.mifos.sdk.group.domain.Group;
 import org.mifos.sdk.group.domain.GroupAccountsSummary;
 import org.mifos.sdk.group.domain.PageableGroups;
@@ -19,6 +21,7 @@ import org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand;
 import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
 import org.mifos.sdk.group.domain.commands.TransferClientsCommand;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -44,6 +47,16 @@ public interface GroupService {
      */
     PageableGroups fetchGroups(final Map<String, Object> queryMap) throws MifosXConnectException;
 
+    /**
+     * Iterates lazily over all the groups matching the filters, fetching them page by page
+     * and prefetching the following pages in the background, up to the configured concurrency
+     * in parallel once the total is known. Iterating throws an {@link IllegalStateException}
+     * caused by the {@link MifosXConnectException} if a page cannot be fetched.
+     * @param options the {@link ScanOptions} with the page size and filters
+     * @return an {@link Iterator} over the {@link Group}s
+     */
+    Iterator<Group> scanGroups(final ScanOptions options);
+
     /**
      * Retrieves oe particular group.
      * @param groupId the group ID
@@ -128,10 +141,12 @@ public interface GroupService {
      * Generates the collection sheet for the group.
      * @param groupId the group ID
      * @param command the {@link org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand}
+     * @return the {@link CollectionSheet} with the dues of the members, ready to be passed to
+     *         {@link org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand.Builder#collectionSheet(CollectionSheet)}
      * @throws MifosXConnectException
      * @throws MifosXResourceException
      */
-    void generateCollectionSheet(final Long groupId, final GenerateCollectionSheetCommand command) throws
+    CollectionSheet generateCollectionSheet(final Long groupId, final GenerateCollectionSheetCommand command) throws
         MifosXConnectException, MifosXResourceException;
 
     /**
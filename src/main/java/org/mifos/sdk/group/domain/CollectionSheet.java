@@ -0,0 +1,349 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.group.domain;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Holds the collection sheet generated for a meeting: the members of the
+ * group with the loans and savings due from them. Can be passed to
+ * {@link org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand.Builder#collectionSheet(CollectionSheet)}
+ * to save the meeting.
+ */
+public final class CollectionSheet {
+
+    private Date dueDate;
+    private List<Member> members;
+
+    /**
+     * Returns the due date of the meeting.
+     */
+    public Date getDueDate() {
+        return this.dueDate;
+    }
+
+    /**
+     * Sets the due date of the meeting.
+     * @param dueDate the due date
+     */
+    public void setDueDate(final Date dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    /**
+     * Returns the members of the group, across all the groups of the sheet.
+     */
+    public List<Member> getMembers() {
+        return this.members;
+    }
+
+    /**
+     * Sets the members of the group.
+     * @param members the members
+     */
+    public void setMembers(final List<Member> members) {
+        this.members = members;
+    }
+
+    /**
+     * Holds a client of the collection sheet and its dues.
+     */
+    public static final class Member {
+
+        private Long clientId;
+        private String clientName;
+        private Long groupId;
+        private Long attendanceType;
+        private List<LoanDue> loans;
+        private List<SavingsDue> savings;
+
+        /**
+         * Returns the client ID.
+         */
+        public Long getClientId() {
+            return this.clientId;
+        }
+
+        /**
+         * Sets the client ID.
+         * @param clientId the client ID
+         */
+        public void setClientId(final Long clientId) {
+            this.clientId = clientId;
+        }
+
+        /**
+         * Returns the client name.
+         */
+        public String getClientName() {
+            return this.clientName;
+        }
+
+        /**
+         * Sets the client name.
+         * @param clientName the client name
+         */
+        public void setClientName(final String clientName) {
+            this.clientName = clientName;
+        }
+
+        /**
+         * Returns the ID of the group the client belongs to.
+         */
+        public Long getGroupId() {
+            return this.groupId;
+        }
+
+        /**
+         * Sets the ID of the group the client belongs to.
+         * @param groupId the group ID
+         */
+        public void setGroupId(final Long groupId) {
+            this.groupId = groupId;
+        }
+
+        /**
+         * Returns the attendance type already recorded, null if there is none.
+         */
+        public Long getAttendanceType() {
+            return this.attendanceType;
+        }
+
+        /**
+         * Sets the attendance type.
+         * @param attendanceType the attendance type
+         */
+        public void setAttendanceType(final Long attendanceType) {
+            this.attendanceType = attendanceType;
+        }
+
+        /**
+         * Returns the loans of the client.
+         */
+        public List<LoanDue> getLoans() {
+            return this.loans;
+        }
+
+        /**
+         * Sets the loans of the client.
+         * @param loans the loans
+         */
+        public void setLoans(final List<LoanDue> loans) {
+            this.loans = loans;
+        }
+
+        /**
+         * Returns the savings accounts of the client.
+         */
+        public List<SavingsDue> getSavings() {
+            return this.savings;
+        }
+
+        /**
+         * Sets the savings accounts of the client.
+         * @param savings the savings accounts
+         */
+        public void setSavings(final List<SavingsDue> savings) {
+            this.savings = savings;
+        }
+
+    }
+
+    /**
+     * Holds a loan of the collection sheet with its amounts due.
+     */
+    public static final class LoanDue {
+
+        private Long loanId;
+        private String accountNo;
+        private Long productId;
+        private String productName;
+        private BigDecimal disbursementAmount;
+        private BigDecimal totalDue;
+
+        /**
+         * Returns the loan ID.
+         */
+        public Long getLoanId() {
+            return this.loanId;
+        }
+
+        /**
+         * Sets the loan ID.
+         * @param loanId the loan ID
+         */
+        public void setLoanId(final Long loanId) {
+            this.loanId = loanId;
+        }
+
+        /**
+         * Returns the account number.
+         */
+        public String getAccountNo() {
+            return this.accountNo;
+        }
+
+        /**
+         * Sets the account number.
+         * @param accountNo the account number
+         */
+        public void setAccountNo(final String accountNo) {
+            this.accountNo = accountNo;
+        }
+
+        /**
+         * Returns the loan product ID.
+         */
+        public Long getProductId() {
+            return this.productId;
+        }
+
+        /**
+         * Sets the loan product ID.
+         * @param productId the product ID
+         */
+        public void setProductId(final Long productId) {
+            this.productId = productId;
+        }
+
+        /**
+         * Returns the short name of the loan product.
+         */
+        public String getProductName() {
+            return this.productName;
+        }
+
+        /**
+         * Sets the short name of the loan product.
+         * @param productName the product name
+         */
+        public void setProductName(final String productName) {
+            this.productName = productName;
+        }
+
+        /**
+         * Returns the amount to disburse at the meeting.
+         */
+        public BigDecimal getDisbursementAmount() {
+            return this.disbursementAmount;
+        }
+
+        /**
+         * Sets the amount to disburse at the meeting.
+         * @param disbursementAmount the amount
+         */
+        public void setDisbursementAmount(final BigDecimal disbursementAmount) {
+            this.disbursementAmount = disbursementAmount;
+        }
+
+        /**
+         * Returns the total amount due at the meeting.
+         */
+        public BigDecimal getTotalDue() {
+            return this.totalDue;
+        }
+
+        /**
+         * Sets the total amount due at the meeting.
+         * @param totalDue the amount
+         */
+        public void setTotalDue(final BigDecimal totalDue) {
+            this.totalDue = totalDue;
+        }
+
+    }
+
+    /**
+     * Holds a savings account of the collection sheet with its amount due.
+     */
+    public static final class SavingsDue {
+
+        private Long savingsId;
+        private String accountNo;
+        private Long productId;
+        private String productName;
+        private BigDecimal dueAmount;
+
+        /**
+         * Returns the savings account ID.
+         */
+        public Long getSavingsId() {
+            return this.savingsId;
+        }
+
+        /**
+         * Sets the savings account ID.
+         * @param savingsId the savings account ID
+         */
+        public void setSavingsId(final Long savingsId) {
+            this.savingsId = savingsId;
+        }
+
+        /**
+         * Returns the account number.
+         */
+        public String getAccountNo() {
+            return this.accountNo;
+        }
+
+        /**
+         * Sets the account number.
+         * @param accountNo the account number
+         */
+        public void setAccountNo(final String accountNo) {
+            this.accountNo = accountNo;
+        }
+
+        /**
+         * Returns the savings product ID.
+         */
+        public Long getProductId() {
+            return this.productId;
+        }
+
+        /**
+         * Sets the savings product ID.
+         * @param productId the product ID
+         */
+        public void setProductId(final Long productId) {
+            this.productId = productId;
+        }
+
+        /**
+         * Returns the name of the savings product.
+         */
+        public String getProductName() {
+            return this.productName;
+        }
+
+        /**
+         * Sets the name of the savings product.
+         * @param productName the product name
+         */
+        public void setProductName(final String productName) {
+            this.productName = productName;
+        }
+
+        /**
+         * Returns the amount due at the meeting.
+         */
+        public BigDecimal getDueAmount() {
+            return this.dueAmount;
+        }
+
+        /**
+         * Sets the amount due at the meeting.
+         * @param dueAmount the amount
+         */
+        public void setDueAmount(final BigDecimal dueAmount) {
+            this.dueAmount = dueAmount;
+        }
+
+    }
+
+}
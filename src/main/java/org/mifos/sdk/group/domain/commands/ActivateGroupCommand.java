@@ -23,6 +23,7 @@ public final class ActivateGroupCommand {
         private String locale;
         private String dateFormat;
         private Date activationDate;
+        private String idempotencyKey;
 
         private Builder(final String lang) {
             this.locale = lang;
@@ -53,12 +54,29 @@ public final class ActivateGroupCommand {
             return this;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new ActivateClient instance with the provided parameter.
          * @return a new instance of {@link ActivateGroupCommand}
          */
         public ActivateGroupCommand build() {
-            return new ActivateGroupCommand(this.locale, this.dateFormat, this.activationDate);
+            final ActivateGroupCommand command = new ActivateGroupCommand(this.locale, this.dateFormat,
+                this.activationDate);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
@@ -66,6 +84,7 @@ public final class ActivateGroupCommand {
     private String locale;
     private String dateFormat;
     private Date activationDate;
+    private transient String idempotencyKey;
 
     private ActivateGroupCommand(final String lang,
                                  final String format,
@@ -96,6 +115,13 @@ public final class ActivateGroupCommand {
         return this.activationDate;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the locale.
      * @param lang the locale
@@ -20,6 +20,7 @@ public final class AssignUnassignStaffCommand {
 
         private Long staffId;
         private boolean inheritStaffForClientAccounts;
+        private String idempotencyKey;
 
         private Builder(final Long id) {
             this.staffId = id;
@@ -36,18 +37,36 @@ public final class AssignUnassignStaffCommand {
             return this;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new AssignUnassignStaffCommand instance with the provided parameter.
          * @return a new instance of {@link AssignUnassignStaffCommand}
          */
         public AssignUnassignStaffCommand build() {
-            return new AssignUnassignStaffCommand(this.staffId, this.inheritStaffForClientAccounts);
+            final AssignUnassignStaffCommand command = new AssignUnassignStaffCommand(this.staffId,
+                this.inheritStaffForClientAccounts);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
 
     private Long staffId;
     private boolean inheritStaffForClientAccounts;
+    private transient String idempotencyKey;
 
     private AssignUnassignStaffCommand(final Long id,
                                        final boolean inheritStaffForClientAccounts) {
@@ -69,6 +88,13 @@ public final class AssignUnassignStaffCommand {
         return this.inheritStaffForClientAccounts;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the staff ID.
      * @param id the staff ID
@@ -20,6 +20,7 @@ public final class AssignUpdateRoleCommand {
 
         private Long clientId;
         private Long role;
+        private String idempotencyKey;
 
         private Builder(final Long role) {
             this.role = role;
@@ -37,18 +38,35 @@ public final class AssignUpdateRoleCommand {
             return this;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new AssignUpdateRoleCommand instance with the provided parameters.
          * @return a new instance of {@link AssignUpdateRoleCommand}
          */
         public AssignUpdateRoleCommand build() {
-            return new AssignUpdateRoleCommand(this.role, this.clientId);
+            final AssignUpdateRoleCommand command = new AssignUpdateRoleCommand(this.role, this.clientId);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
 
     private Long clientId;
     private Long role;
+    private transient String idempotencyKey;
 
     private AssignUpdateRoleCommand(final Long role,
                                     final Long clientId) {
@@ -70,6 +88,13 @@ public final class AssignUpdateRoleCommand {
         return this.role;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the role.
      * @param role the role
@@ -21,22 +21,40 @@ public final class AssociateDisassociateClientsCommand {
     public static class Builder {
 
         final List<Long> clientMembers;
+        private String idempotencyKey;
 
         private Builder(final List<Long> members) {
             this.clientMembers = members;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new AssociateDisassociateClientsCommand instance with the provided parameters.
          * @return a new instance of {@link AssociateDisassociateClientsCommand}
          */
         public AssociateDisassociateClientsCommand build() {
-            return new AssociateDisassociateClientsCommand(this.clientMembers);
+            final AssociateDisassociateClientsCommand command = new AssociateDisassociateClientsCommand(this.clientMembers);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
 
     private List<Long> clientMembers;
+    private transient String idempotencyKey;
 
     private AssociateDisassociateClientsCommand(final List<Long> members) {
         this.clientMembers = members;
@@ -49,6 +67,13 @@ public final class AssociateDisassociateClientsCommand {
         return this.clientMembers;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the list of client members.
      * @param members the client members
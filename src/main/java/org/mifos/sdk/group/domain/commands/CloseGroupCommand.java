@@ -24,6 +24,7 @@ public final class CloseGroupCommand {
         private String dateFormat;
         private Date closureDate;
         private String closureReasonId;
+        private String idempotencyKey;
 
         private Builder(final String lang) {
             this.locale = lang;
@@ -67,13 +68,29 @@ public final class CloseGroupCommand {
             return this;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new CloseClient instance with the provided parameter.
          * @return a new instance of {@link CloseGroupCommand}
          */
         public CloseGroupCommand build() {
-            return new CloseGroupCommand(this.locale, this.dateFormat,
+            final CloseGroupCommand command = new CloseGroupCommand(this.locale, this.dateFormat,
                 this.closureDate, this.closureReasonId);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
@@ -82,6 +99,7 @@ public final class CloseGroupCommand {
     private String dateFormat;
     private Date closureDate;
     private String closureReasonId;
+    private transient String idempotencyKey;
 
     private CloseGroupCommand(final String lang,
                                final String format,
@@ -121,6 +139,13 @@ public final class CloseGroupCommand {
         return this.closureReasonId;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the locale.
      * @param lang the locale
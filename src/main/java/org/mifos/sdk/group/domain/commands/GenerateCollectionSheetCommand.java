@@ -24,6 +24,7 @@ public final class GenerateCollectionSheetCommand {
         private String locale;
         private Long calendarId;
         private Date transactionDate;
+        private String idempotencyKey;
 
         private Builder(final String locale) {
             this.locale = locale;
@@ -66,6 +67,20 @@ public final class GenerateCollectionSheetCommand {
             return this;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new GenerateCollectionSheetCommand instance with the provided parameters.
          * @return a new instance of {@link GenerateCollectionSheetCommand}
@@ -75,8 +90,10 @@ public final class GenerateCollectionSheetCommand {
             Preconditions.checkNotNull(this.calendarId);
             Preconditions.checkNotNull(this.transactionDate);
 
-            return new GenerateCollectionSheetCommand(this.locale, this.dateFormat,
-                this.calendarId, this.transactionDate);
+            final GenerateCollectionSheetCommand command = new GenerateCollectionSheetCommand(this.locale,
+                this.dateFormat, this.calendarId, this.transactionDate);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
@@ -85,6 +102,7 @@ public final class GenerateCollectionSheetCommand {
     private String locale;
     private Long calendarId;
     private Date transactionDate;
+    private transient String idempotencyKey;
 
     private GenerateCollectionSheetCommand(final String locale,
                                            final String dateFormat,
@@ -124,6 +142,13 @@ public final class GenerateCollectionSheetCommand {
         return this.transactionDate;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the locale.
      * @param locale the locale
@@ -6,8 +6,10 @@
 package org.mifos.sdk.group.domain.commands;
 
 import com.google.common.base.Preconditions;
+import org.mifos.sdk.group.domain.CollectionSheet;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -16,6 +18,11 @@ import java.util.List;
  */
 public final class SaveCollectionSheetCommand {
 
+    /**
+     * The attendance type of a client present at the meeting.
+     */
+    public static final Long ATTENDANCE_PRESENT = 1L;
+
     /**
      * Utility class to ease the process of building a
      * new instance of {@link SaveCollectionSheetCommand}
@@ -30,6 +37,8 @@ public final class SaveCollectionSheetCommand {
         private List<ClientAttendance> clientsAttendance;
         private List<BulkRepaymentTransaction> bulkRepaymentTransactions;
         private List<BulkDisbursementTransaction> bulkDisbursementTransactions;
+        private CollectionSheet collectionSheet;
+        private String idempotencyKey;
 
         private Builder(final Long calendarId) {
             this.calendarId = calendarId;
@@ -121,20 +130,64 @@ public final class SaveCollectionSheetCommand {
             return this;
         }
 
+        /**
+         * Fills the command from a generated collection sheet. The dates default to the
+         * due date of the sheet, every member is marked with the attendance already
+         * recorded or as present, every loan with an amount due is repaid in full and
+         * every loan with an amount to disburse is disbursed. Lists and dates set
+         * explicitly on the builder take precedence over the sheet.
+         * @param sheet the {@link CollectionSheet} returned by
+         *              {@link org.mifos.sdk.group.GroupService#generateCollectionSheet}
+         * @return the current instance of {@link Builder}
+         */
+        public Builder collectionSheet(final CollectionSheet sheet) {
+            Preconditions.checkNotNull(sheet);
+            this.collectionSheet = sheet;
+
+            return this;
+        }
+
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new SaveCollectionSheetCommand instance with the provided parameters.
          * @return a new instance of {@link SaveCollectionSheetCommand}
          */
         public SaveCollectionSheetCommand build() {
+            if (this.collectionSheet != null && this.transactionDate == null) {
+                this.transactionDate = this.collectionSheet.getDueDate();
+            }
+            if (this.collectionSheet != null && this.actualDisbursementDate == null) {
+                this.actualDisbursementDate = this.collectionSheet.getDueDate();
+            }
+
             Preconditions.checkNotNull(this.calendarId);
             Preconditions.checkNotNull(this.transactionDate);
             Preconditions.checkNotNull(this.actualDisbursementDate);
             Preconditions.checkNotNull(this.locale);
             Preconditions.checkNotNull(this.dateFormat);
 
-            return new SaveCollectionSheetCommand(this.calendarId, this.transactionDate,
-                this.actualDisbursementDate, this.locale, this.dateFormat, this.clientsAttendance,
-                this.bulkRepaymentTransactions, this.bulkDisbursementTransactions);
+            final SaveCollectionSheetCommand command = new SaveCollectionSheetCommand(this.calendarId,
+                this.transactionDate, this.actualDisbursementDate, this.locale, this.dateFormat,
+                this.clientsAttendance, this.bulkRepaymentTransactions, this.bulkDisbursementTransactions);
+            if (this.collectionSheet != null) {
+                command.fill(this.collectionSheet);
+            }
+            command.idempotencyKey = this.idempotencyKey;
+
+            return command;
         }
 
     }
@@ -147,6 +200,7 @@ public final class SaveCollectionSheetCommand {
     private List<ClientAttendance> clientsAttendance;
     private List<BulkRepaymentTransaction> bulkRepaymentTransactions;
     private List<BulkDisbursementTransaction> bulkDisbursementTransactions;
+    private transient String idempotencyKey;
 
     private SaveCollectionSheetCommand(final Long calendarId,
                                        final Date transactionDate,
@@ -166,6 +220,58 @@ public final class SaveCollectionSheetCommand {
         this.bulkDisbursementTransactions = bulkDisbursementTransactions;
     }
 
+    /**
+     * Fills the lists not set on the builder from the collection sheet.
+     * @param sheet the {@link CollectionSheet}
+     */
+    private void fill(final CollectionSheet sheet) {
+        final List<CollectionSheet.Member> members = sheet.getMembers() != null ? sheet.getMembers()
+            : new ArrayList<CollectionSheet.Member>();
+        final boolean attendance = this.clientsAttendance == null;
+        final boolean repayments = this.bulkRepaymentTransactions == null;
+        final boolean disbursements = this.bulkDisbursementTransactions == null;
+        if (attendance) {
+            this.clientsAttendance = new ArrayList<>(members.size());
+        }
+        if (repayments) {
+            this.bulkRepaymentTransactions = new ArrayList<>();
+        }
+        if (disbursements) {
+            this.bulkDisbursementTransactions = new ArrayList<>();
+        }
+
+        for (final CollectionSheet.Member member : members) {
+            if (attendance) {
+                final ClientAttendance clientAttendance = new ClientAttendance();
+                clientAttendance.setClientId(member.getClientId());
+                clientAttendance.setAttendanceType(member.getAttendanceType() == null
+                    || member.getAttendanceType() == 0 ? ATTENDANCE_PRESENT : member.getAttendanceType());
+                this.clientsAttendance.add(clientAttendance);
+            }
+            if (member.getLoans() == null) {
+                continue;
+            }
+            for (final CollectionSheet.LoanDue loan : member.getLoans()) {
+                if (repayments && isPositive(loan.getTotalDue())) {
+                    final BulkRepaymentTransaction repayment = new BulkRepaymentTransaction();
+                    repayment.setLoanId(loan.getLoanId());
+                    repayment.setTransactionAmount(loan.getTotalDue());
+                    this.bulkRepaymentTransactions.add(repayment);
+                }
+                if (disbursements && isPositive(loan.getDisbursementAmount())) {
+                    final BulkDisbursementTransaction disbursement = new BulkDisbursementTransaction();
+                    disbursement.setLoanId(loan.getLoanId());
+                    disbursement.setTransactionAmount(loan.getDisbursementAmount());
+                    this.bulkDisbursementTransactions.add(disbursement);
+                }
+            }
+        }
+    }
+
+    private static boolean isPositive(final BigDecimal amount) {
+        return amount != null && amount.signum() > 0;
+    }
+
     /**
      * Returns the calendar ID.
      */
@@ -222,6 +328,13 @@ public final class SaveCollectionSheetCommand {
         return this.bulkDisbursementTransactions;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the calendar ID.
      * @param id the calendar ID
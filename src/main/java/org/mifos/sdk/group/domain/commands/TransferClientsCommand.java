@@ -24,6 +24,7 @@ public final class TransferClientsCommand {
         private List<Long> clients;
         private boolean inheritDestinationGroupLoanOfficer;
         private boolean transferActiveLoans;
+        private String idempotencyKey;
 
         private Builder(final Long destinationGroupId) {
             this.destinationGroupId = destinationGroupId;
@@ -66,6 +67,20 @@ public final class TransferClientsCommand {
             return this;
         }
 
+        /**
+         * Sets the idempotency key sent with the command, so that the server applies it
+         * only once and the client may send it again after a dropped connection.
+         * @param key a key unique to this command, for instance a random UUID
+         * @return the current instance of {@link Builder}
+         */
+        public Builder idempotencyKey(final String key) {
+            Preconditions.checkNotNull(key);
+            Preconditions.checkArgument(!key.isEmpty());
+
+            this.idempotencyKey = key;
+            return this;
+        }
+
         /**
          * Constructs a new TransferClientsCommand instance with the provided parameters.
          * @return a new instance of {@link TransferClientsCommand}
@@ -74,8 +89,10 @@ public final class TransferClientsCommand {
             Preconditions.checkNotNull(this.clients);
             Preconditions.checkArgument(!this.clients.isEmpty());
 
-            return new TransferClientsCommand(this.destinationGroupId, this.clients,
-                this.inheritDestinationGroupLoanOfficer, this.transferActiveLoans);
+            final TransferClientsCommand command = new TransferClientsCommand(this.destinationGroupId,
+                this.clients, this.inheritDestinationGroupLoanOfficer, this.transferActiveLoans);
+            command.idempotencyKey = this.idempotencyKey;
+            return command;
         }
 
     }
@@ -84,6 +101,7 @@ public final class TransferClientsCommand {
     private List<Long> clients;
     private boolean inheritDestinationGroupLoanOfficer;
     private boolean transferActiveLoans;
+    private transient String idempotencyKey;
 
     private TransferClientsCommand(final Long destinationGroupId,
                                    final List<Long> clients,
@@ -123,6 +141,13 @@ public final class TransferClientsCommand {
         return this.transferActiveLoans;
     }
 
+    /**
+     * Returns the idempotency key, null if the command must not be retried.
+     */
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     /**
      * Sets the destination group ID.
      * @param id the group ID
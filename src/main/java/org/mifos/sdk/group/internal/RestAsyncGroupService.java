@@ -0,0 +1,246 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.group.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.mifos.sdk.group.AsyncGroupService;
+import org.mifos.sdk.group.GroupService;
+import org.mifos.sdk.group.domain.CollectionSheet;
+import org.mifos.sdk.group.domain.Group;
+import org.mifos.sdk.group.domain.GroupAccountsSummary;
+import org.mifos.sdk.group.domain.PageableGroups;
+import org.mifos.sdk.group.domain.commands.ActivateGroupCommand;
+import org.mifos.sdk.group.domain.commands.AssignUnassignStaffCommand;
+import org.mifos.sdk.group.domain.commands.AssignUpdateRoleCommand;
+import org.mifos.sdk.group.domain.commands.AssociateDisassociateClientsCommand;
+import org.mifos.sdk.group.domain.commands.CloseGroupCommand;
+import org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand;
+import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
+import org.mifos.sdk.group.domain.commands.TransferClientsCommand;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Implements {@link AsyncGroupService} by running the calls of a blocking
+ * {@link GroupService} on an executor.
+ */
+public class RestAsyncGroupService implements AsyncGroupService {
+
+    private final GroupService delegate;
+    private final ListeningExecutorService executor;
+
+    /**
+     * Constructs a new instance of {@link RestAsyncGroupService} with the
+     * provided service and executor.
+     * @param service the blocking {@link GroupService} executing the calls
+     * @param executor the executor running the calls
+     */
+    public RestAsyncGroupService(final GroupService service,
+                                 final ListeningExecutorService executor) {
+        Preconditions.checkNotNull(service);
+        Preconditions.checkNotNull(executor);
+        this.delegate = service;
+        this.executor = executor;
+    }
+
+    @Override
+    public ListenableFuture<Group> createGroup(final Group group) {
+        return this.executor.submit(new Callable<Group>() {
+            @Override
+            public Group call() throws Exception {
+                return delegate.createGroup(group);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<PageableGroups> fetchGroups(final Map<String, Object> queryMap) {
+        return this.executor.submit(new Callable<PageableGroups>() {
+            @Override
+            public PageableGroups call() throws Exception {
+                return delegate.fetchGroups(queryMap);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Group> findGroup(final Long groupId, final Map<String, Object> queryMap) {
+        return this.executor.submit(new Callable<Group>() {
+            @Override
+            public Group call() throws Exception {
+                return delegate.findGroup(groupId, queryMap);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<GroupAccountsSummary> findGroupsAccountsSummary(final Long groupId, final List<String> fields) {
+        return this.executor.submit(new Callable<GroupAccountsSummary>() {
+            @Override
+            public GroupAccountsSummary call() throws Exception {
+                return delegate.findGroupsAccountsSummary(groupId, fields);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> updateGroup(final Long groupId, final Group group) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.updateGroup(groupId, group);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteGroup(final Long groupId) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.deleteGroup(groupId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> activateGroup(final Long groupId, final ActivateGroupCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.activateGroup(groupId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> associateClients(final Long groupId, final AssociateDisassociateClientsCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.associateClients(groupId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> disassociateClients(final Long groupId, final AssociateDisassociateClientsCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.disassociateClients(groupId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> transferClients(final Long groupId, final TransferClientsCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.transferClients(groupId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<CollectionSheet> generateCollectionSheet(final Long groupId, final GenerateCollectionSheetCommand command) {
+        return this.executor.submit(new Callable<CollectionSheet>() {
+            @Override
+            public CollectionSheet call() throws Exception {
+                return delegate.generateCollectionSheet(groupId, command);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> saveCollectionSheet(final Long groupId, final SaveCollectionSheetCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.saveCollectionSheet(groupId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> unassignStaff(final Long groupId, final AssignUnassignStaffCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.unassignStaff(groupId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> assignStaff(final Long groupId, final AssignUnassignStaffCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.assignStaff(groupId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> closeGroup(final Long groupId, final CloseGroupCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.closeGroup(groupId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> assignRole(final Long groupId, final AssignUpdateRoleCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.assignRole(groupId, command);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> unassignRole(final Long groupId, final Long roleId) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.unassignRole(groupId, roleId);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> updateRole(final Long groupId, final Long roleId, final AssignUpdateRoleCommand command) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.updateRole(groupId, roleId, command);
+                return null;
+            }
+        });
+    }
+
+}
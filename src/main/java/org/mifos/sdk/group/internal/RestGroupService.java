@@ -6,10 +6,17 @@
 package org.mifos.sdk.group.internal;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.MalformedJsonException;
 import org.mifos.sdk.MifosXConnectException;
 import org.mifos.sdk.MifosXProperties;
 import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.ScanOptions;
 import org.mifos.sdk.group.GroupService;
+import org.mifos.sdk.group.domain.CollectionSheet;
 import org.mifos.sdk.group.domain.Group;
 import org.mifos.sdk.group.domain.GroupAccountsSummary;
 import org.mifos.sdk.group.domain.PageableGroups;
@@ -22,11 +29,22 @@ import org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand;
 import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
 import org.mifos.sdk.group.domain.commands.TransferClientsCommand;
 import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.internal.PageIterator;
 import org.mifos.sdk.internal.ServerResponseUtil;
+import org.mifos.sdk.internal.http.CallMetrics;
+import org.mifos.sdk.internal.serializers.CollectionSheetSerializer;
+import org.mifos.sdk.internal.serializers.RecordedTypeAdapterFactory;
 import retrofit.RestAdapter;
 import retrofit.RetrofitError;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -36,13 +54,18 @@ import java.util.Map;
  */
 public class RestGroupService implements GroupService {
 
+    private static final TypeAdapter<CollectionSheet> COLLECTION_SHEET_ADAPTER =
+        RecordedTypeAdapterFactory.recorded(CollectionSheet.class, new CollectionSheetSerializer());
+
     private final MifosXProperties connectionProperties;
     private final RestAdapter restAdapter;
     private final String authenticationKey;
+    private final ListeningExecutorService executor;
+    private volatile RetrofitGroupService retrofitService;
 
     /**
      * Constructs a new instance of {@link RestGroupService} with the
-     * provided properties, adapter and authKey.
+     * provided properties, adapter and authKey. Scans fetch their pages on the calling thread.
      * @param properties the {@link MifosXProperties} with the API URL endpoint
      * @param adapter the rest adapter used for creating Retrofit services
      * @param authKey the authentication key obtain by calling {@link org.mifos.sdk.MifosXClient#login()}
@@ -50,15 +73,32 @@ public class RestGroupService implements GroupService {
     public RestGroupService(final MifosXProperties properties,
                             final RestAdapter adapter,
                             final String authKey) {
+        this(properties, adapter, authKey, MoreExecutors.sameThreadExecutor());
+    }
+
+    /**
+     * Constructs a new instance of {@link RestGroupService} with the
+     * provided properties, adapter, authKey and executor.
+     * @param properties the {@link MifosXProperties} with the API URL endpoint
+     * @param adapter the rest adapter used for creating Retrofit services
+     * @param authKey the authentication key obtain by calling {@link org.mifos.sdk.MifosXClient#login()}
+     * @param executor the executor prefetching the pages of scans
+     */
+    public RestGroupService(final MifosXProperties properties,
+                            final RestAdapter adapter,
+                            final String authKey,
+                            final ListeningExecutorService executor) {
         super();
 
         Preconditions.checkNotNull(properties);
         Preconditions.checkNotNull(adapter);
         Preconditions.checkNotNull(authKey);
+        Preconditions.checkNotNull(executor);
 
         this.connectionProperties = properties;
         this.authenticationKey = "Basic " + authKey;
         this.restAdapter = adapter;
+        this.executor = executor;
     }
 
     /**
@@ -71,14 +111,14 @@ public class RestGroupService implements GroupService {
     public Group createGroup(final Group group) throws MifosXConnectException,
         MifosXResourceException {
         Preconditions.checkNotNull(group);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         Group responseGroup = null;
         try {
             responseGroup = groupService.createGroup(this.authenticationKey,
                 this.connectionProperties.getTenant(), group);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -100,7 +140,7 @@ public class RestGroupService implements GroupService {
      */
     public PageableGroups fetchGroups(Map<String, Object> queryMap) throws
         MifosXConnectException {
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         PageableGroups groups = null;
         if (queryMap == null) {
             queryMap = new HashMap<String, Object>();
@@ -113,7 +153,7 @@ public class RestGroupService implements GroupService {
                 this.connectionProperties.getTenant(), queryMap);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -124,6 +164,24 @@ public class RestGroupService implements GroupService {
         return groups;
     }
 
+    /**
+     * Iterates lazily over all the groups matching the filters, fetching them page by page.
+     * @param options the {@link ScanOptions} with the page size and filters
+     * @return an {@link Iterator} over the {@link Group}s
+     */
+    public Iterator<Group> scanGroups(final ScanOptions options) {
+        Preconditions.checkNotNull(options);
+        return new PageIterator<>(new PageIterator.PageFetcher<Group>() {
+            @Override
+            public PageIterator.Page<Group> fetch(final long offset, final int limit) throws MifosXConnectException {
+                final Map<String, Object> queryMap = PageIterator.pageQuery(options.getFilters(), offset, limit);
+                queryMap.put("paged", true);
+                final PageableGroups page = fetchGroups(queryMap);
+                return new PageIterator.Page<>(page.getGroups(), page.getTotalFilteredRecords());
+            }
+        }, this.executor, options);
+    }
+
     /**
      * Retrieves oe particular group.
      * @param groupId the group ID
@@ -135,14 +193,14 @@ public class RestGroupService implements GroupService {
     public Group findGroup(final Long groupId, final Map<String, Object> queryMap) throws
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         Group responseGroup = null;
         try {
             responseGroup = groupService.findGroup(this.authenticationKey,
                 this.connectionProperties.getTenant(), groupId, queryMap);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -170,7 +228,7 @@ public class RestGroupService implements GroupService {
                                                           final List<String> fields) throws
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         final String allFields = null;
         if (fields != null) {
             for (int i = 0; i < fields.size(); ++i) {
@@ -186,7 +244,7 @@ public class RestGroupService implements GroupService {
                 this.connectionProperties.getTenant(), groupId, allFields);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -213,13 +271,13 @@ public class RestGroupService implements GroupService {
         MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(group);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.updateGroup(this.authenticationKey, this.connectionProperties.getTenant(),
                 groupId, group);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -243,13 +301,13 @@ public class RestGroupService implements GroupService {
     public void deleteGroup(final Long groupId) throws MifosXConnectException,
         MifosXResourceException {
         Preconditions.checkNotNull(groupId);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.deleteGroup(this.authenticationKey, this.connectionProperties.getTenant(),
                 groupId);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -275,13 +333,13 @@ public class RestGroupService implements GroupService {
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "activate", null, command);
+                .getTenant(), groupId, "activate", null, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -307,13 +365,13 @@ public class RestGroupService implements GroupService {
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "associateClients", null, command);
+                .getTenant(), groupId, "associateClients", null, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -339,13 +397,13 @@ public class RestGroupService implements GroupService {
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "disassociateClients", null, command);
+                .getTenant(), groupId, "disassociateClients", null, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -371,13 +429,13 @@ public class RestGroupService implements GroupService {
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "transferClients", null, command);
+                .getTenant(), groupId, "transferClients", null, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -396,20 +454,26 @@ public class RestGroupService implements GroupService {
      * Generates the collection sheet for the group.
      * @param groupId the group ID
      * @param command the {@link org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand}
+     * @return the {@link CollectionSheet} with the dues of the members
      * @throws MifosXConnectException
      * @throws MifosXResourceException
      */
-    public void generateCollectionSheet(final Long groupId, final GenerateCollectionSheetCommand command) throws
+    public CollectionSheet generateCollectionSheet(final Long groupId, final GenerateCollectionSheetCommand command) throws
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
-            groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "generateCollectionSheet", null, command);
+            final Response response = groupService.generateCollectionSheet(this.authenticationKey,
+                this.connectionProperties.getTenant(), groupId, "generateCollectionSheet", command,
+                command.getIdempotencyKey());
+            if (response == null || response.getBody() == null) {
+                return null;
+            }
+            return readCollectionSheet(response.getBody());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -424,6 +488,32 @@ public class RestGroupService implements GroupService {
         }
     }
 
+    /**
+     * Reads a collection sheet from the response body streamed from the connection,
+     * adding the time spent to the {@link CallMetrics} of the call in progress. A body
+     * which is not a collection sheet, truncated or of another shape, fails as a
+     * conversion error of Retrofit would; only a failed connection is reported as such.
+     * @param body the response body, closed once read
+     * @return the {@link CollectionSheet}
+     * @throws MifosXConnectException if the body cannot be read or is not a collection sheet
+     */
+    private static CollectionSheet readCollectionSheet(final TypedInput body) throws MifosXConnectException {
+        final CallMetrics metrics = CallMetrics.current();
+        final long start = System.nanoTime();
+        try (Reader reader = new InputStreamReader(body.in(), "UTF-8")) {
+            return COLLECTION_SHEET_ADAPTER.fromJson(reader);
+        } catch (MalformedJsonException | EOFException | JsonParseException | IllegalStateException
+            | NumberFormatException e) {
+            throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
+        } catch (IOException e) {
+            throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+        } finally {
+            if (metrics != null) {
+                metrics.addDeserializationNanos(System.nanoTime() - start);
+            }
+        }
+    }
+
     /**
      * Saves the collection sheet of a group.
      * @param groupId the group ID
@@ -435,13 +525,13 @@ public class RestGroupService implements GroupService {
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "saveCollectionSheet", null, command);
+                .getTenant(), groupId, "saveCollectionSheet", null, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -467,13 +557,13 @@ public class RestGroupService implements GroupService {
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "unassignStaff", null, command);
+                .getTenant(), groupId, "unassignStaff", null, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -499,13 +589,13 @@ public class RestGroupService implements GroupService {
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "assignStaff", null, command);
+                .getTenant(), groupId, "assignStaff", null, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -531,13 +621,13 @@ public class RestGroupService implements GroupService {
         MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "close", null, command);
+                .getTenant(), groupId, "close", null, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -563,13 +653,13 @@ public class RestGroupService implements GroupService {
         MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "assignRole", null, command);
+                .getTenant(), groupId, "assignRole", null, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -595,13 +685,13 @@ public class RestGroupService implements GroupService {
         MifosXResourceException {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(roleId);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "unassignRole", roleId, null);
+                .getTenant(), groupId, "unassignRole", roleId, null, null);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -629,13 +719,13 @@ public class RestGroupService implements GroupService {
         Preconditions.checkNotNull(groupId);
         Preconditions.checkNotNull(roleId);
         Preconditions.checkNotNull(command);
-        final RetrofitGroupService groupService = this.restAdapter.create(RetrofitGroupService.class);
+        final RetrofitGroupService groupService = this.retrofitService();
         try {
             groupService.executeCommand(this.authenticationKey, this.connectionProperties
-                .getTenant(), groupId, "updateRole", roleId, command);
+                .getTenant(), groupId, "updateRole", roleId, command, command.getIdempotencyKey());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                 error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -650,4 +740,17 @@ public class RestGroupService implements GroupService {
         }
     }
 
+    /**
+     * Returns the {@link RetrofitGroupService} proxy, creating it on first use. The proxy
+     * holds no per-call state, so it is shared by all the calls made through this service.
+     */
+    private RetrofitGroupService retrofitService() {
+        RetrofitGroupService service = this.retrofitService;
+        if (service == null) {
+            service = this.restAdapter.create(RetrofitGroupService.class);
+            this.retrofitService = service;
+        }
+        return service;
+    }
+
 }
@@ -8,6 +8,7 @@ package org.mifos.sdk.group.internal;
 import org.mifos.sdk.group.domain.Group;
 import org.mifos.sdk.group.domain.GroupAccountsSummary;
 import org.mifos.sdk.group.domain.PageableGroups;
+import org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand;
 import org.mifos.sdk.internal.RestConstants;
 import retrofit.client.Response;
 import retrofit.http.Body;
@@ -19,6 +20,7 @@ import retrofit.http.PUT;
 import retrofit.http.Path;
 import retrofit.http.Query;
 import retrofit.http.QueryMap;
+import retrofit.http.Streaming;
 
 import java.util.Map;
 
@@ -121,6 +123,7 @@ public interface RetrofitGroupService {
      * @param groupId the group ID
      * @param command the command which is to be executed
      * @param commandBody the command request body with all its parameters
+     * @param idempotencyKey the idempotency key of the command, null if it must not be retried
      * @return the server {@link retrofit.client.Response}
      */
     @POST("/groups/{groupId}")
@@ -129,6 +132,29 @@ public interface RetrofitGroupService {
                                    @Path("groupId") Long groupId,
                                    @Query(RestConstants.QUERY_COMMAND) String command,
                                    @Query(RestConstants.QUERY_ROLEID) Long roleId,
-                                   @Body Object commandBody);
+                                   @Body Object commandBody,
+                                   @Header(RestConstants.HEADER_IDEMPOTENCY_KEY) String idempotencyKey);
+
+    /**
+     * Generates the collection sheet of a group. The response body is left unread,
+     * so that the sheet, which may hold every member of a center, is read straight
+     * from the connection.
+     * @param authenticationKey the authentication key obtained by
+     *                          calling {@link org.mifos.sdk.MifosXClient#login()}
+     * @param tenantId the tenant ID
+     * @param groupId the group ID
+     * @param command the command which is to be executed
+     * @param commandBody the {@link GenerateCollectionSheetCommand}
+     * @param idempotencyKey the idempotency key of the command, null if it must not be retried
+     * @return the server {@link retrofit.client.Response}, whose body must be closed
+     */
+    @Streaming
+    @POST("/groups/{groupId}")
+    public Response generateCollectionSheet(@Header(RestConstants.HEADER_AUTHORIZATION) String authenticationKey,
+                                            @Header(RestConstants.HEADER_TENANTID) String tenantId,
+                                            @Path("groupId") Long groupId,
+                                            @Query(RestConstants.QUERY_COMMAND) String command,
+                                            @Body GenerateCollectionSheetCommand commandBody,
+                                            @Header(RestConstants.HEADER_IDEMPOTENCY_KEY) String idempotencyKey);
 
 }
@@ -0,0 +1,192 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.mifos.sdk.MifosXProperties;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class to create the executors running the asynchronous services.
+ */
+public final class AsyncExecutors {
+
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+    private static final ThreadLocal<Boolean> ASYNC_THREAD = new ThreadLocal<>();
+
+    private AsyncExecutors() {}
+
+    /**
+     * Holds the scheduler shared by all the clients, created on first use.
+     */
+    private static final class SchedulerHolder {
+
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mifosx-scheduler-%d").build());
+
+    }
+
+    /**
+     * Holds the pool sending the hedged requests of all the clients, created on first use.
+     */
+    private static final class HedgingHolder {
+
+        static final ExecutorService HEDGING = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+            IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mifosx-hedge-%d").build());
+
+    }
+
+    /**
+     * Holds the pool renewing the authentication tokens of all the clients, created on first use.
+     */
+    private static final class RenewalHolder {
+
+        static final ExecutorService RENEWAL = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+            IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mifosx-renewal-%d").build());
+
+    }
+
+    /**
+     * Returns the pool sending the second attempts of hedged requests. Its daemon
+     * threads are created on demand and expire when idle; the number of hedges in
+     * flight is bounded by the hedging policies rather than by the pool.
+     */
+    public static ExecutorService hedging() {
+        return HedgingHolder.HEDGING;
+    }
+
+    /**
+     * Returns the pool renewing the authentication tokens in the background. Its daemon
+     * threads are created on demand and expire when idle, so that the renewals of several
+     * tenants are sent in parallel rather than one after the other.
+     */
+    public static ExecutorService renewal() {
+        return RenewalHolder.RENEWAL;
+    }
+
+    /**
+     * Returns the scheduler timing the background work of all the clients, such as
+     * hedging requests or renewing authentication tokens. Its single daemon thread
+     * never blocks the JVM from exiting, and must not block either: the work it times
+     * is handed over to another executor whenever it waits on the network.
+     */
+    public static ScheduledExecutorService scheduler() {
+        return SchedulerHolder.SCHEDULER;
+    }
+
+    /**
+     * Returns true if the current thread is running a task of a bounded executor returned
+     * by {@link #forProperties(MifosXProperties)}, including the callbacks run directly
+     * by the futures it completes. Such a thread must not wait on further tasks of the
+     * executor, which may be queued behind it.
+     */
+    public static boolean isAsyncThread() {
+        return ASYNC_THREAD.get() != null;
+    }
+
+    /**
+     * Returns the executor configured in the properties or, if none was set, a new
+     * executor for the configured {@link MifosXProperties.ExecutionMode}. Platform
+     * threads are pooled up to the maximum number of asynchronous requests per host,
+     * the further calls being queued instead of parking a thread each, as the dispatcher
+     * of OkHttp does. Virtual threads are not pooled, their requests being only capped
+     * by the transport when its blocking requests per host are. The threads of a pool,
+     * or of an executor set in the properties, are known to {@link #isAsyncThread()}
+     * while they run its tasks.
+     * @param properties the {@link MifosXProperties} with the executor settings
+     * @throws IllegalStateException if virtual threads are requested but not supported
+     */
+    public static ListeningExecutorService forProperties(final MifosXProperties properties) {
+        if (properties.getExecutor() != null) {
+            return MoreExecutors.listeningDecorator(new AsyncThreadExecutorService(properties.getExecutor()));
+        }
+        if (properties.getExecutionMode() == MifosXProperties.ExecutionMode.VIRTUAL_THREADS) {
+            if (!VirtualThreads.isSupported()) {
+                throw new IllegalStateException("Virtual threads require Java 21 or later, running on "
+                    + System.getProperty("java.version"));
+            }
+            return MoreExecutors.listeningDecorator(VirtualThreads.newExecutor("mifosx-virtual-"));
+        }
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getMaxRequestsPerHost(),
+            properties.getMaxRequestsPerHost(), IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mifosx-async-%d").build());
+        executor.allowCoreThreadTimeOut(true);
+        return MoreExecutors.listeningDecorator(new AsyncThreadExecutorService(executor));
+    }
+
+    /**
+     * Runs the tasks of an {@link ExecutorService}, marking the threads as asynchronous
+     * threads while they run them.
+     */
+    private static final class AsyncThreadExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+
+        AsyncThreadExecutorService(final ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            this.delegate.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final Boolean previous = ASYNC_THREAD.get();
+                    ASYNC_THREAD.set(Boolean.TRUE);
+                    try {
+                        command.run();
+                    } finally {
+                        if (previous == null) {
+                            ASYNC_THREAD.remove();
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            this.delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return this.delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return this.delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return this.delegate.awaitTermination(timeout, unit);
+        }
+
+    }
+
+}
@@ -0,0 +1,202 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.mifos.sdk.MifosXConnectException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the authentication key shared by all the services of one client. When the
+ * server rejects the key, a single thread logs in again while every other thread
+ * rejected with the same key, or sending a request in the meantime, waits for the
+ * new key instead of logging in as well.
+ */
+public class AuthenticationKeyHolder {
+
+    /**
+     * Obtains a new authentication key from the server.
+     */
+    public interface Authenticator {
+
+        /**
+         * Logs in and returns the new authentication key.
+         * @throws MifosXConnectException
+         */
+        String authenticate() throws MifosXConnectException;
+
+    }
+
+    private final String scheme;
+    private final AtomicReference<String> key = new AtomicReference<>();
+    private final AtomicReference<SettableFuture<String>> refresh = new AtomicReference<>();
+    private volatile Authenticator authenticator;
+
+    /**
+     * Constructs a new {@link AuthenticationKeyHolder} for Basic authentication keys.
+     */
+    public AuthenticationKeyHolder() {
+        this(RestConstants.AUTHORIZATION_BASIC);
+    }
+
+    /**
+     * Constructs a new {@link AuthenticationKeyHolder} for keys sent with the given scheme.
+     * @param scheme the scheme prefixing the key in the authorization header
+     */
+    public AuthenticationKeyHolder(final String scheme) {
+        Preconditions.checkNotNull(scheme);
+        this.scheme = scheme;
+    }
+
+    /**
+     * Returns the scheme prefixing the key in the authorization header.
+     */
+    public String getScheme() {
+        return this.scheme;
+    }
+
+    /**
+     * Sets the {@link Authenticator} used to log in again.
+     * @param authenticator the {@link Authenticator}
+     */
+    public void setAuthenticator(final Authenticator authenticator) {
+        Preconditions.checkNotNull(authenticator);
+        this.authenticator = authenticator;
+    }
+
+    /**
+     * Returns the current key, null if the client is logged out.
+     */
+    public String get() {
+        return this.key.get();
+    }
+
+    /**
+     * Sets the key obtained by logging in.
+     * @param key the authentication key
+     */
+    public void set(final String key) {
+        Preconditions.checkNotNull(key);
+        this.key.set(key);
+    }
+
+    /**
+     * Replaces the key renewed ahead of its expiry, unless it has been replaced or
+     * cleared in the meantime.
+     * @param expected the key being renewed
+     * @param renewed the new key
+     * @return true if the key was replaced
+     */
+    public boolean replace(final String expected, final String renewed) {
+        Preconditions.checkNotNull(expected);
+        Preconditions.checkNotNull(renewed);
+        return this.key.compareAndSet(expected, renewed);
+    }
+
+    /**
+     * Clears the key once the client has logged out.
+     */
+    public void clear() {
+        this.key.set(null);
+    }
+
+    /**
+     * Returns the current key, first waiting for a login in progress to complete.
+     * @return the key, null if the client is logged out
+     */
+    public String await() {
+        final SettableFuture<String> inFlight = this.refresh.get();
+        if (inFlight != null) {
+            try {
+                return Uninterruptibles.getUninterruptibly(inFlight);
+            } catch (ExecutionException e) {
+                return this.key.get();
+            }
+        }
+        return this.key.get();
+    }
+
+    /**
+     * Replaces a key rejected by the server. Only the first caller rejected with a
+     * given key logs in again; the others wait for its result. A caller whose key
+     * has already been replaced gets the new key straight away.
+     * @param rejected the key the server rejected
+     * @return the new key
+     * @throws MifosXConnectException if the client is logged out or logging in again failed
+     */
+    public String refresh(final String rejected) throws MifosXConnectException {
+        Preconditions.checkNotNull(rejected);
+
+        while (true) {
+            final String current = this.key.get();
+            if (current == null) {
+                throw new MifosXConnectException(ErrorCode.NOT_LOGGED_IN);
+            } else if (!current.equals(rejected)) {
+                return current;
+            }
+
+            final SettableFuture<String> inFlight = this.refresh.get();
+            if (inFlight != null) {
+                return join(inFlight);
+            }
+
+            final SettableFuture<String> mine = SettableFuture.create();
+            if (this.refresh.compareAndSet(null, mine)) {
+                return lead(rejected, mine);
+            }
+        }
+    }
+
+    private String lead(final String rejected, final SettableFuture<String> mine) throws MifosXConnectException {
+        try {
+            // the key may have been replaced between reading it and winning the refresh
+            final String current = this.key.get();
+            if (current == null || !current.equals(rejected)) {
+                mine.set(current);
+                return join(mine);
+            }
+
+            final Authenticator authenticator = this.authenticator;
+            if (authenticator == null) {
+                throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
+            }
+            final String renewed = authenticator.authenticate();
+            // a logout during the login wins over the new key
+            this.key.compareAndSet(rejected, renewed);
+            mine.set(renewed);
+            return renewed;
+        } catch (MifosXConnectException e) {
+            mine.setException(e);
+            throw e;
+        } catch (RuntimeException e) {
+            mine.setException(e);
+            throw e;
+        } finally {
+            this.refresh.compareAndSet(mine, null);
+        }
+    }
+
+    private static String join(final SettableFuture<String> inFlight) throws MifosXConnectException {
+        final String renewed;
+        try {
+            renewed = Uninterruptibles.getUninterruptibly(inFlight);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MifosXConnectException) {
+                throw (MifosXConnectException) e.getCause();
+            }
+            throw new MifosXConnectException(ErrorCode.UNKNOWN);
+        }
+        if (renewed == null) {
+            throw new MifosXConnectException(ErrorCode.NOT_LOGGED_IN);
+        }
+        return renewed;
+    }
+
+}
@@ -19,6 +19,8 @@ public enum ErrorCode {
     NOT_LOGGED_IN(101, "Not logged in. A valid authentication key is required to carry on API requests."),
     UNAUTHENTICATED(102, "Invalid authentication details were passed in the API request."),
     INVALID_AUTHENTICATION_TOKEN(103, "Invalid authentication token was passed."),
+    OVERLOADED(104, "Request rejected by the concurrency limiter, too many requests are in flight or queued."),
+    CIRCUIT_OPEN(105, "Request not sent, the circuit breaker of the endpoint is open after repeated failures."),
 
     // for MifosXResourceException
     OFFICE_NOT_FOUND(200, "Office not found."),
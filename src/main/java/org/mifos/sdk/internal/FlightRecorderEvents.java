@@ -0,0 +1,64 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+/**
+ * Emits Java Flight Recorder events for the service calls and the serializer
+ * invocations. This is the version loaded on JVMs older than Java 21, where the
+ * events are not emitted; the multi-release jar replaces it with the implementation
+ * in {@code src/main/java21}.
+ */
+public final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {}
+
+    /**
+     * Returns whether the events can be emitted on this JVM.
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Starts timing a service call.
+     * @return the event of the call, null if it is not recorded
+     */
+    public static Object beginRequest() {
+        return null;
+    }
+
+    /**
+     * Commits the event of a service call started with {@link #beginRequest()}.
+     * @param event the event, may be null
+     * @param endpoint the service method called, for instance "ClientService.findClient"
+     * @param tenant the tenant the requests were sent to, may be null
+     * @param status the HTTP status of the last response, 0 if none was received
+     * @param requestBytes the number of bytes of the request bodies
+     * @param responseBytes the number of bytes of the response bodies
+     * @param retries the number of requests sent again after a transient failure
+     * @param error the {@link ErrorCode} the call failed with, null if it succeeded
+     */
+    public static void commitRequest(final Object event, final String endpoint, final String tenant,
+                                     final int status, final long requestBytes, final long responseBytes,
+                                     final int retries, final ErrorCode error) {}
+
+    /**
+     * Starts timing a serializer invocation.
+     * @return the event of the invocation, null if it is not recorded
+     */
+    public static Object beginSerialization() {
+        return null;
+    }
+
+    /**
+     * Commits the event of a serializer invocation started with {@link #beginSerialization()}.
+     * @param event the event, may be null
+     * @param type the type serialized or deserialized, for instance "Client"
+     * @param serialize true if an instance was written, false if it was read
+     */
+    public static void commitSerialization(final Object event, final String type, final boolean serialize) {}
+
+}
@@ -0,0 +1,42 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds a value created on first use without taking a lock. Threads racing on the
+ * first call may each create a value, but only the first one published is ever
+ * returned, so {@link #create()} must be cheap and free of side effects.
+ * @param <T> the type of the value
+ */
+public abstract class LazyReference<T> {
+
+    private final AtomicReference<T> value = new AtomicReference<>();
+
+    /**
+     * Returns the value, creating it if this is the first call.
+     */
+    public final T get() {
+        final T current = this.value.get();
+        if (current != null) {
+            return current;
+        }
+
+        final T created = create();
+        if (this.value.compareAndSet(null, created)) {
+            return created;
+        }
+        return this.value.get();
+    }
+
+    /**
+     * Creates the value.
+     * @return the new value, never null
+     */
+    protected abstract T create();
+
+}
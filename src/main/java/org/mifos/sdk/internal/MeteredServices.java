@@ -0,0 +1,156 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.internal.http.CallMetrics;
+import org.mifos.sdk.metrics.EndpointMetrics;
+import org.mifos.sdk.metrics.MetricsRecorder;
+import org.mifos.sdk.metrics.MetricsSink;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Utility class wrapping a service so that each of its calls is measured and
+ * recorded into a {@link MetricsRecorder} and {@link MetricsSink}s under the name
+ * of the service method, for instance "ClientService.findClient". Each call also
+ * emits a Java Flight Recorder event where {@link FlightRecorderEvents} are supported.
+ * A scan returning a {@link PageIterator} is recorded page by page under the name of
+ * its method, such as "ClientService.scanClients", on whichever thread fetches the page.
+ */
+public final class MeteredServices {
+
+    private static final Method FETCH;
+
+    static {
+        try {
+            FETCH = PageIterator.PageFetcher.class.getMethod("fetch", long.class, int.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private MeteredServices() {}
+
+    /**
+     * Returns a service recording its calls.
+     * @param type the service interface
+     * @param service the service to wrap
+     * @param recorder the {@link MetricsRecorder} counting the calls in progress and recording them
+     * @param sinks other {@link MetricsSink}s receiving the measurements
+     * @param <T> the type of the service
+     */
+    public static <T> T wrap(final Class<T> type, final T service, final MetricsRecorder recorder,
+                             final MetricsSink... sinks) {
+        Preconditions.checkNotNull(type);
+        Preconditions.checkNotNull(service);
+        Preconditions.checkNotNull(recorder);
+        Preconditions.checkNotNull(sinks);
+
+        final Map<Method, String> endpoints = new HashMap<>();
+        for (final Method method : type.getMethods()) {
+            endpoints.put(method, type.getSimpleName() + "." + method.getName());
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            new MeteringHandler(service, endpoints, recorder, sinks.clone())));
+    }
+
+    /**
+     * Invokes the service within a measured call and records its outcome.
+     */
+    private static final class MeteringHandler implements InvocationHandler {
+
+        private final Object service;
+        private final Map<Method, String> endpoints;
+        private final MetricsRecorder recorder;
+        private final MetricsSink[] sinks;
+
+        private MeteringHandler(final Object service, final Map<Method, String> endpoints,
+                                final MetricsRecorder recorder, final MetricsSink[] sinks) {
+            this.service = service;
+            this.endpoints = endpoints;
+            this.recorder = recorder;
+            this.sinks = sinks;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String endpoint = this.endpoints.get(method);
+            if (endpoint != null && method.getReturnType() == Iterator.class) {
+                // creating a scan sends nothing, its pages are recorded as they are fetched
+                final Object result = invokeService(method, args);
+                if (result instanceof PageIterator) {
+                    meterPages((PageIterator<?>) result, endpoint);
+                }
+                return result;
+            }
+            final CallMetrics metrics = endpoint == null ? null : CallMetrics.begin();
+            if (metrics == null) {
+                return invokeService(method, args);
+            }
+
+            final EndpointMetrics endpointMetrics = this.recorder.callStarted(endpoint);
+            final Object event = FlightRecorderEvents.beginRequest();
+            final long start = System.nanoTime();
+            ErrorCode error = null;
+            try {
+                return invokeService(method, args);
+            } catch (MifosXConnectException e) {
+                error = e.getErrorCode();
+                throw e;
+            } catch (MifosXResourceException e) {
+                error = e.getErrorCode() != null ? e.getErrorCode() : ErrorCode.UNKNOWN;
+                throw e;
+            } catch (RuntimeException | Error e) {
+                error = ErrorCode.UNKNOWN;
+                throw e;
+            } finally {
+                final long latency = System.nanoTime() - start;
+                metrics.end();
+                this.recorder.callEnded(endpointMetrics);
+                this.recorder.record(endpoint, latency, metrics.getNetworkNanos(), metrics.getDeserializationNanos(),
+                    metrics.getRequestBytes(), metrics.getResponseBytes(), error);
+                for (final MetricsSink sink : this.sinks) {
+                    sink.record(endpoint, latency, metrics.getNetworkNanos(), metrics.getDeserializationNanos(),
+                        metrics.getRequestBytes(), metrics.getResponseBytes(), error);
+                }
+                FlightRecorderEvents.commitRequest(event, endpoint, metrics.getTenant(), metrics.getStatus(),
+                    metrics.getRequestBytes(), metrics.getResponseBytes(), metrics.getRetries(), error);
+            }
+        }
+
+        /**
+         * Records every page of a scan as a call of the scan, its requests being sent
+         * when the page is fetched rather than when the scan is created.
+         */
+        @SuppressWarnings("unchecked")
+        private <T> void meterPages(final PageIterator<T> pages, final String endpoint) {
+            pages.setFetcher((PageIterator.PageFetcher<T>) Proxy.newProxyInstance(
+                PageIterator.PageFetcher.class.getClassLoader(), new Class<?>[] {PageIterator.PageFetcher.class},
+                new MeteringHandler(pages.getFetcher(), Collections.singletonMap(FETCH, endpoint),
+                    this.recorder, this.sinks)));
+        }
+
+        private Object invokeService(final Method method, final Object[] args) throws Throwable {
+            try {
+                return method.invoke(this.service, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+    }
+
+}
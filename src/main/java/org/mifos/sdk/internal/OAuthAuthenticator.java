@@ -0,0 +1,185 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.MifosXProperties;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Obtains OAuth2 bearer tokens with the password grant and renews them with the
+ * refresh token. Every token is renewed in the background once three quarters of
+ * its lifetime have passed, so requests keep being sent with a valid token without
+ * waiting for a login. A failed renewal is tried again after a delay doubling up
+ * to five minutes, unless the credentials themselves are rejected: renewing then
+ * stops, and the next request rejected with a 401 authenticates again. The scheduler
+ * only times the renewals, which are sent from another executor so that a slow token
+ * endpoint never delays the other work of the scheduler.
+ */
+public class OAuthAuthenticator implements AuthenticationKeyHolder.Authenticator {
+
+    private static final Gson GSON = new Gson();
+    private static final long RETRY_DELAY_MILLIS = 5000;
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final MifosXProperties connectionProperties;
+    private final Client client;
+    private final AuthenticationKeyHolder authenticationKeys;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private volatile String refreshToken;
+
+    /**
+     * Constructs a new {@link OAuthAuthenticator}.
+     * @param properties the {@link MifosXProperties} with the credentials and token endpoint
+     * @param client the {@link Client} sending the token requests
+     * @param authenticationKeys the {@link AuthenticationKeyHolder} holding the access token
+     * @param scheduler the scheduler timing the renewals of the tokens
+     * @param executor the executor sending the renewals in the background
+     */
+    public OAuthAuthenticator(final MifosXProperties properties,
+                              final Client client,
+                              final AuthenticationKeyHolder authenticationKeys,
+                              final ScheduledExecutorService scheduler,
+                              final Executor executor) {
+        Preconditions.checkNotNull(properties);
+        Preconditions.checkNotNull(client);
+        Preconditions.checkNotNull(authenticationKeys);
+        Preconditions.checkNotNull(scheduler);
+        Preconditions.checkNotNull(executor);
+        this.connectionProperties = properties;
+        this.client = client;
+        this.authenticationKeys = authenticationKeys;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Renews the access token of a live session with the refresh token, falling back
+     * to the password grant when there is no session or the refresh token is rejected.
+     * @return the new access token
+     * @throws MifosXConnectException
+     */
+    @Override
+    public String authenticate() throws MifosXConnectException {
+        final String refresh = this.refreshToken;
+        if (refresh != null && this.authenticationKeys.get() != null) {
+            try {
+                return issue(requestToken("grant_type=refresh_token&refresh_token=" + encode(refresh)));
+            } catch (MifosXConnectException e) {
+                // the refresh token has expired as well
+            }
+        }
+        return issue(requestToken("grant_type=password&username="
+            + encode(this.connectionProperties.getUsername()) + "&password="
+            + encode(this.connectionProperties.getPassword())));
+    }
+
+    private String issue(final OAuthToken token) {
+        this.refreshToken = token.getRefreshToken();
+        if (token.getExpiresIn() > 0) {
+            schedule(token.getAccessToken(), TimeUnit.SECONDS.toMillis(token.getExpiresIn()) * 3 / 4,
+                RETRY_DELAY_MILLIS);
+        }
+        return token.getAccessToken();
+    }
+
+    private void schedule(final String accessToken, final long delayMillis, final long retryDelayMillis) {
+        final Runnable renewal = new Runnable() {
+            @Override
+            public void run() {
+                renew(accessToken, retryDelayMillis);
+            }
+        };
+        this.scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                executor.execute(renewal);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Renews an access token still in use, trying again later if the renewal fails.
+     * A token which has been replaced or cleared by a logout is left alone, and so is
+     * one whose credentials are rejected.
+     * @param accessToken the access token to renew
+     * @param retryDelayMillis the delay before trying again if the renewal fails
+     */
+    private void renew(final String accessToken, final long retryDelayMillis) {
+        if (!accessToken.equals(this.authenticationKeys.get())) {
+            return;
+        }
+        try {
+            this.authenticationKeys.replace(accessToken, authenticate());
+        } catch (MifosXConnectException e) {
+            if (e.getErrorCode() != ErrorCode.UNAUTHENTICATED) {
+                retry(accessToken, retryDelayMillis);
+            }
+        } catch (RuntimeException e) {
+            retry(accessToken, retryDelayMillis);
+        }
+    }
+
+    private void retry(final String accessToken, final long retryDelayMillis) {
+        schedule(accessToken, retryDelayMillis, Math.min(retryDelayMillis * 2, MAX_RETRY_DELAY_MILLIS));
+    }
+
+    private OAuthToken requestToken(final String grant) throws MifosXConnectException {
+        final String url = this.connectionProperties.getOAuthTokenUrl() + "?" + grant
+            + "&client_id=" + encode(this.connectionProperties.getOAuthClientId())
+            + "&client_secret=" + encode(this.connectionProperties.getOAuthClientSecret());
+        final Request request = new Request("POST", url, Collections.singletonList(
+            new Header(RestConstants.HEADER_TENANTID, this.connectionProperties.getTenant())), null);
+
+        final Response response;
+        try {
+            response = this.client.execute(request);
+        } catch (IOException e) {
+            throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+        }
+
+        if (response.getStatus() == 400 || response.getStatus() == 401) {
+            throw new MifosXConnectException(ErrorCode.UNAUTHENTICATED);
+        } else if (response.getStatus() != 200 || response.getBody() == null) {
+            throw new MifosXConnectException(ErrorCode.UNKNOWN);
+        }
+
+        try (final Reader reader = new InputStreamReader(response.getBody().in(), "UTF-8")) {
+            final OAuthToken token = GSON.fromJson(reader, OAuthToken.class);
+            if (token == null || token.getAccessToken() == null) {
+                throw new MifosXConnectException(ErrorCode.UNAUTHENTICATED);
+            }
+            return token;
+        } catch (IOException | JsonParseException e) {
+            throw new MifosXConnectException(ErrorCode.UNAUTHENTICATED);
+        }
+    }
+
+    private static String encode(final String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Handles the tokens returned by the OAuth2 token endpoint.
+ */
+public class OAuthToken {
+
+    @SerializedName("access_token")
+    private String accessToken;
+    @SerializedName("refresh_token")
+    private String refreshToken;
+    @SerializedName("expires_in")
+    private long expiresIn;
+
+    /**
+     * Returns the access token.
+     */
+    public String getAccessToken() {
+        return this.accessToken;
+    }
+
+    /**
+     * Returns the refresh token, null if none was issued.
+     */
+    public String getRefreshToken() {
+        return this.refreshToken;
+    }
+
+    /**
+     * Returns the lifetime of the access token in seconds, 0 if it does not expire.
+     */
+    public long getExpiresIn() {
+        return this.expiresIn;
+    }
+
+}
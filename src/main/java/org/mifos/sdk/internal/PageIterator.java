@@ -0,0 +1,270 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.mifos.sdk.ScanOptions;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Lazily iterates over the records of a paged API. As soon as a page arrives,
+ * the following pages are requested on the executor, up to the number of pages
+ * to prefetch, so the network round trips overlap with the consumption of the
+ * current page. Once the first page has returned the total number of records,
+ * the remaining offsets are known and up to the scan's concurrency pages are
+ * fetched in parallel, delivered either in order or as soon as they arrive.
+ * Without prefetching, every page is fetched only when it is needed, whatever
+ * the concurrency. So is every page needed on a thread of the asynchronous executor
+ * of a client, fetched on that thread rather than waited for: the fetches submitted
+ * to the executor could otherwise be queued behind the very thread waiting for them.
+ * A failed fetch surfaces as an {@link IllegalStateException} with the original
+ * exception as its cause.
+ * @param <T> the type of the records
+ */
+public final class PageIterator<T> implements Iterator<T> {
+
+    /**
+     * Fetches one page of records.
+     * @param <T> the type of the records
+     */
+    public interface PageFetcher<T> {
+
+        /**
+         * Fetches the records starting at the given offset.
+         * @param offset the index of the first record
+         * @param limit the maximum number of records
+         * @return the {@link Page} of records
+         * @throws Exception if the page could not be fetched
+         */
+        Page<T> fetch(final long offset, final int limit) throws Exception;
+
+    }
+
+    /**
+     * One page of records and the total number of records, if known.
+     * @param <T> the type of the records
+     */
+    public static final class Page<T> {
+
+        private final List<T> items;
+        private final Long total;
+
+        /**
+         * Constructs a new {@link Page}.
+         * @param pageItems the records of the page, null meaning none
+         * @param totalRecords the total number of records, null if unknown
+         */
+        public Page(final List<T> pageItems, final Long totalRecords) {
+            this.items = pageItems == null ? Collections.<T>emptyList() : pageItems;
+            this.total = totalRecords;
+        }
+
+        /** Returns the records of the page. */
+        public List<T> getItems() {
+            return this.items;
+        }
+
+        /** Returns the total number of records, null if unknown. */
+        public Long getTotal() {
+            return this.total;
+        }
+
+    }
+
+    private PageFetcher<T> fetcher;
+    private final ListeningExecutorService executor;
+    private final int pageSize;
+    private final int window;
+    private final boolean ordered;
+    private final Deque<ListenableFuture<Page<T>>> pending;
+    private final BlockingQueue<ListenableFuture<Page<T>>> completed;
+    private Iterator<T> current;
+    private long nextOffset;
+    private long total;
+    private boolean lastPageScheduled;
+
+    /**
+     * Constructs a new {@link PageIterator}.
+     * @param pageFetcher the {@link PageFetcher} for the pages
+     * @param fetchExecutor the executor fetching the pages
+     * @param options the {@link ScanOptions} with the paging settings
+     */
+    public PageIterator(final PageFetcher<T> pageFetcher, final ListeningExecutorService fetchExecutor,
+                        final ScanOptions options) {
+        Preconditions.checkNotNull(pageFetcher);
+        Preconditions.checkNotNull(fetchExecutor);
+        Preconditions.checkNotNull(options);
+
+        this.fetcher = pageFetcher;
+        this.executor = fetchExecutor;
+        this.pageSize = options.getPageSize();
+        this.window = options.getPrefetchPages() == 0 ? 0
+            : Math.max(options.getPrefetchPages(), options.getConcurrency());
+        this.ordered = options.isOrdered();
+        this.pending = new ArrayDeque<>();
+        this.completed = new LinkedBlockingQueue<>();
+        this.current = Collections.<T>emptyList().iterator();
+        this.nextOffset = 0;
+        this.total = -1;
+        this.lastPageScheduled = false;
+    }
+
+    /** Returns the {@link PageFetcher} for the pages. */
+    PageFetcher<T> getFetcher() {
+        return this.fetcher;
+    }
+
+    /**
+     * Sets the {@link PageFetcher} for the pages, before the first page is requested.
+     * @param pageFetcher the {@link PageFetcher}
+     */
+    void setFetcher(final PageFetcher<T> pageFetcher) {
+        Preconditions.checkNotNull(pageFetcher);
+        Preconditions.checkState(this.nextOffset == 0, "The scan has already started!");
+        this.fetcher = pageFetcher;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!this.current.hasNext()) {
+            if (this.pending.isEmpty()) {
+                if (this.lastPageScheduled) {
+                    return false;
+                }
+                schedule();
+            }
+
+            final Page<T> page = nextPage();
+            if (page.getTotal() != null) {
+                this.total = page.getTotal();
+                if (this.nextOffset >= this.total) {
+                    this.lastPageScheduled = true;
+                }
+            } else if (page.getItems().size() < this.pageSize) {
+                // without a total, a short page is the last one
+                this.lastPageScheduled = true;
+            }
+            if (page.getItems().isEmpty() && this.ordered) {
+                // in order, an empty page ends the scan; out of order, records were removed meanwhile
+                cancelPending();
+                return false;
+            }
+
+            this.current = page.getItems().iterator();
+            prefetch();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return this.current.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the query parameters for one page, the filters plus offset and limit.
+     * Records are ordered by ID unless the filters say otherwise, so that the
+     * pages do not overlap.
+     * @param filters the query parameters filtering the records
+     * @param offset the index of the first record
+     * @param limit the maximum number of records
+     */
+    public static Map<String, Object> pageQuery(final Map<String, Object> filters, final long offset,
+                                                final int limit) {
+        final Map<String, Object> queryMap = new HashMap<>(filters);
+        queryMap.put("offset", offset);
+        queryMap.put("limit", limit);
+        if (!queryMap.containsKey("orderBy")) {
+            queryMap.put("orderBy", "id");
+        }
+        return queryMap;
+    }
+
+    private void prefetch() {
+        if (AsyncExecutors.isAsyncThread()) {
+            return;
+        }
+        while (!this.lastPageScheduled && this.total >= 0 && this.pending.size() < this.window) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        final long offset = this.nextOffset;
+        this.nextOffset += this.pageSize;
+        if (this.total >= 0 && this.nextOffset >= this.total) {
+            this.lastPageScheduled = true;
+        }
+        final ListeningExecutorService fetchExecutor = AsyncExecutors.isAsyncThread()
+            ? MoreExecutors.sameThreadExecutor() : this.executor;
+        final ListenableFuture<Page<T>> future = fetchExecutor.submit(new Callable<Page<T>>() {
+            @Override
+            public Page<T> call() throws Exception {
+                return fetcher.fetch(offset, pageSize);
+            }
+        });
+        this.pending.add(future);
+        if (!this.ordered) {
+            future.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    completed.add(future);
+                }
+            }, MoreExecutors.sameThreadExecutor());
+        }
+    }
+
+    private Page<T> nextPage() {
+        try {
+            if (this.ordered) {
+                return this.pending.poll().get();
+            }
+            final ListenableFuture<Page<T>> future = this.completed.take();
+            this.pending.remove(future);
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelPending();
+            throw new IllegalStateException("Interrupted while waiting for the next page.", e);
+        } catch (ExecutionException e) {
+            cancelPending();
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void cancelPending() {
+        for (final ListenableFuture<Page<T>> future : this.pending) {
+            future.cancel(true);
+        }
+        this.pending.clear();
+        this.completed.clear();
+        this.lastPageScheduled = true;
+    }
+
+}
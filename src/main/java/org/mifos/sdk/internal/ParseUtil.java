@@ -8,17 +8,38 @@ package org.mifos.sdk.internal;
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonArray;
 
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Utility class with many useful parsing methods.
  */
 public class ParseUtil {
 
+    /**
+     * The cached formatters, keyed by date format and then by language. Each
+     * thread gets its own copy of a formatter since {@link SimpleDateFormat}
+     * is not thread-safe. Like the calendars, the formatters keep the default
+     * time zone of the moment they were created.
+     */
+    private static final ConcurrentMap<String, ConcurrentMap<String, ThreadLocal<SimpleDateFormat>>> FORMATS =
+        new ConcurrentHashMap<>();
+
+    /**
+     * The calendar of each thread converting the parts of a date.
+     */
+    private static final ThreadLocal<Calendar> CALENDAR = new ThreadLocal<Calendar>() {
+        @Override
+        protected Calendar initialValue() {
+            return new GregorianCalendar();
+        }
+    };
+
     /**
      * Parses a date to a particular format and returns the formatted {@link String}.
      * @param date the {@link Date} to parse
@@ -33,26 +54,67 @@ public class ParseUtil {
         Preconditions.checkNotNull(dateFormat);
         Preconditions.checkNotNull(lang);
 
-        final Locale locale = new Locale(lang);
-        final SimpleDateFormat format = new SimpleDateFormat(dateFormat, locale);
-
-        return format.format(date);
+        return formatter(dateFormat, lang).format(date);
     }
 
     /**
      * Parses a {@link JsonArray} to a {@link Date}.
      * @param array the {@link JsonArray} of the date in the form of [year, month, day]
-     * @return a {@link Date} parsed in the "dd MMMM yyyy" format
-     * @throws ParseException
+     * @return a {@link Date} at the start of the day
      */
-    public static Date parseDateFromJsonArray(final JsonArray array) throws ParseException {
+    public static Date parseDateFromJsonArray(final JsonArray array) {
         Preconditions.checkNotNull(array);
 
-        final GregorianCalendar calendar = new GregorianCalendar(array.get(0).getAsInt(),
-                array.get(1).getAsInt() - 1, array.get(2).getAsInt());
-        final SimpleDateFormat format = new SimpleDateFormat("dd MMMM yyyy");
+        return parseDate(array.get(0).getAsInt(), array.get(1).getAsInt(), array.get(2).getAsInt());
+    }
+
+    /**
+     * Converts the parts of a date to a {@link Date} at the start of the day
+     * in the default time zone.
+     * @param year the year
+     * @param month the month, starting from 1 for January
+     * @param day the day of the month
+     * @return the {@link Date}
+     */
+    public static Date parseDate(final int year, final int month, final int day) {
+        final Calendar calendar = CALENDAR.get();
+        calendar.clear();
+        calendar.set(year, month - 1, day);
+
+        return calendar.getTime();
+    }
+
+    /**
+     * Returns the formatter of the current thread for the given date format and language.
+     * @param dateFormat the date format
+     * @param lang the language/locale
+     */
+    static SimpleDateFormat formatter(final String dateFormat, final String lang) {
+        ConcurrentMap<String, ThreadLocal<SimpleDateFormat>> byLang = FORMATS.get(dateFormat);
+        if (byLang == null) {
+            final ConcurrentMap<String, ThreadLocal<SimpleDateFormat>> created = new ConcurrentHashMap<>();
+            byLang = FORMATS.putIfAbsent(dateFormat, created);
+            if (byLang == null) {
+                byLang = created;
+            }
+        }
+
+        ThreadLocal<SimpleDateFormat> format = byLang.get(lang);
+        if (format == null) {
+            final Locale locale = new Locale(lang);
+            final ThreadLocal<SimpleDateFormat> created = new ThreadLocal<SimpleDateFormat>() {
+                @Override
+                protected SimpleDateFormat initialValue() {
+                    return new SimpleDateFormat(dateFormat, locale);
+                }
+            };
+            format = byLang.putIfAbsent(lang, created);
+            if (format == null) {
+                format = created;
+            }
+        }
 
-        return format.parse(format.format(calendar.getTime()));
+        return format.get();
     }
 
 }
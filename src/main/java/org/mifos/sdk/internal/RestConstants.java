@@ -12,8 +12,14 @@ public interface RestConstants {
 
     public static String HEADER_AUTHORIZATION = "Authorization";
 
+    public static String AUTHORIZATION_BASIC = "Basic ";
+
+    public static String AUTHORIZATION_BEARER = "Bearer ";
+
     public static String HEADER_TENANTID = "X-Mifos-Platform-TenantId";
 
+    public static String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+
     public static String QUERY_COMMAND = "command";
 
     public static String QUERY_ROLEID = "roleId";
@@ -5,35 +5,60 @@
  */
 package org.mifos.sdk.internal;
 
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.batch.BatchService;
+import org.mifos.sdk.batch.internal.RestBatchService;
+import org.mifos.sdk.client.AsyncClientService;
 import org.mifos.sdk.client.ClientService;
+import org.mifos.sdk.client.internal.RestAsyncClientService;
 import org.mifos.sdk.client.internal.RestClientService;
+import org.mifos.sdk.group.AsyncGroupService;
 import org.mifos.sdk.group.GroupService;
+import org.mifos.sdk.group.internal.RestAsyncGroupService;
 import org.mifos.sdk.group.internal.RestGroupService;
+import org.mifos.sdk.metrics.MetricsRecorder;
+import org.mifos.sdk.metrics.MetricsSink;
+import org.mifos.sdk.office.AsyncOfficeService;
 import org.mifos.sdk.office.OfficeService;
+import org.mifos.sdk.office.internal.RestAsyncOfficeService;
 import org.mifos.sdk.office.internal.RestOfficeService;
+import org.mifos.sdk.staff.AsyncStaffService;
 import org.mifos.sdk.staff.StaffService;
+import org.mifos.sdk.staff.internal.RestAsyncStaffService;
 import org.mifos.sdk.staff.internal.RestStaffService;
 import retrofit.RestAdapter;
 import retrofit.RetrofitError;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.mifos.sdk.MifosXClient;
 import org.mifos.sdk.MifosXProperties;
 
 /**
  * Implements {@link MifosXClient} and the inner lying methods
- * for the basic authentication workflow.
+ * for the basic authentication workflow. Everything obtained by logging in is
+ * held by a session which is published and cleared atomically, its services
+ * being created on first use without any lock. Every call to a service is
+ * measured and recorded per service method.
  */
 public class RestMifosXClient implements MifosXClient {
 
     private final MifosXProperties connectionProperties;
     private final RestAdapter restAdapter;
-    private OfficeService officeService;
-    private StaffService staffService;
-    private ClientService clientService;
-    private GroupService groupService;
-    private String authenticationKey;
-    private boolean loggedIn;
+    private final ListeningExecutorService executor;
+    private final LazyReference<RetrofitMifosService> mifosService = new LazyReference<RetrofitMifosService>() {
+        @Override
+        protected RetrofitMifosService create() {
+            return restAdapter.create(RetrofitMifosService.class);
+        }
+    };
+    private final AtomicReference<Session> session = new AtomicReference<>();
+    private final AuthenticationKeyHolder authenticationKeys;
+    private final AuthenticationKeyHolder.Authenticator authenticator;
+    private final MetricsRecorder metrics = new MetricsRecorder();
+    private final MetricsSink[] metricsSinks;
 
     /**
      * Constructor to initialise a new instance of {@link RestMifosXClient}
@@ -42,11 +67,52 @@ public class RestMifosXClient implements MifosXClient {
      */
     public RestMifosXClient(final MifosXProperties properties,
                             final RestAdapter adapter) {
+        this(properties, adapter, new AuthenticationKeyHolder());
+    }
+
+    /**
+     * Constructor to initialise a new instance of {@link RestMifosXClient}
+     * with parameter properties, sharing its authentication key with the transport
+     * of the adapter so that a rejected key is renewed by logging in again.
+     * @param properties the {@link MifosXProperties} for authentication
+     * @param adapter the rest adapter used for creating Retrofit services
+     * @param authenticationKeys the {@link AuthenticationKeyHolder} of the transport
+     */
+    public RestMifosXClient(final MifosXProperties properties,
+                            final RestAdapter adapter,
+                            final AuthenticationKeyHolder authenticationKeys) {
+        this(properties, adapter, authenticationKeys, null);
+    }
+
+    /**
+     * Constructor to initialise a new instance of {@link RestMifosXClient}
+     * with parameter properties, obtaining its keys from the given authenticator
+     * instead of the /authentication resource.
+     * @param properties the {@link MifosXProperties} for authentication
+     * @param adapter the rest adapter used for creating Retrofit services
+     * @param authenticationKeys the {@link AuthenticationKeyHolder} of the transport
+     * @param authenticator the {@link AuthenticationKeyHolder.Authenticator} logging in,
+     *                      null to use the /authentication resource
+     */
+    public RestMifosXClient(final MifosXProperties properties,
+                            final RestAdapter adapter,
+                            final AuthenticationKeyHolder authenticationKeys,
+                            final AuthenticationKeyHolder.Authenticator authenticator) {
         super();
+        Preconditions.checkNotNull(authenticationKeys);
         this.connectionProperties = properties;
         this.restAdapter = adapter;
-        this.authenticationKey = null;
-        this.loggedIn = false;
+        this.executor = AsyncExecutors.forProperties(properties);
+        this.authenticationKeys = authenticationKeys;
+        this.authenticator = authenticator != null ? authenticator : new AuthenticationKeyHolder.Authenticator() {
+            @Override
+            public String authenticate() throws MifosXConnectException {
+                return RestMifosXClient.this.authenticate();
+            }
+        };
+        this.authenticationKeys.setAuthenticator(this.authenticator);
+        this.metricsSinks = properties.getMetricsSink() == null ? new MetricsSink[0]
+            : new MetricsSink[] {properties.getMetricsSink()};
     }
 
     /**
@@ -56,25 +122,10 @@ public class RestMifosXClient implements MifosXClient {
      */
     @Override
     public void login() throws MifosXConnectException {
-        if (!loggedIn) {
-            try {
-                final RetrofitMifosService mifosService = this.restAdapter.create(RetrofitMifosService.class);
-                final AuthenticationToken authenticationToken = mifosService.authenticate(this.connectionProperties.getUsername(),
-                        this.connectionProperties.getPassword(),
-                        this.connectionProperties.getTenant());
-                this.authenticationKey = authenticationToken.getAuthenticationToken();
-                this.loggedIn = true;
-            } catch (RetrofitError error) {
-                if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                    throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
-                } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
-                           error.getResponse().getStatus() == 401) {
-                    this.loggedIn = false;
-                    this.authenticationKey = null;
-                    throw new MifosXConnectException(ErrorCode.UNAUTHENTICATED);
-                } else {
-                    throw new MifosXConnectException(ErrorCode.UNKNOWN);
-                }
+        if (this.session.get() == null) {
+            final String key = this.authenticator.authenticate();
+            if (this.session.compareAndSet(null, new Session(key))) {
+                this.authenticationKeys.set(key);
             }
         }
     }
@@ -84,12 +135,8 @@ public class RestMifosXClient implements MifosXClient {
      */
     @Override
     public void logout() {
-        this.officeService = null;
-        this.staffService = null;
-        this.clientService = null;
-        this.groupService = null;
-        this.authenticationKey = null;
-        this.loggedIn = false;
+        this.session.set(null);
+        this.authenticationKeys.clear();
     }
 
     /**
@@ -98,20 +145,7 @@ public class RestMifosXClient implements MifosXClient {
      */
     @Override
     public OfficeService officeService() throws MifosXConnectException {
-        if (!this.loggedIn) {
-            throw new MifosXConnectException(ErrorCode.NOT_LOGGED_IN);
-        }
-
-        if (this.officeService == null) {
-            synchronized(RestOfficeService.class) {
-                if (this.officeService == null) {
-                    this.officeService = new RestOfficeService(this.connectionProperties,
-                        this.restAdapter, this.authenticationKey);
-                }
-            }
-        }
-
-        return this.officeService;
+        return this.loggedInSession().officeService.get();
     }
 
     /**
@@ -120,20 +154,7 @@ public class RestMifosXClient implements MifosXClient {
      */
     @Override
     public StaffService staffService() throws MifosXConnectException {
-        if (!this.loggedIn) {
-            throw new MifosXConnectException(ErrorCode.NOT_LOGGED_IN);
-        }
-
-        if (this.staffService == null) {
-            synchronized(RestStaffService.class) {
-                if (this.staffService == null) {
-                    this.staffService = new RestStaffService(this.connectionProperties,
-                        this.restAdapter, this.authenticationKey);
-                }
-            }
-        }
-
-        return this.staffService;
+        return this.loggedInSession().staffService.get();
     }
 
     /**
@@ -142,20 +163,7 @@ public class RestMifosXClient implements MifosXClient {
      */
     @Override
     public ClientService clientService() throws MifosXConnectException {
-        if (!this.loggedIn) {
-            throw new MifosXConnectException(ErrorCode.NOT_LOGGED_IN);
-        }
-
-        if (this.clientService == null) {
-            synchronized(RestClientService.class) {
-                if (this.clientService == null) {
-                    this.clientService = new RestClientService(this.connectionProperties,
-                        this.restAdapter, this.authenticationKey);
-                }
-            }
-        }
-
-        return this.clientService;
+        return this.loggedInSession().clientService.get();
     }
 
     /**
@@ -164,34 +172,196 @@ public class RestMifosXClient implements MifosXClient {
      */
     @Override
     public GroupService groupService() throws MifosXConnectException {
-        if (!this.loggedIn) {
-            throw new MifosXConnectException(ErrorCode.NOT_LOGGED_IN);
-        }
+        return this.loggedInSession().groupService.get();
+    }
 
-        if (this.groupService == null) {
-            synchronized(RestGroupService.class) {
-                if (this.groupService == null) {
-                    this.groupService = new RestGroupService(this.connectionProperties,
-                        this.restAdapter, this.authenticationKey);
-                }
-            }
-        }
+    /**
+     * Returns the instance of {@link BatchService} to use the Batch API.
+     * @throws MifosXConnectException
+     */
+    @Override
+    public BatchService batchService() throws MifosXConnectException {
+        return this.loggedInSession().batchService.get();
+    }
+
+    /**
+     * Returns the instance of {@link AsyncOfficeService} to use the Office API asynchronously.
+     * @throws MifosXConnectException
+     */
+    @Override
+    public AsyncOfficeService asyncOfficeService() throws MifosXConnectException {
+        return this.loggedInSession().asyncOfficeService.get();
+    }
 
-        return this.groupService;
+    /**
+     * Returns the instance of {@link AsyncStaffService} to use the Staff API asynchronously.
+     * @throws MifosXConnectException
+     */
+    @Override
+    public AsyncStaffService asyncStaffService() throws MifosXConnectException {
+        return this.loggedInSession().asyncStaffService.get();
     }
 
     /**
-     * Returns the authentication key.
+     * Returns the instance of {@link AsyncClientService} to use the Client API asynchronously.
+     * @throws MifosXConnectException
+     */
+    @Override
+    public AsyncClientService asyncClientService() throws MifosXConnectException {
+        return this.loggedInSession().asyncClientService.get();
+    }
+
+    /**
+     * Returns the instance of {@link AsyncGroupService} to use the Groups API asynchronously.
+     * @throws MifosXConnectException
+     */
+    @Override
+    public AsyncGroupService asyncGroupService() throws MifosXConnectException {
+        return this.loggedInSession().asyncGroupService.get();
+    }
+
+    /**
+     * Returns the {@link MetricsRecorder} of the calls made through the services.
+     */
+    @Override
+    public MetricsRecorder metrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Returns the authentication key, renewed if the server has rejected it since the login.
      */
     String getAuthenticationKey() {
-        return this.authenticationKey;
+        return this.session.get() != null ? this.authenticationKeys.get() : null;
     }
 
     /**
      * Returns whether the client is logged in.
      */
     public boolean isLoggedIn() {
-        return this.loggedIn;
+        return this.session.get() != null;
+    }
+
+    /**
+     * Authenticates with the MifosX server.
+     * @return the new authentication key
+     * @throws MifosXConnectException
+     */
+    private String authenticate() throws MifosXConnectException {
+        try {
+            final RetrofitMifosService mifosService = this.mifosService.get();
+            final AuthenticationToken authenticationToken = mifosService.authenticate(this.connectionProperties.getUsername(),
+                    this.connectionProperties.getPassword(),
+                    this.connectionProperties.getTenant());
+            return authenticationToken.getAuthenticationToken();
+        } catch (RetrofitError error) {
+            if (error.getKind() == RetrofitError.Kind.NETWORK) {
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
+            } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
+                       error.getResponse().getStatus() == 401) {
+                throw new MifosXConnectException(ErrorCode.UNAUTHENTICATED);
+            } else {
+                throw new MifosXConnectException(ErrorCode.UNKNOWN);
+            }
+        }
+    }
+
+    /**
+     * Returns the current session.
+     * @throws MifosXConnectException if the client is not logged in
+     */
+    private Session loggedInSession() throws MifosXConnectException {
+        final Session current = this.session.get();
+        if (current == null) {
+            throw new MifosXConnectException(ErrorCode.NOT_LOGGED_IN);
+        }
+        return current;
+    }
+
+    /**
+     * Holds the authentication key of one login and the services using it.
+     */
+    private final class Session {
+
+        private final String authenticationKey;
+
+        private final LazyReference<OfficeService> officeService = new LazyReference<OfficeService>() {
+            @Override
+            protected OfficeService create() {
+                return MeteredServices.wrap(OfficeService.class,
+                    new RestOfficeService(connectionProperties, restAdapter, authenticationKey),
+                    metrics, metricsSinks);
+            }
+        };
+
+        private final LazyReference<StaffService> staffService = new LazyReference<StaffService>() {
+            @Override
+            protected StaffService create() {
+                return MeteredServices.wrap(StaffService.class,
+                    new RestStaffService(connectionProperties, restAdapter, authenticationKey),
+                    metrics, metricsSinks);
+            }
+        };
+
+        private final LazyReference<ClientService> clientService = new LazyReference<ClientService>() {
+            @Override
+            protected ClientService create() {
+                return MeteredServices.wrap(ClientService.class,
+                    new RestClientService(connectionProperties, restAdapter, authenticationKey, executor),
+                    metrics, metricsSinks);
+            }
+        };
+
+        private final LazyReference<GroupService> groupService = new LazyReference<GroupService>() {
+            @Override
+            protected GroupService create() {
+                return MeteredServices.wrap(GroupService.class,
+                    new RestGroupService(connectionProperties, restAdapter, authenticationKey, executor),
+                    metrics, metricsSinks);
+            }
+        };
+
+        private final LazyReference<BatchService> batchService = new LazyReference<BatchService>() {
+            @Override
+            protected BatchService create() {
+                return MeteredServices.wrap(BatchService.class,
+                    new RestBatchService(connectionProperties, restAdapter, authenticationKey),
+                    metrics, metricsSinks);
+            }
+        };
+
+        private final LazyReference<AsyncOfficeService> asyncOfficeService = new LazyReference<AsyncOfficeService>() {
+            @Override
+            protected AsyncOfficeService create() {
+                return new RestAsyncOfficeService(officeService.get(), executor);
+            }
+        };
+
+        private final LazyReference<AsyncStaffService> asyncStaffService = new LazyReference<AsyncStaffService>() {
+            @Override
+            protected AsyncStaffService create() {
+                return new RestAsyncStaffService(staffService.get(), executor);
+            }
+        };
+
+        private final LazyReference<AsyncClientService> asyncClientService = new LazyReference<AsyncClientService>() {
+            @Override
+            protected AsyncClientService create() {
+                return new RestAsyncClientService(clientService.get(), executor);
+            }
+        };
+
+        private final LazyReference<AsyncGroupService> asyncGroupService = new LazyReference<AsyncGroupService>() {
+            @Override
+            protected AsyncGroupService create() {
+                return new RestAsyncGroupService(groupService.get(), executor);
+            }
+        };
+
+        private Session(final String authenticationKey) {
+            this.authenticationKey = authenticationKey;
+        }
+
     }
 
 }
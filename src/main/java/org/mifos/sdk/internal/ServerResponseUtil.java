@@ -8,6 +8,9 @@ package org.mifos.sdk.internal;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import org.mifos.sdk.breaker.CircuitBreakerOpenException;
+import org.mifos.sdk.limit.ConcurrencyLimitExceededException;
+import retrofit.RetrofitError;
 import retrofit.client.Response;
 
 import java.io.IOException;
@@ -39,4 +42,43 @@ public class ServerResponseUtil {
         }
     }
 
+    /**
+     * Extracts the useful message from an error response body, taking the first
+     * entry of its errors if there are any.
+     * @param responseJSON the error response body
+     * @return the error message, or the whole body if it has no message
+     */
+    public static String parseErrorMessage(final JsonObject responseJSON) {
+        Preconditions.checkNotNull(responseJSON);
+
+        JsonObject message = responseJSON;
+        if (responseJSON.has("errors") && responseJSON.get("errors").isJsonArray()
+            && responseJSON.get("errors").getAsJsonArray().size() > 0) {
+            message = responseJSON.get("errors").getAsJsonArray().get(0).getAsJsonObject();
+        }
+        if (message.has("developerMessage")) {
+            return message.get("developerMessage").getAsString();
+        } else if (message.has("defaultUserMessage")) {
+            return message.get("defaultUserMessage").getAsString();
+        }
+        return responseJSON.toString();
+    }
+
+    /**
+     * Tells a request rejected by the concurrency limiter or a circuit breaker apart
+     * from a request which could not reach the server.
+     * @param error the {@link RetrofitError} of kind {@link RetrofitError.Kind#NETWORK}
+     * @return {@link ErrorCode#OVERLOADED}, {@link ErrorCode#CIRCUIT_OPEN} or {@link ErrorCode#NOT_CONNECTED}
+     */
+    public static ErrorCode networkErrorCode(final RetrofitError error) {
+        Preconditions.checkNotNull(error);
+
+        if (error.getCause() instanceof ConcurrencyLimitExceededException) {
+            return ErrorCode.OVERLOADED;
+        } else if (error.getCause() instanceof CircuitBreakerOpenException) {
+            return ErrorCode.CIRCUIT_OPEN;
+        }
+        return ErrorCode.NOT_CONNECTED;
+    }
+
 }
@@ -0,0 +1,35 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates executors backed by virtual threads. This is the version loaded on JVMs
+ * older than Java 21, where virtual threads do not exist; the multi-release jar
+ * replaces it with the implementation in {@code src/main/java21}.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * Returns whether virtual threads are available on this JVM.
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Returns a new executor starting one virtual thread per task.
+     * @param namePrefix the prefix of the thread names
+     * @throws UnsupportedOperationException always, as virtual threads require Java 21
+     */
+    public static ExecutorService newExecutor(final String namePrefix) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+
+}
@@ -0,0 +1,107 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.internal.AuthenticationKeyHolder;
+import org.mifos.sdk.internal.RestConstants;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retrofit {@link Client} sending every authenticated request with the current key
+ * of an {@link AuthenticationKeyHolder}, whatever key the service was created with.
+ * A request rejected with 401 is sent once more with the key obtained by logging in
+ * again; if logging in fails, the original 401 response is returned.
+ */
+public class AuthenticatingClient implements Client {
+
+    private final Client delegate;
+    private final AuthenticationKeyHolder authenticationKeys;
+
+    /**
+     * Constructs a new {@link AuthenticatingClient}.
+     * @param delegate the {@link Client} executing the requests
+     * @param authenticationKeys the {@link AuthenticationKeyHolder} of the client
+     */
+    public AuthenticatingClient(final Client delegate, final AuthenticationKeyHolder authenticationKeys) {
+        Preconditions.checkNotNull(delegate);
+        Preconditions.checkNotNull(authenticationKeys);
+        this.delegate = delegate;
+        this.authenticationKeys = authenticationKeys;
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        if (!isAuthenticated(request)) {
+            return this.delegate.execute(request);
+        }
+
+        final String key = this.authenticationKeys.await();
+        if (key == null) {
+            return this.delegate.execute(request);
+        }
+
+        final Response response = this.delegate.execute(withKey(request, key));
+        if (response.getStatus() != 401) {
+            return response;
+        }
+
+        final String renewed;
+        try {
+            renewed = this.authenticationKeys.refresh(key);
+        } catch (MifosXConnectException e) {
+            return response;
+        }
+        discard(response);
+
+        return this.delegate.execute(withKey(request, renewed));
+    }
+
+    private static boolean isAuthenticated(final Request request) {
+        for (final Header header : request.getHeaders()) {
+            if (RestConstants.HEADER_AUTHORIZATION.equalsIgnoreCase(header.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Request withKey(final Request request, final String key) {
+        final List<Header> headers = new ArrayList<>(request.getHeaders().size());
+        for (final Header header : request.getHeaders()) {
+            if (RestConstants.HEADER_AUTHORIZATION.equalsIgnoreCase(header.getName())) {
+                headers.add(new Header(header.getName(), this.authenticationKeys.getScheme() + key));
+            } else {
+                headers.add(header);
+            }
+        }
+        return new Request(request.getMethod(), request.getUrl(), headers, request.getBody());
+    }
+
+    /**
+     * Closes the body of a response which is not returned to the caller.
+     * @param response the discarded {@link Response}
+     */
+    static void discard(final Response response) {
+        if (response.getBody() == null) {
+            return;
+        }
+        try {
+            response.getBody().in().close();
+        } catch (IOException e) {
+            // the connection is released either way
+        }
+    }
+
+}
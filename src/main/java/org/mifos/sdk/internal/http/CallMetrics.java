@@ -0,0 +1,143 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+/**
+ * Measurements of the service call in progress on the current thread, added up by
+ * the transport and the converter while the call runs. Each thread reuses a single
+ * instance, so measuring a call allocates nothing.
+ */
+public final class CallMetrics {
+
+    private static final ThreadLocal<CallMetrics> CURRENT = new ThreadLocal<CallMetrics>() {
+        @Override
+        protected CallMetrics initialValue() {
+            return new CallMetrics();
+        }
+    };
+
+    private boolean active;
+    private long networkNanos;
+    private long deserializationNanos;
+    private long requestBytes;
+    private long responseBytes;
+    private int status;
+    private int retries;
+    private String tenant;
+
+    private CallMetrics() {}
+
+    /**
+     * Starts measuring a call on the current thread.
+     * @return the {@link CallMetrics} of the call, null if a call is already measured
+     */
+    public static CallMetrics begin() {
+        final CallMetrics metrics = CURRENT.get();
+        if (metrics.active) {
+            return null;
+        }
+        metrics.active = true;
+        metrics.networkNanos = 0;
+        metrics.deserializationNanos = 0;
+        metrics.requestBytes = 0;
+        metrics.responseBytes = 0;
+        metrics.status = 0;
+        metrics.retries = 0;
+        metrics.tenant = null;
+        return metrics;
+    }
+
+    /**
+     * Returns the {@link CallMetrics} of the call measured on the current thread,
+     * null if there is none.
+     */
+    public static CallMetrics current() {
+        final CallMetrics metrics = CURRENT.get();
+        return metrics.active ? metrics : null;
+    }
+
+    /**
+     * Stops measuring the call.
+     */
+    public void end() {
+        this.active = false;
+    }
+
+    void addNetworkNanos(final long nanos) {
+        this.networkNanos += nanos;
+    }
+
+    /**
+     * Adds time spent reading and converting a response body, including the bodies
+     * streamed past the converter and read by the services themselves.
+     * @param nanos the time in nanoseconds
+     */
+    public void addDeserializationNanos(final long nanos) {
+        this.deserializationNanos += nanos;
+    }
+
+    void addRequestBytes(final long bytes) {
+        if (this.active) {
+            this.requestBytes += bytes;
+        }
+    }
+
+    void addResponseBytes(final long bytes) {
+        if (this.active) {
+            this.responseBytes += bytes;
+        }
+    }
+
+    void setStatus(final int status) {
+        this.status = status;
+    }
+
+    void addRetry() {
+        if (this.active) {
+            this.retries++;
+        }
+    }
+
+    void setTenant(final String tenant) {
+        this.tenant = tenant;
+    }
+
+    /** Returns the time spent sending the requests and waiting for the response headers. */
+    public long getNetworkNanos() {
+        return this.networkNanos;
+    }
+
+    /** Returns the time spent reading and converting the response bodies. */
+    public long getDeserializationNanos() {
+        return this.deserializationNanos;
+    }
+
+    /** Returns the number of bytes of the request bodies. */
+    public long getRequestBytes() {
+        return this.requestBytes;
+    }
+
+    /** Returns the number of bytes of the response bodies. */
+    public long getResponseBytes() {
+        return this.responseBytes;
+    }
+
+    /** Returns the HTTP status of the last response, 0 if none was received. */
+    public int getStatus() {
+        return this.status;
+    }
+
+    /** Returns the number of requests sent again after a transient failure. */
+    public int getRetries() {
+        return this.retries;
+    }
+
+    /** Returns the tenant the requests were sent to, null if none was sent. */
+    public String getTenant() {
+        return this.tenant;
+    }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.breaker.CircuitBreaker;
+import org.mifos.sdk.breaker.CircuitBreakerOpenException;
+import org.mifos.sdk.breaker.CircuitBreakers;
+import org.mifos.sdk.limit.ConcurrencyLimitExceededException;
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+
+/**
+ * Retrofit {@link Client} guarding every endpoint with its own {@link CircuitBreaker}.
+ * Endpoints are named by {@link Endpoints}, so that for instance
+ * "GET /clients/{id}/images" and "GET /clients/{id}" trip separately. A failed
+ * connection or a 5xx response counts as a failed call, while a request rejected by
+ * the concurrency limiter behind it is not counted at all. The duration of a call is
+ * measured from when its request is sent, after the limiter and any permit of its
+ * host, so that the calls queued locally are not taken for slow ones.
+ */
+public class CircuitBreakingClient implements Client {
+
+    private final Client delegate;
+    private final CircuitBreakers breakers;
+    private final String baseUrl;
+
+    /**
+     * Constructs a new {@link CircuitBreakingClient}.
+     * @param delegate the {@link Client} executing the requests
+     * @param breakers the {@link CircuitBreakers} of the endpoints
+     * @param baseUrl the API URL the endpoints are relative to
+     */
+    public CircuitBreakingClient(final Client delegate, final CircuitBreakers breakers, final String baseUrl) {
+        Preconditions.checkNotNull(delegate);
+        Preconditions.checkNotNull(breakers);
+        Preconditions.checkNotNull(baseUrl);
+        this.delegate = delegate;
+        this.breakers = breakers;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        final CircuitBreaker breaker = this.breakers.forEndpoint(
+            Endpoints.of(request.getMethod(), request.getUrl(), this.baseUrl));
+        if (!breaker.tryAcquire()) {
+            throw new CircuitBreakerOpenException(breaker.getEndpoint());
+        }
+
+        final long start = System.nanoTime();
+        final Response response;
+        try {
+            response = this.delegate.execute(request);
+        } catch (ConcurrencyLimitExceededException e) {
+            // never reached the server
+            breaker.release();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            breaker.onResult(durationSince(start), true);
+            throw e;
+        }
+        breaker.onResult(durationSince(start), response.getStatus() >= 500);
+        return response;
+    }
+
+    /**
+     * Returns the time since the request was sent on the current thread, 0 if it was
+     * not sent after the given start, such as a request cancelled while waiting for
+     * its permit because its hedge answered first.
+     */
+    private static long durationSince(final long start) {
+        final long sentAt = OkHttpCallClient.sentAt();
+        return sentAt - start >= 0 ? System.nanoTime() - sentAt : 0;
+    }
+
+}
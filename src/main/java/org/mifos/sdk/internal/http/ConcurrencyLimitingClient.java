@@ -0,0 +1,72 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.limit.ConcurrencyLimiter;
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Retrofit {@link Client} sending requests only once a {@link ConcurrencyLimiter}
+ * grants a permit. The latency from sending the request, once the connection permit
+ * of its host is granted, until the response headers are received is fed back to the
+ * limiter, and a failed connection, a 429 or a 5xx response counts as a drop. A request
+ * given up before it was sent returns its permit without feeding the limiter.
+ */
+public class ConcurrencyLimitingClient implements Client {
+
+    private final Client delegate;
+    private final ConcurrencyLimiter limiter;
+
+    /**
+     * Constructs a new {@link ConcurrencyLimitingClient}.
+     * @param delegate the {@link Client} executing the requests
+     * @param limiter the {@link ConcurrencyLimiter} granting the permits
+     */
+    public ConcurrencyLimitingClient(final Client delegate, final ConcurrencyLimiter limiter) {
+        Preconditions.checkNotNull(delegate);
+        Preconditions.checkNotNull(limiter);
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        final RequestTimer timer = RequestTimer.current();
+        final long queuedAt = timer == null ? 0 : System.nanoTime();
+        final int inFlight;
+        try {
+            inFlight = this.limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the concurrency limiter");
+        }
+
+        final long start = System.nanoTime();
+        if (timer != null) {
+            timer.addQueueWait(start - queuedAt);
+        }
+        boolean dropped = true;
+        try {
+            final Response response = this.delegate.execute(request);
+            dropped = response.getStatus() == 429 || response.getStatus() >= 500;
+            return response;
+        } finally {
+            final long sentAt = OkHttpCallClient.sentAt();
+            if (sentAt - start >= 0) {
+                this.limiter.release(inFlight, System.nanoTime() - sentAt, dropped);
+            } else {
+                this.limiter.cancel();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,202 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.internal.tls.OkHostnameVerifier;
+
+import javax.net.SocketFactory;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+
+/**
+ * Utility class timing the connections opened by an {@link OkHttpClient} into the
+ * {@link RequestTimer} of the request in progress. OkHttp 2.0 has no listener of its
+ * connections, so only the phases passing through a factory it calls are timed:
+ * <ul>
+ *     <li>the connect phase of a connection through an HTTP proxy, whose socket
+ *     comes from the socket factory; a direct connection is opened with
+ *     {@code new Socket(proxy)} and its connect phase is left at 0</li>
+ *     <li>the TLS phase, which starts when the SSL socket factory layers TLS over
+ *     the connected socket and ends when the host name verifier is called</li>
+ * </ul>
+ * The host resolution happens inside OkHttp and is never timed.
+ */
+public final class ConnectionTiming {
+
+    private ConnectionTiming() {}
+
+    /**
+     * Installs the timing socket factory, SSL socket factory and host name verifier
+     * into an {@link OkHttpClient}.
+     * @param client the {@link OkHttpClient}
+     */
+    public static void install(final OkHttpClient client) {
+        Preconditions.checkNotNull(client);
+
+        client.setSocketFactory(new TimingSocketFactory());
+        client.setSslSocketFactory(new TimingSslSocketFactory(
+            client.getSslSocketFactory() != null ? client.getSslSocketFactory()
+                : (SSLSocketFactory) SSLSocketFactory.getDefault()));
+        client.setHostnameVerifier(new TimingHostnameVerifier(
+            client.getHostnameVerifier() != null ? client.getHostnameVerifier() : OkHostnameVerifier.INSTANCE));
+    }
+
+    /**
+     * {@link SocketFactory} creating the sockets which time their connection.
+     */
+    private static final class TimingSocketFactory extends SocketFactory {
+
+        @Override
+        public Socket createSocket() {
+            return new TimingSocket();
+        }
+
+        @Override
+        public Socket createSocket(final String host, final int port) throws IOException {
+            final Socket socket = new TimingSocket();
+            socket.connect(new InetSocketAddress(host, port));
+            return socket;
+        }
+
+        @Override
+        public Socket createSocket(final String host, final int port, final InetAddress localHost,
+                                   final int localPort) throws IOException {
+            final Socket socket = new TimingSocket();
+            socket.bind(new InetSocketAddress(localHost, localPort));
+            socket.connect(new InetSocketAddress(host, port));
+            return socket;
+        }
+
+        @Override
+        public Socket createSocket(final InetAddress host, final int port) throws IOException {
+            final Socket socket = new TimingSocket();
+            socket.connect(new InetSocketAddress(host, port));
+            return socket;
+        }
+
+        @Override
+        public Socket createSocket(final InetAddress address, final int port, final InetAddress localAddress,
+                                   final int localPort) throws IOException {
+            final Socket socket = new TimingSocket();
+            socket.bind(new InetSocketAddress(localAddress, localPort));
+            socket.connect(new InetSocketAddress(address, port));
+            return socket;
+        }
+
+    }
+
+    /**
+     * {@link Socket} timing its connection, which OkHttp opens to a resolved address.
+     */
+    private static final class TimingSocket extends Socket {
+
+        @Override
+        public void connect(final SocketAddress endpoint, final int timeout) throws IOException {
+            final RequestTimer timer = RequestTimer.current();
+            if (timer != null) {
+                timer.connectStarted();
+            }
+            super.connect(endpoint, timeout);
+            if (timer != null) {
+                timer.connected();
+            }
+        }
+
+    }
+
+    /**
+     * {@link SSLSocketFactory} marking the start of the TLS handshake when OkHttp
+     * layers TLS over a connected socket.
+     */
+    private static final class TimingSslSocketFactory extends SSLSocketFactory {
+
+        private final SSLSocketFactory delegate;
+
+        private TimingSslSocketFactory(final SSLSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createSocket(final Socket socket, final String host, final int port,
+                                   final boolean autoClose) throws IOException {
+            final RequestTimer timer = RequestTimer.current();
+            if (timer != null) {
+                timer.tlsStarted();
+            }
+            return this.delegate.createSocket(socket, host, port, autoClose);
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return this.delegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return this.delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return this.delegate.createSocket();
+        }
+
+        @Override
+        public Socket createSocket(final String host, final int port) throws IOException {
+            return this.delegate.createSocket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(final String host, final int port, final InetAddress localHost,
+                                   final int localPort) throws IOException {
+            return this.delegate.createSocket(host, port, localHost, localPort);
+        }
+
+        @Override
+        public Socket createSocket(final InetAddress host, final int port) throws IOException {
+            return this.delegate.createSocket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(final InetAddress address, final int port, final InetAddress localAddress,
+                                   final int localPort) throws IOException {
+            return this.delegate.createSocket(address, port, localAddress, localPort);
+        }
+
+    }
+
+    /**
+     * {@link HostnameVerifier} marking the end of the TLS handshake, after which
+     * OkHttp verifies the host name.
+     */
+    private static final class TimingHostnameVerifier implements HostnameVerifier {
+
+        private final HostnameVerifier delegate;
+
+        private TimingHostnameVerifier(final HostnameVerifier delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean verify(final String host, final SSLSession session) {
+            final RequestTimer timer = RequestTimer.current();
+            if (timer != null) {
+                timer.tlsVerified();
+            }
+            return this.delegate.verify(host, session);
+        }
+
+    }
+
+}
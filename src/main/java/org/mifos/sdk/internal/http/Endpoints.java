@@ -0,0 +1,60 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+/**
+ * Utility class naming the endpoint of a request: its method and its path below the
+ * API URL, with the query dropped and the numeric identifiers replaced, for instance
+ * "GET /clients/{id}/images".
+ */
+public final class Endpoints {
+
+    private Endpoints() {}
+
+    /**
+     * Returns the endpoint of a request.
+     * @param method the HTTP method
+     * @param url the full URL of the request
+     * @param baseUrl the API URL the endpoints are relative to
+     */
+    public static String of(final String method, final String url, final String baseUrl) {
+        String path = url;
+        if (path.startsWith(baseUrl)) {
+            path = path.substring(baseUrl.length());
+        } else {
+            final int scheme = path.indexOf("://");
+            final int pathStart = scheme < 0 ? -1 : path.indexOf('/', scheme + 3);
+            path = pathStart < 0 ? "/" : path.substring(pathStart);
+        }
+        final int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+
+        final StringBuilder endpoint = new StringBuilder(method.length() + path.length() + 4)
+            .append(method).append(' ');
+        for (final String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            endpoint.append('/').append(isIdentifier(segment) ? "{id}" : segment);
+        }
+        if (endpoint.length() == method.length() + 1) {
+            endpoint.append('/');
+        }
+        return endpoint.toString();
+    }
+
+    private static boolean isIdentifier(final String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,301 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.mifos.sdk.retry.HedgingPolicy;
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retrofit {@link Client} hedging GET requests as configured by a {@link HedgingPolicy}.
+ * The first attempt runs on the calling thread; if it has not answered within the
+ * percentile of the recent latencies of its endpoint, a second attempt is sent from
+ * another thread. The first response wins and the other attempt is cancelled. Every
+ * GET request earns a fraction of a hedge and every hedge spends a whole one, which
+ * bounds the extra load to that fraction.
+ */
+public class HedgingClient implements Client {
+
+    private static final long HEDGE_COST = 1000;
+    private static final long MAX_SAVED_HEDGES = 10;
+
+    private static final int WAITING = 0;
+    private static final int PRIMARY_WON = 1;
+    private static final int HEDGE_WON = 2;
+    private static final int PRIMARY_FAILED = 3;
+
+    private final OkHttpCallClient transport;
+    private final HedgingPolicy policy;
+    private final String baseUrl;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final long earnedPerRequest;
+    private final AtomicLong budget = new AtomicLong();
+    private final ConcurrentMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@link HedgingClient}.
+     * @param transport the {@link OkHttpCallClient} executing the requests
+     * @param policy the {@link HedgingPolicy}
+     * @param baseUrl the API URL the endpoints are relative to
+     * @param scheduler the scheduler timing the hedges
+     * @param executor the executor sending the hedges
+     */
+    public HedgingClient(final OkHttpCallClient transport, final HedgingPolicy policy, final String baseUrl,
+                         final ScheduledExecutorService scheduler, final Executor executor) {
+        Preconditions.checkNotNull(transport);
+        Preconditions.checkNotNull(policy);
+        Preconditions.checkNotNull(baseUrl);
+        Preconditions.checkNotNull(scheduler);
+        Preconditions.checkNotNull(executor);
+        this.transport = transport;
+        this.policy = policy;
+        this.baseUrl = baseUrl;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.earnedPerRequest = Math.max(1, (long) (policy.getMaxExtraLoad() * HEDGE_COST));
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        if (!"GET".equals(request.getMethod())) {
+            return this.transport.execute(request);
+        }
+
+        final LatencyWindow window = windowFor(Endpoints.of(request.getMethod(), request.getUrl(), this.baseUrl));
+        earn();
+        final long delayMillis = window.getDelayMillis();
+        final OkHttpCallClient.CancellableCall primary = this.transport.newCall(request);
+        final long start = System.nanoTime();
+        if (delayMillis < 0) {
+            final Response response = primary.execute();
+            window.record(System.nanoTime() - start);
+            return response;
+        }
+
+        final Hedge hedge = new Hedge(request, primary);
+        hedge.timer = this.scheduler.schedule(hedge, delayMillis, TimeUnit.MILLISECONDS);
+        final Response response;
+        try {
+            response = primary.execute();
+        } catch (IOException e) {
+            final Response hedged = hedge.primaryFailed();
+            if (hedged == null) {
+                throw e;
+            }
+            return hedged;
+        }
+
+        window.record(System.nanoTime() - start);
+        if (hedge.primaryAnswered()) {
+            return response;
+        }
+        AuthenticatingClient.discard(response);
+        return hedge.await();
+    }
+
+    private LatencyWindow windowFor(final String endpoint) {
+        LatencyWindow window = this.latencies.get(endpoint);
+        if (window == null) {
+            final LatencyWindow created = new LatencyWindow(this.policy);
+            window = this.latencies.putIfAbsent(endpoint, created);
+            if (window == null) {
+                window = created;
+            }
+        }
+        return window;
+    }
+
+    private void earn() {
+        while (true) {
+            final long current = this.budget.get();
+            final long earned = Math.min(MAX_SAVED_HEDGES * HEDGE_COST, current + this.earnedPerRequest);
+            if (earned == current || this.budget.compareAndSet(current, earned)) {
+                return;
+            }
+        }
+    }
+
+    private boolean spend() {
+        while (true) {
+            final long current = this.budget.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+            if (this.budget.compareAndSet(current, current - HEDGE_COST)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Race between the first attempt of a request and its hedge. The state moves
+     * once from {@link #WAITING} to the outcome; the hedge is only sent while waiting.
+     */
+    private final class Hedge implements Runnable {
+
+        private final Request request;
+        private final OkHttpCallClient.CancellableCall primary;
+        private final SettableFuture<Response> result = SettableFuture.create();
+        private volatile ScheduledFuture<?> timer;
+        private int state = WAITING;
+        private OkHttpCallClient.CancellableCall call;
+
+        private Hedge(final Request request, final OkHttpCallClient.CancellableCall primary) {
+            this.request = request;
+            this.primary = primary;
+        }
+
+        @Override
+        public void run() {
+            final OkHttpCallClient.CancellableCall hedgeCall;
+            synchronized (this) {
+                if (this.state != WAITING || !spend()) {
+                    return;
+                }
+                hedgeCall = transport.newCall(this.request);
+                this.call = hedgeCall;
+            }
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    complete(hedgeCall);
+                }
+            });
+        }
+
+        private void complete(final OkHttpCallClient.CancellableCall hedgeCall) {
+            Response response = null;
+            try {
+                response = hedgeCall.execute();
+            } catch (IOException e) {
+                // the first attempt may still answer
+            }
+
+            final boolean won;
+            synchronized (this) {
+                won = response != null && (this.state == WAITING || this.state == PRIMARY_FAILED);
+                if (won) {
+                    this.state = HEDGE_WON;
+                }
+            }
+            if (won) {
+                this.primary.cancel();
+                this.result.set(response);
+            } else {
+                if (response != null) {
+                    AuthenticatingClient.discard(response);
+                }
+                this.result.set(null);
+            }
+        }
+
+        /**
+         * Settles the race for an answered first attempt.
+         * @return true if the first attempt won, false if the hedge answered before
+         */
+        private boolean primaryAnswered() {
+            final OkHttpCallClient.CancellableCall hedgeCall;
+            synchronized (this) {
+                if (this.state == HEDGE_WON) {
+                    return false;
+                }
+                this.state = PRIMARY_WON;
+                hedgeCall = this.call;
+            }
+            this.timer.cancel(false);
+            if (hedgeCall != null) {
+                hedgeCall.cancel();
+            }
+            return true;
+        }
+
+        /**
+         * Settles the race for a failed or cancelled first attempt.
+         * @return the response of the hedge, null if none was sent or it failed as well
+         */
+        private Response primaryFailed() {
+            final boolean sent;
+            synchronized (this) {
+                if (this.state == WAITING) {
+                    this.state = PRIMARY_FAILED;
+                }
+                sent = this.call != null;
+            }
+            this.timer.cancel(false);
+            return sent ? await() : null;
+        }
+
+        private Response await() {
+            try {
+                return Uninterruptibles.getUninterruptibly(this.result);
+            } catch (ExecutionException e) {
+                return null;
+            }
+        }
+
+    }
+
+    /**
+     * Recent latencies of one endpoint. The delay before a hedge is recomputed from
+     * a sorted copy every few samples and read without locking.
+     */
+    private static final class LatencyWindow {
+
+        private final HedgingPolicy policy;
+        private final long[] samples;
+        private final int refreshInterval;
+        private int next;
+        private int count;
+        private int sinceRefresh;
+        private volatile long delayMillis = -1;
+
+        private LatencyWindow(final HedgingPolicy policy) {
+            this.policy = policy;
+            this.samples = new long[policy.getWindow()];
+            this.refreshInterval = Math.max(1, policy.getWindow() / 16);
+        }
+
+        private long getDelayMillis() {
+            return this.delayMillis;
+        }
+
+        private synchronized void record(final long latencyNanos) {
+            this.samples[this.next] = latencyNanos;
+            this.next = (this.next + 1) % this.samples.length;
+            if (this.count < this.samples.length) {
+                this.count++;
+            }
+            if (++this.sinceRefresh < this.refreshInterval && this.delayMillis >= 0
+                || this.count < this.policy.getMinSamples()) {
+                return;
+            }
+
+            this.sinceRefresh = 0;
+            final long[] sorted = Arrays.copyOf(this.samples, this.count);
+            Arrays.sort(sorted);
+            final int index = Math.max(0, (int) Math.ceil(this.policy.getPercentile() / 100 * this.count) - 1);
+            this.delayMillis = Math.max(this.policy.getMinDelayMillis(), TimeUnit.NANOSECONDS.toMillis(sorted[index]));
+        }
+
+    }
+
+}
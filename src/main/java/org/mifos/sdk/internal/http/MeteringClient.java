@@ -0,0 +1,175 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.internal.RestConstants;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Retrofit {@link Client} adding the network time, the body sizes, the tenant and
+ * the response status of its requests to the {@link CallMetrics} of the service
+ * call in progress. Requests
+ * made outside of a measured call go straight through.
+ */
+public class MeteringClient implements Client {
+
+    private final Client delegate;
+
+    /**
+     * Constructs a new {@link MeteringClient}.
+     * @param delegate the {@link Client} executing the requests
+     */
+    public MeteringClient(final Client delegate) {
+        Preconditions.checkNotNull(delegate);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        final CallMetrics metrics = CallMetrics.current();
+        if (metrics == null) {
+            return this.delegate.execute(request);
+        }
+
+        for (final Header header : request.getHeaders()) {
+            if (RestConstants.HEADER_TENANTID.equalsIgnoreCase(header.getName())) {
+                metrics.setTenant(header.getValue());
+            }
+        }
+
+        Request meteredRequest = request;
+        final TypedOutput body = request.getBody();
+        if (body != null && body.length() >= 0) {
+            metrics.addRequestBytes(body.length());
+        } else if (body != null) {
+            meteredRequest = new Request(request.getMethod(), request.getUrl(), request.getHeaders(),
+                new CountingTypedOutput(body, metrics));
+        }
+
+        final long start = System.nanoTime();
+        final Response response;
+        try {
+            response = this.delegate.execute(meteredRequest);
+        } finally {
+            metrics.addNetworkNanos(System.nanoTime() - start);
+        }
+        metrics.setStatus(response.getStatus());
+        if (response.getBody() == null) {
+            return response;
+        }
+        return new Response(response.getUrl(), response.getStatus(), response.getReason(),
+            response.getHeaders(), new CountingTypedInput(response.getBody(), metrics));
+    }
+
+    /**
+     * Request body counting the bytes written, for the bodies streamed without a
+     * known length.
+     */
+    private static final class CountingTypedOutput implements TypedOutput {
+
+        private final TypedOutput body;
+        private final CallMetrics metrics;
+
+        private CountingTypedOutput(final TypedOutput body, final CallMetrics metrics) {
+            this.body = body;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public String fileName() {
+            return this.body.fileName();
+        }
+
+        @Override
+        public String mimeType() {
+            return this.body.mimeType();
+        }
+
+        @Override
+        public long length() {
+            return this.body.length();
+        }
+
+        @Override
+        public void writeTo(final OutputStream out) throws IOException {
+            this.body.writeTo(new FilterOutputStream(out) {
+                @Override
+                public void write(final int b) throws IOException {
+                    this.out.write(b);
+                    metrics.addRequestBytes(1);
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) throws IOException {
+                    this.out.write(b, off, len);
+                    metrics.addRequestBytes(len);
+                }
+            });
+        }
+
+    }
+
+    /**
+     * Response body counting the bytes read, which also covers the chunked responses.
+     */
+    private static final class CountingTypedInput implements TypedInput {
+
+        private final TypedInput body;
+        private final CallMetrics metrics;
+
+        private CountingTypedInput(final TypedInput body, final CallMetrics metrics) {
+            this.body = body;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public String mimeType() {
+            return this.body.mimeType();
+        }
+
+        @Override
+        public long length() {
+            return this.body.length();
+        }
+
+        @Override
+        public InputStream in() throws IOException {
+            return new FilterInputStream(this.body.in()) {
+                @Override
+                public int read() throws IOException {
+                    final int b = this.in.read();
+                    if (b >= 0) {
+                        metrics.addResponseBytes(1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(final byte[] b, final int off, final int len) throws IOException {
+                    final int read = this.in.read(b, off, len);
+                    if (read > 0) {
+                        metrics.addResponseBytes(read);
+                    }
+                    return read;
+                }
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,290 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.ResponseBody;
+import okio.BufferedSink;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Retrofit {@link Client} executing requests through the {@link Call} API of a
+ * shared {@link OkHttpClient}, so that every service reuses the same connection
+ * pool. The number of requests executing concurrently against one host may be
+ * capped, for the synchronous callers as much as for the asynchronous services: a
+ * request holds its permit until the response headers have been received, and the
+ * requests beyond the cap wait for one. Like OkHttp, it does not cap them by default.
+ */
+public class OkHttpCallClient implements Client {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private static final ThreadLocal<long[]> SENT_AT = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    private final OkHttpClient okHttpClient;
+    private final int maxRequestsPerHost;
+    private final ConcurrentMap<String, Semaphore> hostPermits;
+
+    /**
+     * Constructs a new {@link OkHttpCallClient}.
+     * @param client the shared {@link OkHttpClient}
+     * @param maxRequestsPerHost the maximum number of concurrent requests per host, 0 for no cap
+     */
+    public OkHttpCallClient(final OkHttpClient client, final int maxRequestsPerHost) {
+        Preconditions.checkNotNull(client);
+        Preconditions.checkArgument(maxRequestsPerHost >= 0);
+        this.okHttpClient = client;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.hostPermits = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        return newCall(request).execute();
+    }
+
+    /**
+     * Prepares a request which can be cancelled from another thread while it executes.
+     * @param request the request to send
+     * @return a {@link CancellableCall} of the request
+     */
+    public CancellableCall newCall(final Request request) {
+        final com.squareup.okhttp.Request okRequest = createRequest(request);
+        final String host = okRequest.url().getHost();
+        return new CancellableCall(this.okHttpClient.newCall(okRequest), host,
+            this.maxRequestsPerHost == 0 ? null : permitsFor(host));
+    }
+
+    /**
+     * Returns the time, in {@link System#nanoTime()}, at which the last request executed
+     * on the current thread was sent once it held the permit of its host, 0 if none was.
+     */
+    static long sentAt() {
+        return SENT_AT.get()[0];
+    }
+
+    /** Returns the shared {@link OkHttpClient}. */
+    public OkHttpClient getOkHttpClient() {
+        return this.okHttpClient;
+    }
+
+    private Semaphore permitsFor(final String host) {
+        Semaphore permits = this.hostPermits.get(host);
+        if (permits == null) {
+            final Semaphore created = new Semaphore(this.maxRequestsPerHost);
+            permits = this.hostPermits.putIfAbsent(host, created);
+            if (permits == null) {
+                permits = created;
+            }
+        }
+        return permits;
+    }
+
+    private static com.squareup.okhttp.Request createRequest(final Request request) {
+        final com.squareup.okhttp.Request.Builder builder = new com.squareup.okhttp.Request.Builder()
+            .url(request.getUrl());
+        for (final Header header : request.getHeaders()) {
+            builder.addHeader(header.getName(), header.getValue() == null ? "" : header.getValue());
+        }
+
+        final TypedOutput body = request.getBody();
+        RequestBody requestBody = null;
+        if (body != null) {
+            requestBody = new TypedOutputRequestBody(body);
+        } else if ("POST".equals(request.getMethod()) || "PUT".equals(request.getMethod())
+            || "PATCH".equals(request.getMethod())) {
+            requestBody = RequestBody.create(null, EMPTY_BODY);
+        }
+        return builder.method(request.getMethod(), requestBody).build();
+    }
+
+    private static Response parseResponse(final com.squareup.okhttp.Response response) {
+        final Headers headers = response.headers();
+        final List<Header> headerList = new ArrayList<>(headers.size());
+        for (int i = 0; i < headers.size(); i++) {
+            headerList.add(new Header(headers.name(i), headers.value(i)));
+        }
+        return new Response(response.request().urlString(), response.code(), response.message(),
+            headerList, createBody(response.body()));
+    }
+
+    private static TypedInput createBody(final ResponseBody body) {
+        if (body == null) {
+            return null;
+        }
+        return new TypedInput() {
+            @Override
+            public String mimeType() {
+                final MediaType mediaType = body.contentType();
+                return mediaType == null ? null : mediaType.toString();
+            }
+
+            @Override
+            public long length() {
+                return body.contentLength();
+            }
+
+            @Override
+            public InputStream in() throws IOException {
+                return body.byteStream();
+            }
+        };
+    }
+
+    /**
+     * Request sent through the shared {@link OkHttpClient} which another thread can
+     * cancel, making {@link #execute()} fail with an {@link IOException}.
+     */
+    public final class CancellableCall {
+
+        private final Call call;
+        private final String host;
+        private final Semaphore permits;
+        private boolean cancelled;
+        private Thread waiter;
+
+        private CancellableCall(final Call call, final String host, final Semaphore permits) {
+            this.call = call;
+            this.host = host;
+            this.permits = permits;
+        }
+
+        /**
+         * Sends the request once a permit for its host is available, if they are capped.
+         * @return the {@link Response}, its body still to be read
+         * @throws IOException if the request failed or was cancelled
+         */
+        public Response execute() throws IOException {
+            final RequestTimer timer = RequestTimer.current();
+            if (timer != null) {
+                timer.attemptStarted(System.nanoTime());
+            }
+            acquire();
+            SENT_AT.get()[0] = System.nanoTime();
+            try {
+                if (timer != null) {
+                    timer.permitAcquired();
+                }
+                final com.squareup.okhttp.Response response = this.call.execute();
+                if (timer != null) {
+                    timer.headersReceived();
+                }
+                return parseResponse(response);
+            } finally {
+                if (this.permits != null) {
+                    this.permits.release();
+                }
+            }
+        }
+
+        /**
+         * Cancels the request, whether it is waiting for a permit, executing or done.
+         * A request waiting for a permit stops waiting and fails right away.
+         */
+        public void cancel() {
+            synchronized (this) {
+                this.cancelled = true;
+                if (this.waiter != null) {
+                    this.waiter.interrupt();
+                }
+            }
+            this.call.cancel();
+        }
+
+        /**
+         * Waits for a permit of the host if they are capped, which {@link #cancel()} interrupts.
+         */
+        private void acquire() throws IOException {
+            synchronized (this) {
+                if (this.cancelled) {
+                    throw new IOException("Canceled");
+                }
+                if (this.permits == null) {
+                    return;
+                }
+                this.waiter = Thread.currentThread();
+            }
+            boolean acquired = false;
+            try {
+                this.permits.acquire();
+                acquired = true;
+            } catch (InterruptedException e) {
+                // handled below, where a cancellation is told apart from an interruption
+            }
+            synchronized (this) {
+                this.waiter = null;
+                if (this.cancelled) {
+                    // clears the interrupt of a cancellation racing the permit
+                    Thread.interrupted();
+                    if (acquired) {
+                        this.permits.release();
+                    }
+                    throw new IOException("Canceled");
+                }
+            }
+            if (!acquired) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a connection to " + this.host);
+            }
+        }
+
+    }
+
+    /**
+     * Streams a Retrofit {@link TypedOutput} into an OkHttp request.
+     */
+    private static final class TypedOutputRequestBody extends RequestBody {
+
+        private final TypedOutput body;
+        private final MediaType mediaType;
+
+        TypedOutputRequestBody(final TypedOutput body) {
+            this.body = body;
+            this.mediaType = body.mimeType() == null ? null : MediaType.parse(body.mimeType());
+        }
+
+        @Override
+        public MediaType contentType() {
+            return this.mediaType;
+        }
+
+        @Override
+        public long contentLength() {
+            return this.body.length();
+        }
+
+        @Override
+        public void writeTo(final BufferedSink sink) throws IOException {
+            this.body.writeTo(sink.outputStream());
+        }
+
+    }
+
+}
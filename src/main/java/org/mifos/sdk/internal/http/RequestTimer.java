@@ -0,0 +1,132 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import org.mifos.sdk.metrics.RequestTimings;
+
+/**
+ * Phase timings of the request in progress on the current thread, added up by the
+ * transport while it sends the request and by {@link RequestTimingClient} while the
+ * response body is read. The connect and TLS phases are only timed where
+ * {@link ConnectionTiming} observes them; the host resolution never is, OkHttp 2.0
+ * resolving it internally, so it is reported as 0.
+ */
+final class RequestTimer {
+
+    private static final ThreadLocal<RequestTimer> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long queueWaitNanos;
+    private long connectionAcquisitionNanos;
+    private long connectNanos;
+    private long tlsNanos;
+    private long timeToFirstByteNanos;
+    private long bodyReadNanos;
+    private long headersReturnedAt;
+
+    private long attemptStartedAt;
+    private long permitAcquiredAt;
+    private long connectStartedAt;
+    private long tlsStartedAt;
+    private long connectionReadyAt;
+
+    private RequestTimer() {}
+
+    /**
+     * Starts timing a request on the current thread.
+     * @return the {@link RequestTimer} of the request, null if a request is already timed
+     */
+    static RequestTimer begin() {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        final RequestTimer timer = new RequestTimer();
+        CURRENT.set(timer);
+        return timer;
+    }
+
+    /**
+     * Returns the {@link RequestTimer} of the request sent on the current thread,
+     * null if there is none.
+     */
+    static RequestTimer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops attributing the phases on the current thread to the request, once the
+     * transport returned its response.
+     */
+    void end() {
+        CURRENT.remove();
+        this.headersReturnedAt = System.nanoTime();
+    }
+
+    void addQueueWait(final long nanos) {
+        this.queueWaitNanos += nanos;
+    }
+
+    void attemptStarted(final long nanos) {
+        this.attemptStartedAt = nanos;
+        this.permitAcquiredAt = nanos;
+        this.connectionReadyAt = 0;
+    }
+
+    void permitAcquired() {
+        this.permitAcquiredAt = System.nanoTime();
+    }
+
+    void connectStarted() {
+        this.connectStartedAt = System.nanoTime();
+    }
+
+    void connected() {
+        this.connectionReadyAt = System.nanoTime();
+        this.connectNanos += this.connectionReadyAt - this.connectStartedAt;
+    }
+
+    void tlsStarted() {
+        this.tlsStartedAt = System.nanoTime();
+    }
+
+    void tlsVerified() {
+        this.connectionReadyAt = System.nanoTime();
+        this.tlsNanos += this.connectionReadyAt - this.tlsStartedAt;
+    }
+
+    /**
+     * Ends the attempt once its response headers are received. The connection is
+     * taken as ready once a new connection is observed to be opened, and otherwise
+     * as soon as the permit of the host is acquired, so that the unobserved opening
+     * of a connection is counted in the time to first byte.
+     */
+    void headersReceived() {
+        final long now = System.nanoTime();
+        final long readyAt = this.connectionReadyAt != 0 ? this.connectionReadyAt : this.permitAcquiredAt;
+        this.connectionAcquisitionNanos += readyAt - this.attemptStartedAt;
+        this.timeToFirstByteNanos += now - readyAt;
+    }
+
+    void addBodyRead(final long nanos) {
+        this.bodyReadNanos += nanos;
+    }
+
+    /**
+     * Returns the {@link RequestTimings} of the request, counting the time since the
+     * transport returned and not spent reading the body as its conversion.
+     * @param endpoint the endpoint of the request
+     * @param status the HTTP status of the response, 0 if the request failed
+     */
+    RequestTimings toTimings(final String endpoint, final int status) {
+        final long now = System.nanoTime();
+        final long conversionNanos = this.headersReturnedAt == 0 ? 0
+            : Math.max(0, now - this.headersReturnedAt - this.bodyReadNanos);
+        return new RequestTimings(endpoint, status, now - this.startNanos, this.queueWaitNanos,
+            this.connectionAcquisitionNanos, 0, this.connectNanos, this.tlsNanos,
+            this.timeToFirstByteNanos, this.bodyReadNanos, conversionNanos);
+    }
+
+}
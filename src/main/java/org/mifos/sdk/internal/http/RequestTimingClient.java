@@ -0,0 +1,148 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.metrics.RequestListener;
+import org.mifos.sdk.metrics.RequestTimings;
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Retrofit {@link Client} timing the phases of its requests and reporting them to
+ * {@link RequestListener}s once the response body has been read and converted, which
+ * Retrofit signals by closing it. Nothing is timed while there are no listeners.
+ */
+public class RequestTimingClient implements Client {
+
+    private final Client delegate;
+    private final List<RequestListener> listeners;
+    private final String baseUrl;
+
+    /**
+     * Constructs a new {@link RequestTimingClient}.
+     * @param delegate the {@link Client} executing the requests
+     * @param listeners the {@link RequestListener}s, read on every request
+     * @param baseUrl the API URL the endpoints are relative to
+     */
+    public RequestTimingClient(final Client delegate, final List<RequestListener> listeners,
+                               final String baseUrl) {
+        Preconditions.checkNotNull(delegate);
+        Preconditions.checkNotNull(listeners);
+        Preconditions.checkNotNull(baseUrl);
+        this.delegate = delegate;
+        this.listeners = listeners;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        final RequestTimer timer = this.listeners.isEmpty() ? null : RequestTimer.begin();
+        if (timer == null) {
+            return this.delegate.execute(request);
+        }
+
+        final Response response;
+        try {
+            response = this.delegate.execute(request);
+        } catch (IOException | RuntimeException e) {
+            complete(request, 0, timer);
+            throw e;
+        } finally {
+            timer.end();
+        }
+        if (response.getBody() == null) {
+            complete(request, response.getStatus(), timer);
+            return response;
+        }
+        return new Response(response.getUrl(), response.getStatus(), response.getReason(),
+            response.getHeaders(), new TimedTypedInput(response.getBody(), request, response.getStatus(), timer));
+    }
+
+    private void complete(final Request request, final int status, final RequestTimer timer) {
+        final RequestTimings timings = timer.toTimings(
+            Endpoints.of(request.getMethod(), request.getUrl(), this.baseUrl), status);
+        for (final RequestListener listener : this.listeners) {
+            listener.requestCompleted(timings);
+        }
+    }
+
+    /**
+     * Response body timing the reads, which completes the request once closed.
+     */
+    private final class TimedTypedInput implements TypedInput {
+
+        private final TypedInput body;
+        private final Request request;
+        private final int status;
+        private final RequestTimer timer;
+        private boolean completed;
+
+        private TimedTypedInput(final TypedInput body, final Request request, final int status,
+                                final RequestTimer timer) {
+            this.body = body;
+            this.request = request;
+            this.status = status;
+            this.timer = timer;
+        }
+
+        @Override
+        public String mimeType() {
+            return this.body.mimeType();
+        }
+
+        @Override
+        public long length() {
+            return this.body.length();
+        }
+
+        @Override
+        public InputStream in() throws IOException {
+            return new FilterInputStream(this.body.in()) {
+                @Override
+                public int read() throws IOException {
+                    final long start = System.nanoTime();
+                    try {
+                        return this.in.read();
+                    } finally {
+                        timer.addBodyRead(System.nanoTime() - start);
+                    }
+                }
+
+                @Override
+                public int read(final byte[] b, final int off, final int len) throws IOException {
+                    final long start = System.nanoTime();
+                    try {
+                        return this.in.read(b, off, len);
+                    } finally {
+                        timer.addBodyRead(System.nanoTime() - start);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        this.in.close();
+                    } finally {
+                        if (!completed) {
+                            completed = true;
+                            complete(request, status, timer);
+                        }
+                    }
+                }
+            };
+        }
+
+    }
+
+}
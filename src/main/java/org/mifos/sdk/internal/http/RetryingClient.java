@@ -0,0 +1,96 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.breaker.CircuitBreakerOpenException;
+import org.mifos.sdk.internal.RestConstants;
+import org.mifos.sdk.limit.ConcurrencyLimitExceededException;
+import org.mifos.sdk.retry.RetryPolicy;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Retrofit {@link Client} sending a request again after a transient failure, as
+ * configured by a {@link RetryPolicy}. Only GET requests and commands carrying an
+ * idempotency key are retried; a request rejected by a circuit breaker or by the
+ * concurrency limiter is not, since retrying would only add to the load. Retries
+ * are counted in the {@link CallMetrics} of the service call in progress.
+ */
+public class RetryingClient implements Client {
+
+    private final Client delegate;
+    private final RetryPolicy policy;
+
+    /**
+     * Constructs a new {@link RetryingClient}.
+     * @param delegate the {@link Client} executing the requests
+     * @param policy the {@link RetryPolicy}
+     */
+    public RetryingClient(final Client delegate, final RetryPolicy policy) {
+        Preconditions.checkNotNull(delegate);
+        Preconditions.checkNotNull(policy);
+        this.delegate = delegate;
+        this.policy = policy;
+    }
+
+    @Override
+    public Response execute(final Request request) throws IOException {
+        final int maxAttempts = isIdempotent(request) ? this.policy.getMaxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                final Response response = this.delegate.execute(request);
+                if (attempt == maxAttempts || !isTransient(response.getStatus())) {
+                    return response;
+                }
+                AuthenticatingClient.discard(response);
+            } catch (CircuitBreakerOpenException | ConcurrencyLimitExceededException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt == maxAttempts || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+            }
+            backoff(attempt);
+            final CallMetrics metrics = CallMetrics.current();
+            if (metrics != null) {
+                metrics.addRetry();
+            }
+        }
+    }
+
+    private void backoff(final int retry) throws InterruptedIOException {
+        try {
+            Thread.sleep(this.policy.backoffMillis(retry));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+
+    private static boolean isIdempotent(final Request request) {
+        if ("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        for (final Header header : request.getHeaders()) {
+            if (RestConstants.HEADER_IDEMPOTENCY_KEY.equalsIgnoreCase(header.getName())
+                && header.getValue() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransient(final int status) {
+        return status == 502 || status == 503 || status == 504;
+    }
+
+}
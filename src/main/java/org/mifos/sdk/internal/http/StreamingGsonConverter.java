@@ -0,0 +1,111 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import retrofit.converter.ConversionException;
+import retrofit.converter.GsonConverter;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * Retrofit {@link GsonConverter} which writes the bodies of the given types
+ * straight into the request stream while it is sent, instead of first encoding
+ * them to a string and then to a byte array. Such bodies have no known length,
+ * so they are sent chunked; every other body is encoded as usual. The time spent
+ * converting a response is added to the {@link CallMetrics} of the call in progress.
+ */
+public class StreamingGsonConverter extends GsonConverter {
+
+    private static final String MIME_TYPE = "application/json; charset=UTF-8";
+    private static final String CHARSET = "UTF-8";
+
+    private final Gson gson;
+    private final Set<Class<?>> streamedTypes;
+
+    /**
+     * Constructs a new {@link StreamingGsonConverter}.
+     * @param gson the {@link Gson} instance
+     * @param streamedTypes the types of the bodies to stream
+     */
+    public StreamingGsonConverter(final Gson gson, final Class<?>... streamedTypes) {
+        super(gson, CHARSET);
+        Preconditions.checkNotNull(streamedTypes);
+
+        this.gson = gson;
+        this.streamedTypes = ImmutableSet.copyOf(streamedTypes);
+    }
+
+    @Override
+    public Object fromBody(final TypedInput body, final Type type) throws ConversionException {
+        final CallMetrics metrics = CallMetrics.current();
+        if (metrics == null) {
+            return super.fromBody(body, type);
+        }
+        final long start = System.nanoTime();
+        try {
+            return super.fromBody(body, type);
+        } finally {
+            metrics.addDeserializationNanos(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public TypedOutput toBody(final Object object) {
+        if (object != null && this.streamedTypes.contains(object.getClass())) {
+            return new StreamingJsonTypedOutput(this.gson, object);
+        }
+        return super.toBody(object);
+    }
+
+    /**
+     * A JSON body serialized every time it is written.
+     */
+    private static final class StreamingJsonTypedOutput implements TypedOutput {
+
+        private final Gson gson;
+        private final Object object;
+
+        private StreamingJsonTypedOutput(final Gson gson, final Object object) {
+            this.gson = gson;
+            this.object = object;
+        }
+
+        @Override
+        public String fileName() {
+            return null;
+        }
+
+        @Override
+        public String mimeType() {
+            return MIME_TYPE;
+        }
+
+        @Override
+        public long length() {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(final OutputStream out) throws IOException {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(out, CHARSET));
+            this.gson.toJson(this.object, this.object.getClass(), writer);
+            writer.flush();
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.mifos.sdk.batch.domain.BatchResponse;
+import org.mifos.sdk.internal.ServerResponseUtil;
+
+import java.lang.reflect.Type;
+
+/**
+ * JSON deserializer for BatchResponse.
+ */
+public class BatchResponseSerializer implements JsonDeserializer<BatchResponse> {
+
+    @Override
+    public BatchResponse deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+        final JsonObject jsonObject = json.getAsJsonObject();
+        final Long requestId = jsonObject.has("requestId") ? jsonObject.get("requestId").getAsLong() : null;
+        final Integer statusCode = jsonObject.has("statusCode") ? jsonObject.get("statusCode").getAsInt() : null;
+        final String body = jsonObject.has("body") && !jsonObject.get("body").isJsonNull() ?
+            jsonObject.get("body").getAsString() : null;
+
+        JsonObject bodyObject = null;
+        if (body != null) {
+            try {
+                final JsonElement bodyElement = new JsonParser().parse(body);
+                bodyObject = bodyElement.isJsonObject() ? bodyElement.getAsJsonObject() : null;
+            } catch (JsonParseException e) {
+                bodyObject = null;
+            }
+        }
+
+        Long resourceId = null;
+        String errorMessage = null;
+        if (statusCode != null && statusCode >= 200 && statusCode < 300) {
+            if (bodyObject != null && bodyObject.has("resourceId")) {
+                resourceId = bodyObject.get("resourceId").getAsLong();
+            }
+        } else {
+            errorMessage = bodyObject != null ? ServerResponseUtil.parseErrorMessage(bodyObject) : body;
+        }
+
+        return new BatchResponse(requestId, statusCode, body, resourceId, errorMessage);
+    }
+
+}
@@ -5,29 +5,42 @@
  */
 package org.mifos.sdk.internal.serializers;
 
-import com.google.gson.*;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.mifos.sdk.client.domain.Client;
 import org.mifos.sdk.internal.ParseUtil;
+import org.mifos.sdk.internal.accounts.Event;
 import org.mifos.sdk.internal.accounts.StatusCode;
 import org.mifos.sdk.internal.accounts.Timeline;
 
-import java.lang.reflect.Type;
-import java.text.ParseException;
+import java.io.IOException;
+import java.util.Date;
 
 /**
- * JSON serializer for Client.
+ * JSON type adapter for Client. Responses are read straight from the token stream,
+ * without building a tree of the whole client first.
  */
-public class ClientSerializer implements JsonSerializer<Client>, JsonDeserializer<Client> {
+public class ClientSerializer extends TypeAdapter<Client> {
+
+    private static final StatusCodeSerializer STATUS_ADAPTER = new StatusCodeSerializer();
+    private static final TypeAdapter<Timeline> TIMELINE_ADAPTER =
+        RecordedTypeAdapterFactory.recorded(Timeline.class, new TimelineSerializer());
 
     @Override
-    public JsonElement serialize(final Client src, Type typeOfSrc, JsonSerializationContext context) {
-        JsonObject jsonObject = new JsonObject();
+    public void write(final JsonWriter out, final Client src) throws IOException {
+        if (src == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
 
         if (src.getOfficeId() == null) {
             throw new IllegalArgumentException("The office ID cannot be null!");
         }
 
-        jsonObject.addProperty("officeId", src.getOfficeId());
+        out.name("officeId").value(src.getOfficeId());
 
         if (src.getFullname() == null && src.getFirstname() == null && src.getLastname() == null) {
             throw new IllegalArgumentException("Client full name or first name & last name " +
@@ -41,18 +54,18 @@ public class ClientSerializer implements JsonSerializer<Client>, JsonDeserialize
                         "be null or empty when full name is not provided.");
             }
 
-            jsonObject.addProperty("firstname", src.getFirstname());
-            jsonObject.addProperty("middlename", src.getMiddlename());
-            jsonObject.addProperty("lastname", src.getLastname());
+            out.name("firstname").value(src.getFirstname());
+            out.name("middlename").value(src.getMiddlename());
+            out.name("lastname").value(src.getLastname());
         }  else {
             if (src.getFullname().isEmpty()) {
                 throw new IllegalArgumentException("Client full name cannot be empty!");
             }
 
-            jsonObject.addProperty("fullname", src.getFullname());
+            out.name("fullname").value(src.getFullname());
         }
 
-        jsonObject.addProperty("active", src.getActive());
+        out.name("active").value(src.getActive());
         if (src.getActive()) {
             if (src.getActivationDate() == null) {
                 throw new IllegalArgumentException("Client activation date cannot be " +
@@ -63,15 +76,15 @@ public class ClientSerializer implements JsonSerializer<Client>, JsonDeserialize
                         "be null or empty when activation date is provided!");
             }
 
-            jsonObject.addProperty("activationDate", ParseUtil
+            out.name("activationDate").value(ParseUtil
                     .parseDateToString(src.getActivationDate(), src.getDateFormat(),
                             src.getLocale()));
-            jsonObject.addProperty("dateFormat", src.getDateFormat());
-            jsonObject.addProperty("locale", src.getLocale());
+            out.name("dateFormat").value(src.getDateFormat());
+            out.name("locale").value(src.getLocale());
         }
 
         if (src.getGroupId() != null) {
-            jsonObject.addProperty("groupId", src.getGroupId());
+            out.name("groupId").value(src.getGroupId());
         }
         if (src.getExternalId() != null) {
             if (src.getExternalId().length() > 100) {
@@ -79,145 +92,261 @@ public class ClientSerializer implements JsonSerializer<Client>, JsonDeserialize
                         "100 characters in length!");
             }
 
-            jsonObject.addProperty("externalId", src.getExternalId());
+            out.name("externalId").value(src.getExternalId());
         }
         if (src.getAccountNo() != null) {
-            jsonObject.addProperty("accountNo", src.getAccountNo());
+            out.name("accountNo").value(src.getAccountNo());
         }
         if (src.getStaffId() != null) {
-            jsonObject.addProperty("staffId", src.getStaffId());
+            out.name("staffId").value(src.getStaffId());
         }
         if (src.getMobileNo() != null) {
             if (src.getMobileNo().isEmpty()) {
                 throw new IllegalArgumentException("Client mobile number cannot be empty!");
             }
 
-            jsonObject.addProperty("mobileNo", src.getMobileNo());
+            out.name("mobileNo").value(src.getMobileNo());
         }
         if (src.getSavingsProductId() != null) {
-            jsonObject.addProperty("savingsProductId", src.getSavingsProductId());
+            out.name("savingsProductId").value(src.getSavingsProductId());
         }
         if (src.getGenderId() != null) {
-            jsonObject.addProperty("genderId", src.getGenderId());
+            out.name("genderId").value(src.getGenderId());
         }
         if (src.getClientTypeId() != null) {
-            jsonObject.addProperty("clientTypeId", src.getClientTypeId());
+            out.name("clientTypeId").value(src.getClientTypeId());
         }
         if (src.getClientClassificationId() != null) {
-            jsonObject.addProperty("clientClassificationId", src.getClientClassificationId());
+            out.name("clientClassificationId").value(src.getClientClassificationId());
         }
 
-        return jsonObject;
+        out.endObject();
     }
 
+
     @Override
-    public Client deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-        Client.Builder clientBuilder = null;
-        Client client = null;
-        final JsonObject jsonObject = json.getAsJsonObject();
-
-        try {
-            if (jsonObject.has("fullname")) {
-                clientBuilder = Client.fullname(jsonObject.get("fullname").getAsString());
-            } else {
-                clientBuilder = Client.firstname(jsonObject.has("firstname") ? jsonObject
-                        .get("firstname").getAsString() : null)
-                        .middlename(jsonObject.has("middlename") ? jsonObject
-                                .get("middlename").getAsString() : null)
-                        .lastname(jsonObject.has("lastname") ? jsonObject
-                                .get("lastname").getAsString() : null);
-            }
+    public Client read(final JsonReader in) throws IOException {
+        if (JsonReaderUtil.skipNull(in)) {
+            return null;
+        }
 
-            client = clientBuilder.clientClassificationId(jsonObject.has("clientClassification") &&
-                    jsonObject.get("clientClassification")
-                            .getAsJsonObject().has("id") ?
-                    jsonObject.get("clientClassification")
-                            .getAsJsonObject().get("id").getAsLong() : null)
-                    .clientTypeId(jsonObject.has("clientType") && jsonObject
-                            .get("clientType").getAsJsonObject().has("id") ?
-                            jsonObject.get("clientType").getAsJsonObject()
-                                    .get("id").getAsLong() : null)
-                    .accountNo(jsonObject.has("accountNo") ? jsonObject
-                            .get("accountNo").getAsString() : null)
-                    .activationDate(jsonObject.has("activationDate") ?
-                            ParseUtil.parseDateFromJsonArray(jsonObject
-                                    .get("activationDate").getAsJsonArray()) : null)
-                    .active(jsonObject.has("active") && jsonObject.get("active")
-                            .getAsBoolean())
-                    .externalId(jsonObject.has("externalId") ? jsonObject
-                            .get("externalId").getAsString() : null)
-                    .genderId(jsonObject.has("gender") && jsonObject.get("gender")
-                            .getAsJsonObject().has("id") ? jsonObject.get("gender")
-                            .getAsJsonObject().get("id").getAsLong() : null)
-                    .mobileNo(jsonObject.has("mobileNo") ? jsonObject
-                            .get("mobileNo").getAsString() : null)
-                    .officeId(jsonObject.get("officeId").getAsLong())
-                    .staffId(jsonObject.has("staffId") ? jsonObject
-                            .get("staffId").getAsLong() : null)
-                    .submittedOnDate(jsonObject.has("timeline") && jsonObject.get("timeline")
-                            .getAsJsonObject().has("submittedOnDate") ?
-                            ParseUtil.parseDateFromJsonArray(jsonObject.get("timeline")
-                                    .getAsJsonObject().get("submittedOnDate").getAsJsonArray()) : null)
-                    .build();
-
-            if (jsonObject.has("clientId")) {
-                client.setClientId(jsonObject.get("clientId").getAsLong());
-            } else {
-                client.setClientId(jsonObject.get("id").getAsLong());
-            }
+        String fullname = null;
+        String firstname = null;
+        String middlename = null;
+        String lastname = null;
+        final IdName classification = new IdName();
+        final IdName type = new IdName();
+        final IdName gender = new IdName();
+        String accountNo = null;
+        Date activationDate = null;
+        boolean active = false;
+        String externalId = null;
+        String mobileNo = null;
+        Long officeId = null;
+        Long staffId = null;
+        Long clientId = null;
+        Long id = null;
+        Long imageId = null;
+        Boolean imagePresent = null;
+        Long resourceId = null;
+        Long savingsAccountId = null;
+        Long savingsId = null;
+        String staffName = null;
+        String displayName = null;
+        String officeName = null;
+        StatusCode status = null;
+        Timeline timeline = null;
 
-            if (jsonObject.has("clientType") && jsonObject.get("clientType").getAsJsonObject()
-                    .has("name")) {
-                client.setClientTypeName(jsonObject.get("clientType").getAsJsonObject()
-                        .get("name").getAsString());
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "fullname":
+                    fullname = JsonReaderUtil.nextString(in);
+                    break;
+                case "firstname":
+                    firstname = JsonReaderUtil.nextString(in);
+                    break;
+                case "middlename":
+                    middlename = JsonReaderUtil.nextString(in);
+                    break;
+                case "lastname":
+                    lastname = JsonReaderUtil.nextString(in);
+                    break;
+                case "clientClassification":
+                    classification.read(in);
+                    break;
+                case "clientType":
+                    type.read(in);
+                    break;
+                case "gender":
+                    gender.read(in);
+                    break;
+                case "accountNo":
+                    accountNo = JsonReaderUtil.nextString(in);
+                    break;
+                case "activationDate":
+                    activationDate = JsonReaderUtil.nextDate(in);
+                    break;
+                case "active":
+                    active = JsonReaderUtil.nextBoolean(in);
+                    break;
+                case "externalId":
+                    externalId = JsonReaderUtil.nextString(in);
+                    break;
+                case "mobileNo":
+                    mobileNo = JsonReaderUtil.nextString(in);
+                    break;
+                case "officeId":
+                    officeId = JsonReaderUtil.nextLong(in);
+                    break;
+                case "staffId":
+                    staffId = JsonReaderUtil.nextLong(in);
+                    break;
+                case "clientId":
+                    clientId = JsonReaderUtil.nextLong(in);
+                    break;
+                case "id":
+                    id = JsonReaderUtil.nextLong(in);
+                    break;
+                case "imageId":
+                    imageId = JsonReaderUtil.nextLong(in);
+                    break;
+                case "imagePresent":
+                    imagePresent = JsonReaderUtil.nextBoolean(in);
+                    break;
+                case "resourceId":
+                    resourceId = JsonReaderUtil.nextLong(in);
+                    break;
+                case "savingsAccountId":
+                    savingsAccountId = JsonReaderUtil.nextLong(in);
+                    break;
+                case "savingsId":
+                    savingsId = JsonReaderUtil.nextLong(in);
+                    break;
+                case "staffName":
+                    staffName = JsonReaderUtil.nextString(in);
+                    break;
+                case "displayName":
+                    displayName = JsonReaderUtil.nextString(in);
+                    break;
+                case "officeName":
+                    officeName = JsonReaderUtil.nextString(in);
+                    break;
+                case "status":
+                    status = STATUS_ADAPTER.read(in);
+                    break;
+                case "timeline":
+                    timeline = TIMELINE_ADAPTER.read(in);
+                    break;
+                default:
+                    in.skipValue();
             }
-            if (jsonObject.has("timeline")) {
-                final Timeline timeline = new TimelineSerializer().deserialize(jsonObject
-                    .get("timeline"), null ,null);
+        }
+        in.endObject();
 
-                client.setTimeline(timeline);
-            }
-            if (jsonObject.has("gender") && jsonObject.get("gender")
-                    .getAsJsonObject().has("name")) {
-                client.setGenderName(jsonObject.get("gender").getAsJsonObject()
-                        .get("name").getAsString());
-            }
-            if (jsonObject.has("imageId")) {
-                client.setImageId(jsonObject.get("imageId").getAsLong());
-            }
-            if (jsonObject.has("imagePresent")) {
-                client.setImagePresent(jsonObject.get("imagePresent").getAsBoolean());
-            }
-            if (jsonObject.has("resourceId")) {
-                client.setResourceId(jsonObject.get("resourceId").getAsLong());
-            }
-            if (jsonObject.has("savingsAccountId")) {
-                client.setSavingsAccountId(jsonObject.get("savingsAccountId").getAsLong());
-            }
-            if (jsonObject.has("savingsId")) {
-                client.setSavingsId(jsonObject.get("savingsId").getAsLong());
-            }
-            if (jsonObject.has("staffName")) {
-                client.setStaffName(jsonObject.get("staffName").getAsString());
-            }
-            if (jsonObject.has("displayName")) {
-                client.setDisplayName(jsonObject.get("displayName").getAsString());
+        final Client.Builder clientBuilder;
+        if (fullname != null) {
+            clientBuilder = Client.fullname(fullname);
+        } else {
+            clientBuilder = Client.firstname(firstname)
+                    .middlename(middlename)
+                    .lastname(lastname);
+        }
+
+        final Client client = clientBuilder.clientClassificationId(classification.id)
+                .clientTypeId(type.id)
+                .accountNo(accountNo)
+                .activationDate(activationDate)
+                .active(active)
+                .externalId(externalId)
+                .genderId(gender.id)
+                .mobileNo(mobileNo)
+                .officeId(officeId)
+                .staffId(staffId)
+                .submittedOnDate(submittedOnDate(timeline))
+                .build();
+
+        client.setClientId(clientId != null ? clientId : id);
+        if (type.name != null) {
+            client.setClientTypeName(type.name);
+        }
+        if (timeline != null) {
+            client.setTimeline(timeline);
+        }
+        if (gender.name != null) {
+            client.setGenderName(gender.name);
+        }
+        if (imageId != null) {
+            client.setImageId(imageId);
+        }
+        if (imagePresent != null) {
+            client.setImagePresent(imagePresent);
+        }
+        if (resourceId != null) {
+            client.setResourceId(resourceId);
+        }
+        if (savingsAccountId != null) {
+            client.setSavingsAccountId(savingsAccountId);
+        }
+        if (savingsId != null) {
+            client.setSavingsId(savingsId);
+        }
+        if (staffName != null) {
+            client.setStaffName(staffName);
+        }
+        if (displayName != null) {
+            client.setDisplayName(displayName);
+        }
+        if (officeName != null) {
+            client.setOfficeName(officeName);
+        }
+        if (status != null) {
+            client.setStatus(status);
+        }
+
+        return client;
+    }
+
+    private static Date submittedOnDate(final Timeline timeline) {
+        if (timeline != null) {
+            for (final Event event : timeline.getEvents()) {
+                if (event.getType() == Event.Type.SUBMITTED) {
+                    return event.getDate();
+                }
             }
-            if (jsonObject.has("officeName")) {
-                client.setOfficeName(jsonObject.get("officeName").getAsString());
+        }
+        return null;
+    }
+
+    /**
+     * An ID and name pair, such as the gender or the client type.
+     */
+    private static final class IdName {
+
+        private Long id;
+        private String name;
+
+        private void read(final JsonReader in) throws IOException {
+            if (JsonReaderUtil.skipNull(in)) {
+                return;
             }
-            if (jsonObject.has("status")) {
-                final StatusCode statusCode = new StatusCodeSerializer().deserialize(jsonObject
-                    .get("status"), null, null);
 
-                client.setStatus(statusCode);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        this.id = JsonReaderUtil.nextLong(in);
+                        break;
+                    case "name":
+                        this.name = JsonReaderUtil.nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
             }
-        } catch (ParseException e) {
-            throw new IllegalStateException("There was error while deserializing the server" +
-                " response from the clients API endpoint.");
+            in.endObject();
         }
 
-        return client;
     }
 
 }
@@ -0,0 +1,233 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.mifos.sdk.group.domain.CollectionSheet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON type adapter for CollectionSheet. The generated sheet is read straight from
+ * the token stream, flattening the members of all its groups and skipping the
+ * product and option lists.
+ */
+public class CollectionSheetSerializer extends TypeAdapter<CollectionSheet> {
+
+    @Override
+    public void write(final JsonWriter out, final CollectionSheet src) throws IOException {
+        throw new UnsupportedOperationException("A collection sheet is only ever read.");
+    }
+
+    @Override
+    public CollectionSheet read(final JsonReader in) throws IOException {
+        if (JsonReaderUtil.skipNull(in)) {
+            return null;
+        }
+
+        final CollectionSheet sheet = new CollectionSheet();
+        final List<CollectionSheet.Member> members = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "dueDate":
+                    sheet.setDueDate(JsonReaderUtil.nextDate(in));
+                    break;
+                case "groups":
+                    if (JsonReaderUtil.skipNull(in)) {
+                        break;
+                    }
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        readGroup(in, members);
+                    }
+                    in.endArray();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        sheet.setMembers(members);
+
+        return sheet;
+    }
+
+    private static void readGroup(final JsonReader in, final List<CollectionSheet.Member> members)
+        throws IOException {
+        Long groupId = null;
+        final int first = members.size();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "groupId":
+                    groupId = JsonReaderUtil.nextLong(in);
+                    break;
+                case "clients":
+                    if (JsonReaderUtil.skipNull(in)) {
+                        break;
+                    }
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        members.add(readMember(in));
+                    }
+                    in.endArray();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        // the group ID may come after its clients
+        for (int i = first; i < members.size(); i++) {
+            members.get(i).setGroupId(groupId);
+        }
+    }
+
+    private static CollectionSheet.Member readMember(final JsonReader in) throws IOException {
+        final CollectionSheet.Member member = new CollectionSheet.Member();
+        final List<CollectionSheet.LoanDue> loans = new ArrayList<>();
+        final List<CollectionSheet.SavingsDue> savings = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "clientId":
+                    member.setClientId(JsonReaderUtil.nextLong(in));
+                    break;
+                case "clientName":
+                    member.setClientName(JsonReaderUtil.nextString(in));
+                    break;
+                case "attendanceType":
+                    member.setAttendanceType(readAttendanceType(in));
+                    break;
+                case "loans":
+                    if (JsonReaderUtil.skipNull(in)) {
+                        break;
+                    }
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        loans.add(readLoan(in));
+                    }
+                    in.endArray();
+                    break;
+                case "savings":
+                    if (JsonReaderUtil.skipNull(in)) {
+                        break;
+                    }
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        savings.add(readSavings(in));
+                    }
+                    in.endArray();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        member.setLoans(loans);
+        member.setSavings(savings);
+
+        return member;
+    }
+
+    /**
+     * Reads the attendance type, sent either as its ID or as an enum option.
+     */
+    private static Long readAttendanceType(final JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            return JsonReaderUtil.nextLong(in);
+        }
+
+        Long attendanceType = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("id")) {
+                attendanceType = JsonReaderUtil.nextLong(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return attendanceType;
+    }
+
+    private static CollectionSheet.LoanDue readLoan(final JsonReader in) throws IOException {
+        final CollectionSheet.LoanDue loan = new CollectionSheet.LoanDue();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "loanId":
+                    loan.setLoanId(JsonReaderUtil.nextLong(in));
+                    break;
+                case "accountId":
+                    loan.setAccountNo(JsonReaderUtil.nextString(in));
+                    break;
+                case "productId":
+                    loan.setProductId(JsonReaderUtil.nextLong(in));
+                    break;
+                case "productShortName":
+                    loan.setProductName(JsonReaderUtil.nextString(in));
+                    break;
+                case "disbursementAmount":
+                    loan.setDisbursementAmount(JsonReaderUtil.nextBigDecimal(in));
+                    break;
+                case "totalDue":
+                    loan.setTotalDue(JsonReaderUtil.nextBigDecimal(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return loan;
+    }
+
+    private static CollectionSheet.SavingsDue readSavings(final JsonReader in) throws IOException {
+        final CollectionSheet.SavingsDue savings = new CollectionSheet.SavingsDue();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "savingsId":
+                    savings.setSavingsId(JsonReaderUtil.nextLong(in));
+                    break;
+                case "accountId":
+                    savings.setAccountNo(JsonReaderUtil.nextString(in));
+                    break;
+                case "productId":
+                    savings.setProductId(JsonReaderUtil.nextLong(in));
+                    break;
+                case "productName":
+                    savings.setProductName(JsonReaderUtil.nextString(in));
+                    break;
+                case "dueAmount":
+                    savings.setDueAmount(JsonReaderUtil.nextBigDecimal(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return savings;
+    }
+
+}
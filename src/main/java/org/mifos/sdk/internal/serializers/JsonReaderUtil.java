@@ -0,0 +1,109 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.mifos.sdk.internal.ParseUtil;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Utility class reading values from a {@link JsonReader}, treating JSON nulls
+ * as absent values.
+ */
+public class JsonReaderUtil {
+
+    /**
+     * Reads the next value as a {@link String}.
+     * @param in the {@link JsonReader}
+     * @return the value, null if it is a JSON null
+     * @throws IOException
+     */
+    public static String nextString(final JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads the next value as a {@link Long}.
+     * @param in the {@link JsonReader}
+     * @return the value, null if it is a JSON null
+     * @throws IOException
+     */
+    public static Long nextLong(final JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        return in.nextLong();
+    }
+
+    /**
+     * Reads the next value as a {@link BigDecimal}, keeping the digits as sent.
+     * @param in the {@link JsonReader}
+     * @return the value, null if it is a JSON null
+     * @throws IOException
+     */
+    public static BigDecimal nextBigDecimal(final JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        return new BigDecimal(in.nextString());
+    }
+
+    /**
+     * Reads the next value as a boolean.
+     * @param in the {@link JsonReader}
+     * @return the value, false if it is a JSON null
+     * @throws IOException
+     */
+    public static boolean nextBoolean(final JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return false;
+        }
+        return in.nextBoolean();
+    }
+
+    /**
+     * Reads the next value as a {@link Date} in the form of [year, month, day].
+     * @param in the {@link JsonReader}
+     * @return the {@link Date}, null if it is a JSON null
+     * @throws IOException
+     */
+    public static Date nextDate(final JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        in.beginArray();
+        final int year = in.nextInt();
+        final int month = in.nextInt();
+        final int day = in.nextInt();
+        while (in.hasNext()) {
+            in.skipValue();
+        }
+        in.endArray();
+
+        return ParseUtil.parseDate(year, month, day);
+    }
+
+    /**
+     * Returns true and consumes the next value if it is a JSON null, false otherwise.
+     * @param in the {@link JsonReader}
+     * @throws IOException
+     */
+    public static boolean skipNull(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -5,26 +5,29 @@
  */
 package org.mifos.sdk.internal.serializers;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.mifos.sdk.internal.ParseUtil;
 import org.mifos.sdk.office.domain.Office;
 
-import java.lang.reflect.Type;
-import java.text.ParseException;
+import java.io.IOException;
+import java.util.Date;
 
 /**
- * JSON serializer for Office.
+ * JSON type adapter for Office. Responses are read straight from the token stream,
+ * without building a tree of the whole office first.
  */
-public class OfficeSerializer implements JsonSerializer<Office>, JsonDeserializer<Office> {
+public class OfficeSerializer extends TypeAdapter<Office> {
 
     @Override
-    public JsonElement serialize(final Office src, Type typeOfSrc, JsonSerializationContext context) {
-        final JsonObject jsonObject = new JsonObject();
+    public void write(final JsonWriter out, final Office src) throws IOException {
+        if (src == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
 
         if (src.getName() == null || src.getParentId() == null || src.getOpeningDate() == null) {
             throw new IllegalArgumentException("Office name, parent ID and opening date cannot be null!");
@@ -36,11 +39,11 @@ public class OfficeSerializer implements JsonSerializer<Office>, JsonDeserialize
                     "by opening date and cannot be null and/or empty!");
         }
 
-        jsonObject.addProperty("name", src.getName());
-        jsonObject.addProperty("dateFormat", src.getDateFormat());
-        jsonObject.addProperty("locale", src.getLocale());
-        jsonObject.addProperty("parentId", src.getParentId());
-        jsonObject.addProperty("openingDate", ParseUtil.parseDateToString(src.getOpeningDate(),
+        out.name("name").value(src.getName());
+        out.name("dateFormat").value(src.getDateFormat());
+        out.name("locale").value(src.getLocale());
+        out.name("parentId").value(src.getParentId());
+        out.name("openingDate").value(ParseUtil.parseDateToString(src.getOpeningDate(),
                 src.getDateFormat(), src.getLocale()));
 
         if (src.getNameDecorated() != null) {
@@ -48,7 +51,7 @@ public class OfficeSerializer implements JsonSerializer<Office>, JsonDeserialize
                 throw new IllegalArgumentException("Office name decorated cannot be empty!");
             }
 
-            jsonObject.addProperty("nameDecorated", src.getNameDecorated());
+            out.name("nameDecorated").value(src.getNameDecorated());
         }
         if (src.getExternalId() != null) {
             if (src.getExternalId().isEmpty()) {
@@ -58,42 +61,65 @@ public class OfficeSerializer implements JsonSerializer<Office>, JsonDeserialize
                         "than 100 characters in length!");
             }
 
-            jsonObject.addProperty("externalId", src.getExternalId());
+            out.name("externalId").value(src.getExternalId());
         }
 
-        return jsonObject;
+        out.endObject();
     }
 
+
     @Override
-    public Office deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-        Office office = null;
-        final JsonObject jsonObject = json.getAsJsonObject();
-
-        try {
-            office  = Office.name(jsonObject.has("name") ? jsonObject
-                    .get("name").getAsString() : null)
-                    .externalId(jsonObject.has("externalId") ? jsonObject
-                            .get("externalId").getAsString() : null)
-                    .nameDecorated(jsonObject.has("nameDecorated") ? jsonObject
-                            .get("nameDecorated").getAsString() : null)
-                    .openingDate(jsonObject.has("openingDate") ? ParseUtil
-                            .parseDateFromJsonArray(jsonObject.get("openingDate")
-                                    .getAsJsonArray()) : null)
-                    .build();
-
-            String idParam = null;
-            if (jsonObject.has("officeId")) {
-                idParam = "officeId";
-            } else {
-                idParam = "id";
-            }
+    public Office read(final JsonReader in) throws IOException {
+        if (JsonReaderUtil.skipNull(in)) {
+            return null;
+        }
 
-            office.setResourceId(jsonObject.has("resourceId") ? jsonObject
-                    .get("resourceId").getAsLong() : null);
-            office.setOfficeId(jsonObject.get(idParam).getAsLong());
-        } catch (ParseException e){
-            throw new IllegalStateException("There was error while deserializing the server response from the office API endpoint.");
+        String name = null;
+        String externalId = null;
+        String nameDecorated = null;
+        Date openingDate = null;
+        Long officeId = null;
+        Long id = null;
+        Long resourceId = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    name = JsonReaderUtil.nextString(in);
+                    break;
+                case "externalId":
+                    externalId = JsonReaderUtil.nextString(in);
+                    break;
+                case "nameDecorated":
+                    nameDecorated = JsonReaderUtil.nextString(in);
+                    break;
+                case "openingDate":
+                    openingDate = JsonReaderUtil.nextDate(in);
+                    break;
+                case "officeId":
+                    officeId = JsonReaderUtil.nextLong(in);
+                    break;
+                case "id":
+                    id = JsonReaderUtil.nextLong(in);
+                    break;
+                case "resourceId":
+                    resourceId = JsonReaderUtil.nextLong(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
         }
+        in.endObject();
+
+        final Office office = Office.name(name)
+                .externalId(externalId)
+                .nameDecorated(nameDecorated)
+                .openingDate(openingDate)
+                .build();
+
+        office.setResourceId(resourceId);
+        office.setOfficeId(officeId != null ? officeId : id);
 
         return office;
     }
@@ -0,0 +1,87 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.mifos.sdk.internal.FlightRecorderEvents;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Gson {@link TypeAdapterFactory} emitting a Java Flight Recorder event for every
+ * instance of the given types written or read by the serializers registered before
+ * it. On JVMs where {@link FlightRecorderEvents} are not supported the serializers
+ * are left as they are.
+ */
+public class RecordedTypeAdapterFactory implements TypeAdapterFactory {
+
+    private final Set<Class<?>> types;
+
+    /**
+     * Constructs a new {@link RecordedTypeAdapterFactory}.
+     * @param types the types whose serializers are recorded
+     */
+    public RecordedTypeAdapterFactory(final Class<?>... types) {
+        Preconditions.checkNotNull(types);
+
+        this.types = ImmutableSet.copyOf(types);
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+        if (!FlightRecorderEvents.isSupported() || !this.types.contains(type.getRawType())) {
+            return null;
+        }
+        return recorded(type.getRawType().getSimpleName(), gson.getDelegateAdapter(this, type));
+    }
+
+    /**
+     * Returns a {@link TypeAdapter} recording the invocations of another one, for
+     * the serializers calling each other directly.
+     * @param type the type read and written
+     * @param adapter the {@link TypeAdapter} to record
+     * @param <T> the type read and written
+     */
+    public static <T> TypeAdapter<T> recorded(final Class<T> type, final TypeAdapter<T> adapter) {
+        Preconditions.checkNotNull(type);
+        Preconditions.checkNotNull(adapter);
+
+        return FlightRecorderEvents.isSupported() ? recorded(type.getSimpleName(), adapter) : adapter;
+    }
+
+    private static <T> TypeAdapter<T> recorded(final String name, final TypeAdapter<T> adapter) {
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(final JsonWriter out, final T value) throws IOException {
+                final Object event = FlightRecorderEvents.beginSerialization();
+                try {
+                    adapter.write(out, value);
+                } finally {
+                    FlightRecorderEvents.commitSerialization(event, name, true);
+                }
+            }
+
+            @Override
+            public T read(final JsonReader in) throws IOException {
+                final Object event = FlightRecorderEvents.beginSerialization();
+                try {
+                    return adapter.read(in);
+                } finally {
+                    FlightRecorderEvents.commitSerialization(event, name, false);
+                }
+            }
+        };
+    }
+
+}
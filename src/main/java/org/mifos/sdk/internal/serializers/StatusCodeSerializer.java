@@ -5,33 +5,57 @@
  */
 package org.mifos.sdk.internal.serializers;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.mifos.sdk.internal.accounts.StatusCode;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
- * JSON deserializer for StatusCode.
+ * JSON type adapter for StatusCode.
  */
-public class StatusCodeSerializer implements JsonDeserializer<StatusCode> {
+public class StatusCodeSerializer extends TypeAdapter<StatusCode> {
 
     @Override
-    public StatusCode deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-        final StatusCode statusCode = new StatusCode();
-        final JsonObject jsonObject = json.getAsJsonObject();
-
-        if (jsonObject.has("id")) {
-            statusCode.setId(jsonObject.get("id").getAsLong());
+    public void write(final JsonWriter out, final StatusCode src) throws IOException {
+        if (src == null) {
+            out.nullValue();
+            return;
         }
-        if (jsonObject.has("code")) {
-            statusCode.setCode(jsonObject.get("code").getAsString());
+
+        out.beginObject();
+        out.name("id").value(src.getId());
+        out.name("code").value(src.getCode());
+        out.name("value").value(src.getValue());
+        out.endObject();
+    }
+
+    @Override
+    public StatusCode read(final JsonReader in) throws IOException {
+        if (JsonReaderUtil.skipNull(in)) {
+            return null;
         }
-        if (jsonObject.has("value")) {
-            statusCode.setValue(jsonObject.get("value").getAsString());
+
+        final StatusCode statusCode = new StatusCode();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    statusCode.setId(JsonReaderUtil.nextLong(in));
+                    break;
+                case "code":
+                    statusCode.setCode(JsonReaderUtil.nextString(in));
+                    break;
+                case "value":
+                    statusCode.setValue(JsonReaderUtil.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
         }
+        in.endObject();
 
         return statusCode;
     }
@@ -5,386 +5,143 @@
  */
 package org.mifos.sdk.internal.serializers;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import org.mifos.sdk.internal.ParseUtil;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.mifos.sdk.internal.accounts.Event;
 import org.mifos.sdk.internal.accounts.Timeline;
 
-import java.lang.reflect.Type;
-import java.text.ParseException;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Map;
 
 /**
- * JSON deserializer for Timeline.
+ * JSON type adapter for Timeline. The timeline is read in a single pass, each
+ * field being dispatched by name into the slot of its event.
+ * <p>
+ * A timeline is written back with the field names of the Mifos X API it is read
+ * from, such as {@code submittedOnDate} and {@code submittedByUsername}, so that it
+ * round trips. Before this adapter, Gson wrote timelines reflectively in the form
+ * {@code {"events":[...]}}, which this adapter cannot read and no longer writes.
  */
-public class TimelineSerializer implements JsonDeserializer<Timeline> {
+public class TimelineSerializer extends TypeAdapter<Timeline> {
 
-    @Override
-    public Timeline deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-        final JsonObject jsonObject = json.getAsJsonObject();
-        final Timeline timeline = new Timeline();
-        Event submittedEvent = null;
-        Event activatedEvent = null;
-        Event approvedEvent = null;
-        Event withdrawnEvent = null;
-        Event closedEvent = null;
-        Event rejectedEvent = null;
-        Event writeOffEvent = null;
-        Event disbursedEvent = null;
-        final List<Event> events = new ArrayList<>();
+    private static final int DATE = 0;
+    private static final int USERNAME = 1;
+    private static final int FIRSTNAME = 2;
+    private static final int LASTNAME = 3;
 
-        try {
-            // Submitted Event
-            if (jsonObject.has("submittedOnDate")) {
-                if (submittedEvent == null) {
-                    submittedEvent = new Event();
-                    submittedEvent.setType(Event.Type.SUBMITTED);
-                }
-                submittedEvent.setDate(ParseUtil.parseDateFromJsonArray(jsonObject
-                    .get("submittedOnDate").getAsJsonArray()));
-                if (!events.contains(submittedEvent)) {
-                    events.add(submittedEvent);
-                }
-            }
-            if (jsonObject.has("submittedByUsername")) {
-                if (submittedEvent == null) {
-                    submittedEvent = new Event();
-                    submittedEvent.setType(Event.Type.SUBMITTED);
-                }
-                submittedEvent.setUsername(jsonObject.get("submittedByUsername").getAsString());
-                if (!events.contains(submittedEvent)) {
-                    events.add(submittedEvent);
-                }
-            }
-            if (jsonObject.has("submittedByFirstname")) {
-                if (submittedEvent == null) {
-                    submittedEvent = new Event();
-                    submittedEvent.setType(Event.Type.SUBMITTED);
-                }
-                submittedEvent.setFirstname(jsonObject.get("submittedByFirstname").getAsString());
-                if (!events.contains(submittedEvent)) {
-                    events.add(submittedEvent);
-                }
-            }
-            if (jsonObject.has("submittedByLastname")) {
-                if (submittedEvent == null) {
-                    submittedEvent = new Event();
-                    submittedEvent.setType(Event.Type.SUBMITTED);
-                }
-                submittedEvent.setLastname(jsonObject.get("submittedByLastname").getAsString());
-                if (!events.contains(submittedEvent)) {
-                    events.add(submittedEvent);
-                }
-            }
+    private static final Event.Type[] TYPES = Event.Type.values();
 
-            // Activated Event
-            if (jsonObject.has("activatedOnDate")) {
-                if (activatedEvent == null) {
-                    activatedEvent = new Event();
-                    activatedEvent.setType(Event.Type.ACTIVATED);
-                }
-                activatedEvent.setDate(ParseUtil.parseDateFromJsonArray(jsonObject
-                    .get("activatedOnDate").getAsJsonArray()));
-                if (!events.contains(activatedEvent)) {
-                    events.add(activatedEvent);
-                }
-            }
-            if (jsonObject.has("activatedByUsername")) {
-                if (activatedEvent == null) {
-                    activatedEvent = new Event();
-                    activatedEvent.setType(Event.Type.ACTIVATED);
-                }
-                activatedEvent.setUsername(jsonObject.get("activatedByUsername").getAsString());
-                if (!events.contains(activatedEvent)) {
-                    events.add(activatedEvent);
-                }
-            }
-            if (jsonObject.has("activatedByFirstname")) {
-                if (activatedEvent == null) {
-                    activatedEvent = new Event();
-                    activatedEvent.setType(Event.Type.ACTIVATED);
-                }
-                activatedEvent.setFirstname(jsonObject.get("activatedByFirstname").getAsString());
-                if (!events.contains(activatedEvent)) {
-                    events.add(activatedEvent);
-                }
-            }
-            if (jsonObject.has("activatedByLastname")) {
-                if (activatedEvent == null) {
-                    activatedEvent = new Event();
-                    activatedEvent.setType(Event.Type.ACTIVATED);
-                }
-                activatedEvent.setLastname(jsonObject.get("activatedByLastname").getAsString());
-                if (!events.contains(activatedEvent)) {
-                    events.add(activatedEvent);
-                }
-            }
+    /**
+     * The JSON field names of every event, indexed by the ordinal of the event
+     * type and then by the attribute.
+     */
+    private static final String[][] FIELD_NAMES = {
+        {"submittedOnDate", "submittedByUsername", "submittedByFirstname", "submittedByLastname"},
+        {"activatedOnDate", "activatedByUsername", "activatedByFirstname", "activatedByLastname"},
+        {"approvedOnDate", "approvedByUsername", "approvedByFirstname", "approvedByLastname"},
+        {"withdrawnOnDate", "withdrawnByUsername", "withdrawnByFirstname", "withdrawnByLastname"},
+        {"closedOnDate", "closedByUsername", "closedByFirstname", "closedByLastname"},
+        {"rejectedOnDate", "rejectedByUsername", "rejectedByFirstname", "rejectedByLastname"},
+        {"writeOffOnDate", "writeOffByUsername", "writeOffByFirstname", "writeOffByLastname"},
+        {"actualDisbursementDate", "disbursedByUsername", "disbursedByFirstname", "disbursedByLastname"}
+    };
 
-            // Approved Event
-            if (jsonObject.has("approvedOnDate")) {
-                if (approvedEvent == null) {
-                    approvedEvent = new Event();
-                    approvedEvent.setType(Event.Type.APPROVED);
-                }
-                approvedEvent.setDate(ParseUtil.parseDateFromJsonArray(jsonObject
-                    .get("approvedOnDate").getAsJsonArray()));
-                if (!events.contains(approvedEvent)) {
-                    events.add(approvedEvent);
-                }
-            }
-            if (jsonObject.has("approvedByUsername")) {
-                if (approvedEvent == null) {
-                    approvedEvent = new Event();
-                    approvedEvent.setType(Event.Type.APPROVED);
-                }
-                approvedEvent.setUsername(jsonObject.get("approvedByUsername").getAsString());
-                if (!events.contains(approvedEvent)) {
-                    events.add(approvedEvent);
-                }
-            }
-            if (jsonObject.has("approvedByFirstname")) {
-                if (approvedEvent == null) {
-                    approvedEvent = new Event();
-                    approvedEvent.setType(Event.Type.APPROVED);
-                }
-                approvedEvent.setFirstname(jsonObject.get("approvedByFirstname").getAsString());
-                if (!events.contains(approvedEvent)) {
-                    events.add(approvedEvent);
-                }
-            }
-            if (jsonObject.has("approvedByLastname")) {
-                if (approvedEvent == null) {
-                    approvedEvent = new Event();
-                    approvedEvent.setType(Event.Type.APPROVED);
-                }
-                approvedEvent.setLastname(jsonObject.get("approvedByLastname").getAsString());
-                if (!events.contains(approvedEvent)) {
-                    events.add(approvedEvent);
-                }
-            }
+    /**
+     * Maps every JSON field name to its event type ordinal times four plus its attribute.
+     */
+    private static final Map<String, Integer> FIELDS;
 
-            // Withdrawn Event
-            if (jsonObject.has("withdrawnOnDate")) {
-                if (withdrawnEvent == null) {
-                    withdrawnEvent = new Event();
-                    withdrawnEvent.setType(Event.Type.WITHDRAWN);
-                }
-                withdrawnEvent.setDate(ParseUtil.parseDateFromJsonArray(jsonObject
-                    .get("withdrawnOnDate").getAsJsonArray()));
-                if (!events.contains(withdrawnEvent)) {
-                    events.add(withdrawnEvent);
-                }
-            }
-            if (jsonObject.has("withdrawnByUsername")) {
-                if (withdrawnEvent == null) {
-                    withdrawnEvent = new Event();
-                    withdrawnEvent.setType(Event.Type.WITHDRAWN);
-                }
-                withdrawnEvent.setUsername(jsonObject.get("withdrawnByUsername").getAsString());
-                if (!events.contains(withdrawnEvent)) {
-                    events.add(withdrawnEvent);
-                }
-            }
-            if (jsonObject.has("withdrawnByFirstname")) {
-                if (withdrawnEvent == null) {
-                    withdrawnEvent = new Event();
-                    withdrawnEvent.setType(Event.Type.WITHDRAWN);
-                }
-                withdrawnEvent.setFirstname(jsonObject.get("withdrawnByFirstname").getAsString());
-                if (!events.contains(withdrawnEvent)) {
-                    events.add(withdrawnEvent);
-                }
-            }
-            if (jsonObject.has("withdrawnByLastname")) {
-                if (withdrawnEvent == null) {
-                    withdrawnEvent = new Event();
-                    withdrawnEvent.setType(Event.Type.WITHDRAWN);
-                }
-                withdrawnEvent.setLastname(jsonObject.get("withdrawnByLastname").getAsString());
-                if (!events.contains(withdrawnEvent)) {
-                    events.add(withdrawnEvent);
-                }
+    static {
+        final ImmutableMap.Builder<String, Integer> fields = ImmutableMap.builder();
+        for (int type = 0; type < FIELD_NAMES.length; type++) {
+            for (int attribute = DATE; attribute <= LASTNAME; attribute++) {
+                fields.put(FIELD_NAMES[type][attribute], type * 4 + attribute);
             }
+        }
+        FIELDS = fields.build();
+    }
 
-            // Closed Event
-            if (jsonObject.has("closedOnDate")) {
-                if (closedEvent == null) {
-                    closedEvent = new Event();
-                    closedEvent.setType(Event.Type.CLOSED);
-                }
-                closedEvent.setDate(ParseUtil.parseDateFromJsonArray(jsonObject
-                    .get("closedOnDate").getAsJsonArray()));
-                if (!events.contains(closedEvent)) {
-                    events.add(closedEvent);
-                }
-            }
-            if (jsonObject.has("closedByUsername")) {
-                if (closedEvent == null) {
-                    closedEvent = new Event();
-                    closedEvent.setType(Event.Type.CLOSED);
-                }
-                closedEvent.setUsername(jsonObject.get("closedByUsername").getAsString());
-                if (!events.contains(closedEvent)) {
-                    events.add(closedEvent);
-                }
-            }
-            if (jsonObject.has("closedByFirstname")) {
-                if (closedEvent == null) {
-                    closedEvent = new Event();
-                    closedEvent.setType(Event.Type.CLOSED);
-                }
-                closedEvent.setFirstname(jsonObject.get("closedByFirstname").getAsString());
-                if (!events.contains(closedEvent)) {
-                    events.add(closedEvent);
-                }
-            }
-            if (jsonObject.has("closedByLastname")) {
-                if (closedEvent == null) {
-                    closedEvent = new Event();
-                    closedEvent.setType(Event.Type.CLOSED);
-                }
-                closedEvent.setLastname(jsonObject.get("closedByLastname").getAsString());
-                if (!events.contains(closedEvent)) {
-                    events.add(closedEvent);
-                }
-            }
+    @Override
+    public void write(final JsonWriter out, final Timeline src) throws IOException {
+        if (src == null) {
+            out.nullValue();
+            return;
+        }
 
-            // Rejected Event
-            if (jsonObject.has("rejectedOnDate")) {
-                if (rejectedEvent == null) {
-                    rejectedEvent = new Event();
-                    rejectedEvent.setType(Event.Type.REJECTED);
-                }
-                rejectedEvent.setDate(ParseUtil.parseDateFromJsonArray(jsonObject
-                    .get("rejectedOnDate").getAsJsonArray()));
-                if (!events.contains(rejectedEvent)) {
-                    events.add(rejectedEvent);
-                }
-            }
-            if (jsonObject.has("rejectedByUsername")) {
-                if (rejectedEvent == null) {
-                    rejectedEvent = new Event();
-                    rejectedEvent.setType(Event.Type.REJECTED);
-                }
-                rejectedEvent.setUsername(jsonObject.get("rejectedByUsername").getAsString());
-                if (!events.contains(rejectedEvent)) {
-                    events.add(rejectedEvent);
-                }
-            }
-            if (jsonObject.has("rejectedByFirstname")) {
-                if (rejectedEvent == null) {
-                    rejectedEvent = new Event();
-                    rejectedEvent.setType(Event.Type.REJECTED);
-                }
-                rejectedEvent.setFirstname(jsonObject.get("rejectedByFirstname").getAsString());
-                if (!events.contains(rejectedEvent)) {
-                    events.add(rejectedEvent);
-                }
-            }
-            if (jsonObject.has("rejectedByLastname")) {
-                if (rejectedEvent == null) {
-                    rejectedEvent = new Event();
-                    rejectedEvent.setType(Event.Type.REJECTED);
-                }
-                rejectedEvent.setLastname(jsonObject.get("rejectedByLastname").getAsString());
-                if (!events.contains(rejectedEvent)) {
-                    events.add(rejectedEvent);
-                }
+        out.beginObject();
+        if (src.getEvents() != null) {
+            for (final Event event : src.getEvents()) {
+                final String[] names = FIELD_NAMES[event.getType().ordinal()];
+                if (event.getDate() != null) {
+                    final Calendar calendar = new GregorianCalendar();
+                    calendar.setTime(event.getDate());
+                    out.name(names[DATE]).beginArray()
+                        .value(calendar.get(Calendar.YEAR))
+                        .value(calendar.get(Calendar.MONTH) + 1)
+                        .value(calendar.get(Calendar.DAY_OF_MONTH))
+                        .endArray();
+                }
+                out.name(names[USERNAME]).value(event.getUsername());
+                out.name(names[FIRSTNAME]).value(event.getFirstname());
+                out.name(names[LASTNAME]).value(event.getLastname());
             }
+        }
+        out.endObject();
+    }
 
-            // Write Off Event
-            if (jsonObject.has("writeOffOnDate")) {
-                if (writeOffEvent == null) {
-                    writeOffEvent = new Event();
-                    writeOffEvent.setType(Event.Type.WRITEOFF);
-                }
-                writeOffEvent.setDate(ParseUtil.parseDateFromJsonArray(jsonObject
-                    .get("writeOffOnDate").getAsJsonArray()));
-                if (!events.contains(writeOffEvent)) {
-                    events.add(writeOffEvent);
-                }
-            }
-            if (jsonObject.has("writeOffByUsername")) {
-                if (writeOffEvent == null) {
-                    writeOffEvent = new Event();
-                    writeOffEvent.setType(Event.Type.WRITEOFF);
-                }
-                writeOffEvent.setUsername(jsonObject.get("writeOffByUsername").getAsString());
-                if (!events.contains(writeOffEvent)) {
-                    events.add(writeOffEvent);
-                }
-            }
-            if (jsonObject.has("writeOffByFirstname")) {
-                if (writeOffEvent == null) {
-                    writeOffEvent = new Event();
-                    writeOffEvent.setType(Event.Type.WRITEOFF);
-                }
-                writeOffEvent.setFirstname(jsonObject.get("writeOffByFirstname").getAsString());
-                if (!events.contains(writeOffEvent)) {
-                    events.add(writeOffEvent);
-                }
-            }
-            if (jsonObject.has("writeOffByLastname")) {
-                if (writeOffEvent == null) {
-                    writeOffEvent = new Event();
-                    writeOffEvent.setType(Event.Type.WRITEOFF);
-                }
-                writeOffEvent.setLastname(jsonObject.get("writeOffByLastname").getAsString());
-                if (!events.contains(writeOffEvent)) {
-                    events.add(writeOffEvent);
-                }
-            }
+    @Override
+    public Timeline read(final JsonReader in) throws IOException {
+        if (JsonReaderUtil.skipNull(in)) {
+            return null;
+        }
 
-            // Disbursed Event
-            if (jsonObject.has("actualDisbursementDate")) {
-                if (disbursedEvent == null) {
-                    disbursedEvent = new Event();
-                    disbursedEvent.setType(Event.Type.DISBURSED);
-                }
-                disbursedEvent.setDate(ParseUtil.parseDateFromJsonArray(jsonObject
-                    .get("actualDisbursementDate").getAsJsonArray()));
-                if (!events.contains(disbursedEvent)) {
-                    events.add(disbursedEvent);
-                }
-            }
-            if (jsonObject.has("disbursedByUsername")) {
-                if (disbursedEvent == null) {
-                    disbursedEvent = new Event();
-                    disbursedEvent.setType(Event.Type.DISBURSED);
-                }
-                disbursedEvent.setUsername(jsonObject.get("disbursedByUsername").getAsString());
-                if (!events.contains(disbursedEvent)) {
-                    events.add(disbursedEvent);
-                }
+        final Event[] slots = new Event[FIELD_NAMES.length];
+
+        in.beginObject();
+        while (in.hasNext()) {
+            final Integer field = FIELDS.get(in.nextName());
+            if (field == null) {
+                in.skipValue();
+                continue;
             }
-            if (jsonObject.has("disbursedByFirstname")) {
-                if (disbursedEvent == null) {
-                    disbursedEvent = new Event();
-                    disbursedEvent.setType(Event.Type.DISBURSED);
-                }
-                disbursedEvent.setFirstname(jsonObject.get("disbursedByFirstname").getAsString());
-                if (!events.contains(disbursedEvent)) {
-                    events.add(disbursedEvent);
-                }
+
+            final int type = field / 4;
+            Event event = slots[type];
+            if (event == null) {
+                event = new Event();
+                event.setType(TYPES[type]);
+                slots[type] = event;
+            }
+            switch (field % 4) {
+                case DATE:
+                    event.setDate(JsonReaderUtil.nextDate(in));
+                    break;
+                case USERNAME:
+                    event.setUsername(JsonReaderUtil.nextString(in));
+                    break;
+                case FIRSTNAME:
+                    event.setFirstname(JsonReaderUtil.nextString(in));
+                    break;
+                default:
+                    event.setLastname(JsonReaderUtil.nextString(in));
             }
-            if (jsonObject.has("disbursedByLastname")) {
-                if (disbursedEvent == null) {
-                    disbursedEvent = new Event();
-                    disbursedEvent.setType(Event.Type.DISBURSED);
-                }
-                disbursedEvent.setLastname(jsonObject.get("disbursedByLastname").getAsString());
-                if (!events.contains(disbursedEvent)) {
-                    events.add(disbursedEvent);
-                }
+        }
+        in.endObject();
+
+        final List<Event> events = new ArrayList<>(slots.length);
+        for (final Event event : slots) {
+            if (event != null) {
+                events.add(event);
             }
-        } catch (ParseException e) {
-            throw new IllegalStateException("There was error while deserializing. " + e.getMessage());
         }
 
+        final Timeline timeline = new Timeline();
         timeline.setEvents(events);
 
         return timeline;
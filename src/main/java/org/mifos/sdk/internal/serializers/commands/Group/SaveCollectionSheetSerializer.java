@@ -5,37 +5,81 @@
  */
 package org.mifos.sdk.internal.serializers.commands.group;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
 import org.mifos.sdk.internal.ParseUtil;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.util.List;
 
 /**
- * JSON serializer for SaveCollectionSheetCommand.
+ * JSON type adapter for SaveCollectionSheetCommand. The attendance, repayments and
+ * disbursements are written as nested arrays straight to the stream.
  */
-public class SaveCollectionSheetSerializer implements JsonSerializer<SaveCollectionSheetCommand> {
+public class SaveCollectionSheetSerializer extends TypeAdapter<SaveCollectionSheetCommand> {
 
     @Override
-    public JsonElement serialize(final SaveCollectionSheetCommand src, Type typeOfSrc,
-                                 JsonSerializationContext context) {
-        final JsonObject jsonObject = new JsonObject();
-        jsonObject.addProperty("dateFormat", src.getDateFormat());
-        jsonObject.addProperty("locale", src.getLocale());
-        jsonObject.addProperty("calendarId", src.getCalendarId());
-        jsonObject.addProperty("transactionDate", ParseUtil.parseDateToString(src.getTransactionDate(),
+    public void write(final JsonWriter out, final SaveCollectionSheetCommand src) throws IOException {
+        if (src == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("dateFormat").value(src.getDateFormat());
+        out.name("locale").value(src.getLocale());
+        out.name("calendarId").value(src.getCalendarId());
+        out.name("transactionDate").value(ParseUtil.parseDateToString(src.getTransactionDate(),
             src.getDateFormat(), src.getLocale()));
-        jsonObject.addProperty("actualDisbursementDate", ParseUtil.parseDateToString(src.getActualDisbursementDate(),
+        out.name("actualDisbursementDate").value(ParseUtil.parseDateToString(src.getActualDisbursementDate(),
             src.getDateFormat(), src.getLocale()));
-        jsonObject.addProperty("clientsAttendance", new Gson().toJson(src.getClientsAttendance()));
-        jsonObject.addProperty("bulkDisbursementTransactions", new Gson().toJson(src.getBulkDisbursementTransactions()));
-        jsonObject.addProperty("bulkRepaymentTransactions", new Gson().toJson(src.getBulkRepaymentTransactions()));
 
-        return jsonObject;
+        final List<SaveCollectionSheetCommand.ClientAttendance> clientsAttendance = src.getClientsAttendance();
+        if (clientsAttendance != null) {
+            out.name("clientsAttendance").beginArray();
+            for (final SaveCollectionSheetCommand.ClientAttendance attendance : clientsAttendance) {
+                out.beginObject();
+                out.name("clientId").value(attendance.getClientId());
+                out.name("attendanceType").value(attendance.getAttendanceType());
+                out.endObject();
+            }
+            out.endArray();
+        }
+
+        final List<SaveCollectionSheetCommand.BulkDisbursementTransaction> disbursements =
+            src.getBulkDisbursementTransactions();
+        if (disbursements != null) {
+            out.name("bulkDisbursementTransactions").beginArray();
+            for (final SaveCollectionSheetCommand.BulkDisbursementTransaction disbursement : disbursements) {
+                out.beginObject();
+                out.name("loanId").value(disbursement.getLoanId());
+                out.name("transactionAmount").value(disbursement.getTransactionAmount());
+                out.endObject();
+            }
+            out.endArray();
+        }
+
+        final List<SaveCollectionSheetCommand.BulkRepaymentTransaction> repayments =
+            src.getBulkRepaymentTransactions();
+        if (repayments != null) {
+            out.name("bulkRepaymentTransactions").beginArray();
+            for (final SaveCollectionSheetCommand.BulkRepaymentTransaction repayment : repayments) {
+                out.beginObject();
+                out.name("loanId").value(repayment.getLoanId());
+                out.name("transactionAmount").value(repayment.getTransactionAmount());
+                out.endObject();
+            }
+            out.endArray();
+        }
+
+        out.endObject();
+    }
+
+    @Override
+    public SaveCollectionSheetCommand read(final JsonReader in) throws IOException {
+        throw new UnsupportedOperationException("A collection sheet command is only ever written.");
     }
 
 }
@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.limit;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive increase, multiplicative decrease limit. The limit grows by one for every
+ * request completed in time while the limit is being used, and shrinks by the backoff
+ * ratio whenever a request fails or takes longer than the timeout.
+ */
+public class AimdLimit implements ConcurrencyLimit {
+
+    /** Default initial limit. */
+    public static final int DEFAULT_INITIAL_LIMIT = 10;
+    /** Default maximum limit. */
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    /** Default ratio the limit is multiplied by on a drop. */
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+    /** Default latency above which a request counts as dropped, 5 seconds. */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+    private volatile int limit;
+
+    /**
+     * Constructs a new {@link AimdLimit} with the default settings.
+     */
+    public AimdLimit() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_BACKOFF_RATIO,
+            DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs a new {@link AimdLimit}.
+     * @param initialLimit the limit before any request has completed
+     * @param maxLimit the maximum limit
+     * @param backoffRatio the ratio the limit is multiplied by on a drop, between 0.5 and 1
+     * @param timeout the latency above which a request counts as dropped
+     * @param unit the unit of the timeout
+     */
+    public AimdLimit(final int initialLimit, final int maxLimit, final double backoffRatio,
+                     final long timeout, final TimeUnit unit) {
+        Preconditions.checkArgument(initialLimit > 0, "Initial limit must be positive!");
+        Preconditions.checkArgument(maxLimit >= initialLimit, "Max limit cannot be below the initial limit!");
+        Preconditions.checkArgument(backoffRatio >= 0.5 && backoffRatio < 1, "Backoff ratio must be in [0.5, 1)!");
+        Preconditions.checkNotNull(unit);
+        Preconditions.checkArgument(timeout > 0, "Timeout must be positive!");
+        this.limit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    @Override
+    public int getLimit() {
+        return this.limit;
+    }
+
+    @Override
+    public synchronized void onSample(final long rttNanos, final int inFlight, final boolean dropped) {
+        if (dropped || rttNanos > this.timeoutNanos) {
+            this.limit = Math.max(1, (int) (this.limit * this.backoffRatio));
+        } else if (inFlight * 2 >= this.limit) {
+            // only grow while the limit is actually being used
+            this.limit = Math.min(this.maxLimit, this.limit + 1);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AimdLimit [limit=" + this.limit + "]";
+    }
+
+}
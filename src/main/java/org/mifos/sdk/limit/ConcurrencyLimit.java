@@ -0,0 +1,28 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.limit;
+
+/**
+ * Strategy estimating how many requests the server can handle at the same time
+ * from the requests it has completed. Implementations are called concurrently
+ * and must be thread-safe.
+ */
+public interface ConcurrencyLimit {
+
+    /**
+     * Returns the current number of requests allowed in flight, at least one.
+     */
+    int getLimit();
+
+    /**
+     * Updates the limit with a completed request.
+     * @param rttNanos the time from sending the request to receiving the response headers
+     * @param inFlight the number of requests in flight when the request was sent
+     * @param dropped true if the request failed or the server reported being overloaded
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+
+}
@@ -0,0 +1,25 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.limit;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a {@link ConcurrencyLimiter} rejecting a request, either because its
+ * queue is full or because the request waited in the queue for too long. The
+ * services report it as {@link org.mifos.sdk.internal.ErrorCode#OVERLOADED}.
+ */
+public class ConcurrencyLimitExceededException extends IOException {
+
+    /**
+     * Constructs a new {@link ConcurrencyLimitExceededException}.
+     * @param message the reason of the rejection
+     */
+    public ConcurrencyLimitExceededException(final String message) {
+        super(message);
+    }
+
+}
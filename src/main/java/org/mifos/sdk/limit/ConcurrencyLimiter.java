@@ -0,0 +1,263 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.limit;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits requests up to the limit of a {@link ConcurrencyLimit}, queueing the
+ * excess up to a maximum depth and rejecting the rest with a
+ * {@link ConcurrencyLimitExceededException}. A limiter set in the properties is
+ * shared by every client created with them, and its limit and queue can be watched
+ * while the clients are running.
+ */
+public final class ConcurrencyLimiter {
+
+    /** Default maximum number of requests waiting for a permit. */
+    public static final int DEFAULT_MAX_QUEUE_DEPTH = 100;
+    /** Default time a request waits for a permit, 10 seconds. */
+    public static final long DEFAULT_QUEUE_TIMEOUT_MILLIS = 10 * 1000L;
+
+    /**
+     * Utility class to ease the process of building a
+     * new instance of {@link ConcurrencyLimiter}
+     */
+    public static class Builder {
+
+        private final ConcurrencyLimit limit;
+        private int maxQueueDepth = DEFAULT_MAX_QUEUE_DEPTH;
+        private long queueTimeoutMillis = DEFAULT_QUEUE_TIMEOUT_MILLIS;
+
+        private Builder(final ConcurrencyLimit limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Sets the maximum number of requests waiting for a permit; zero rejects
+         * every request beyond the limit straight away.
+         * @param depth the maximum queue depth
+         * @return instance of the current {@link Builder}
+         */
+        public Builder maxQueueDepth(final int depth) {
+            Preconditions.checkArgument(depth >= 0, "Max queue depth cannot be negative!");
+            this.maxQueueDepth = depth;
+            return this;
+        }
+
+        /**
+         * Sets how long a queued request waits for a permit before being rejected.
+         * @param timeout the queue timeout
+         * @param unit the unit of the timeout
+         * @return instance of the current {@link Builder}
+         */
+        public Builder queueTimeout(final long timeout, final TimeUnit unit) {
+            Preconditions.checkNotNull(unit);
+            Preconditions.checkArgument(timeout >= 0, "Queue timeout cannot be negative!");
+            this.queueTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Constructs a new ConcurrencyLimiter instance
+         * with the provided properties.
+         * @return a new instance of {@link ConcurrencyLimiter}
+         */
+        public ConcurrencyLimiter build() {
+            return new ConcurrencyLimiter(this);
+        }
+
+    }
+
+    private final ConcurrencyLimit limit;
+    private volatile int maxQueueDepth;
+    private volatile long queueTimeoutNanos;
+    private volatile int maxInFlight = Integer.MAX_VALUE;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = this.lock.newCondition();
+    private final AtomicLong rejected = new AtomicLong();
+    private int inFlight;
+    private int queueDepth;
+
+    private ConcurrencyLimiter(final Builder builder) {
+        this.limit = builder.limit;
+        this.maxQueueDepth = builder.maxQueueDepth;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(builder.queueTimeoutMillis);
+    }
+
+    /**
+     * Waits for a permit to send a request.
+     * @return the number of requests in flight once the permit is granted, to be
+     *         passed back to {@link #release(int, long, boolean)}
+     * @throws ConcurrencyLimitExceededException if the queue is full or the wait timed out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public int acquire() throws ConcurrencyLimitExceededException, InterruptedException {
+        this.lock.lock();
+        try {
+            if (this.inFlight < getLimit()) {
+                return ++this.inFlight;
+            }
+            if (this.queueDepth >= this.maxQueueDepth) {
+                throw reject("limit of " + getLimit() + " requests reached and "
+                    + this.queueDepth + " requests queued");
+            }
+
+            this.queueDepth++;
+            try {
+                long remaining = this.queueTimeoutNanos;
+                while (this.inFlight >= getLimit()) {
+                    if (remaining <= 0) {
+                        throw reject("no permit within the queue timeout, limit of "
+                            + getLimit() + " requests");
+                    }
+                    remaining = this.released.awaitNanos(remaining);
+                }
+                return ++this.inFlight;
+            } finally {
+                this.queueDepth--;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit and feeds the outcome of the request to the limit.
+     * @param inFlight the value returned by {@link #acquire()}
+     * @param rttNanos the latency of the request
+     * @param dropped true if the request failed or the server reported being overloaded
+     */
+    public void release(final int inFlight, final long rttNanos, final boolean dropped) {
+        final int previous = this.limit.getLimit();
+        this.limit.onSample(rttNanos, inFlight, dropped);
+        returnPermit(this.limit.getLimit() > previous);
+    }
+
+    /**
+     * Returns a permit without feeding the limit, for a request given up before it was
+     * sent, such as one whose hedge answered first.
+     */
+    public void cancel() {
+        returnPermit(false);
+    }
+
+    private void returnPermit(final boolean limitRaised) {
+        this.lock.lock();
+        try {
+            this.inFlight--;
+            if (limitRaised) {
+                this.released.signalAll();
+            } else {
+                this.released.signal();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private ConcurrencyLimitExceededException reject(final String reason) {
+        this.rejected.incrementAndGet();
+        return new ConcurrencyLimitExceededException("Request rejected by the concurrency limiter: " + reason);
+    }
+
+    /** Returns the current limit of requests in flight, capped by {@link #getMaxInFlight()}. */
+    public int getLimit() {
+        return Math.min(this.limit.getLimit(), this.maxInFlight);
+    }
+
+    /** Returns the number of requests in flight. */
+    public int getInFlight() {
+        this.lock.lock();
+        try {
+            return this.inFlight;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /** Returns the number of requests waiting for a permit. */
+    public int getQueueDepth() {
+        this.lock.lock();
+        try {
+            return this.queueDepth;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /** Returns the number of requests rejected so far. */
+    public long getRejectedCount() {
+        return this.rejected.get();
+    }
+
+    /** Returns the cap on the requests in flight, whatever the estimated limit. */
+    public int getMaxInFlight() {
+        return this.maxInFlight;
+    }
+
+    /**
+     * Caps the requests in flight below the estimated limit, for instance to shed
+     * load during an incident. The requests already in flight are not affected.
+     * @param maxInFlight the maximum number of requests in flight, at least one
+     */
+    public void setMaxInFlight(final int maxInFlight) {
+        Preconditions.checkArgument(maxInFlight > 0, "Max in flight must be positive!");
+        this.lock.lock();
+        try {
+            this.maxInFlight = maxInFlight;
+            this.released.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /** Returns the maximum number of requests waiting for a permit. */
+    public int getMaxQueueDepth() {
+        return this.maxQueueDepth;
+    }
+
+    /**
+     * Sets the maximum number of requests waiting for a permit.
+     * @param depth the maximum queue depth, zero to reject straight away
+     */
+    public void setMaxQueueDepth(final int depth) {
+        Preconditions.checkArgument(depth >= 0, "Max queue depth cannot be negative!");
+        this.maxQueueDepth = depth;
+    }
+
+    /** Returns how long a queued request waits for a permit in milliseconds. */
+    public long getQueueTimeoutMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.queueTimeoutNanos);
+    }
+
+    /**
+     * Sets how long a request queued from now on waits for a permit.
+     * @param timeout the queue timeout
+     * @param unit the unit of the timeout
+     */
+    public void setQueueTimeout(final long timeout, final TimeUnit unit) {
+        Preconditions.checkNotNull(unit);
+        Preconditions.checkArgument(timeout >= 0, "Queue timeout cannot be negative!");
+        this.queueTimeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Sets the {@link ConcurrencyLimit} estimating the limit.
+     * @return a new {@link Builder} instance
+     * @param limit the {@link ConcurrencyLimit}, for instance an {@link AimdLimit} or a {@link GradientLimit}
+     */
+    public static Builder limit(final ConcurrencyLimit limit) {
+        Preconditions.checkNotNull(limit);
+
+        return new Builder(limit);
+    }
+
+}
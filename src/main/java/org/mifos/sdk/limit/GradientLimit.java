@@ -0,0 +1,91 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.limit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Latency gradient limit. A slowly moving average of the latency stands for the
+ * latency of the server when it is not loaded; as soon as requests take longer than
+ * that, the server is queueing them and the limit shrinks in proportion, while a
+ * latency at the baseline lets the limit grow by a small headroom. A failed request
+ * counts as a latency twice the baseline.
+ */
+public class GradientLimit implements ConcurrencyLimit {
+
+    /** Default initial limit. */
+    public static final int DEFAULT_INITIAL_LIMIT = 10;
+    /** Default maximum limit. */
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    /** Default weight of a new limit against the current one. */
+    public static final double DEFAULT_SMOOTHING = 0.2;
+
+    private static final double BASELINE_WEIGHT = 1.0 / 600;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int maxLimit;
+    private final double smoothing;
+    private double estimatedLimit;
+    private double baselineRttNanos;
+    private volatile int limit;
+
+    /**
+     * Constructs a new {@link GradientLimit} with the default settings.
+     */
+    public GradientLimit() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_SMOOTHING);
+    }
+
+    /**
+     * Constructs a new {@link GradientLimit}.
+     * @param initialLimit the limit before any request has completed
+     * @param maxLimit the maximum limit
+     * @param smoothing the weight of a new limit against the current one, in (0, 1]
+     */
+    public GradientLimit(final int initialLimit, final int maxLimit, final double smoothing) {
+        Preconditions.checkArgument(initialLimit > 0, "Initial limit must be positive!");
+        Preconditions.checkArgument(maxLimit >= initialLimit, "Max limit cannot be below the initial limit!");
+        Preconditions.checkArgument(smoothing > 0 && smoothing <= 1, "Smoothing must be in (0, 1]!");
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+    }
+
+    @Override
+    public int getLimit() {
+        return this.limit;
+    }
+
+    @Override
+    public synchronized void onSample(final long rttNanos, final int inFlight, final boolean dropped) {
+        final double rtt = Math.max(1, rttNanos);
+        if (this.baselineRttNanos == 0) {
+            this.baselineRttNanos = rtt;
+        } else if (!dropped) {
+            this.baselineRttNanos += (rtt - this.baselineRttNanos) * BASELINE_WEIGHT;
+        }
+
+        // a limit far above what is used says nothing about the server
+        if (!dropped && inFlight * 2 < this.estimatedLimit) {
+            return;
+        }
+
+        final double gradient = dropped ? MIN_GRADIENT
+            : Math.max(MIN_GRADIENT, Math.min(1.0, this.baselineRttNanos / rtt));
+        final double headroom = Math.sqrt(this.estimatedLimit);
+        final double newLimit = this.estimatedLimit * gradient + headroom;
+        this.estimatedLimit = Math.max(1, Math.min(this.maxLimit,
+            this.estimatedLimit * (1 - this.smoothing) + newLimit * this.smoothing));
+        this.limit = (int) this.estimatedLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "GradientLimit [limit=" + this.limit + "]";
+    }
+
+}
@@ -0,0 +1,21 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.management;
+
+import java.util.Map;
+
+/**
+ * Management interface of the {@link org.mifos.sdk.breaker.CircuitBreakers} of a transport.
+ */
+public interface CircuitBreakersMXBean {
+
+    /** Returns the state of the circuit breaker of every endpoint called so far. */
+    Map<String, String> getStates();
+
+    /** Returns the number of endpoints whose circuit is open. */
+    int getOpenCount();
+
+}
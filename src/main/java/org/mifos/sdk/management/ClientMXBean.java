@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.management;
+
+/**
+ * Management interface of a {@link org.mifos.sdk.MifosXClient}: its connection
+ * settings and login state.
+ */
+public interface ClientMXBean {
+
+    /** Returns the API URL. */
+    String getUrl();
+
+    /** Returns the tenant identifier. */
+    String getTenant();
+
+    /** Returns the authentication mode, BASIC or OAUTH2. */
+    String getAuthenticationMode();
+
+    /** Returns whether the client is logged in. */
+    boolean isLoggedIn();
+
+    /**
+     * Logs the client out, so that its next call fails until it logs in again.
+     */
+    void logout();
+
+}
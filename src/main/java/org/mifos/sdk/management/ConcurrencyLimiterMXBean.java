@@ -0,0 +1,52 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.management;
+
+/**
+ * Management interface of a {@link org.mifos.sdk.limit.ConcurrencyLimiter}.
+ */
+public interface ConcurrencyLimiterMXBean {
+
+    /** Returns the current limit of requests in flight. */
+    int getLimit();
+
+    /** Returns the number of requests in flight. */
+    int getInFlight();
+
+    /** Returns the number of requests waiting for a permit. */
+    int getQueueDepth();
+
+    /** Returns the number of requests rejected so far. */
+    long getRejectedCount();
+
+    /** Returns the cap on the requests in flight, whatever the estimated limit. */
+    int getMaxInFlight();
+
+    /**
+     * Caps the requests in flight below the estimated limit.
+     * @param maxInFlight the maximum number of requests in flight, at least one
+     */
+    void setMaxInFlight(int maxInFlight);
+
+    /** Returns the maximum number of requests waiting for a permit. */
+    int getMaxQueueDepth();
+
+    /**
+     * Sets the maximum number of requests waiting for a permit.
+     * @param depth the maximum queue depth, zero to reject straight away
+     */
+    void setMaxQueueDepth(int depth);
+
+    /** Returns how long a queued request waits for a permit in milliseconds. */
+    long getQueueTimeoutMillis();
+
+    /**
+     * Sets how long a queued request waits for a permit.
+     * @param timeoutMillis the timeout in milliseconds
+     */
+    void setQueueTimeoutMillis(long timeoutMillis);
+
+}
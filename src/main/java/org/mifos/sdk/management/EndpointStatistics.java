@@ -0,0 +1,106 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.management;
+
+import org.mifos.sdk.metrics.EndpointMetrics;
+
+import java.beans.ConstructorProperties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of one service method as exposed by a {@link ServiceMXBean}, taken
+ * from its {@link EndpointMetrics} when read.
+ */
+public final class EndpointStatistics {
+
+    private final int inFlight;
+    private final long calls;
+    private final long errors;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double p999Millis;
+    private final long requestBytes;
+    private final long responseBytes;
+
+    /**
+     * Constructs a new {@link EndpointStatistics}.
+     * @param inFlight the number of calls in progress
+     * @param calls the number of calls
+     * @param errors the number of failed calls
+     * @param p50Millis the median latency in milliseconds
+     * @param p99Millis the 99th percentile of the latency in milliseconds
+     * @param p999Millis the 99.9th percentile of the latency in milliseconds
+     * @param requestBytes the number of bytes of the request bodies
+     * @param responseBytes the number of bytes of the response bodies
+     */
+    @ConstructorProperties({"inFlight", "calls", "errors", "p50Millis", "p99Millis", "p999Millis",
+        "requestBytes", "responseBytes"})
+    public EndpointStatistics(final int inFlight, final long calls, final long errors, final double p50Millis,
+                              final double p99Millis, final double p999Millis, final long requestBytes,
+                              final long responseBytes) {
+        this.inFlight = inFlight;
+        this.calls = calls;
+        this.errors = errors;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.p999Millis = p999Millis;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+    }
+
+    static EndpointStatistics of(final EndpointMetrics metrics) {
+        return new EndpointStatistics(metrics.getInFlight(), metrics.getCalls(), metrics.getErrors(),
+            millis(metrics.getLatency().getPercentileNanos(50)),
+            millis(metrics.getLatency().getPercentileNanos(99)),
+            millis(metrics.getLatency().getPercentileNanos(99.9)),
+            metrics.getRequestBytes(), metrics.getResponseBytes());
+    }
+
+    private static double millis(final long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** Returns the number of calls in progress. */
+    public int getInFlight() {
+        return this.inFlight;
+    }
+
+    /** Returns the number of calls. */
+    public long getCalls() {
+        return this.calls;
+    }
+
+    /** Returns the number of failed calls. */
+    public long getErrors() {
+        return this.errors;
+    }
+
+    /** Returns the median latency in milliseconds. */
+    public double getP50Millis() {
+        return this.p50Millis;
+    }
+
+    /** Returns the 99th percentile of the latency in milliseconds. */
+    public double getP99Millis() {
+        return this.p99Millis;
+    }
+
+    /** Returns the 99.9th percentile of the latency in milliseconds. */
+    public double getP999Millis() {
+        return this.p999Millis;
+    }
+
+    /** Returns the number of bytes of the request bodies. */
+    public long getRequestBytes() {
+        return this.requestBytes;
+    }
+
+    /** Returns the number of bytes of the response bodies. */
+    public long getResponseBytes() {
+        return this.responseBytes;
+    }
+
+}
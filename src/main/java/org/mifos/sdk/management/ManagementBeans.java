@@ -0,0 +1,476 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.management;
+
+import com.google.common.base.Preconditions;
+import com.squareup.okhttp.OkHttpClient;
+import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.batch.BatchService;
+import org.mifos.sdk.breaker.CircuitBreaker;
+import org.mifos.sdk.breaker.CircuitBreakers;
+import org.mifos.sdk.client.ClientService;
+import org.mifos.sdk.group.GroupService;
+import org.mifos.sdk.internal.RestMifosXClient;
+import org.mifos.sdk.limit.ConcurrencyLimiter;
+import org.mifos.sdk.metrics.EndpointMetrics;
+import org.mifos.sdk.metrics.MetricsRecorder;
+import org.mifos.sdk.office.OfficeService;
+import org.mifos.sdk.staff.StaffService;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class registering the management beans of the clients in the platform
+ * MBean server, under the "org.mifos.sdk" domain and the management name set in
+ * their {@link MifosXProperties}. A management name and a tenant identify the beans
+ * of one client at a time: registering another client under them fails, unless both
+ * clients have the same owner, such as a {@link org.mifos.sdk.MifosXClientRegistry}
+ * replacing the client of a tenant. The beans of a transport registered again under
+ * the same name replace the former ones, every client created from the properties
+ * having its own transport.
+ */
+public final class ManagementBeans {
+
+    /** Domain of the object names of all the beans. */
+    public static final String DOMAIN = "org.mifos.sdk";
+
+    private static final Class<?>[] SERVICES = {
+        OfficeService.class, StaffService.class, ClientService.class, GroupService.class, BatchService.class
+    };
+
+    /** The client beans registered, by name; guarded by the map itself. */
+    private static final Map<ObjectName, Client> CLIENTS = new HashMap<>();
+
+    private ManagementBeans() {}
+
+    /**
+     * Registers the beans of a transport: its connection pool and timeouts, and its
+     * concurrency limiter and circuit breakers if they are set.
+     * @param properties the {@link MifosXProperties} the transport was created with
+     * @param httpClient the {@link OkHttpClient} of the transport
+     */
+    public static void registerTransport(final MifosXProperties properties, final OkHttpClient httpClient) {
+        Preconditions.checkNotNull(properties);
+        Preconditions.checkNotNull(properties.getManagementName());
+        Preconditions.checkNotNull(httpClient);
+
+        final String name = properties.getManagementName();
+        register(objectName("Transport", name, null, null),
+            new Transport(httpClient, properties.getMaxRequestsPerHost()));
+        if (properties.getConcurrencyLimiter() != null) {
+            register(objectName("ConcurrencyLimiter", name, null, null),
+                new Limiter(properties.getConcurrencyLimiter()));
+        }
+        if (properties.getCircuitBreakers() != null) {
+            register(objectName("CircuitBreakers", name, null, null),
+                new Breakers(properties.getCircuitBreakers()));
+        }
+    }
+
+    /**
+     * Registers the beans of a client: its login state and the counters of each of
+     * its services.
+     * @param properties the {@link MifosXProperties} the client was created with
+     * @param client the client
+     * @throws IllegalStateException if another client is registered under the same
+     *         management name and tenant
+     */
+    public static void registerClient(final MifosXProperties properties, final RestMifosXClient client) {
+        registerClient(properties, client, client);
+    }
+
+    /**
+     * Registers the beans of a client on behalf of an owner, replacing those of any
+     * client of the same owner registered under the same management name and tenant.
+     * @param properties the {@link MifosXProperties} the client was created with
+     * @param client the client
+     * @param owner the owner of the client, such as the registry holding it
+     * @throws IllegalStateException if a client of another owner is registered under
+     *         the same management name and tenant
+     */
+    public static void registerClient(final MifosXProperties properties, final RestMifosXClient client,
+                                      final Object owner) {
+        Preconditions.checkNotNull(properties);
+        Preconditions.checkNotNull(properties.getManagementName());
+        Preconditions.checkNotNull(client);
+        Preconditions.checkNotNull(owner);
+
+        final String name = properties.getManagementName();
+        final String tenant = properties.getTenant();
+        final ObjectName clientName = objectName("Client", name, tenant, null);
+        synchronized (CLIENTS) {
+            final Client registered = CLIENTS.get(clientName);
+            if (registered != null && ManagementFactory.getPlatformMBeanServer().isRegistered(clientName)) {
+                Preconditions.checkState(registered.owner == owner,
+                    "Another client is registered as %s", clientName);
+                unregister(name, tenant);
+            }
+            final Client bean = new Client(properties, client, owner);
+            register(clientName, bean);
+            for (final Class<?> service : SERVICES) {
+                register(objectName("Service", name, tenant, service.getSimpleName()),
+                    new Service(client.metrics(), service.getSimpleName()));
+            }
+            CLIENTS.put(clientName, bean);
+        }
+    }
+
+    /**
+     * Unregisters the beans of a client, once it is no longer used. The beans registered
+     * since by another client under the same management name and tenant are kept.
+     * @param properties the {@link MifosXProperties} the client was created with
+     * @param client the client
+     */
+    public static void unregisterClient(final MifosXProperties properties, final RestMifosXClient client) {
+        Preconditions.checkNotNull(properties);
+        Preconditions.checkNotNull(properties.getManagementName());
+        Preconditions.checkNotNull(client);
+
+        final String name = properties.getManagementName();
+        final String tenant = properties.getTenant();
+        final ObjectName clientName = objectName("Client", name, tenant, null);
+        synchronized (CLIENTS) {
+            final Client registered = CLIENTS.get(clientName);
+            if (registered != null && registered.client == client) {
+                unregister(name, tenant);
+                CLIENTS.remove(clientName);
+            }
+        }
+    }
+
+    private static void unregister(final String name, final String tenant) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final Set<ObjectName> names = new HashSet<>(
+            server.queryNames(objectName("Service", name, tenant, "*"), null));
+        names.add(objectName("Client", name, tenant, null));
+        for (final ObjectName objectName : names) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                // already unregistered
+            }
+        }
+    }
+
+    private static void register(final ObjectName objectName, final Object bean) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(bean, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + objectName, e);
+        }
+    }
+
+    private static ObjectName objectName(final String type, final String name, final String tenant,
+                                         final String service) {
+        final StringBuilder objectName = new StringBuilder(DOMAIN)
+            .append(":type=").append(type).append(",name=").append(quote(name));
+        if (tenant != null) {
+            objectName.append(",tenant=").append(quote(tenant));
+        }
+        if (service != null) {
+            objectName.append(",service=").append(service);
+        }
+        try {
+            return new ObjectName(objectName.toString());
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid management name: " + name, e);
+        }
+    }
+
+    private static String quote(final String value) {
+        for (final char c : value.toCharArray()) {
+            if (",=:\"*?\n".indexOf(c) >= 0) {
+                return ObjectName.quote(value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Implements {@link ClientMXBean}.
+     */
+    private static final class Client implements ClientMXBean {
+
+        private final MifosXProperties properties;
+        private final RestMifosXClient client;
+        private final Object owner;
+
+        private Client(final MifosXProperties properties, final RestMifosXClient client, final Object owner) {
+            this.properties = properties;
+            this.client = client;
+            this.owner = owner;
+        }
+
+        @Override
+        public String getUrl() {
+            return this.properties.getUrl();
+        }
+
+        @Override
+        public String getTenant() {
+            return this.properties.getTenant();
+        }
+
+        @Override
+        public String getAuthenticationMode() {
+            return this.properties.getAuthenticationMode().name();
+        }
+
+        @Override
+        public boolean isLoggedIn() {
+            return this.client.isLoggedIn();
+        }
+
+        @Override
+        public void logout() {
+            this.client.logout();
+        }
+
+    }
+
+    /**
+     * Implements {@link TransportMXBean}.
+     */
+    private static final class Transport implements TransportMXBean {
+
+        private final OkHttpClient httpClient;
+        private final int maxRequestsPerHost;
+
+        private Transport(final OkHttpClient httpClient, final int maxRequestsPerHost) {
+            this.httpClient = httpClient;
+            this.maxRequestsPerHost = maxRequestsPerHost;
+        }
+
+        @Override
+        public int getConnectionCount() {
+            return this.httpClient.getConnectionPool().getConnectionCount();
+        }
+
+        @Override
+        public int getHttpConnectionCount() {
+            return this.httpClient.getConnectionPool().getHttpConnectionCount();
+        }
+
+        @Override
+        public int getMaxRequestsPerHost() {
+            return this.maxRequestsPerHost;
+        }
+
+        @Override
+        public long getConnectTimeoutMillis() {
+            return this.httpClient.getConnectTimeout();
+        }
+
+        @Override
+        public void setConnectTimeoutMillis(final long timeoutMillis) {
+            this.httpClient.setConnectTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public long getReadTimeoutMillis() {
+            return this.httpClient.getReadTimeout();
+        }
+
+        @Override
+        public void setReadTimeoutMillis(final long timeoutMillis) {
+            this.httpClient.setReadTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public long getWriteTimeoutMillis() {
+            return this.httpClient.getWriteTimeout();
+        }
+
+        @Override
+        public void setWriteTimeoutMillis(final long timeoutMillis) {
+            this.httpClient.setWriteTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void evictIdleConnections() {
+            this.httpClient.getConnectionPool().evictAll();
+        }
+
+    }
+
+    /**
+     * Implements {@link ConcurrencyLimiterMXBean}.
+     */
+    private static final class Limiter implements ConcurrencyLimiterMXBean {
+
+        private final ConcurrencyLimiter limiter;
+
+        private Limiter(final ConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public int getLimit() {
+            return this.limiter.getLimit();
+        }
+
+        @Override
+        public int getInFlight() {
+            return this.limiter.getInFlight();
+        }
+
+        @Override
+        public int getQueueDepth() {
+            return this.limiter.getQueueDepth();
+        }
+
+        @Override
+        public long getRejectedCount() {
+            return this.limiter.getRejectedCount();
+        }
+
+        @Override
+        public int getMaxInFlight() {
+            return this.limiter.getMaxInFlight();
+        }
+
+        @Override
+        public void setMaxInFlight(final int maxInFlight) {
+            this.limiter.setMaxInFlight(maxInFlight);
+        }
+
+        @Override
+        public int getMaxQueueDepth() {
+            return this.limiter.getMaxQueueDepth();
+        }
+
+        @Override
+        public void setMaxQueueDepth(final int depth) {
+            this.limiter.setMaxQueueDepth(depth);
+        }
+
+        @Override
+        public long getQueueTimeoutMillis() {
+            return this.limiter.getQueueTimeoutMillis();
+        }
+
+        @Override
+        public void setQueueTimeoutMillis(final long timeoutMillis) {
+            this.limiter.setQueueTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+    }
+
+    /**
+     * Implements {@link CircuitBreakersMXBean}.
+     */
+    private static final class Breakers implements CircuitBreakersMXBean {
+
+        private final CircuitBreakers breakers;
+
+        private Breakers(final CircuitBreakers breakers) {
+            this.breakers = breakers;
+        }
+
+        @Override
+        public Map<String, String> getStates() {
+            final Map<String, String> states = new TreeMap<>();
+            for (final CircuitBreaker breaker : this.breakers.getCircuitBreakers()) {
+                states.put(breaker.getEndpoint(), breaker.getState().name());
+            }
+            return states;
+        }
+
+        @Override
+        public int getOpenCount() {
+            int open = 0;
+            for (final CircuitBreaker breaker : this.breakers.getCircuitBreakers()) {
+                if (breaker.getState() == CircuitBreaker.State.OPEN) {
+                    open++;
+                }
+            }
+            return open;
+        }
+
+    }
+
+    /**
+     * Implements {@link ServiceMXBean} from the endpoints of the service in a
+     * {@link MetricsRecorder}.
+     */
+    private static final class Service implements ServiceMXBean {
+
+        private final MetricsRecorder recorder;
+        private final String prefix;
+
+        private Service(final MetricsRecorder recorder, final String service) {
+            this.recorder = recorder;
+            this.prefix = service + ".";
+        }
+
+        @Override
+        public int getInFlight() {
+            int inFlight = 0;
+            for (final EndpointMetrics metrics : this.recorder.getEndpoints()) {
+                if (metrics.getEndpoint().startsWith(this.prefix)) {
+                    inFlight += metrics.getInFlight();
+                }
+            }
+            return inFlight;
+        }
+
+        @Override
+        public long getCalls() {
+            long calls = 0;
+            for (final EndpointMetrics metrics : this.recorder.getEndpoints()) {
+                if (metrics.getEndpoint().startsWith(this.prefix)) {
+                    calls += metrics.getCalls();
+                }
+            }
+            return calls;
+        }
+
+        @Override
+        public long getErrors() {
+            long errors = 0;
+            for (final EndpointMetrics metrics : this.recorder.getEndpoints()) {
+                if (metrics.getEndpoint().startsWith(this.prefix)) {
+                    errors += metrics.getErrors();
+                }
+            }
+            return errors;
+        }
+
+        @Override
+        public double getErrorRate() {
+            final long calls = getCalls();
+            return calls == 0 ? 0 : (double) getErrors() / calls;
+        }
+
+        @Override
+        public Map<String, EndpointStatistics> getEndpoints() {
+            final Map<String, EndpointStatistics> endpoints = new TreeMap<>();
+            for (final EndpointMetrics metrics : this.recorder.getEndpoints()) {
+                if (metrics.getEndpoint().startsWith(this.prefix)) {
+                    endpoints.put(metrics.getEndpoint().substring(this.prefix.length()),
+                        EndpointStatistics.of(metrics));
+                }
+            }
+            return endpoints;
+        }
+
+    }
+
+}
@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.management;
+
+import java.util.Map;
+
+/**
+ * Management interface of a service of a {@link org.mifos.sdk.MifosXClient}, for
+ * instance the ClientService, with the counters of all its methods.
+ */
+public interface ServiceMXBean {
+
+    /** Returns the number of calls in progress. */
+    int getInFlight();
+
+    /** Returns the number of calls, successful or not. */
+    long getCalls();
+
+    /** Returns the number of failed calls. */
+    long getErrors();
+
+    /** Returns the share of failed calls, between 0 and 1. */
+    double getErrorRate();
+
+    /** Returns the statistics of every method called so far, by method name. */
+    Map<String, EndpointStatistics> getEndpoints();
+
+}
@@ -0,0 +1,56 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.management;
+
+/**
+ * Management interface of the transport of a {@link org.mifos.sdk.MifosXClient}: its
+ * connection pool and timeouts. The timeouts changed apply to the requests sent from
+ * then on, by every client sharing the transport.
+ */
+public interface TransportMXBean {
+
+    /** Returns the number of connections held by the pool, idle or in use. */
+    int getConnectionCount();
+
+    /** Returns the number of HTTP/1.1 connections held by the pool. */
+    int getHttpConnectionCount();
+
+    /** Returns the maximum number of concurrent asynchronous requests per host. */
+    int getMaxRequestsPerHost();
+
+    /** Returns the connect timeout in milliseconds. */
+    long getConnectTimeoutMillis();
+
+    /**
+     * Sets the connect timeout.
+     * @param timeoutMillis the timeout in milliseconds, 0 for none
+     */
+    void setConnectTimeoutMillis(long timeoutMillis);
+
+    /** Returns the read timeout in milliseconds. */
+    long getReadTimeoutMillis();
+
+    /**
+     * Sets the read timeout.
+     * @param timeoutMillis the timeout in milliseconds, 0 for none
+     */
+    void setReadTimeoutMillis(long timeoutMillis);
+
+    /** Returns the write timeout in milliseconds. */
+    long getWriteTimeoutMillis();
+
+    /**
+     * Sets the write timeout.
+     * @param timeoutMillis the timeout in milliseconds, 0 for none
+     */
+    void setWriteTimeoutMillis(long timeoutMillis);
+
+    /**
+     * Closes the idle connections of the pool, for instance after a failover of the server.
+     */
+    void evictIdleConnections();
+
+}
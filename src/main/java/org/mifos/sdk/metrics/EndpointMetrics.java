@@ -0,0 +1,119 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.metrics;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.internal.ErrorCode;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live measurements of the calls to one endpoint, updated without locking as the
+ * calls complete.
+ */
+public final class EndpointMetrics {
+
+    private final String endpoint;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram networkTime = new LatencyHistogram();
+    private final LatencyHistogram deserializationTime = new LatencyHistogram();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLongArray errorsByCode = new AtomicLongArray(ErrorCode.values().length);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    EndpointMetrics(final String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(final long latencyNanos, final long networkNanos, final long deserializationNanos,
+                final long requestBytes, final long responseBytes, final ErrorCode error) {
+        this.latency.record(latencyNanos);
+        this.networkTime.record(networkNanos);
+        this.deserializationTime.record(deserializationNanos);
+        this.requestBytes.addAndGet(requestBytes);
+        this.responseBytes.addAndGet(responseBytes);
+        if (error != null) {
+            this.errors.incrementAndGet();
+            this.errorsByCode.incrementAndGet(error.ordinal());
+        }
+    }
+
+    /** Returns the endpoint, for instance "ClientService.findClient". */
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+
+    void callStarted() {
+        this.inFlight.incrementAndGet();
+    }
+
+    void callEnded() {
+        this.inFlight.decrementAndGet();
+    }
+
+    /** Returns the number of calls in progress. */
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /** Returns the number of calls, successful or not. */
+    public long getCalls() {
+        return this.latency.getCount();
+    }
+
+    /** Returns the number of failed calls. */
+    public long getErrors() {
+        return this.errors.get();
+    }
+
+    /**
+     * Returns the number of calls which failed with the given {@link ErrorCode}.
+     * @param code the {@link ErrorCode}
+     */
+    public long getErrors(final ErrorCode code) {
+        Preconditions.checkNotNull(code);
+
+        return this.errorsByCode.get(code.ordinal());
+    }
+
+    /** Returns the total number of bytes of the request bodies. */
+    public long getRequestBytes() {
+        return this.requestBytes.get();
+    }
+
+    /** Returns the total number of bytes of the response bodies. */
+    public long getResponseBytes() {
+        return this.responseBytes.get();
+    }
+
+    /** Returns the {@link LatencyHistogram} of the whole calls. */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    /** Returns the {@link LatencyHistogram} of the time spent until the response headers. */
+    public LatencyHistogram getNetworkTime() {
+        return this.networkTime;
+    }
+
+    /** Returns the {@link LatencyHistogram} of the time spent reading and converting the response bodies. */
+    public LatencyHistogram getDeserializationTime() {
+        return this.deserializationTime;
+    }
+
+    @Override
+    public String toString() {
+        return this.endpoint + " calls=" + getCalls() + " errors=" + getErrors()
+            + " p50=" + this.latency.getPercentileNanos(50) / 1000 + "us"
+            + " p99=" + this.latency.getPercentileNanos(99) / 1000 + "us"
+            + " p999=" + this.latency.getPercentileNanos(99.9) / 1000 + "us";
+    }
+
+}
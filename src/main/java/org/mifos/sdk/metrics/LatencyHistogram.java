@@ -0,0 +1,111 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds. Every power of two is split into
+ * eight buckets, so a percentile is reported within 12.5% of the recorded value
+ * while the histogram takes a few kilobytes whatever the number of samples.
+ * Recording never blocks; reading while recording gives an approximate view.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 44;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a duration.
+     * @param nanos the duration in nanoseconds, negative values counting as zero
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        this.counts.incrementAndGet(bucketOf(value));
+        this.count.incrementAndGet();
+        this.totalNanos.addAndGet(value);
+        long max = this.maxNanos.get();
+        while (value > max && !this.maxNanos.compareAndSet(max, value)) {
+            max = this.maxNanos.get();
+        }
+    }
+
+    /** Returns the number of recorded durations. */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /** Returns the longest recorded duration in nanoseconds. */
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    /** Returns the mean of the recorded durations in nanoseconds, 0 if there are none. */
+    public long getMeanNanos() {
+        final long samples = this.count.get();
+        return samples == 0 ? 0 : this.totalNanos.get() / samples;
+    }
+
+    /**
+     * Returns the duration below which the given percentage of the recorded durations
+     * fall, for instance 50, 99 or 99.9.
+     * @param percentile the percentile, in (0, 100]
+     * @return the duration in nanoseconds, 0 if there are no samples
+     */
+    public long getPercentileNanos(final double percentile) {
+        Preconditions.checkArgument(percentile > 0 && percentile <= 100, "Percentile must be in (0, 100]!");
+
+        long samples = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            samples += this.counts.get(i);
+        }
+        if (samples == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * samples));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), this.maxNanos.get());
+            }
+        }
+        return this.maxNanos.get();
+    }
+
+    private static int bucketOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(value));
+        if (exponent == MAX_EXPONENT && value >= 1L << (MAX_EXPONENT + 1)) {
+            return BUCKETS - 1;
+        }
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + bucket % SUB_BUCKETS) * width + width - 1;
+    }
+
+}
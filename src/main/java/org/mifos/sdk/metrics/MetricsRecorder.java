@@ -0,0 +1,80 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.metrics;
+
+import com.google.common.base.Preconditions;
+import org.mifos.sdk.internal.ErrorCode;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Default {@link MetricsSink} keeping the {@link EndpointMetrics} of every endpoint
+ * in memory. Recording a call takes no lock and allocates nothing once the endpoint
+ * has been seen.
+ */
+public final class MetricsRecorder implements MetricsSink {
+
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(final String endpoint, final long latencyNanos, final long networkNanos,
+                       final long deserializationNanos, final long requestBytes, final long responseBytes,
+                       final ErrorCode error) {
+        metricsFor(endpoint).record(latencyNanos, networkNanos, deserializationNanos, requestBytes, responseBytes,
+            error);
+    }
+
+    /**
+     * Counts a call to an endpoint as in progress until {@link #callEnded(EndpointMetrics)}.
+     * @param endpoint the endpoint called
+     * @return the {@link EndpointMetrics} of the endpoint
+     */
+    public EndpointMetrics callStarted(final String endpoint) {
+        final EndpointMetrics metrics = metricsFor(endpoint);
+        metrics.callStarted();
+        return metrics;
+    }
+
+    /**
+     * Counts a call started with {@link #callStarted(String)} as no longer in progress.
+     * @param metrics the {@link EndpointMetrics} returned when the call started
+     */
+    public void callEnded(final EndpointMetrics metrics) {
+        metrics.callEnded();
+    }
+
+    /**
+     * Returns the {@link EndpointMetrics} of an endpoint.
+     * @param endpoint the endpoint, for instance "ClientService.findClient"
+     * @return the {@link EndpointMetrics}, null if the endpoint was never called
+     */
+    public EndpointMetrics getEndpoint(final String endpoint) {
+        Preconditions.checkNotNull(endpoint);
+
+        return this.endpoints.get(endpoint);
+    }
+
+    /** Returns the {@link EndpointMetrics} of all the endpoints called so far. */
+    public Collection<EndpointMetrics> getEndpoints() {
+        return Collections.unmodifiableCollection(this.endpoints.values());
+    }
+
+    private EndpointMetrics metricsFor(final String endpoint) {
+        EndpointMetrics metrics = this.endpoints.get(endpoint);
+        if (metrics == null) {
+            final EndpointMetrics created = new EndpointMetrics(endpoint);
+            metrics = this.endpoints.putIfAbsent(endpoint, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+}
@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.metrics;
+
+import org.mifos.sdk.internal.ErrorCode;
+
+/**
+ * Receives the measurements of every call made through the services of a
+ * {@link org.mifos.sdk.MifosXClient}. It is called on the thread which made the
+ * call, once the call has returned or failed, so it must be thread-safe and should
+ * not block.
+ */
+public interface MetricsSink {
+
+    /**
+     * Records a call.
+     * @param endpoint the service method called, for instance "ClientService.findClient"
+     * @param latencyNanos the duration of the whole call
+     * @param networkNanos the time spent sending the requests and waiting for the response headers
+     * @param deserializationNanos the time spent reading and converting the response bodies
+     * @param requestBytes the number of bytes of the request bodies
+     * @param responseBytes the number of bytes of the response bodies
+     * @param error the {@link ErrorCode} of the failure, null if the call succeeded
+     */
+    void record(String endpoint, long latencyNanos, long networkNanos, long deserializationNanos,
+                long requestBytes, long responseBytes, ErrorCode error);
+
+}
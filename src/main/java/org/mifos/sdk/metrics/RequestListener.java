@@ -0,0 +1,23 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.metrics;
+
+/**
+ * Receives the phase timings of every HTTP request sent by the clients of
+ * {@link org.mifos.sdk.MifosXClientFactory}, to tell whether a slow call waited for
+ * the pool, the network or the conversion of its response. It is called on the
+ * thread which made the request once its response body has been read and converted,
+ * or once it failed, so it must be thread-safe and should not block.
+ */
+public interface RequestListener {
+
+    /**
+     * Called once a request completed.
+     * @param timings the {@link RequestTimings} of the request
+     */
+    void requestCompleted(RequestTimings timings);
+
+}
@@ -0,0 +1,141 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.metrics;
+
+/**
+ * Time spent by one HTTP request in each of its phases, reported to the
+ * {@link RequestListener}s. The phases of a request sent again by the retries are
+ * added up. The connect and TLS phases are 0 when a pooled connection was reused.
+ * OkHttp 2.0 only lets the phases of a new connection be timed in part: the TLS
+ * handshake always is, the connect phase only through an HTTP proxy, and the host
+ * resolution never, its DNS phase being always 0. The phases which are not timed
+ * count in the connection acquisition of a TLS connection, and in the time to first
+ * byte of a plain HTTP one.
+ */
+public final class RequestTimings {
+
+    private final String endpoint;
+    private final int status;
+    private final long totalNanos;
+    private final long queueWaitNanos;
+    private final long connectionAcquisitionNanos;
+    private final long dnsNanos;
+    private final long connectNanos;
+    private final long tlsNanos;
+    private final long timeToFirstByteNanos;
+    private final long bodyReadNanos;
+    private final long conversionNanos;
+
+    /**
+     * Constructs a new {@link RequestTimings}.
+     * @param endpoint the endpoint of the request, for instance "GET /clients/{id}"
+     * @param status the HTTP status of the response, 0 if the request failed
+     * @param totalNanos the duration of the whole request
+     * @param queueWaitNanos the time spent waiting for the concurrency limiter
+     * @param connectionAcquisitionNanos the time spent waiting for a connection to the host,
+     *                                   including the phases of a new connection which are timed
+     * @param dnsNanos the time spent resolving the host, 0 as OkHttp 2.0 does not expose it
+     * @param connectNanos the time spent opening a new connection through an HTTP proxy
+     * @param tlsNanos the time spent in the TLS handshake
+     * @param timeToFirstByteNanos the time spent sending the request and waiting for the response headers
+     * @param bodyReadNanos the time spent reading the response body from the network
+     * @param conversionNanos the time spent converting the response body
+     */
+    public RequestTimings(final String endpoint, final int status, final long totalNanos,
+                          final long queueWaitNanos, final long connectionAcquisitionNanos, final long dnsNanos,
+                          final long connectNanos, final long tlsNanos, final long timeToFirstByteNanos,
+                          final long bodyReadNanos, final long conversionNanos) {
+        this.endpoint = endpoint;
+        this.status = status;
+        this.totalNanos = totalNanos;
+        this.queueWaitNanos = queueWaitNanos;
+        this.connectionAcquisitionNanos = connectionAcquisitionNanos;
+        this.dnsNanos = dnsNanos;
+        this.connectNanos = connectNanos;
+        this.tlsNanos = tlsNanos;
+        this.timeToFirstByteNanos = timeToFirstByteNanos;
+        this.bodyReadNanos = bodyReadNanos;
+        this.conversionNanos = conversionNanos;
+    }
+
+    /** Returns the endpoint of the request, for instance "GET /clients/{id}". */
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+
+    /** Returns the HTTP status of the response, 0 if the request failed. */
+    public int getStatus() {
+        return this.status;
+    }
+
+    /** Returns the duration of the whole request. */
+    public long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    /** Returns the time spent waiting for the concurrency limiter. */
+    public long getQueueWaitNanos() {
+        return this.queueWaitNanos;
+    }
+
+    /**
+     * Returns the time spent waiting for a connection to the host, including the
+     * timed phases of a new connection and, for a new TLS connection, its untimed ones.
+     */
+    public long getConnectionAcquisitionNanos() {
+        return this.connectionAcquisitionNanos;
+    }
+
+    /**
+     * Returns the time spent resolving the host. OkHttp 2.0 resolves it internally,
+     * so it is always 0.
+     */
+    public long getDnsNanos() {
+        return this.dnsNanos;
+    }
+
+    /**
+     * Returns the time spent opening a new connection, 0 for a direct connection,
+     * which OkHttp 2.0 does not expose.
+     */
+    public long getConnectNanos() {
+        return this.connectNanos;
+    }
+
+    /** Returns the time spent in the TLS handshake. */
+    public long getTlsNanos() {
+        return this.tlsNanos;
+    }
+
+    /** Returns the time spent sending the request and waiting for the response headers. */
+    public long getTimeToFirstByteNanos() {
+        return this.timeToFirstByteNanos;
+    }
+
+    /** Returns the time spent reading the response body from the network. */
+    public long getBodyReadNanos() {
+        return this.bodyReadNanos;
+    }
+
+    /** Returns the time spent converting the response body. */
+    public long getConversionNanos() {
+        return this.conversionNanos;
+    }
+
+    @Override
+    public String toString() {
+        return this.endpoint + " status=" + this.status + " total=" + this.totalNanos / 1000 + "us"
+            + " queue=" + this.queueWaitNanos / 1000 + "us"
+            + " connection=" + this.connectionAcquisitionNanos / 1000 + "us"
+            + " dns=" + this.dnsNanos / 1000 + "us"
+            + " connect=" + this.connectNanos / 1000 + "us"
+            + " tls=" + this.tlsNanos / 1000 + "us"
+            + " ttfb=" + this.timeToFirstByteNanos / 1000 + "us"
+            + " read=" + this.bodyReadNanos / 1000 + "us"
+            + " conversion=" + this.conversionNanos / 1000 + "us";
+    }
+
+}
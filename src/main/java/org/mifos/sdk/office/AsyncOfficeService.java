@@ -0,0 +1,49 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.office;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.mifos.sdk.office.domain.Office;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link OfficeService} to communicate with the Office API.
+ * Every call returns immediately with a {@link ListenableFuture}; a failed call
+ * completes the future with the same {@link org.mifos.sdk.MifosXConnectException}
+ * or {@link org.mifos.sdk.MifosXResourceException} the blocking method would throw,
+ * as the cause of the {@link java.util.concurrent.ExecutionException}.
+ */
+public interface AsyncOfficeService {
+
+    /**
+     * Creates a new office using the Office API.
+     * @param office the {@link Office} object to create
+     * @return a {@link ListenableFuture} completing with the office ID
+     */
+    ListenableFuture<Long> createOffice(final Office office);
+
+    /**
+     * Retrieves the list of all available offices.
+     * @return a {@link ListenableFuture} completing with list of all offices
+     */
+    ListenableFuture<List<Office>> fetchOffices();
+
+    /**
+     * Retrieves a particular office by the id given.
+     * @param id the office ID to look for
+     * @return a {@link ListenableFuture} completing with the office for the given ID
+     */
+    ListenableFuture<Office> findOffice(final Long id);
+
+    /**
+     * Updates a particular office.
+     * @param office the {@link Office} object to update
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> updateOffice(final Long id, final Office office);
+
+}
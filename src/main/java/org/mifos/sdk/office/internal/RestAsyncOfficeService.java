@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.office.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.mifos.sdk.office.AsyncOfficeService;
+import org.mifos.sdk.office.OfficeService;
+import org.mifos.sdk.office.domain.Office;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Implements {@link AsyncOfficeService} by running the calls of a blocking
+ * {@link OfficeService} on an executor.
+ */
+public class RestAsyncOfficeService implements AsyncOfficeService {
+
+    private final OfficeService delegate;
+    private final ListeningExecutorService executor;
+
+    /**
+     * Constructs a new instance of {@link RestAsyncOfficeService} with the
+     * provided service and executor.
+     * @param service the blocking {@link OfficeService} executing the calls
+     * @param executor the executor running the calls
+     */
+    public RestAsyncOfficeService(final OfficeService service,
+                                  final ListeningExecutorService executor) {
+        Preconditions.checkNotNull(service);
+        Preconditions.checkNotNull(executor);
+        this.delegate = service;
+        this.executor = executor;
+    }
+
+    @Override
+    public ListenableFuture<Long> createOffice(final Office office) {
+        return this.executor.submit(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                return delegate.createOffice(office);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<List<Office>> fetchOffices() {
+        return this.executor.submit(new Callable<List<Office>>() {
+            @Override
+            public List<Office> call() throws Exception {
+                return delegate.fetchOffices();
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Office> findOffice(final Long id) {
+        return this.executor.submit(new Callable<Office>() {
+            @Override
+            public Office call() throws Exception {
+                return delegate.findOffice(id);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> updateOffice(final Long id, final Office office) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.updateOffice(id, office);
+                return null;
+            }
+        });
+    }
+
+}
@@ -27,6 +27,7 @@ public class RestOfficeService implements OfficeService {
     private final MifosXProperties connectionProperties;
     private final RestAdapter restAdapter;
     private final String authenticationKey;
+    private volatile RetrofitOfficeService retrofitService;
 
     /**
      * Constructs a new instance of {@link RestOfficeService} with the
@@ -60,7 +61,7 @@ public class RestOfficeService implements OfficeService {
     public Long createOffice(final Office office) throws MifosXConnectException,
             MifosXResourceException {
         Preconditions.checkNotNull(office);
-        final RetrofitOfficeService officeService = this.restAdapter.create(RetrofitOfficeService.class);
+        final RetrofitOfficeService officeService = this.retrofitService();
         Long officeId = null;
         try {
             final Office createdOffice = officeService.createOffice(this.authenticationKey,
@@ -68,7 +69,7 @@ public class RestOfficeService implements OfficeService {
             officeId = createdOffice.getOfficeId();
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                        error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -89,14 +90,14 @@ public class RestOfficeService implements OfficeService {
      */
     @Override
     public List<Office> fetchOffices() throws MifosXConnectException {
-        final RetrofitOfficeService officeService = this.restAdapter.create(RetrofitOfficeService.class);
+        final RetrofitOfficeService officeService = this.retrofitService();
         List<Office> offices = null;
         try {
             offices = officeService.fetchOffices(this.authenticationKey,
                     this.connectionProperties.getTenant());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                        error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -118,13 +119,13 @@ public class RestOfficeService implements OfficeService {
     public Office findOffice(final Long id) throws MifosXConnectException,
             MifosXResourceException {
         Preconditions.checkNotNull(id);
-        final RetrofitOfficeService officeService = this.restAdapter.create(RetrofitOfficeService.class);
+        final RetrofitOfficeService officeService = this.retrofitService();
         Office office = null;
         try {
             office = officeService.findOffice(this.authenticationKey, this.connectionProperties.getTenant(), id);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                        error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -151,13 +152,13 @@ public class RestOfficeService implements OfficeService {
             MifosXResourceException {
         Preconditions.checkNotNull(id);
         Preconditions.checkNotNull(office);
-        final RetrofitOfficeService officeService = this.restAdapter.create(RetrofitOfficeService.class);
+        final RetrofitOfficeService officeService = this.retrofitService();
         try {
             officeService.updateOffice(this.authenticationKey,
                     this.connectionProperties.getTenant(), id, office);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getResponse().getStatus() == 403) {
                 final String message = ServerResponseUtil.parseResponse(error.getResponse());
                 throw new MifosXResourceException(message);
@@ -171,4 +172,17 @@ public class RestOfficeService implements OfficeService {
         }
     }
 
+    /**
+     * Returns the {@link RetrofitOfficeService} proxy, creating it on first use. The proxy
+     * holds no per-call state, so it is shared by all the calls made through this service.
+     */
+    private RetrofitOfficeService retrofitService() {
+        RetrofitOfficeService service = this.retrofitService;
+        if (service == null) {
+            service = this.restAdapter.create(RetrofitOfficeService.class);
+            this.retrofitService = service;
+        }
+        return service;
+    }
+
 }
@@ -0,0 +1,155 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.retry;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures hedged reads. When a GET request has not been answered within the
+ * given percentile of the recent latencies of its endpoint, a second attempt is
+ * sent; the first response wins and the other attempt is cancelled. The hedges are
+ * rate-limited so that they add at most a fraction of extra requests.
+ */
+public final class HedgingPolicy {
+
+    /** Default minimum delay before a hedge, 10 milliseconds. */
+    public static final long DEFAULT_MIN_DELAY_MILLIS = 10;
+    /** Default maximum fraction of extra requests sent as hedges. */
+    public static final double DEFAULT_MAX_EXTRA_LOAD = 0.05;
+    /** Default number of recent latencies per endpoint the percentile is taken over. */
+    public static final int DEFAULT_WINDOW = 256;
+    /** Default number of latencies of an endpoint recorded before its requests are hedged. */
+    public static final int DEFAULT_MIN_SAMPLES = 20;
+
+    /**
+     * Utility class to ease the process of building a
+     * new instance of {@link HedgingPolicy}
+     */
+    public static class Builder {
+
+        private final double percentile;
+        private long minDelayMillis = DEFAULT_MIN_DELAY_MILLIS;
+        private double maxExtraLoad = DEFAULT_MAX_EXTRA_LOAD;
+        private int window = DEFAULT_WINDOW;
+        private int minSamples = DEFAULT_MIN_SAMPLES;
+
+        private Builder(final double percentile) {
+            this.percentile = percentile;
+        }
+
+        /**
+         * Sets the minimum delay before a hedge, whatever the latencies of the endpoint.
+         * @param delay the minimum delay
+         * @param unit the unit of the delay
+         * @return instance of the current {@link Builder}
+         */
+        public Builder minDelay(final long delay, final TimeUnit unit) {
+            Preconditions.checkNotNull(unit);
+            Preconditions.checkArgument(delay >= 0, "Delay cannot be negative!");
+            this.minDelayMillis = unit.toMillis(delay);
+            return this;
+        }
+
+        /**
+         * Sets the maximum fraction of extra requests sent as hedges, for instance 0.05
+         * for at most one hedge per twenty requests over time.
+         * @param fraction the maximum extra load, in (0, 1]
+         * @return instance of the current {@link Builder}
+         */
+        public Builder maxExtraLoad(final double fraction) {
+            Preconditions.checkArgument(fraction > 0 && fraction <= 1, "Extra load must be in (0, 1]!");
+            this.maxExtraLoad = fraction;
+            return this;
+        }
+
+        /**
+         * Sets the number of recent latencies per endpoint the percentile is taken over.
+         * @param samples the size of the window
+         * @return instance of the current {@link Builder}
+         */
+        public Builder window(final int samples) {
+            Preconditions.checkArgument(samples > 0, "Window must be positive!");
+            this.window = samples;
+            return this;
+        }
+
+        /**
+         * Sets the number of latencies of an endpoint recorded before its requests
+         * are hedged.
+         * @param samples the minimum number of samples
+         * @return instance of the current {@link Builder}
+         */
+        public Builder minSamples(final int samples) {
+            Preconditions.checkArgument(samples > 0, "Min samples must be positive!");
+            this.minSamples = samples;
+            return this;
+        }
+
+        /**
+         * Constructs a new HedgingPolicy instance
+         * with the provided properties.
+         * @return a new instance of {@link HedgingPolicy}
+         */
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+
+    }
+
+    private final double percentile;
+    private final long minDelayMillis;
+    private final double maxExtraLoad;
+    private final int window;
+    private final int minSamples;
+
+    private HedgingPolicy(final Builder builder) {
+        this.percentile = builder.percentile;
+        this.minDelayMillis = builder.minDelayMillis;
+        this.maxExtraLoad = builder.maxExtraLoad;
+        this.window = builder.window;
+        this.minSamples = Math.min(builder.minSamples, builder.window);
+    }
+
+    /** Returns the percentile of the latencies after which a hedge is sent. */
+    public double getPercentile() {
+        return this.percentile;
+    }
+
+    /** Returns the minimum delay before a hedge in milliseconds. */
+    public long getMinDelayMillis() {
+        return this.minDelayMillis;
+    }
+
+    /** Returns the maximum fraction of extra requests sent as hedges. */
+    public double getMaxExtraLoad() {
+        return this.maxExtraLoad;
+    }
+
+    /** Returns the number of recent latencies per endpoint the percentile is taken over. */
+    public int getWindow() {
+        return this.window;
+    }
+
+    /** Returns the number of latencies of an endpoint recorded before its requests are hedged. */
+    public int getMinSamples() {
+        return this.minSamples;
+    }
+
+    /**
+     * Sets the percentile of the recent latencies of an endpoint after which a
+     * hedge is sent, for instance 95.
+     * @return a new {@link Builder} instance
+     * @param percentile the percentile, in (0, 100)
+     */
+    public static Builder percentile(final double percentile) {
+        Preconditions.checkArgument(percentile > 0 && percentile < 100, "Percentile must be in (0, 100)!");
+
+        return new Builder(percentile);
+    }
+
+}
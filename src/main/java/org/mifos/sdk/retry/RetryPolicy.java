@@ -0,0 +1,134 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.retry;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures how requests are sent again after a transient failure: a connection
+ * error, a timeout or a 502, 503 or 504 response. Reads are always retried, while
+ * commands are retried only when they carry an idempotency key. Between attempts the
+ * client waits for a random time up to an exponentially growing backoff, so that
+ * many clients failing together do not retry in lockstep.
+ */
+public final class RetryPolicy {
+
+    /** Default backoff before the first retry, 100 milliseconds. */
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 100;
+    /** Default maximum backoff, 5 seconds. */
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 5000;
+    /** Default factor the backoff grows by after every retry. */
+    public static final double DEFAULT_MULTIPLIER = 2.0;
+
+    /**
+     * Utility class to ease the process of building a
+     * new instance of {@link RetryPolicy}
+     */
+    public static class Builder {
+
+        private final int maxAttempts;
+        private long initialBackoffMillis = DEFAULT_INITIAL_BACKOFF_MILLIS;
+        private long maxBackoffMillis = DEFAULT_MAX_BACKOFF_MILLIS;
+        private double multiplier = DEFAULT_MULTIPLIER;
+
+        private Builder(final int attempts) {
+            this.maxAttempts = attempts;
+        }
+
+        /**
+         * Sets the backoff before the first retry.
+         * @param backoff the initial backoff
+         * @param unit the unit of the backoff
+         * @return instance of the current {@link Builder}
+         */
+        public Builder initialBackoff(final long backoff, final TimeUnit unit) {
+            Preconditions.checkNotNull(unit);
+            Preconditions.checkArgument(backoff >= 0, "Backoff cannot be negative!");
+            this.initialBackoffMillis = unit.toMillis(backoff);
+            return this;
+        }
+
+        /**
+         * Sets the maximum backoff between two attempts.
+         * @param backoff the maximum backoff
+         * @param unit the unit of the backoff
+         * @return instance of the current {@link Builder}
+         */
+        public Builder maxBackoff(final long backoff, final TimeUnit unit) {
+            Preconditions.checkNotNull(unit);
+            Preconditions.checkArgument(backoff >= 0, "Backoff cannot be negative!");
+            this.maxBackoffMillis = unit.toMillis(backoff);
+            return this;
+        }
+
+        /**
+         * Sets the factor the backoff grows by after every retry.
+         * @param factor the multiplier, at least 1
+         * @return instance of the current {@link Builder}
+         */
+        public Builder multiplier(final double factor) {
+            Preconditions.checkArgument(factor >= 1, "Multiplier must be at least 1!");
+            this.multiplier = factor;
+            return this;
+        }
+
+        /**
+         * Constructs a new RetryPolicy instance
+         * with the provided properties.
+         * @return a new instance of {@link RetryPolicy}
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+
+    }
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final double multiplier;
+
+    private RetryPolicy(final Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffMillis = builder.initialBackoffMillis;
+        this.maxBackoffMillis = Math.max(builder.initialBackoffMillis, builder.maxBackoffMillis);
+        this.multiplier = builder.multiplier;
+    }
+
+    /** Returns the maximum number of attempts, the first one included. */
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * Returns how long to wait before a retry: a random time between zero and the
+     * backoff of that retry.
+     * @param retry the number of the retry, 1 for the second attempt
+     * @return the backoff in milliseconds
+     */
+    public long backoffMillis(final int retry) {
+        Preconditions.checkArgument(retry > 0);
+
+        final double backoff = this.initialBackoffMillis * Math.pow(this.multiplier, retry - 1);
+        final long bound = (long) Math.min(this.maxBackoffMillis, backoff);
+        return bound == 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * Sets the maximum number of attempts of a request, the first one included.
+     * @return a new {@link Builder} instance
+     * @param attempts the maximum number of attempts, 1 for no retry
+     */
+    public static Builder maxAttempts(final int attempts) {
+        Preconditions.checkArgument(attempts > 0, "Max attempts must be positive!");
+
+        return new Builder(attempts);
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.staff;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.mifos.sdk.staff.domain.Staff;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link StaffService} to communicate with the Staff API.
+ * Every call returns immediately with a {@link ListenableFuture}; a failed call
+ * completes the future with the same {@link org.mifos.sdk.MifosXConnectException}
+ * or {@link org.mifos.sdk.MifosXResourceException} the blocking method would throw,
+ * as the cause of the {@link java.util.concurrent.ExecutionException}.
+ */
+public interface AsyncStaffService {
+
+    /**
+     * Creates a new staff.
+     * @param staff the {@link Staff} to create
+     * @return a {@link ListenableFuture} completing with a {@link Staff} with the office ID and the resource
+     *         ID
+     */
+    ListenableFuture<Staff> createStaff(final Staff staff);
+
+    /**
+     * Retrieves all the available staff.
+     * @return a {@link ListenableFuture} completing with a list of {@link Staff}
+     */
+    ListenableFuture<List<Staff>> fetchStaff();
+
+    /**
+     * Retrieves one particular staff.
+     * @param id the staff ID
+     * @return a {@link ListenableFuture} completing with a {@link Staff} with all the details of the searched
+     *         staff
+     */
+    ListenableFuture<Staff> findStaff(final Long id);
+
+    /**
+     * Retrieves all staff by their status.
+     * @param status the status of the staff
+     * @return a {@link ListenableFuture} completing with a list of {@link Staff}
+     */
+    ListenableFuture<List<Staff>> findStaffByStatus(final String status);
+
+    /**
+     * Updates one particular staff.
+     * @param id the staff ID
+     * @param staff a {@link Staff} object with all the changes to be made
+     * @return a {@link ListenableFuture} completing once the call has succeeded
+     */
+    ListenableFuture<Void> updateStaff(final Long id, final Staff staff);
+
+}
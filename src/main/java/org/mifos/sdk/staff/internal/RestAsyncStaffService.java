@@ -0,0 +1,92 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.staff.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.mifos.sdk.staff.AsyncStaffService;
+import org.mifos.sdk.staff.StaffService;
+import org.mifos.sdk.staff.domain.Staff;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Implements {@link AsyncStaffService} by running the calls of a blocking
+ * {@link StaffService} on an executor.
+ */
+public class RestAsyncStaffService implements AsyncStaffService {
+
+    private final StaffService delegate;
+    private final ListeningExecutorService executor;
+
+    /**
+     * Constructs a new instance of {@link RestAsyncStaffService} with the
+     * provided service and executor.
+     * @param service the blocking {@link StaffService} executing the calls
+     * @param executor the executor running the calls
+     */
+    public RestAsyncStaffService(final StaffService service,
+                                 final ListeningExecutorService executor) {
+        Preconditions.checkNotNull(service);
+        Preconditions.checkNotNull(executor);
+        this.delegate = service;
+        this.executor = executor;
+    }
+
+    @Override
+    public ListenableFuture<Staff> createStaff(final Staff staff) {
+        return this.executor.submit(new Callable<Staff>() {
+            @Override
+            public Staff call() throws Exception {
+                return delegate.createStaff(staff);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<List<Staff>> fetchStaff() {
+        return this.executor.submit(new Callable<List<Staff>>() {
+            @Override
+            public List<Staff> call() throws Exception {
+                return delegate.fetchStaff();
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Staff> findStaff(final Long id) {
+        return this.executor.submit(new Callable<Staff>() {
+            @Override
+            public Staff call() throws Exception {
+                return delegate.findStaff(id);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<List<Staff>> findStaffByStatus(final String status) {
+        return this.executor.submit(new Callable<List<Staff>>() {
+            @Override
+            public List<Staff> call() throws Exception {
+                return delegate.findStaffByStatus(status);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> updateStaff(final Long id, final Staff staff) {
+        return this.executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.updateStaff(id, staff);
+                return null;
+            }
+        });
+    }
+
+}
@@ -28,6 +28,7 @@ public class RestStaffService implements StaffService {
     private final MifosXProperties connectionProperties;
     private final RestAdapter restAdapter;
     private final String authenticationKey;
+    private volatile RetrofitStaffService retrofitService;
     private final List<String> allowedStatuses;
 
     /**
@@ -63,14 +64,14 @@ public class RestStaffService implements StaffService {
     public Staff createStaff(final Staff staff) throws MifosXConnectException,
             MifosXResourceException {
         Preconditions.checkNotNull(staff);
-        final RetrofitStaffService staffService = this.restAdapter.create(RetrofitStaffService.class);
+        final RetrofitStaffService staffService = this.retrofitService();
         Staff responseStaff = null;
         try {
             responseStaff = staffService.createStaff(this.authenticationKey,
                     this.connectionProperties.getTenant(), staff);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                        error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -91,13 +92,13 @@ public class RestStaffService implements StaffService {
      */
     @Override
     public List<Staff> fetchStaff() throws MifosXConnectException {
-        final RetrofitStaffService staffService = this.restAdapter.create(RetrofitStaffService.class);
+        final RetrofitStaffService staffService = this.retrofitService();
         List<Staff> staffList = null;
         try {
             staffList = staffService.fetchStaff(this.authenticationKey, this.connectionProperties.getTenant());
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -118,14 +119,14 @@ public class RestStaffService implements StaffService {
     @Override
     public Staff findStaff(final Long id) throws MifosXConnectException, MifosXResourceException {
         Preconditions.checkNotNull(id);
-        final RetrofitStaffService staffService = this.restAdapter.create(RetrofitStaffService.class);
+        final RetrofitStaffService staffService = this.retrofitService();
         Staff responseStaff = null;
         try {
             responseStaff = staffService.findStaff(this.authenticationKey,
                     this.connectionProperties.getTenant(), id);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -156,14 +157,14 @@ public class RestStaffService implements StaffService {
         if (!this.allowedStatuses.contains(status)) {
             throw new MifosXResourceException(ErrorCode.INVALID_STATUS);
         }
-        final RetrofitStaffService staffService = this.restAdapter.create(RetrofitStaffService.class);
+        final RetrofitStaffService staffService = this.retrofitService();
         List<Staff> staffList = null;
         try {
             staffList = staffService.findStaffByStatus(this.authenticationKey,
                     this.connectionProperties.getTenant(), status);
         } catch (RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
                     error.getResponse().getStatus() == 401) {
                 throw new MifosXConnectException(ErrorCode.INVALID_AUTHENTICATION_TOKEN);
@@ -191,13 +192,13 @@ public class RestStaffService implements StaffService {
             MifosXResourceException {
         Preconditions.checkNotNull(id);
         Preconditions.checkNotNull(staff);
-        final RetrofitStaffService staffService = this.restAdapter.create(RetrofitStaffService.class);
+        final RetrofitStaffService staffService = this.retrofitService();
         try {
             staffService.updateStaff(this.authenticationKey,
                     this.connectionProperties.getTenant(), id, staff);
         } catch(RetrofitError error) {
             if (error.getKind() == RetrofitError.Kind.NETWORK) {
-                throw new MifosXConnectException(ErrorCode.NOT_CONNECTED);
+                throw new MifosXConnectException(ServerResponseUtil.networkErrorCode(error));
             } else if (error.getResponse().getStatus() == 404) {
                 throw new MifosXResourceException(ErrorCode.STAFF_NOT_FOUND);
             } else if (error.getKind() == RetrofitError.Kind.CONVERSION ||
@@ -214,4 +215,17 @@ public class RestStaffService implements StaffService {
         }
     }
 
+    /**
+     * Returns the {@link RetrofitStaffService} proxy, creating it on first use. The proxy
+     * holds no per-call state, so it is shared by all the calls made through this service.
+     */
+    private RetrofitStaffService retrofitService() {
+        RetrofitStaffService service = this.retrofitService;
+        if (service == null) {
+            service = this.restAdapter.create(RetrofitStaffService.class);
+            this.retrofitService = service;
+        }
+        return service;
+    }
+
 }
@@ -0,0 +1,163 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emits Java Flight Recorder events for the service calls and the serializer
+ * invocations. Java 21 version of the class, packaged under
+ * {@code META-INF/versions/21} of the multi-release jar. While the events are
+ * disabled, timing a call only reads their enabled flag.
+ */
+public final class FlightRecorderEvents {
+
+    private static final EventType REQUEST_TYPE = EventType.getEventType(RequestEvent.class);
+    private static final EventType SERIALIZATION_TYPE = EventType.getEventType(SerializationEvent.class);
+
+    private FlightRecorderEvents() {}
+
+    /**
+     * Returns whether the events can be emitted on this JVM.
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Starts timing a service call.
+     * @return the event of the call, null if it is not recorded
+     */
+    public static Object beginRequest() {
+        if (!REQUEST_TYPE.isEnabled()) {
+            return null;
+        }
+        final RequestEvent event = new RequestEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits the event of a service call started with {@link #beginRequest()}.
+     * @param event the event, may be null
+     * @param endpoint the service method called, for instance "ClientService.findClient"
+     * @param tenant the tenant the requests were sent to, may be null
+     * @param status the HTTP status of the last response, 0 if none was received
+     * @param requestBytes the number of bytes of the request bodies
+     * @param responseBytes the number of bytes of the response bodies
+     * @param retries the number of requests sent again after a transient failure
+     * @param error the {@link ErrorCode} the call failed with, null if it succeeded
+     */
+    public static void commitRequest(final Object event, final String endpoint, final String tenant,
+                                     final int status, final long requestBytes, final long responseBytes,
+                                     final int retries, final ErrorCode error) {
+        if (event == null) {
+            return;
+        }
+        final RequestEvent requestEvent = (RequestEvent) event;
+        requestEvent.end();
+        if (requestEvent.shouldCommit()) {
+            requestEvent.endpoint = endpoint;
+            requestEvent.tenant = tenant;
+            requestEvent.status = status;
+            requestEvent.requestBytes = requestBytes;
+            requestEvent.responseBytes = responseBytes;
+            requestEvent.retries = retries;
+            requestEvent.error = error == null ? null : error.name();
+            requestEvent.commit();
+        }
+    }
+
+    /**
+     * Starts timing a serializer invocation.
+     * @return the event of the invocation, null if it is not recorded
+     */
+    public static Object beginSerialization() {
+        if (!SERIALIZATION_TYPE.isEnabled()) {
+            return null;
+        }
+        final SerializationEvent event = new SerializationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits the event of a serializer invocation started with {@link #beginSerialization()}.
+     * @param event the event, may be null
+     * @param type the type serialized or deserialized, for instance "Client"
+     * @param serialize true if an instance was written, false if it was read
+     */
+    public static void commitSerialization(final Object event, final String type, final boolean serialize) {
+        if (event == null) {
+            return;
+        }
+        final SerializationEvent serializationEvent = (SerializationEvent) event;
+        serializationEvent.end();
+        if (serializationEvent.shouldCommit()) {
+            serializationEvent.type = type;
+            serializationEvent.operation = serialize ? "serialize" : "deserialize";
+            serializationEvent.commit();
+        }
+    }
+
+    /**
+     * A service call, from the invocation of the service method until its result.
+     */
+    @Name("org.mifos.sdk.Request")
+    @Label("Mifos X Request")
+    @Category("Mifos X SDK")
+    @Description("A call to a Mifos X service, including its retries")
+    static final class RequestEvent extends Event {
+
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Tenant")
+        String tenant;
+
+        @Label("Status")
+        int status;
+
+        @Label("Request Bytes")
+        @DataAmount
+        long requestBytes;
+
+        @Label("Response Bytes")
+        @DataAmount
+        long responseBytes;
+
+        @Label("Retries")
+        int retries;
+
+        @Label("Error")
+        String error;
+
+    }
+
+    /**
+     * A serializer reading or writing one instance.
+     */
+    @Name("org.mifos.sdk.Serialization")
+    @Label("Mifos X Serialization")
+    @Category("Mifos X SDK")
+    @Description("A resource or command written to or read from JSON")
+    static final class SerializationEvent extends Event {
+
+        @Label("Type")
+        String type;
+
+        @Label("Operation")
+        String operation;
+
+    }
+
+}
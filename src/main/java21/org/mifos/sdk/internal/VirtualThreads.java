@@ -0,0 +1,34 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors backed by virtual threads. Java 21 version of the class,
+ * packaged under {@code META-INF/versions/21} of the multi-release jar.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * Returns whether virtual threads are available on this JVM.
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Returns a new executor starting one virtual thread per task.
+     * @param namePrefix the prefix of the thread names
+     */
+    public static ExecutorService newExecutor(final String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk;
+
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.OkHttpClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mifos.sdk.internal.http.OkHttpCallClient;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for the transport created by {@link MifosXClientFactory}.
+ */
+public class MifosXClientFactoryTest {
+
+    /**
+     * Test for the timeouts and the per-host cap of the properties wired into the transport.
+     */
+    @Test
+    public void testTransportSettings() {
+        final retrofit.client.Client transport = MifosXClientFactory.createTransport(MifosXProperties
+            .url("http://localhost/mifosng-provider/api/v1")
+            .connectTimeout(3, TimeUnit.SECONDS)
+            .readTimeout(4, TimeUnit.SECONDS)
+            .writeTimeout(5, TimeUnit.SECONDS)
+            .maxRequestsPerHost(7)
+            .build());
+
+        Assert.assertTrue(transport instanceof OkHttpCallClient);
+        final OkHttpClient httpClient = ((OkHttpCallClient) transport).getOkHttpClient();
+        Assert.assertEquals(3000, httpClient.getConnectTimeout());
+        Assert.assertEquals(4000, httpClient.getReadTimeout());
+        Assert.assertEquals(5000, httpClient.getWriteTimeout());
+        Assert.assertEquals(7, httpClient.getDispatcher().getMaxRequestsPerHost());
+        Assert.assertNotSame(ConnectionPool.getDefault(), httpClient.getConnectionPool());
+    }
+
+    /**
+     * Test for the connection of a request pooled and reused by the next one.
+     */
+    @Test
+    public void testConnectionPooled() throws Exception {
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                final byte[] body = "{}".getBytes("UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        server.start();
+        try {
+            final String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/mifosng-provider/api/v1";
+            final OkHttpCallClient transport = (OkHttpCallClient) MifosXClientFactory.createTransport(
+                MifosXProperties.url(url).build());
+            final ConnectionPool pool = transport.getOkHttpClient().getConnectionPool();
+
+            for (int i = 0; i < 3; i++) {
+                final Response response = transport.execute(
+                    new Request("GET", url + "/offices", Collections.<Header>emptyList(), null));
+                try (InputStream body = response.getBody().in()) {
+                    while (body.read() != -1) {
+                        // drains the body so that the connection is pooled
+                    }
+                }
+                Assert.assertEquals(200, response.getStatus());
+            }
+            Assert.assertEquals(1, pool.getConnectionCount());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link MifosXClientRegistry} and its various methods.
+ */
+public class MifosXClientRegistryTest {
+
+    private MifosXClientRegistry registry;
+
+    /**
+     * Setup all the components before testing.
+     */
+    @Before
+    public void setup() {
+        this.registry = MifosXClientRegistry
+            .properties(MifosXProperties
+                .url("http://demo.openmf.org/mifosng-provider/api/v1")
+                .build())
+            .maxTenants(2)
+            .build();
+    }
+
+    /**
+     * Test for the same client returned to every call for a tenant.
+     */
+    @Test
+    public void testSameTenantSameClient() {
+        final MifosXClient client = this.registry.client("default", "mifos", "password");
+
+        Assert.assertSame(client, this.registry.client("default", "mifos", "password"));
+        Assert.assertEquals(1, this.registry.size());
+    }
+
+    /**
+     * Test for a separate client for every tenant.
+     */
+    @Test
+    public void testSeparateClientPerTenant() {
+        final MifosXClient first = this.registry.client("first", "mifos", "password");
+        final MifosXClient second = this.registry.client("second", "mifos", "password");
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(2, this.registry.size());
+    }
+
+    /**
+     * Test for a new client once the credentials of a tenant change.
+     */
+    @Test
+    public void testChangedCredentialsNewClient() {
+        final MifosXClient client = this.registry.client("default", "mifos", "password");
+        final MifosXClient renewed = this.registry.client("default", "mifos", "changed");
+
+        Assert.assertNotSame(client, renewed);
+        Assert.assertSame(renewed, this.registry.client("default", "mifos", "changed"));
+        Assert.assertEquals(1, this.registry.size());
+    }
+
+    /**
+     * Test for the tenants evicted beyond the maximum number of tenants.
+     */
+    @Test
+    public void testEvictionBeyondMaxTenants() {
+        final MifosXClient first = this.registry.client("first", "mifos", "password");
+        this.registry.client("second", "mifos", "password");
+        this.registry.client("third", "mifos", "password");
+
+        Assert.assertTrue(this.registry.size() <= 2);
+        this.registry.evict("third");
+        Assert.assertNotSame(first, this.registry.client("first", "mifos", "password"));
+    }
+
+}
@@ -0,0 +1,263 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.batch.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.batch.domain.Batch;
+import org.mifos.sdk.batch.domain.BatchRequest;
+import org.mifos.sdk.batch.domain.BatchResponse;
+import org.mifos.sdk.client.domain.commands.ActivateClientCommand;
+import org.mifos.sdk.client.domain.commands.AssignUnassignStaffCommand;
+import org.mifos.sdk.group.domain.commands.AssociateDisassociateClientsCommand;
+import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.internal.serializers.BatchRequestSerializer;
+import org.mifos.sdk.internal.serializers.BatchResponseSerializer;
+import org.mifos.sdk.internal.serializers.commands.client.ActivateClientSerializer;
+import retrofit.RestAdapter;
+import retrofit.RetrofitError;
+import retrofit.client.Header;
+import retrofit.client.Response;
+import retrofit.mime.TypedString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link RestBatchService} and its various methods.
+ */
+public class RestBatchServiceTest {
+
+    private RetrofitBatchService retrofitBatchService;
+    private MifosXProperties properties;
+    private String mockedAuthKey;
+    private RestBatchService batchService;
+    private Batch defaultBatch;
+    private String defaultDuplicateJSON;
+    private String defaultDuplicateMessage;
+    private Gson gson;
+
+    /**
+     * Setup all the components before testing.
+     */
+    @Before
+    public void setup() {
+        final RestAdapter restAdapter = mock(RestAdapter.class);
+        this.retrofitBatchService = mock(RetrofitBatchService.class);
+        this.properties = MifosXProperties
+                .url("http://demo.openmf.org/mifosng-provider/api/v1")
+                .username("mifos")
+                .password("password")
+                .tenant("default")
+                .build();
+        this.mockedAuthKey = "=hd$$34dd";
+        this.batchService = new RestBatchService(this.properties, restAdapter, this.mockedAuthKey);
+        this.mockedAuthKey = "Basic " + this.mockedAuthKey;
+        this.defaultBatch = Batch.enclosingTransaction(true)
+                .activateClient(1L, ActivateClientCommand.locale("en")
+                        .dateFormat("dd MMMM yyyy")
+                        .activationDate(new Date())
+                        .build())
+                .assignClientStaff(1L, AssignUnassignStaffCommand.staffId(2L).build())
+                .associateClients(3L, AssociateDisassociateClientsCommand
+                        .clientMembers(Arrays.asList(1L)).build())
+                .build();
+        this.defaultDuplicateJSON = "{\"errors\":[{\"developerMessage\":\"some random message\"}]}";
+        this.defaultDuplicateMessage = "some random message";
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(ActivateClientCommand.class, new ActivateClientSerializer())
+                .registerTypeAdapter(BatchRequest.class, new BatchRequestSerializer())
+                .registerTypeAdapter(BatchResponse.class, new BatchResponseSerializer())
+                .create();
+
+        when(restAdapter.create(RetrofitBatchService.class)).thenReturn(this.retrofitBatchService);
+    }
+
+    /**
+     * Test for the requests collected by a batch.
+     */
+    @Test
+    public void testBatchRequests() {
+        final List<BatchRequest> requests = this.defaultBatch.getRequests();
+
+        Assert.assertTrue(this.defaultBatch.isEnclosingTransaction());
+        Assert.assertEquals(requests.size(), 3);
+        Assert.assertEquals(requests.get(0).getRequestId(), Long.valueOf(1L));
+        Assert.assertEquals(requests.get(0).getRelativeUrl(), "clients/1?command=activate");
+        Assert.assertEquals(requests.get(1).getRelativeUrl(), "clients/1?command=assignStaff");
+        Assert.assertEquals(requests.get(2).getRequestId(), Long.valueOf(3L));
+        Assert.assertEquals(requests.get(2).getRelativeUrl(), "groups/3?command=associateClients");
+        Assert.assertEquals(requests.get(2).getMethod(), "POST");
+    }
+
+    /**
+     * Test for the serialization of the batch requests.
+     */
+    @Test
+    public void testBatchRequestSerialization() {
+        final JsonArray json = new JsonParser().parse(this.gson.toJson(this.defaultBatch.getRequests()))
+                .getAsJsonArray();
+        final JsonObject request = json.get(1).getAsJsonObject();
+
+        Assert.assertEquals(json.size(), 3);
+        Assert.assertEquals(request.get("requestId").getAsLong(), 2L);
+        Assert.assertEquals(request.get("method").getAsString(), "POST");
+        Assert.assertEquals(request.get("body").getAsString(), "{\"staffId\":2}");
+        Assert.assertTrue(json.get(0).getAsJsonObject().get("body").getAsString().contains("activationDate"));
+    }
+
+    /**
+     * Test for the deserialization of successful and failed batch responses.
+     */
+    @Test
+    public void testBatchResponseDeserialization() {
+        final String json = "[{\"requestId\":1,\"statusCode\":200,\"body\":\"{\\\"resourceId\\\":1}\"},"
+                + "{\"requestId\":2,\"statusCode\":403,\"body\":\"" + this.defaultDuplicateJSON.replace("\"", "\\\"")
+                + "\"}]";
+        final List<BatchResponse> responses = this.gson.fromJson(json,
+                new TypeToken<List<BatchResponse>>() {}.getType());
+
+        Assert.assertTrue(responses.get(0).isSuccessful());
+        Assert.assertEquals(responses.get(0).getResourceId(), Long.valueOf(1L));
+        Assert.assertNull(responses.get(0).getErrorMessage());
+        Assert.assertFalse(responses.get(1).isSuccessful());
+        Assert.assertEquals(responses.get(1).getRequestId(), Long.valueOf(2L));
+        Assert.assertEquals(responses.get(1).getErrorMessage(), this.defaultDuplicateMessage);
+    }
+
+    /**
+     * Test for successful execution of a batch.
+     */
+    @Test
+    public void testExecuteBatch() {
+        final List<BatchResponse> responses = new ArrayList<>();
+        responses.add(new BatchResponse(1L, 200, "{}", 1L, null));
+        when(this.retrofitBatchService.executeBatch(this.mockedAuthKey, this.properties.getTenant(), true,
+                this.defaultBatch.getRequests())).thenReturn(responses);
+
+        try {
+            final List<BatchResponse> result = this.batchService.executeBatch(this.defaultBatch);
+
+            Assert.assertNotNull(result);
+            Assert.assertEquals(result.size(), 1);
+        } catch (MifosXConnectException e) {
+            Assert.fail();
+        } catch (MifosXResourceException e) {
+            Assert.fail();
+        }
+    }
+
+    /**
+     * Test for {@link ErrorCode#NOT_CONNECTED} exception for executeBatch().
+     */
+    @Test
+    public void testExecuteBatchNotConnectedException() {
+        final RetrofitError error = mock(RetrofitError.class);
+
+        when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
+        when(this.retrofitBatchService.executeBatch(this.mockedAuthKey, this.properties.getTenant(), true,
+                this.defaultBatch.getRequests())).thenThrow(error);
+
+        try {
+            this.batchService.executeBatch(this.defaultBatch);
+
+            Assert.fail();
+        } catch (MifosXConnectException e) {
+            Assert.assertNotNull(e);
+            Assert.assertEquals(e.getMessage(), ErrorCode.NOT_CONNECTED.getMessage());
+        } catch (MifosXResourceException e) {
+            Assert.fail();
+        }
+    }
+
+    /**
+     * Test for duplicate exception for executeBatch().
+     */
+    @Test
+    public void testExecuteBatchDuplicateException() {
+        final RetrofitError error = mock(RetrofitError.class);
+        final Response response = new Response("", 403, "", new ArrayList<Header>(),
+                new TypedString(this.defaultDuplicateJSON));
+
+        when(error.getResponse()).thenReturn(response);
+        when(this.retrofitBatchService.executeBatch(this.mockedAuthKey, this.properties.getTenant(), true,
+                this.defaultBatch.getRequests())).thenThrow(error);
+
+        try {
+            this.batchService.executeBatch(this.defaultBatch);
+
+            Assert.fail();
+        } catch (MifosXConnectException e) {
+            Assert.fail();
+        } catch (MifosXResourceException e) {
+            Assert.assertNotNull(e);
+            Assert.assertEquals(e.getMessage(), this.defaultDuplicateMessage);
+        }
+    }
+
+    /**
+     * Test for {@link ErrorCode#INVALID_AUTHENTICATION_TOKEN} exception for executeBatch().
+     */
+    @Test
+    public void testExecuteBatchInvalidAuthKeyException() {
+        final RetrofitError error = mock(RetrofitError.class);
+        final Response response = new Response("", 401, "", new ArrayList<Header>(), new TypedString(""));
+
+        when(error.getResponse()).thenReturn(response);
+        when(this.retrofitBatchService.executeBatch(this.mockedAuthKey, this.properties.getTenant(), true,
+                this.defaultBatch.getRequests())).thenThrow(error);
+
+        try {
+            this.batchService.executeBatch(this.defaultBatch);
+
+            Assert.fail();
+        } catch (MifosXConnectException e) {
+            Assert.assertNotNull(e);
+            Assert.assertEquals(e.getMessage(), ErrorCode.INVALID_AUTHENTICATION_TOKEN.getMessage());
+        } catch (MifosXResourceException e) {
+            Assert.fail();
+        }
+    }
+
+    /**
+     * Test for {@link ErrorCode#UNKNOWN} exception for executeBatch().
+     */
+    @Test
+    public void testExecuteBatchUnknownException() {
+        final RetrofitError error = mock(RetrofitError.class);
+        final Response response = new Response("", 503, "", new ArrayList<Header>(), new TypedString(""));
+
+        when(error.getResponse()).thenReturn(response);
+        when(this.retrofitBatchService.executeBatch(this.mockedAuthKey, this.properties.getTenant(), true,
+                this.defaultBatch.getRequests())).thenThrow(error);
+
+        try {
+            this.batchService.executeBatch(this.defaultBatch);
+
+            Assert.fail();
+        } catch (MifosXConnectException e) {
+            Assert.assertNotNull(e);
+            Assert.assertEquals(e.getMessage(), ErrorCode.UNKNOWN.getMessage());
+        } catch (MifosXResourceException e) {
+            Assert.fail();
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.breaker;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.internal.http.CircuitBreakingClient;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for {@link CircuitBreaker} and {@link CircuitBreakingClient}.
+ */
+public class CircuitBreakerTest {
+
+    private static final String URL = "http://demo.openmf.org/mifosng-provider/api/v1";
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private List<String> transitions;
+    private CircuitBreakers breakers;
+
+    /**
+     * Setup all the components before testing.
+     */
+    @Before
+    public void setup() {
+        this.transitions = Collections.synchronizedList(new ArrayList<String>());
+        this.breakers = CircuitBreakers
+            .window(4)
+            .minimumCalls(4)
+            .failureRateThreshold(50)
+            .slowCallRateThreshold(75)
+            .slowCallDuration(1, TimeUnit.SECONDS)
+            .openDuration(0, TimeUnit.MILLISECONDS)
+            .halfOpenCalls(2)
+            .listener(new CircuitBreakerListener() {
+                @Override
+                public void onStateChange(final CircuitBreaker breaker, final CircuitBreaker.State from,
+                                          final CircuitBreaker.State to) {
+                    transitions.add(breaker.getEndpoint() + " " + from + "->" + to);
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Test for the circuit opening once the failure rate reaches the threshold.
+     */
+    @Test
+    public void testOpensOnFailureRate() {
+        final CircuitBreaker breaker = this.breakers.forEndpoint("GET /clients");
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(breaker.tryAcquire());
+            breaker.onResult(FAST, i == 0);
+        }
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        Assert.assertTrue(breaker.tryAcquire());
+        breaker.onResult(FAST, true);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Assert.assertEquals(Collections.singletonList("GET /clients CLOSED->OPEN"), this.transitions);
+    }
+
+    /**
+     * Test for the circuit opening once the slow call rate reaches the threshold.
+     */
+    @Test
+    public void testOpensOnSlowCallRate() {
+        final CircuitBreaker breaker = this.breakers.forEndpoint("GET /clients");
+
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquire();
+            breaker.onResult(i == 0 ? FAST : TimeUnit.SECONDS.toNanos(2), false);
+        }
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * Test for the probes of a half-open circuit closing it or opening it again.
+     */
+    @Test
+    public void testHalfOpenProbes() {
+        final CircuitBreaker breaker = this.breakers.forEndpoint("GET /clients");
+        open(breaker);
+
+        Assert.assertTrue(breaker.tryAcquire());
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Assert.assertTrue(breaker.tryAcquire());
+        Assert.assertFalse(breaker.tryAcquire());
+        breaker.onResult(FAST, true);
+        breaker.onResult(FAST, false);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+        breaker.onResult(FAST, false);
+        breaker.onResult(FAST, false);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        Assert.assertEquals(5, this.transitions.size());
+        Assert.assertEquals("GET /clients HALF_OPEN->CLOSED", this.transitions.get(4));
+    }
+
+    /**
+     * Test for the client failing fast on an open endpoint while other endpoints
+     * keep being called.
+     */
+    @Test
+    public void testClientFailsFastPerEndpoint() throws IOException {
+        final AtomicInteger calls = new AtomicInteger();
+        final Client server = new Client() {
+            @Override
+            public Response execute(final Request request) throws IOException {
+                calls.incrementAndGet();
+                final int status = request.getUrl().contains("/images") ? 503 : 200;
+                return new Response(request.getUrl(), status, "", Collections.<Header>emptyList(), null);
+            }
+        };
+        final CircuitBreakers slowToRecover = CircuitBreakers.window(4).minimumCalls(4)
+            .openDuration(1, TimeUnit.MINUTES).build();
+        final CircuitBreakingClient client = new CircuitBreakingClient(server, slowToRecover, URL);
+
+        for (int i = 0; i < 4; i++) {
+            client.execute(get(URL + "/clients/" + i + "/images?tenantIdentifier=default"));
+        }
+        try {
+            client.execute(get(URL + "/clients/9/images?tenantIdentifier=default"));
+            Assert.fail();
+        } catch (CircuitBreakerOpenException e) {
+            Assert.assertEquals(4, calls.get());
+        }
+
+        Assert.assertEquals(200, client.execute(get(URL + "/clients/9?tenantIdentifier=default")).getStatus());
+        Assert.assertEquals(CircuitBreaker.State.OPEN,
+            slowToRecover.forEndpoint("GET /clients/{id}/images").getState());
+        Assert.assertEquals(CircuitBreaker.State.CLOSED,
+            slowToRecover.forEndpoint("GET /clients/{id}").getState());
+        Assert.assertEquals(2, slowToRecover.getCircuitBreakers().size());
+    }
+
+    private static void open(final CircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquire();
+            breaker.onResult(FAST, true);
+        }
+    }
+
+    private static Request get(final String url) {
+        return new Request("GET", url, Collections.<Header>emptyList(), null);
+    }
+
+}
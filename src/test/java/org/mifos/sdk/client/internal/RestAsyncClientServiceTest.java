@@ -0,0 +1,107 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.client.internal;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.client.ClientService;
+import org.mifos.sdk.client.domain.Client;
+import org.mifos.sdk.internal.ErrorCode;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link RestAsyncClientService} and its various methods.
+ */
+public class RestAsyncClientServiceTest {
+
+    private ClientService clientService;
+    private RestAsyncClientService asyncClientService;
+    private Client defaultClient;
+    private Long defaultClientId;
+
+    /**
+     * Setup all the components before testing.
+     */
+    @Before
+    public void setup() {
+        this.clientService = mock(ClientService.class);
+        this.asyncClientService = new RestAsyncClientService(this.clientService,
+            MoreExecutors.sameThreadExecutor());
+        this.defaultClient = Client
+            .fullname("Davis Jones")
+            .officeId(1L)
+            .active(false)
+            .build();
+        this.defaultClientId = 1L;
+        this.defaultClient.setClientId(this.defaultClientId);
+    }
+
+    /**
+     * Test for successfully finding a client asynchronously.
+     */
+    @Test
+    public void testFindClient() throws Exception {
+        when(this.clientService.findClient(this.defaultClientId)).thenReturn(this.defaultClient);
+
+        final Client client = this.asyncClientService.findClient(this.defaultClientId).get();
+
+        Assert.assertNotNull(client);
+        Assert.assertEquals(client.getClientId(), this.defaultClientId);
+    }
+
+    /**
+     * Test for successfully deleting a client asynchronously.
+     */
+    @Test
+    public void testDeleteClient() throws Exception {
+        Assert.assertNull(this.asyncClientService.deleteClient(this.defaultClientId).get());
+        verify(this.clientService).deleteClient(this.defaultClientId);
+    }
+
+    /**
+     * Test for the {@link ErrorCode#CLIENT_NOT_FOUND} exception being the cause of the failure.
+     */
+    @Test
+    public void testFindClientNotFoundException() throws Exception {
+        when(this.clientService.findClient(this.defaultClientId))
+            .thenThrow(new MifosXResourceException(ErrorCode.CLIENT_NOT_FOUND));
+
+        try {
+            this.asyncClientService.findClient(this.defaultClientId).get();
+
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof MifosXResourceException);
+            Assert.assertEquals(e.getCause().getMessage(), ErrorCode.CLIENT_NOT_FOUND.getMessage());
+        }
+    }
+
+    /**
+     * Test for the {@link ErrorCode#NOT_CONNECTED} exception being the cause of the failure.
+     */
+    @Test
+    public void testDeleteClientNotConnectedException() throws Exception {
+        doThrow(new MifosXConnectException(ErrorCode.NOT_CONNECTED))
+            .when(this.clientService).deleteClient(this.defaultClientId);
+
+        try {
+            this.asyncClientService.deleteClient(this.defaultClientId).get();
+
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof MifosXConnectException);
+            Assert.assertEquals(e.getCause().getMessage(), ErrorCode.NOT_CONNECTED.getMessage());
+        }
+    }
+
+}
@@ -5,6 +5,8 @@
  */
 package org.mifos.sdk.client.internal;
 
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.commons.codec.binary.Base64;
 import org.junit.Assert;
 import org.junit.Before;
@@ -12,12 +14,20 @@ import org.junit.Test;
 import org.mifos.sdk.MifosXConnectException;
 import org.mifos.sdk.MifosXProperties;
 import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.ScanOptions;
+import org.mifos.sdk.client.ClientService;
 import org.mifos.sdk.client.domain.Client;
 import org.mifos.sdk.client.domain.ClientIdentifier;
 import org.mifos.sdk.client.domain.ClientImage;
 import org.mifos.sdk.client.domain.PageableClients;
 import org.mifos.sdk.client.domain.commands.*;
+import org.mifos.sdk.internal.AsyncExecutors;
 import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.internal.MeteredServices;
+import org.mifos.sdk.metrics.EndpointMetrics;
+import org.mifos.sdk.metrics.MetricsRecorder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import retrofit.RestAdapter;
 import retrofit.RetrofitError;
 import retrofit.client.Header;
@@ -30,7 +40,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.*;
@@ -744,6 +762,27 @@ public class RestClientServiceTest {
         }
     }
 
+    /**
+     * Test for the idempotency key of a command sent with activateClient().
+     */
+    @Test
+    public void testActivateClientIdempotencyKey() {
+        final ActivateClientCommand command = ActivateClientCommand.locale("en")
+            .idempotencyKey("3f1c9a")
+            .build();
+
+        try {
+            this.clientService.activateClient(this.defaultClientId, command);
+
+            verify(this.retrofitClientService).executeCommand(this.mockedAuthKey,
+                this.properties.getTenant(), this.defaultClientId, "activate", command, "3f1c9a");
+        } catch (MifosXConnectException e) {
+            Assert.fail();
+        } catch (MifosXResourceException e) {
+            Assert.fail();
+        }
+    }
+
     /**
      * Test for {@link ErrorCode#NOT_CONNECTED} exception for activateClient().
      */
@@ -754,7 +793,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "activate", command);
+                this.properties.getTenant(), this.defaultClientId, "activate", command, null);
 
         try {
             this.clientService.activateClient(this.defaultClientId, command);
@@ -779,7 +818,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "activate", command);
+                this.properties.getTenant(), this.defaultClientId, "activate", command, null);
 
         try {
             this.clientService.activateClient(this.defaultClientId, command);
@@ -804,7 +843,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "activate", command);
+                this.properties.getTenant(), this.defaultClientId, "activate", command, null);
 
         try {
             this.clientService.activateClient(this.defaultClientId, command);
@@ -829,7 +868,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "activate", command);
+                this.properties.getTenant(), this.defaultClientId, "activate", command, null);
 
         try {
             this.clientService.activateClient(this.defaultClientId, command);
@@ -854,7 +893,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "activate", command);
+                this.properties.getTenant(), this.defaultClientId, "activate", command, null);
 
         try {
             this.clientService.activateClient(this.defaultClientId, command);
@@ -878,7 +917,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "close", command);
+                this.properties.getTenant(), this.defaultClientId, "close", command, null);
 
         try {
             this.clientService.closeClient(this.defaultClientId, command);
@@ -903,7 +942,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "close", command);
+                this.properties.getTenant(), this.defaultClientId, "close", command, null);
 
         try {
             this.clientService.closeClient(this.defaultClientId, command);
@@ -928,7 +967,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "close", command);
+                this.properties.getTenant(), this.defaultClientId, "close", command, null);
 
         try {
             this.clientService.closeClient(this.defaultClientId, command);
@@ -953,7 +992,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "close", command);
+                this.properties.getTenant(), this.defaultClientId, "close", command, null);
 
         try {
             this.clientService.closeClient(this.defaultClientId, command);
@@ -978,7 +1017,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "close", command);
+                this.properties.getTenant(), this.defaultClientId, "close", command, null);
 
         try {
             this.clientService.closeClient(this.defaultClientId, command);
@@ -1002,7 +1041,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "assignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "assignStaff", command, null);
 
         try {
             this.clientService.assignStaff(this.defaultClientId, command);
@@ -1027,7 +1066,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "assignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "assignStaff", command, null);
 
         try {
             this.clientService.assignStaff(this.defaultClientId, command);
@@ -1052,7 +1091,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "assignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "assignStaff", command, null);
 
         try {
             this.clientService.assignStaff(this.defaultClientId, command);
@@ -1077,7 +1116,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "assignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "assignStaff", command, null);
 
         try {
             this.clientService.assignStaff(this.defaultClientId, command);
@@ -1102,7 +1141,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "assignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "assignStaff", command, null);
 
         try {
             this.clientService.assignStaff(this.defaultClientId, command);
@@ -1126,7 +1165,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command, null);
 
         try {
             this.clientService.unassignStaff(this.defaultClientId, command);
@@ -1151,7 +1190,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command, null);
 
         try {
             this.clientService.unassignStaff(this.defaultClientId, command);
@@ -1176,7 +1215,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command, null);
 
         try {
             this.clientService.unassignStaff(this.defaultClientId, command);
@@ -1201,7 +1240,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command, null);
 
         try {
             this.clientService.unassignStaff(this.defaultClientId, command);
@@ -1226,7 +1265,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command);
+                this.properties.getTenant(), this.defaultClientId, "unassignStaff", command, null);
 
         try {
             this.clientService.unassignStaff(this.defaultClientId, command);
@@ -1250,7 +1289,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command);
+                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command, null);
 
         try {
             this.clientService.updateSavingsAccount(this.defaultClientId, command);
@@ -1275,7 +1314,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command);
+                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command, null);
 
         try {
             this.clientService.updateSavingsAccount(this.defaultClientId, command);
@@ -1300,7 +1339,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command);
+                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command, null);
 
         try {
             this.clientService.updateSavingsAccount(this.defaultClientId, command);
@@ -1325,7 +1364,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command);
+                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command, null);
 
         try {
             this.clientService.updateSavingsAccount(this.defaultClientId, command);
@@ -1350,7 +1389,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command);
+                this.properties.getTenant(), this.defaultClientId, "updateSavingsAccount", command, null);
 
         try {
             this.clientService.updateSavingsAccount(this.defaultClientId, command);
@@ -1374,7 +1413,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command, null);
 
         try {
             this.clientService.proposeTransfer(this.defaultClientId, command);
@@ -1399,7 +1438,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command, null);
 
         try {
             this.clientService.proposeTransfer(this.defaultClientId, command);
@@ -1424,7 +1463,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command, null);
 
         try {
             this.clientService.proposeTransfer(this.defaultClientId, command);
@@ -1449,7 +1488,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command, null);
 
         try {
             this.clientService.proposeTransfer(this.defaultClientId, command);
@@ -1474,7 +1513,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeTransfer", command, null);
 
         try {
             this.clientService.proposeTransfer(this.defaultClientId, command);
@@ -1498,7 +1537,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command, null);
 
         try {
             this.clientService.withdrawTransfer(this.defaultClientId, command);
@@ -1523,7 +1562,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command, null);
 
         try {
             this.clientService.withdrawTransfer(this.defaultClientId, command);
@@ -1548,7 +1587,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command, null);
 
         try {
             this.clientService.withdrawTransfer(this.defaultClientId, command);
@@ -1573,7 +1612,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command, null);
 
         try {
             this.clientService.withdrawTransfer(this.defaultClientId, command);
@@ -1598,7 +1637,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "withdrawTransfer", command, null);
 
         try {
             this.clientService.withdrawTransfer(this.defaultClientId, command);
@@ -1622,7 +1661,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command, null);
 
         try {
             this.clientService.rejectTransfer(this.defaultClientId, command);
@@ -1647,7 +1686,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command, null);
 
         try {
             this.clientService.rejectTransfer(this.defaultClientId, command);
@@ -1672,7 +1711,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command, null);
 
         try {
             this.clientService.rejectTransfer(this.defaultClientId, command);
@@ -1697,7 +1736,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command, null);
 
         try {
             this.clientService.rejectTransfer(this.defaultClientId, command);
@@ -1722,7 +1761,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "rejectTransfer", command, null);
 
         try {
             this.clientService.rejectTransfer(this.defaultClientId, command);
@@ -1746,7 +1785,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command, null);
 
         try {
             this.clientService.acceptTransfer(this.defaultClientId, command);
@@ -1771,7 +1810,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command, null);
 
         try {
             this.clientService.acceptTransfer(this.defaultClientId, command);
@@ -1796,7 +1835,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command, null);
 
         try {
             this.clientService.acceptTransfer(this.defaultClientId, command);
@@ -1821,7 +1860,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command, null);
 
         try {
             this.clientService.acceptTransfer(this.defaultClientId, command);
@@ -1846,7 +1885,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "acceptTransfer", command, null);
 
         try {
             this.clientService.acceptTransfer(this.defaultClientId, command);
@@ -1870,7 +1909,7 @@ public class RestClientServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command, null);
 
         try {
             this.clientService.proposeAndAcceptTransfer(this.defaultClientId, command);
@@ -1895,7 +1934,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command, null);
 
         try {
             this.clientService.proposeAndAcceptTransfer(this.defaultClientId, command);
@@ -1920,7 +1959,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command, null);
 
         try {
             this.clientService.proposeAndAcceptTransfer(this.defaultClientId, command);
@@ -1945,7 +1984,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command, null);
 
         try {
             this.clientService.proposeAndAcceptTransfer(this.defaultClientId, command);
@@ -1970,7 +2009,7 @@ public class RestClientServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitClientService).executeCommand(this.mockedAuthKey,
-                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command);
+                this.properties.getTenant(), this.defaultClientId, "proposeAndAcceptTransfer", command, null);
 
         try {
             this.clientService.proposeAndAcceptTransfer(this.defaultClientId, command);
@@ -3053,4 +3092,228 @@ public class RestClientServiceTest {
         }
     }
 
+    /**
+     * Test for scanning all the clients page by page.
+     */
+    @Test
+    public void testScanClients() {
+        when(this.retrofitClientService.fetchClients(eq(this.mockedAuthKey), eq(this.properties.getTenant()),
+                anyMapOf(String.class, Object.class))).thenAnswer(pagedClients(5));
+
+        final Iterator<Client> clients = this.clientService.scanClients(ScanOptions.pageSize(2).build());
+        final List<Long> ids = new ArrayList<>();
+        while (clients.hasNext()) {
+            ids.add(clients.next().getClientId());
+        }
+
+        Assert.assertEquals(ids, Arrays.asList(1L, 2L, 3L, 4L, 5L));
+        verify(this.retrofitClientService, times(3)).fetchClients(eq(this.mockedAuthKey),
+                eq(this.properties.getTenant()), anyMapOf(String.class, Object.class));
+    }
+
+    /**
+     * Test for scanning the clients without prefetching, every page fetched only
+     * when it is needed even with a concurrency.
+     */
+    @Test
+    public void testScanClientsWithoutPrefetch() {
+        when(this.retrofitClientService.fetchClients(eq(this.mockedAuthKey), eq(this.properties.getTenant()),
+                anyMapOf(String.class, Object.class))).thenAnswer(pagedClients(5));
+
+        final Iterator<Client> clients = this.clientService.scanClients(ScanOptions.pageSize(2)
+                .prefetchPages(0).concurrency(4).build());
+        final List<Long> ids = new ArrayList<>();
+        for (int page = 1; page <= 3; page++) {
+            Assert.assertTrue(clients.hasNext());
+            verify(this.retrofitClientService, times(page)).fetchClients(eq(this.mockedAuthKey),
+                    eq(this.properties.getTenant()), anyMapOf(String.class, Object.class));
+            ids.add(clients.next().getClientId());
+            if (clients.hasNext()) {
+                ids.add(clients.next().getClientId());
+            }
+        }
+
+        Assert.assertFalse(clients.hasNext());
+        Assert.assertEquals(ids, Arrays.asList(1L, 2L, 3L, 4L, 5L));
+        verify(this.retrofitClientService, times(3)).fetchClients(eq(this.mockedAuthKey),
+                eq(this.properties.getTenant()), anyMapOf(String.class, Object.class));
+    }
+
+    /**
+     * Test for {@link ErrorCode#NOT_CONNECTED} exception for scanClients().
+     */
+    @Test
+    public void testScanClientsNotConnectedException() {
+        final RetrofitError error = mock(RetrofitError.class);
+
+        when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
+        when(this.retrofitClientService.fetchClients(eq(this.mockedAuthKey), eq(this.properties.getTenant()),
+                anyMapOf(String.class, Object.class))).thenThrow(error);
+
+        try {
+            this.clientService.scanClients(ScanOptions.pageSize(2).build()).hasNext();
+
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof MifosXConnectException);
+            Assert.assertEquals(e.getCause().getMessage(), ErrorCode.NOT_CONNECTED.getMessage());
+        }
+    }
+
+    /**
+     * Test for scanning all the clients with pages fetched in parallel, delivered in order.
+     */
+    @Test
+    public void testScanClientsParallelOrdered() {
+        final ListeningExecutorService executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(4));
+        final RestAdapter restAdapter = mock(RestAdapter.class);
+        when(restAdapter.create(RetrofitClientService.class)).thenReturn(this.retrofitClientService);
+        when(this.retrofitClientService.fetchClients(eq(this.mockedAuthKey), eq(this.properties.getTenant()),
+                anyMapOf(String.class, Object.class))).thenAnswer(pagedClients(25));
+
+        try {
+            final RestClientService service = new RestClientService(this.properties, restAdapter,
+                    "=hd$$34dd", executor);
+            final Iterator<Client> clients = service.scanClients(ScanOptions.pageSize(2).concurrency(4).build());
+            final List<Long> ids = new ArrayList<>();
+            while (clients.hasNext()) {
+                ids.add(clients.next().getClientId());
+            }
+
+            final List<Long> expected = new ArrayList<>();
+            for (long id = 1; id <= 25; id++) {
+                expected.add(id);
+            }
+            Assert.assertEquals(ids, expected);
+            verify(this.retrofitClientService, times(13)).fetchClients(eq(this.mockedAuthKey),
+                    eq(this.properties.getTenant()), anyMapOf(String.class, Object.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test for scanning all the clients with pages fetched in parallel, delivered as they arrive.
+     */
+    @Test
+    public void testScanClientsParallelUnordered() {
+        final ListeningExecutorService executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(4));
+        final RestAdapter restAdapter = mock(RestAdapter.class);
+        when(restAdapter.create(RetrofitClientService.class)).thenReturn(this.retrofitClientService);
+        when(this.retrofitClientService.fetchClients(eq(this.mockedAuthKey), eq(this.properties.getTenant()),
+                anyMapOf(String.class, Object.class))).thenAnswer(pagedClients(25));
+
+        try {
+            final RestClientService service = new RestClientService(this.properties, restAdapter,
+                    "=hd$$34dd", executor);
+            final Iterator<Client> clients = service.scanClients(ScanOptions.pageSize(2).concurrency(4)
+                    .ordered(false).build());
+            final Set<Long> ids = new HashSet<>();
+            while (clients.hasNext()) {
+                Assert.assertTrue(ids.add(clients.next().getClientId()));
+            }
+
+            Assert.assertEquals(ids.size(), 25);
+            verify(this.retrofitClientService, times(13)).fetchClients(eq(this.mockedAuthKey),
+                    eq(this.properties.getTenant()), anyMapOf(String.class, Object.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test for a parallel scan consumed on the only thread of the client's executor,
+     * its pages fetched on that thread rather than queued behind it.
+     */
+    @Test
+    public void testScanClientsOnExecutorThread() throws Exception {
+        final ListeningExecutorService executor = AsyncExecutors.forProperties(MifosXProperties
+                .from(this.properties)
+                .maxRequestsPerHost(1)
+                .build());
+        final RestAdapter restAdapter = mock(RestAdapter.class);
+        when(restAdapter.create(RetrofitClientService.class)).thenReturn(this.retrofitClientService);
+        when(this.retrofitClientService.fetchClients(eq(this.mockedAuthKey), eq(this.properties.getTenant()),
+                anyMapOf(String.class, Object.class))).thenAnswer(pagedClients(25));
+
+        try {
+            final RestClientService service = new RestClientService(this.properties, restAdapter,
+                    "=hd$$34dd", executor);
+            final Future<Integer> scanned = executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    final Iterator<Client> clients = service.scanClients(ScanOptions.pageSize(2)
+                            .concurrency(4).build());
+                    int count = 0;
+                    while (clients.hasNext()) {
+                        clients.next();
+                        count++;
+                    }
+                    return count;
+                }
+            });
+
+            Assert.assertEquals(25, (int) scanned.get(5, TimeUnit.SECONDS));
+            verify(this.retrofitClientService, times(13)).fetchClients(eq(this.mockedAuthKey),
+                    eq(this.properties.getTenant()), anyMapOf(String.class, Object.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test for every page of a scan fetched in parallel recorded as a call of the scan
+     * by the metered service, on the threads fetching them.
+     */
+    @Test
+    public void testScanClientsMetered() {
+        final ListeningExecutorService executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(4));
+        final RestAdapter restAdapter = mock(RestAdapter.class);
+        when(restAdapter.create(RetrofitClientService.class)).thenReturn(this.retrofitClientService);
+        when(this.retrofitClientService.fetchClients(eq(this.mockedAuthKey), eq(this.properties.getTenant()),
+                anyMapOf(String.class, Object.class))).thenAnswer(pagedClients(25));
+
+        try {
+            final MetricsRecorder recorder = new MetricsRecorder();
+            final ClientService service = MeteredServices.wrap(ClientService.class,
+                    new RestClientService(this.properties, restAdapter, "=hd$$34dd", executor), recorder);
+            final Iterator<Client> clients = service.scanClients(ScanOptions.pageSize(2).concurrency(4).build());
+            Assert.assertNull(recorder.getEndpoint("ClientService.scanClients"));
+            while (clients.hasNext()) {
+                clients.next();
+            }
+
+            final EndpointMetrics scanClients = recorder.getEndpoint("ClientService.scanClients");
+            Assert.assertEquals(13, scanClients.getCalls());
+            Assert.assertEquals(0, scanClients.getErrors());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns an {@link Answer} serving the pages of the given number of clients.
+     * @param total the total number of clients
+     */
+    private static Answer<PageableClients> pagedClients(final long total) {
+        return new Answer<PageableClients>() {
+            @Override
+            public PageableClients answer(InvocationOnMock invocation) {
+                final Map<?, ?> queryMap = (Map<?, ?>) invocation.getArguments()[2];
+                final long offset = (Long) queryMap.get("offset");
+                final int limit = (Integer) queryMap.get("limit");
+                final List<Client> clients = new ArrayList<>();
+                for (long id = offset + 1; id <= Math.min(offset + limit, total); id++) {
+                    final Client client = Client.fullname("Client " + id).officeId(1L).active(false).build();
+                    client.setClientId(id);
+                    clients.add(client);
+                }
+                final PageableClients page = new PageableClients();
+                page.setTotalFilteredRecords(total);
+                page.setClients(clients);
+                return page;
+            }
+        };
+    }
+
 }
@@ -11,7 +11,10 @@ import org.junit.Test;
 import org.mifos.sdk.MifosXConnectException;
 import org.mifos.sdk.MifosXProperties;
 import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.ScanOptions;
 import org.mifos.sdk.client.domain.Client;
+import org.mifos.sdk.group.GroupService;
+import org.mifos.sdk.group.domain.CollectionSheet;
 import org.mifos.sdk.group.domain.Group;
 import org.mifos.sdk.group.domain.PageableGroups;
 import org.mifos.sdk.group.domain.commands.ActivateGroupCommand;
@@ -23,19 +26,33 @@ import org.mifos.sdk.group.domain.commands.GenerateCollectionSheetCommand;
 import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
 import org.mifos.sdk.group.domain.commands.TransferClientsCommand;
 import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.internal.MeteredServices;
+import org.mifos.sdk.metrics.EndpointMetrics;
+import org.mifos.sdk.metrics.MetricsRecorder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import retrofit.RestAdapter;
 import retrofit.RetrofitError;
 import retrofit.client.Header;
 import retrofit.client.Response;
+import retrofit.mime.TypedInput;
 import retrofit.mime.TypedString;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.*;
@@ -750,7 +767,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "activate", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "activate", null, command, null);
 
         try {
             this.groupService.activateGroup(this.defaultGroupId, command);
@@ -775,7 +792,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "activate", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "activate", null, command, null);
 
         try {
             this.groupService.activateGroup(this.defaultGroupId, command);
@@ -800,7 +817,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "activate", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "activate", null, command, null);
 
         try {
             this.groupService.activateGroup(this.defaultGroupId, command);
@@ -825,7 +842,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "activate", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "activate", null, command, null);
 
         try {
             this.groupService.activateGroup(this.defaultGroupId, command);
@@ -850,7 +867,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "activate", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "activate", null, command, null);
 
         try {
             this.groupService.activateGroup(this.defaultGroupId, command);
@@ -875,7 +892,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command, null);
 
         try {
             this.groupService.associateClients(this.defaultGroupId, command);
@@ -901,7 +918,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command, null);
 
         try {
             this.groupService.associateClients(this.defaultGroupId, command);
@@ -927,7 +944,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command, null);
 
         try {
             this.groupService.associateClients(this.defaultGroupId, command);
@@ -953,7 +970,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command, null);
 
         try {
             this.groupService.associateClients(this.defaultGroupId, command);
@@ -979,7 +996,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "associateClients", null, command, null);
 
         try {
             this.groupService.associateClients(this.defaultGroupId, command);
@@ -1004,7 +1021,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command, null);
 
         try {
             this.groupService.disassociateClients(this.defaultGroupId, command);
@@ -1030,7 +1047,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command, null);
 
         try {
             this.groupService.disassociateClients(this.defaultGroupId, command);
@@ -1056,7 +1073,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command, null);
 
         try {
             this.groupService.disassociateClients(this.defaultGroupId, command);
@@ -1082,7 +1099,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command, null);
 
         try {
             this.groupService.disassociateClients(this.defaultGroupId, command);
@@ -1108,7 +1125,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "disassociateClients", null, command, null);
 
         try {
             this.groupService.disassociateClients(this.defaultGroupId, command);
@@ -1133,7 +1150,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command, null);
 
         try {
             this.groupService.transferClients(this.defaultGroupId, command);
@@ -1159,7 +1176,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command, null);
 
         try {
             this.groupService.transferClients(this.defaultGroupId, command);
@@ -1185,7 +1202,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command, null);
 
         try {
             this.groupService.transferClients(this.defaultGroupId, command);
@@ -1211,7 +1228,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command, null);
 
         try {
             this.groupService.transferClients(this.defaultGroupId, command);
@@ -1237,7 +1254,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "transferClients", null, command, null);
 
         try {
             this.groupService.transferClients(this.defaultGroupId, command);
@@ -1251,6 +1268,95 @@ public class RestGroupServiceTest {
         }
     }
 
+    /**
+     * Test for successful generation of a collection sheet, read into its members and dues.
+     */
+    @Test
+    public void testGenerateCollectionSheet() {
+        final Date date = new GregorianCalendar(2015, 1, 13).getTime();
+        final GenerateCollectionSheetCommand command = GenerateCollectionSheetCommand.locale("en")
+            .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
+        final Response response = new Response("", 200, "", new ArrayList<Header>(),
+            new TypedString(this.collectionSheetJSON()));
+
+        when(this.retrofitGroupService.generateCollectionSheet(this.mockedAuthKey, this.properties.getTenant(),
+            this.defaultGroupId, "generateCollectionSheet", command, null)).thenReturn(response);
+
+        try {
+            final CollectionSheet sheet = this.groupService.generateCollectionSheet(this.defaultGroupId, command);
+
+            Assert.assertEquals(sheet.getDueDate(), date);
+            Assert.assertEquals(sheet.getMembers().size(), 2);
+
+            final CollectionSheet.Member first = sheet.getMembers().get(0);
+            Assert.assertEquals(first.getClientId(), (Long) 11L);
+            Assert.assertEquals(first.getClientName(), "Jane Doe");
+            Assert.assertEquals(first.getGroupId(), this.defaultGroupId);
+            Assert.assertEquals(first.getAttendanceType(), (Long) 2L);
+            Assert.assertEquals(first.getLoans().size(), 2);
+            Assert.assertEquals(first.getLoans().get(0).getLoanId(), (Long) 21L);
+            Assert.assertEquals(first.getLoans().get(0).getAccountNo(), "000000021");
+            Assert.assertEquals(first.getLoans().get(0).getTotalDue(), new BigDecimal("125.50"));
+            Assert.assertEquals(first.getLoans().get(1).getDisbursementAmount(), new BigDecimal("1000"));
+            Assert.assertEquals(first.getSavings().size(), 1);
+            Assert.assertEquals(first.getSavings().get(0).getDueAmount(), new BigDecimal("10.00"));
+
+            final CollectionSheet.Member second = sheet.getMembers().get(1);
+            Assert.assertEquals(second.getClientId(), (Long) 12L);
+            Assert.assertNull(second.getAttendanceType());
+            Assert.assertTrue(second.getLoans().isEmpty());
+            Assert.assertTrue(second.getSavings().isEmpty());
+        } catch (MifosXConnectException e) {
+            Assert.fail();
+        } catch (MifosXResourceException e) {
+            Assert.fail();
+        }
+    }
+
+    /**
+     * Test for saving the collection sheet returned by generateCollectionSheet().
+     */
+    @Test
+    public void testSaveGeneratedCollectionSheet() {
+        final Date date = new GregorianCalendar(2015, 1, 13).getTime();
+        final GenerateCollectionSheetCommand generateCommand = GenerateCollectionSheetCommand.locale("en")
+            .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
+        final Response response = new Response("", 200, "", new ArrayList<Header>(),
+            new TypedString(this.collectionSheetJSON()));
+
+        when(this.retrofitGroupService.generateCollectionSheet(this.mockedAuthKey, this.properties.getTenant(),
+            this.defaultGroupId, "generateCollectionSheet", generateCommand, null)).thenReturn(response);
+
+        try {
+            final CollectionSheet sheet = this.groupService.generateCollectionSheet(this.defaultGroupId,
+                generateCommand);
+            final SaveCollectionSheetCommand command = SaveCollectionSheetCommand.calendarId(1L)
+                .locale("en").dateFormat("dd/MM/yyyy").collectionSheet(sheet).build();
+
+            Assert.assertEquals(command.getTransactionDate(), date);
+            Assert.assertEquals(command.getActualDisbursementDate(), date);
+            Assert.assertEquals(command.getClientsAttendance().size(), 2);
+            Assert.assertEquals(command.getClientsAttendance().get(0).getAttendanceType(), (Long) 2L);
+            Assert.assertEquals(command.getClientsAttendance().get(1).getAttendanceType(),
+                SaveCollectionSheetCommand.ATTENDANCE_PRESENT);
+            Assert.assertEquals(command.getBulkRepaymentTransactions().size(), 1);
+            Assert.assertEquals(command.getBulkRepaymentTransactions().get(0).getLoanId(), (Long) 21L);
+            Assert.assertEquals(command.getBulkRepaymentTransactions().get(0).getTransactionAmount(),
+                new BigDecimal("125.50"));
+            Assert.assertEquals(command.getBulkDisbursementTransactions().size(), 1);
+            Assert.assertEquals(command.getBulkDisbursementTransactions().get(0).getLoanId(), (Long) 22L);
+
+            this.groupService.saveCollectionSheet(this.defaultGroupId, command);
+
+            verify(this.retrofitGroupService).executeCommand(this.mockedAuthKey, this.properties.getTenant(),
+                this.defaultGroupId, "saveCollectionSheet", null, command, null);
+        } catch (MifosXConnectException e) {
+            Assert.fail();
+        } catch (MifosXResourceException e) {
+            Assert.fail();
+        }
+    }
+
     /**
      * Test for {@link ErrorCode#NOT_CONNECTED} exception for generateCollectionSheet().
      */
@@ -1262,8 +1368,8 @@ public class RestGroupServiceTest {
             .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
-        doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", null, command);
+        doThrow(error).when(this.retrofitGroupService).generateCollectionSheet(this.mockedAuthKey,
+            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", command, null);
 
         try {
             this.groupService.generateCollectionSheet(this.defaultGroupId, command);
@@ -1289,8 +1395,8 @@ public class RestGroupServiceTest {
             .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
 
         when(error.getResponse()).thenReturn(response);
-        doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", null, command);
+        doThrow(error).when(this.retrofitGroupService).generateCollectionSheet(this.mockedAuthKey,
+            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", command, null);
 
         try {
             this.groupService.generateCollectionSheet(this.defaultGroupId, command);
@@ -1316,8 +1422,8 @@ public class RestGroupServiceTest {
             .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
 
         when(error.getResponse()).thenReturn(response);
-        doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", null, command);
+        doThrow(error).when(this.retrofitGroupService).generateCollectionSheet(this.mockedAuthKey,
+            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", command, null);
 
         try {
             this.groupService.generateCollectionSheet(this.defaultGroupId, command);
@@ -1343,8 +1449,8 @@ public class RestGroupServiceTest {
             .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
 
         when(error.getResponse()).thenReturn(response);
-        doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", null, command);
+        doThrow(error).when(this.retrofitGroupService).generateCollectionSheet(this.mockedAuthKey,
+            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", command, null);
 
         try {
             this.groupService.generateCollectionSheet(this.defaultGroupId, command);
@@ -1370,8 +1476,8 @@ public class RestGroupServiceTest {
             .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
 
         when(error.getResponse()).thenReturn(response);
-        doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", null, command);
+        doThrow(error).when(this.retrofitGroupService).generateCollectionSheet(this.mockedAuthKey,
+            this.properties.getTenant(), this.defaultGroupId, "generateCollectionSheet", command, null);
 
         try {
             this.groupService.generateCollectionSheet(this.defaultGroupId, command);
@@ -1385,6 +1491,79 @@ public class RestGroupServiceTest {
         }
     }
 
+    /**
+     * Test for the streamed body of a generated collection sheet closed once read.
+     */
+    @Test
+    public void testGenerateCollectionSheetBodyClosed() throws Exception {
+        final Date date = new GregorianCalendar(2015, 1, 13).getTime();
+        final GenerateCollectionSheetCommand command = GenerateCollectionSheetCommand.locale("en")
+            .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Response response = new Response("", 200, "", new ArrayList<Header>(),
+            streamedBody(this.collectionSheetJSON(), Integer.MAX_VALUE, closed));
+
+        when(this.retrofitGroupService.generateCollectionSheet(this.mockedAuthKey, this.properties.getTenant(),
+            this.defaultGroupId, "generateCollectionSheet", command, null)).thenReturn(response);
+
+        final CollectionSheet sheet = this.groupService.generateCollectionSheet(this.defaultGroupId, command);
+
+        Assert.assertEquals(sheet.getMembers().size(), 2);
+        Assert.assertTrue(closed.get());
+    }
+
+    /**
+     * Test for {@link ErrorCode#NOT_CONNECTED} exception for generateCollectionSheet() when the
+     * connection fails while the streamed body is read, the body being closed.
+     */
+    @Test
+    public void testGenerateCollectionSheetReadException() throws Exception {
+        final Date date = new GregorianCalendar(2015, 1, 13).getTime();
+        final GenerateCollectionSheetCommand command = GenerateCollectionSheetCommand.locale("en")
+            .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Response response = new Response("", 200, "", new ArrayList<Header>(),
+            streamedBody(this.collectionSheetJSON(), 40, closed));
+
+        when(this.retrofitGroupService.generateCollectionSheet(this.mockedAuthKey, this.properties.getTenant(),
+            this.defaultGroupId, "generateCollectionSheet", command, null)).thenReturn(response);
+
+        try {
+            this.groupService.generateCollectionSheet(this.defaultGroupId, command);
+
+            Assert.fail();
+        } catch (MifosXConnectException e) {
+            Assert.assertEquals(e.getMessage(), ErrorCode.NOT_CONNECTED.getMessage());
+        }
+        Assert.assertTrue(closed.get());
+    }
+
+    /**
+     * Test for {@link ErrorCode#INVALID_AUTHENTICATION_TOKEN} exception for generateCollectionSheet()
+     * when the body ends before the collection sheet, as for a conversion error.
+     */
+    @Test
+    public void testGenerateCollectionSheetTruncatedBody() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        assertCollectionSheetRejected(streamedBody(this.collectionSheetJSON().substring(0, 40),
+            Integer.MAX_VALUE, closed));
+        Assert.assertTrue(closed.get());
+    }
+
+    /**
+     * Test for {@link ErrorCode#INVALID_AUTHENTICATION_TOKEN} exception for generateCollectionSheet()
+     * when the body is JSON of another shape, as for a conversion error.
+     */
+    @Test
+    public void testGenerateCollectionSheetWrongShapeBody() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        assertCollectionSheetRejected(streamedBody("{\"dueDate\":\"today\",\"groups\":{\"groupId\":\"one\"}}",
+            Integer.MAX_VALUE, closed));
+        Assert.assertTrue(closed.get());
+    }
+
     /**
      * Test for {@link ErrorCode#NOT_CONNECTED} exception for saveCollectionSheet().
      */
@@ -1398,7 +1577,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command, null);
 
         try {
             this.groupService.saveCollectionSheet(this.defaultGroupId, command);
@@ -1426,7 +1605,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command, null);
 
         try {
             this.groupService.saveCollectionSheet(this.defaultGroupId, command);
@@ -1454,7 +1633,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command, null);
 
         try {
             this.groupService.saveCollectionSheet(this.defaultGroupId, command);
@@ -1482,7 +1661,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command, null);
 
         try {
             this.groupService.saveCollectionSheet(this.defaultGroupId, command);
@@ -1510,7 +1689,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "saveCollectionSheet", null, command, null);
 
         try {
             this.groupService.saveCollectionSheet(this.defaultGroupId, command);
@@ -1534,7 +1713,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command, null);
 
         try {
             this.groupService.unassignStaff(this.defaultGroupId, command);
@@ -1559,7 +1738,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command, null);
 
         try {
             this.groupService.unassignStaff(this.defaultGroupId, command);
@@ -1584,7 +1763,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command, null);
 
         try {
             this.groupService.unassignStaff(this.defaultGroupId, command);
@@ -1609,7 +1788,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command, null);
 
         try {
             this.groupService.unassignStaff(this.defaultGroupId, command);
@@ -1634,7 +1813,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "unassignStaff", null, command, null);
 
         try {
             this.groupService.unassignStaff(this.defaultGroupId, command);
@@ -1658,7 +1837,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command, null);
 
         try {
             this.groupService.assignStaff(this.defaultGroupId, command);
@@ -1683,7 +1862,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command, null);
 
         try {
             this.groupService.assignStaff(this.defaultGroupId, command);
@@ -1708,7 +1887,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command, null);
 
         try {
             this.groupService.assignStaff(this.defaultGroupId, command);
@@ -1733,7 +1912,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command, null);
 
         try {
             this.groupService.assignStaff(this.defaultGroupId, command);
@@ -1758,7 +1937,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignStaff", null, command, null);
 
         try {
             this.groupService.assignStaff(this.defaultGroupId, command);
@@ -1782,7 +1961,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "close", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "close", null, command, null);
 
         try {
             this.groupService.closeGroup(this.defaultGroupId, command);
@@ -1807,7 +1986,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "close", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "close", null, command, null);
 
         try {
             this.groupService.closeGroup(this.defaultGroupId, command);
@@ -1832,7 +2011,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "close", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "close", null, command, null);
 
         try {
             this.groupService.closeGroup(this.defaultGroupId, command);
@@ -1857,7 +2036,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "close", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "close", null, command, null);
 
         try {
             this.groupService.closeGroup(this.defaultGroupId, command);
@@ -1882,7 +2061,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "close", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "close", null, command, null);
 
         try {
             this.groupService.closeGroup(this.defaultGroupId, command);
@@ -1906,7 +2085,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command, null);
 
         try {
             this.groupService.assignRole(this.defaultGroupId, command);
@@ -1931,7 +2110,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command, null);
 
         try {
             this.groupService.assignRole(this.defaultGroupId, command);
@@ -1956,7 +2135,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command, null);
 
         try {
             this.groupService.assignRole(this.defaultGroupId, command);
@@ -1981,7 +2160,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command, null);
 
         try {
             this.groupService.assignRole(this.defaultGroupId, command);
@@ -2006,7 +2185,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command);
+            this.properties.getTenant(), this.defaultGroupId, "assignRole", null, command, null);
 
         try {
             this.groupService.assignRole(this.defaultGroupId, command);
@@ -2030,7 +2209,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command);
+            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command, null);
 
         try {
             this.groupService.updateRole(this.defaultGroupId, this.defaultRoleId, command);
@@ -2055,7 +2234,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command);
+            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command, null);
 
         try {
             this.groupService.updateRole(this.defaultGroupId, this.defaultRoleId, command);
@@ -2080,7 +2259,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command);
+            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command, null);
 
         try {
             this.groupService.updateRole(this.defaultGroupId, this.defaultRoleId, command);
@@ -2105,7 +2284,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command);
+            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command, null);
 
         try {
             this.groupService.updateRole(this.defaultGroupId, this.defaultRoleId, command);
@@ -2130,7 +2309,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command);
+            this.properties.getTenant(), this.defaultGroupId, "updateRole", this.defaultRoleId, command, null);
 
         try {
             this.groupService.updateRole(this.defaultGroupId, this.defaultRoleId, command);
@@ -2153,7 +2332,7 @@ public class RestGroupServiceTest {
 
         when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null);
+            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null, null);
 
         try {
             this.groupService.unassignRole(this.defaultGroupId, this.defaultRoleId);
@@ -2177,7 +2356,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null);
+            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null, null);
 
         try {
             this.groupService.unassignRole(this.defaultGroupId, this.defaultRoleId);
@@ -2201,7 +2380,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null);
+            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null, null);
 
         try {
             this.groupService.unassignRole(this.defaultGroupId, this.defaultRoleId);
@@ -2225,7 +2404,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null);
+            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null, null);
 
         try {
             this.groupService.unassignRole(this.defaultGroupId, this.defaultRoleId);
@@ -2249,7 +2428,7 @@ public class RestGroupServiceTest {
 
         when(error.getResponse()).thenReturn(response);
         doThrow(error).when(this.retrofitGroupService).executeCommand(this.mockedAuthKey,
-            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null);
+            this.properties.getTenant(), this.defaultGroupId, "unassignRole", this.defaultRoleId, null, null);
 
         try {
             this.groupService.unassignRole(this.defaultGroupId, this.defaultRoleId);
@@ -2263,4 +2442,151 @@ public class RestGroupServiceTest {
         }
     }
 
+    /**
+     * Test for scanning all the groups page by page.
+     */
+    @Test
+    public void testScanGroups() {
+        when(this.retrofitGroupService.fetchGroups(eq(this.mockedAuthKey), eq(this.properties.getTenant()),
+            anyMapOf(String.class, Object.class))).thenAnswer(new Answer<PageableGroups>() {
+                @Override
+                public PageableGroups answer(InvocationOnMock invocation) {
+                    final Map<?, ?> queryMap = (Map<?, ?>) invocation.getArguments()[2];
+                    Assert.assertEquals(queryMap.get("paged"), true);
+                    final long offset = (Long) queryMap.get("offset");
+                    final List<Group> groups = new ArrayList<>();
+                    if (offset < 3) {
+                        groups.add(Group.name("Group " + offset).officeId(1L).active(false).build());
+                    }
+                    final PageableGroups page = new PageableGroups();
+                    page.setTotalFilteredRecords(3L);
+                    page.setClients(groups);
+                    return page;
+                }
+            });
+
+        final Iterator<Group> groups = this.groupService.scanGroups(ScanOptions.pageSize(1).build());
+        int count = 0;
+        while (groups.hasNext()) {
+            groups.next();
+            count++;
+        }
+
+        Assert.assertEquals(count, 3);
+    }
+
+    /**
+     * Test for a page of a scan failing to be fetched recorded as a failed call of
+     * the scan by the metered service.
+     */
+    @Test
+    public void testScanGroupsMeteredNotConnected() {
+        final RetrofitError error = mock(RetrofitError.class);
+        when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
+        when(this.retrofitGroupService.fetchGroups(eq(this.mockedAuthKey), eq(this.properties.getTenant()),
+            anyMapOf(String.class, Object.class))).thenThrow(error);
+
+        final MetricsRecorder recorder = new MetricsRecorder();
+        final GroupService service = MeteredServices.wrap(GroupService.class, this.groupService, recorder);
+        try {
+            service.scanGroups(ScanOptions.pageSize(1).build()).hasNext();
+
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            final EndpointMetrics scanGroups = recorder.getEndpoint("GroupService.scanGroups");
+            Assert.assertEquals(1, scanGroups.getCalls());
+            Assert.assertEquals(1, scanGroups.getErrors(ErrorCode.NOT_CONNECTED));
+        }
+    }
+
+    private String collectionSheetJSON() {
+        return "{\"dueDate\":[2015,2,13],\"loanProducts\":[{\"id\":1,\"name\":\"Group Loan\"}],"
+            + "\"groups\":[{\"groupName\":\"Test Group\",\"clients\":["
+            + "{\"clientId\":11,\"clientName\":\"Jane Doe\",\"attendanceType\":{\"id\":2,\"value\":\"Absent\"},"
+            + "\"loans\":[{\"loanId\":21,\"accountId\":\"000000021\",\"productId\":1,"
+            + "\"currency\":{\"code\":\"USD\"},\"disbursementAmount\":0,\"totalDue\":125.50},"
+            + "{\"loanId\":22,\"accountId\":\"000000022\",\"disbursementAmount\":1000,\"totalDue\":0}],"
+            + "\"savings\":[{\"savingsId\":31,\"accountId\":\"000000031\",\"dueAmount\":10.00}]},"
+            + "{\"clientId\":12,\"clientName\":\"John Doe\",\"attendanceType\":null,\"loans\":[]}],"
+            + "\"groupId\":1}],\"attendanceTypeOptions\":[{\"id\":1,\"value\":\"Present\"}]}";
+    }
+
+    /**
+     * Asserts that a generated collection sheet with the given body fails as a conversion error.
+     * @param body the response body
+     */
+    private void assertCollectionSheetRejected(final TypedInput body) throws Exception {
+        final Date date = new GregorianCalendar(2015, 1, 13).getTime();
+        final GenerateCollectionSheetCommand command = GenerateCollectionSheetCommand.locale("en")
+            .calendarId(1L).dateFormat("dd/MM/yyyy").transactionDate(date).build();
+        final Response response = new Response("", 200, "", new ArrayList<Header>(), body);
+
+        when(this.retrofitGroupService.generateCollectionSheet(this.mockedAuthKey, this.properties.getTenant(),
+            this.defaultGroupId, "generateCollectionSheet", command, null)).thenReturn(response);
+
+        try {
+            this.groupService.generateCollectionSheet(this.defaultGroupId, command);
+
+            Assert.fail();
+        } catch (MifosXConnectException e) {
+            Assert.assertEquals(e.getMessage(), ErrorCode.INVALID_AUTHENTICATION_TOKEN.getMessage());
+        }
+    }
+
+    /**
+     * Returns a response body failing after the given number of bytes, like a dropped connection.
+     * @param json the JSON of the body
+     * @param failAfter the number of bytes read before failing
+     * @param closed set once the body is closed
+     */
+    private static TypedInput streamedBody(final String json, final int failAfter, final AtomicBoolean closed) {
+        final byte[] bytes = json.getBytes(Charset.forName("UTF-8"));
+        return new TypedInput() {
+            @Override
+            public String mimeType() {
+                return "application/json; charset=UTF-8";
+            }
+
+            @Override
+            public long length() {
+                return -1;
+            }
+
+            @Override
+            public InputStream in() {
+                return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+                    private int read;
+
+                    @Override
+                    public int read() throws IOException {
+                        check();
+                        final int value = super.read();
+                        this.read += value == -1 ? 0 : 1;
+                        return value;
+                    }
+
+                    @Override
+                    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                        check();
+                        final int count = super.read(buffer, offset, Math.min(length, failAfter - this.read));
+                        this.read += Math.max(count, 0);
+                        return count;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        closed.set(true);
+                        super.close();
+                    }
+
+                    private void check() throws IOException {
+                        if (this.read >= failAfter) {
+                            throw new IOException("Connection reset");
+                        }
+                    }
+                };
+            }
+        };
+    }
+
 }
@@ -0,0 +1,213 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.MifosXConnectException;
+import org.mifos.sdk.MifosXProperties;
+import org.mockito.ArgumentCaptor;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedString;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for {@link OAuthAuthenticator} and the renewal of its tokens.
+ */
+public class OAuthAuthenticatorTest {
+
+    private final List<String> grants = new ArrayList<>();
+    private boolean refreshRejected;
+    private boolean passwordRejected;
+    private boolean unreachable;
+    private ScheduledExecutorService scheduler;
+    private Executor executor;
+    private AuthenticationKeyHolder authenticationKeys;
+    private OAuthAuthenticator authenticator;
+
+    /**
+     * Creates an authenticator against a token endpoint recording the grants, with a
+     * scheduler and an executor whose renewals are run by the tests.
+     */
+    @Before
+    public void setup() {
+        final Client server = new Client() {
+            @Override
+            public Response execute(final Request request) throws IOException {
+                if (unreachable) {
+                    throw new IOException("Connection refused");
+                }
+                final boolean password = request.getUrl().contains("grant_type=password");
+                grants.add(password ? "password" : "refresh");
+                if (password ? passwordRejected : refreshRejected) {
+                    return new Response(request.getUrl(), 400, "", new ArrayList<Header>(),
+                        new TypedString("{\"error\":\"invalid_grant\"}"));
+                }
+                return new Response(request.getUrl(), 200, "", new ArrayList<Header>(),
+                    new TypedString("{\"access_token\":\"access" + grants.size() + "\",\"token_type\":\"bearer\","
+                        + "\"refresh_token\":\"refresh" + grants.size() + "\",\"expires_in\":60}"));
+            }
+        };
+        final MifosXProperties properties = MifosXProperties
+            .url("http://demo.openmf.org/mifosng-provider/api/v1")
+            .username("mifos")
+            .password("password")
+            .tenant("default")
+            .authenticationMode(MifosXProperties.AuthenticationMode.OAUTH2)
+            .build();
+        this.scheduler = mock(ScheduledExecutorService.class);
+        this.executor = mock(Executor.class);
+        this.authenticationKeys = new AuthenticationKeyHolder(RestConstants.AUTHORIZATION_BEARER);
+        this.authenticator = new OAuthAuthenticator(properties, server, this.authenticationKeys, this.scheduler,
+            this.executor);
+    }
+
+    /**
+     * Test for a token renewed with the refresh token three quarters into its lifetime.
+     */
+    @Test
+    public void testRenewalWithRefreshToken() throws Exception {
+        this.authenticationKeys.set(this.authenticator.authenticate());
+
+        renewal(45000).run();
+
+        Assert.assertEquals("access2", this.authenticationKeys.get());
+        Assert.assertEquals(2, this.grants.size());
+        Assert.assertEquals("refresh", this.grants.get(1));
+    }
+
+    /**
+     * Test for a renewal only timed by the scheduler, the token being requested from
+     * the executor.
+     */
+    @Test
+    public void testRenewalSentFromExecutor() throws Exception {
+        this.authenticationKeys.set(this.authenticator.authenticate());
+        final ArgumentCaptor<Runnable> timer = ArgumentCaptor.forClass(Runnable.class);
+        verify(this.scheduler).schedule(timer.capture(), eq(45000L), eq(TimeUnit.MILLISECONDS));
+
+        timer.getValue().run();
+        Assert.assertEquals(1, this.grants.size());
+
+        final ArgumentCaptor<Runnable> renewal = ArgumentCaptor.forClass(Runnable.class);
+        verify(this.executor).execute(renewal.capture());
+        renewal.getValue().run();
+        Assert.assertEquals(2, this.grants.size());
+        Assert.assertEquals("access2", this.authenticationKeys.get());
+    }
+
+    /**
+     * Test for a rejected refresh token falling back to the password grant.
+     */
+    @Test
+    public void testRejectedRefreshTokenFallsBackToPasswordGrant() throws Exception {
+        this.authenticationKeys.set(this.authenticator.authenticate());
+        this.refreshRejected = true;
+
+        Assert.assertEquals("access3", this.authenticator.authenticate());
+        Assert.assertEquals(3, this.grants.size());
+        Assert.assertEquals("refresh", this.grants.get(1));
+        Assert.assertEquals("password", this.grants.get(2));
+    }
+
+    /**
+     * Test for a renewal due after a logout sending no request and scheduling nothing.
+     */
+    @Test
+    public void testRenewalStopsAfterLogout() throws Exception {
+        this.authenticationKeys.set(this.authenticator.authenticate());
+        final Runnable renewal = renewal(45000);
+
+        this.authenticationKeys.clear();
+        renewal.run();
+
+        Assert.assertEquals(1, this.grants.size());
+        verify(this.scheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    /**
+     * Test for the renewal stopping once the credentials are rejected, the token being
+     * left to the re-authentication of the next rejected request.
+     */
+    @Test
+    public void testRenewalStopsWhenUnauthenticated() throws Exception {
+        this.authenticationKeys.set(this.authenticator.authenticate());
+        final Runnable renewal = renewal(45000);
+        this.refreshRejected = true;
+        this.passwordRejected = true;
+
+        renewal.run();
+
+        Assert.assertEquals("access1", this.authenticationKeys.get());
+        verify(this.scheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    /**
+     * Test for a renewal failing on the network tried again after a doubling delay,
+     * capped at five minutes.
+     */
+    @Test
+    public void testRenewalBacksOff() throws Exception {
+        this.authenticationKeys.set(this.authenticator.authenticate());
+        Runnable renewal = renewal(45000);
+        this.unreachable = true;
+
+        for (final long delay : new long[] {5000, 10000, 20000, 40000, 80000, 160000, 300000, 300000}) {
+            renewal.run();
+            renewal = renewal(delay);
+        }
+
+        this.unreachable = false;
+        renewal.run();
+        Assert.assertEquals("access2", this.authenticationKeys.get());
+        renewal(45000);
+    }
+
+    /**
+     * Test for the password grant rejected when there is no session.
+     */
+    @Test(expected = MifosXConnectException.class)
+    public void testPasswordRejected() throws Exception {
+        this.passwordRejected = true;
+
+        this.authenticator.authenticate();
+    }
+
+    /**
+     * Returns the renewal handed to the executor once the scheduler has waited the
+     * given delay, and forgets it.
+     * @param delayMillis the expected delay in milliseconds
+     */
+    private Runnable renewal(final long delayMillis) {
+        final ArgumentCaptor<Runnable> timer = ArgumentCaptor.forClass(Runnable.class);
+        verify(this.scheduler).schedule(timer.capture(), eq(delayMillis), eq(TimeUnit.MILLISECONDS));
+        reset(this.scheduler);
+        timer.getValue().run();
+        final ArgumentCaptor<Runnable> renewal = ArgumentCaptor.forClass(Runnable.class);
+        verify(this.executor).execute(renewal.capture());
+        reset(this.executor);
+        return renewal.getValue();
+    }
+
+}
@@ -0,0 +1,136 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonPrimitive;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for {@link ParseUtil} and its cached formatters.
+ */
+public class ParseUtilTest {
+
+    /**
+     * Test for the dates formatted as a new formatter of the same format and locale would,
+     * repeatedly with the cached one.
+     */
+    @Test
+    public void testParseDateToString() {
+        final Date date = new GregorianCalendar(2014, 4, 13).getTime();
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("13 May 2014", ParseUtil.parseDateToString(date, "dd MMMM yyyy", "en"));
+            Assert.assertEquals(new SimpleDateFormat("dd MMMM yyyy", new Locale("fr")).format(date),
+                ParseUtil.parseDateToString(date, "dd MMMM yyyy", "fr"));
+            Assert.assertEquals("2014-05-13", ParseUtil.parseDateToString(date, "yyyy-MM-dd", "en"));
+        }
+    }
+
+    /**
+     * Test for the formatters cached by date format and then by language, each being
+     * reused by the thread that created it.
+     */
+    @Test
+    public void testFormatterKeying() {
+        final SimpleDateFormat english = ParseUtil.formatter("dd MMMM yyyy", "en");
+
+        Assert.assertSame(english, ParseUtil.formatter("dd MMMM yyyy", "en"));
+        Assert.assertNotSame(english, ParseUtil.formatter("dd MMMM yyyy", "fr"));
+        Assert.assertNotSame(english, ParseUtil.formatter("dd MM yyyy", "en"));
+        Assert.assertEquals("dd MMMM yyyy", english.toPattern());
+        Assert.assertEquals("dd MM yyyy", ParseUtil.formatter("dd MM yyyy", "en").toPattern());
+        Assert.assertEquals(new SimpleDateFormat("dd MMMM yyyy", new Locale("fr")).getDateFormatSymbols(),
+            ParseUtil.formatter("dd MMMM yyyy", "fr").getDateFormatSymbols());
+    }
+
+    /**
+     * Test for each thread getting its own formatter, the dates formatted concurrently
+     * being all correct.
+     */
+    @Test
+    public void testThreadConfinement() throws Exception {
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<SimpleDateFormat>> formatters = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final int offset = i;
+                formatters.add(executor.submit(new Callable<SimpleDateFormat>() {
+                    @Override
+                    public SimpleDateFormat call() throws Exception {
+                        start.await();
+                        for (int day = 1; day <= 28; day++) {
+                            for (int month = 1; month <= 12; month++) {
+                                final int year = 2000 + offset;
+                                final Date date = ParseUtil.parseDate(year, month, day);
+                                Assert.assertEquals(String.format("%04d-%02d-%02d", year, month, day),
+                                    ParseUtil.parseDateToString(date, "yyyy-MM-dd", "en"));
+                            }
+                        }
+                        return ParseUtil.formatter("yyyy-MM-dd", "en");
+                    }
+                }));
+            }
+            start.countDown();
+
+            final List<SimpleDateFormat> seen = new ArrayList<>();
+            for (final Future<SimpleDateFormat> future : formatters) {
+                final SimpleDateFormat formatter = future.get(10, TimeUnit.SECONDS);
+                for (final SimpleDateFormat other : seen) {
+                    Assert.assertNotSame(other, formatter);
+                }
+                seen.add(formatter);
+            }
+            Assert.assertNotSame(ParseUtil.formatter("yyyy-MM-dd", "en"), seen.get(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test for the parts of a date converted to the start of the day, whatever the
+     * date converted before on the same thread.
+     */
+    @Test
+    public void testParseDate() {
+        Assert.assertEquals(new GregorianCalendar(2014, 4, 13).getTime(), ParseUtil.parseDate(2014, 5, 13));
+        Assert.assertEquals(new GregorianCalendar(2012, 1, 29).getTime(), ParseUtil.parseDate(2012, 2, 29));
+        Assert.assertEquals(new GregorianCalendar(2013, 0, 1).getTime(), ParseUtil.parseDate(2013, 1, 1));
+        Assert.assertEquals(new GregorianCalendar(2013, 11, 31).getTime(), ParseUtil.parseDate(2013, 12, 31));
+        Assert.assertNotSame(ParseUtil.parseDate(2013, 1, 1), ParseUtil.parseDate(2013, 1, 1));
+    }
+
+    /**
+     * Test for a date read from its JSON array, the extra parts being ignored.
+     */
+    @Test
+    public void testParseDateFromJsonArray() {
+        final JsonArray array = new JsonArray();
+        array.add(new JsonPrimitive(2014));
+        array.add(new JsonPrimitive(5));
+        array.add(new JsonPrimitive(13));
+        array.add(new JsonPrimitive(10));
+
+        Assert.assertEquals(new GregorianCalendar(2014, 4, 13).getTime(), ParseUtil.parseDateFromJsonArray(array));
+    }
+
+}
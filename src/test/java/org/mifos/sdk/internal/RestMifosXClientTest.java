@@ -8,20 +8,43 @@ package org.mifos.sdk.internal;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.google.gson.GsonBuilder;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mifos.sdk.MifosXConnectException;
 import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.client.AsyncClientService;
+import org.mifos.sdk.client.ClientService;
+import org.mifos.sdk.internal.http.AuthenticatingClient;
+import org.mifos.sdk.internal.http.MeteringClient;
+import org.mifos.sdk.internal.http.StreamingGsonConverter;
+import org.mifos.sdk.internal.serializers.OfficeSerializer;
+import org.mifos.sdk.metrics.EndpointMetrics;
 import org.mifos.sdk.office.OfficeService;
+import org.mifos.sdk.office.domain.Office;
 import org.mifos.sdk.staff.StaffService;
 import retrofit.RestAdapter;
 import retrofit.RetrofitError;
+import retrofit.client.Client;
 import retrofit.client.Header;
+import retrofit.client.Request;
 import retrofit.client.Response;
+import retrofit.converter.GsonConverter;
 import retrofit.mime.TypedString;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Test for {@link RestMifosXClient} and its various methods.
@@ -156,6 +179,43 @@ public class RestMifosXClientTest {
         }
     }
 
+    /**
+     * Test for the asynchronous client service.
+     */
+    @Test
+    public void testAsyncClientService() {
+        when(this.restAdapter.create(RetrofitMifosService.class)).thenReturn(this.retrofitMifosService);
+        when(this.retrofitMifosService.authenticate(this.properties.getUsername(),
+                this.properties.getPassword(), this.properties.getTenant())).thenReturn(this.mockedAuthKey);
+
+        try {
+            this.mifosXClient.login();
+            AsyncClientService asyncClientService = this.mifosXClient.asyncClientService();
+
+            Assert.assertNotNull(asyncClientService);
+            Assert.assertSame(asyncClientService, this.mifosXClient.asyncClientService());
+
+            this.mifosXClient.logout();
+        } catch (MifosXConnectException e) {
+            Assert.fail();
+        }
+    }
+
+    /**
+     * Test for the asynchronous client service exception.
+     */
+    @Test
+    public void testAsyncClientServiceException() {
+        try {
+            this.mifosXClient.asyncClientService();
+
+            Assert.fail();
+        } catch (MifosXConnectException e) {
+            Assert.assertNotNull(e);
+            Assert.assertEquals(e.getMessage(), ErrorCode.NOT_LOGGED_IN.getMessage());
+        }
+    }
+
     /**
      * Test to check the logged in status.
      */
@@ -178,6 +238,318 @@ public class RestMifosXClientTest {
         }
     }
 
+    /**
+     * Test that threads initialising a service concurrently all get the same instance.
+     */
+    @Test
+    public void testConcurrentServiceInitialisation() throws Exception {
+        when(this.restAdapter.create(RetrofitMifosService.class)).thenReturn(this.retrofitMifosService);
+        when(this.retrofitMifosService.authenticate(this.properties.getUsername(),
+                this.properties.getPassword(), this.properties.getTenant())).thenReturn(this.mockedAuthKey);
+
+        this.mifosXClient.login();
+
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<ClientService>> services = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                services.add(executor.submit(new Callable<ClientService>() {
+                    @Override
+                    public ClientService call() throws Exception {
+                        start.await();
+                        return mifosXClient.clientService();
+                    }
+                }));
+            }
+            start.countDown();
+
+            final ClientService first = services.get(0).get();
+            Assert.assertNotNull(first);
+            for (final Future<ClientService> service : services) {
+                Assert.assertSame(first, service.get());
+            }
+        } finally {
+            executor.shutdownNow();
+            this.mifosXClient.logout();
+        }
+    }
+
+    /**
+     * Test that logging in again creates new services with the new authentication key.
+     */
+    @Test
+    public void testServicesRenewedAfterLogout() {
+        when(this.restAdapter.create(RetrofitMifosService.class)).thenReturn(this.retrofitMifosService);
+        when(this.retrofitMifosService.authenticate(this.properties.getUsername(),
+                this.properties.getPassword(), this.properties.getTenant()))
+            .thenReturn(this.mockedAuthKey, new AuthenticationToken("=ab$$12cd"));
+
+        try {
+            this.mifosXClient.login();
+            final OfficeService firstService = this.mifosXClient.officeService();
+
+            Assert.assertSame(firstService, this.mifosXClient.officeService());
+
+            this.mifosXClient.logout();
+            this.mifosXClient.login();
+            final OfficeService secondService = this.mifosXClient.officeService();
+
+            Assert.assertNotSame(firstService, secondService);
+            Assert.assertEquals(this.mifosXClient.getAuthenticationKey(), "=ab$$12cd");
+
+            this.mifosXClient.logout();
+        } catch (MifosXConnectException e) {
+            Assert.fail();
+        }
+    }
+
+    /**
+     * Test that requests rejected after the server has dropped the key all wait for a
+     * single new login and succeed when sent again.
+     */
+    @Test
+    public void testReauthenticationAfterRejectedKey() throws Exception {
+        final AtomicInteger logins = new AtomicInteger();
+        final AtomicReference<String> validKey = new AtomicReference<>();
+        final Client server = new Client() {
+            @Override
+            public Response execute(final Request request) throws IOException {
+                if (request.getUrl().contains("/authentication")) {
+                    final String key = "key" + logins.incrementAndGet();
+                    validKey.set(key);
+                    sleep(50);
+                    return new Response(request.getUrl(), 200, "", new ArrayList<Header>(),
+                        new TypedString("{\"base64EncodedAuthenticationKey\":\"" + key + "\"}"));
+                }
+                for (final Header header : request.getHeaders()) {
+                    if (header.getName().equals(RestConstants.HEADER_AUTHORIZATION)
+                        && header.getValue().equals("Basic " + validKey.get())) {
+                        return new Response(request.getUrl(), 200, "", new ArrayList<Header>(),
+                            new TypedString("{\"id\":1,\"name\":\"Head Office\"}"));
+                    }
+                }
+                return new Response(request.getUrl(), 401, "", new ArrayList<Header>(), new TypedString("{}"));
+            }
+        };
+        final AuthenticationKeyHolder authenticationKeys = new AuthenticationKeyHolder();
+        final RestAdapter adapter = new RestAdapter.Builder()
+            .setEndpoint(this.properties.getUrl())
+            .setClient(new AuthenticatingClient(server, authenticationKeys))
+            .setConverter(new GsonConverter(new GsonBuilder()
+                .registerTypeAdapter(Office.class, new OfficeSerializer())
+                .create()))
+            .build();
+        final RestMifosXClient client = new RestMifosXClient(this.properties, adapter, authenticationKeys);
+
+        client.login();
+        final OfficeService officeService = client.officeService();
+        // the server restarts and forgets the key
+        validKey.set(null);
+
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Office>> offices = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                offices.add(executor.submit(new Callable<Office>() {
+                    @Override
+                    public Office call() throws Exception {
+                        start.await();
+                        return officeService.findOffice(1L);
+                    }
+                }));
+            }
+            start.countDown();
+
+            for (final Future<Office> office : offices) {
+                Assert.assertEquals(office.get().getName(), "Head Office");
+            }
+            Assert.assertEquals(logins.get(), 2);
+            Assert.assertEquals(client.getAuthenticationKey(), "key2");
+        } finally {
+            executor.shutdownNow();
+            client.logout();
+        }
+    }
+
+    /**
+     * Test that a rejected key is reported when logging in again fails.
+     */
+    @Test
+    public void testReauthenticationFailure() throws Exception {
+        final AtomicInteger logins = new AtomicInteger();
+        final Client server = new Client() {
+            @Override
+            public Response execute(final Request request) throws IOException {
+                if (request.getUrl().contains("/authentication") && logins.incrementAndGet() == 1) {
+                    return new Response(request.getUrl(), 200, "", new ArrayList<Header>(),
+                        new TypedString("{\"base64EncodedAuthenticationKey\":\"key\"}"));
+                }
+                return new Response(request.getUrl(), 401, "", new ArrayList<Header>(), new TypedString("{}"));
+            }
+        };
+        final AuthenticationKeyHolder authenticationKeys = new AuthenticationKeyHolder();
+        final RestAdapter adapter = new RestAdapter.Builder()
+            .setEndpoint(this.properties.getUrl())
+            .setClient(new AuthenticatingClient(server, authenticationKeys))
+            .build();
+        final RestMifosXClient client = new RestMifosXClient(this.properties, adapter, authenticationKeys);
+
+        client.login();
+        try {
+            client.officeService().findOffice(1L);
+
+            Assert.fail();
+        } catch (MifosXConnectException e) {
+            Assert.assertEquals(e.getMessage(), ErrorCode.INVALID_AUTHENTICATION_TOKEN.getMessage());
+            Assert.assertEquals(logins.get(), 2);
+        } finally {
+            client.logout();
+        }
+    }
+
+    /**
+     * Test that OAuth2 tokens are renewed with the refresh token before they expire,
+     * and no longer once logged out.
+     */
+    @Test
+    public void testOAuthProactiveRefresh() throws Exception {
+        final AtomicInteger passwordGrants = new AtomicInteger();
+        final AtomicInteger refreshGrants = new AtomicInteger();
+        final AtomicReference<String> validToken = new AtomicReference<>();
+        final Client server = new Client() {
+            @Override
+            public Response execute(final Request request) throws IOException {
+                if (request.getUrl().startsWith("http://demo.openmf.org/mifosng-provider/api/oauth/token")) {
+                    final String token;
+                    if (request.getUrl().contains("grant_type=password")) {
+                        token = "access" + passwordGrants.incrementAndGet();
+                    } else if (request.getUrl().contains("refresh_token=refresh")) {
+                        token = "renewed" + refreshGrants.incrementAndGet();
+                    } else {
+                        return new Response(request.getUrl(), 400, "", new ArrayList<Header>(), new TypedString("{}"));
+                    }
+                    validToken.set(token);
+                    return new Response(request.getUrl(), 200, "", new ArrayList<Header>(),
+                        new TypedString("{\"access_token\":\"" + token + "\",\"token_type\":\"bearer\","
+                            + "\"refresh_token\":\"refresh\",\"expires_in\":1}"));
+                }
+                for (final Header header : request.getHeaders()) {
+                    if (header.getName().equals(RestConstants.HEADER_AUTHORIZATION)
+                        && header.getValue().equals("Bearer " + validToken.get())) {
+                        return new Response(request.getUrl(), 200, "", new ArrayList<Header>(),
+                            new TypedString("{\"id\":1,\"name\":\"Head Office\"}"));
+                    }
+                }
+                return new Response(request.getUrl(), 401, "", new ArrayList<Header>(), new TypedString("{}"));
+            }
+        };
+        final MifosXProperties oauthProperties = MifosXProperties
+                .url("http://demo.openmf.org/mifosng-provider/api/v1")
+                .username("mifos")
+                .password("password")
+                .tenant("default")
+                .authenticationMode(MifosXProperties.AuthenticationMode.OAUTH2)
+                .build();
+        final AuthenticationKeyHolder authenticationKeys = new AuthenticationKeyHolder(RestConstants.AUTHORIZATION_BEARER);
+        final Client client = new AuthenticatingClient(server, authenticationKeys);
+        final RestAdapter adapter = new RestAdapter.Builder()
+            .setEndpoint(oauthProperties.getUrl())
+            .setClient(client)
+            .setConverter(new GsonConverter(new GsonBuilder()
+                .registerTypeAdapter(Office.class, new OfficeSerializer())
+                .create()))
+            .build();
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        final RestMifosXClient mifosClient = new RestMifosXClient(oauthProperties, adapter, authenticationKeys,
+            new OAuthAuthenticator(oauthProperties, client, authenticationKeys, scheduler, scheduler));
+
+        try {
+            Assert.assertEquals(oauthProperties.getOAuthTokenUrl(),
+                "http://demo.openmf.org/mifosng-provider/api/oauth/token");
+
+            mifosClient.login();
+            Assert.assertEquals(mifosClient.getAuthenticationKey(), "access1");
+
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (refreshGrants.get() == 0 && System.currentTimeMillis() < deadline) {
+                sleep(50);
+            }
+            Assert.assertEquals(mifosClient.officeService().findOffice(1L).getName(), "Head Office");
+            Assert.assertTrue(mifosClient.getAuthenticationKey().startsWith("renewed"));
+            Assert.assertEquals(passwordGrants.get(), 1);
+
+            mifosClient.logout();
+            final int refreshed = refreshGrants.get();
+            sleep(1500);
+            Assert.assertEquals(refreshGrants.get(), refreshed);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Test that the calls to a service are recorded with their bytes and errors.
+     */
+    @Test
+    public void testMetricsRecorded() throws Exception {
+        final String office = "{\"id\":1,\"name\":\"Head Office\"}";
+        final Client server = new Client() {
+            @Override
+            public Response execute(final Request request) throws IOException {
+                if (request.getUrl().contains("/authentication")) {
+                    return new Response(request.getUrl(), 200, "", new ArrayList<Header>(),
+                        new TypedString("{\"base64EncodedAuthenticationKey\":\"key\"}"));
+                } else if (request.getUrl().endsWith("/offices/1")) {
+                    return new Response(request.getUrl(), 200, "", new ArrayList<Header>(), new TypedString(office));
+                }
+                return new Response(request.getUrl(), 404, "", new ArrayList<Header>(), new TypedString("{}"));
+            }
+        };
+        final AuthenticationKeyHolder authenticationKeys = new AuthenticationKeyHolder();
+        final RestAdapter adapter = new RestAdapter.Builder()
+            .setEndpoint(this.properties.getUrl())
+            .setClient(new MeteringClient(new AuthenticatingClient(server, authenticationKeys)))
+            .setConverter(new StreamingGsonConverter(new GsonBuilder()
+                .registerTypeAdapter(Office.class, new OfficeSerializer())
+                .create()))
+            .build();
+        final RestMifosXClient client = new RestMifosXClient(this.properties, adapter, authenticationKeys);
+
+        client.login();
+        try {
+            Assert.assertEquals(client.officeService().findOffice(1L).getName(), "Head Office");
+            try {
+                client.officeService().findOffice(2L);
+                Assert.fail();
+            } catch (MifosXResourceException e) {
+                Assert.assertEquals(e.getErrorCode(), ErrorCode.OFFICE_NOT_FOUND);
+            }
+
+            final EndpointMetrics metrics = client.metrics().getEndpoint("OfficeService.findOffice");
+            Assert.assertEquals(metrics.getCalls(), 2);
+            Assert.assertEquals(metrics.getErrors(), 1);
+            Assert.assertEquals(metrics.getErrors(ErrorCode.OFFICE_NOT_FOUND), 1);
+            Assert.assertEquals(metrics.getResponseBytes(), office.length() + "{}".length());
+            Assert.assertEquals(metrics.getDeserializationTime().getCount(), 2);
+            Assert.assertTrue(metrics.getLatency().getMaxNanos() >= metrics.getNetworkTime().getMaxNanos());
+            Assert.assertNull(client.metrics().getEndpoint("OfficeService.fetchOffices"));
+        } finally {
+            client.logout();
+        }
+    }
+
     /**
      * Test for {@link ErrorCode#NOT_CONNECTED} exception.
      */
@@ -0,0 +1,271 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.breaker.CircuitBreakers;
+import org.mifos.sdk.limit.ConcurrencyLimit;
+import org.mifos.sdk.limit.ConcurrencyLimiter;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for {@link OkHttpCallClient}, its per-host permits and the send time read by
+ * {@link CircuitBreakingClient} and {@link ConcurrencyLimitingClient}.
+ */
+public class OkHttpCallClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService callers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch received = new CountDownLatch(1);
+    private String url;
+
+    /**
+     * Starts a server holding every request until it is released.
+     */
+    @Before
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                final int current = inFlight.incrementAndGet();
+                int max;
+                while (current > (max = maxInFlight.get()) && !maxInFlight.compareAndSet(max, current)) {
+                    // retried until the maximum is updated
+                }
+                received.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                final byte[] body = "{}".getBytes("UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        this.serverExecutor = Executors.newCachedThreadPool();
+        this.server.setExecutor(this.serverExecutor);
+        this.server.start();
+        this.url = "http://127.0.0.1:" + this.server.getAddress().getPort() + "/offices";
+        this.callers = Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Stops the server and the callers after testing.
+     */
+    @After
+    public void teardown() {
+        this.callers.shutdownNow();
+        this.server.stop(0);
+        this.serverExecutor.shutdownNow();
+    }
+
+    /**
+     * Test for the requests to one host capped by the permits, the others waiting.
+     */
+    @Test
+    public void testRequestsPerHostCapped() throws Exception {
+        final OkHttpCallClient client = new OkHttpCallClient(new OkHttpClient(), 2);
+        final List<Future<Response>> responses = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            responses.add(this.callers.submit(execute(client.newCall(request()))));
+        }
+
+        Assert.assertTrue(this.received.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        Assert.assertEquals(2, this.inFlight.get());
+        this.release.countDown();
+        for (final Future<Response> response : responses) {
+            Assert.assertEquals(200, response.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        Assert.assertEquals(2, this.maxInFlight.get());
+    }
+
+    /**
+     * Test for the requests to one host not capped without permits, as with OkHttp.
+     */
+    @Test
+    public void testRequestsPerHostUncappedByDefault() throws Exception {
+        final OkHttpCallClient client = new OkHttpCallClient(new OkHttpClient(), 0);
+        final List<Future<Response>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(this.callers.submit(execute(client.newCall(request()))));
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.inFlight.get() < 8 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(8, this.inFlight.get());
+        this.release.countDown();
+        for (final Future<Response> response : responses) {
+            Assert.assertEquals(200, response.get(5, TimeUnit.SECONDS).getStatus());
+        }
+    }
+
+    /**
+     * Test for a request waiting for a permit failing as soon as it is cancelled.
+     */
+    @Test
+    public void testCancelWhileWaitingForPermit() throws Exception {
+        final OkHttpCallClient client = new OkHttpCallClient(new OkHttpClient(), 1);
+        final Future<Response> first = this.callers.submit(execute(client.newCall(request())));
+        Assert.assertTrue(this.received.await(5, TimeUnit.SECONDS));
+
+        final OkHttpCallClient.CancellableCall waiting = client.newCall(request());
+        final Future<Response> second = this.callers.submit(execute(waiting));
+        Thread.sleep(100);
+        waiting.cancel();
+        try {
+            second.get(1, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+
+        this.release.countDown();
+        Assert.assertEquals(200, first.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(1, this.maxInFlight.get());
+    }
+
+    /**
+     * Test for a request cancelled before it is sent never reaching the server.
+     */
+    @Test
+    public void testCancelBeforeExecute() throws Exception {
+        final OkHttpCallClient client = new OkHttpCallClient(new OkHttpClient(), 1);
+        final OkHttpCallClient.CancellableCall call = client.newCall(request());
+        call.cancel();
+        try {
+            call.execute();
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertEquals(0, this.maxInFlight.get());
+        }
+    }
+
+    /**
+     * Test for a call waiting for the permit of its host timed by the circuit breaker
+     * from when it is sent, so that only the call held by the server is slow.
+     */
+    @Test
+    public void testBreakerTimesFromSend() throws Exception {
+        final CircuitBreakers breakers = CircuitBreakers.window(20)
+            .slowCallDuration(300, TimeUnit.MILLISECONDS)
+            .build();
+        final CircuitBreakingClient client = new CircuitBreakingClient(
+            new OkHttpCallClient(new OkHttpClient(), 1), breakers, this.url.substring(0, this.url.lastIndexOf('/')));
+        final Future<Response> first = this.callers.submit(execute(client));
+        Assert.assertTrue(this.received.await(5, TimeUnit.SECONDS));
+        final Future<Response> second = this.callers.submit(execute(client));
+
+        Thread.sleep(500);
+        this.release.countDown();
+        Assert.assertEquals(200, first.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(200, second.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(50, breakers.forEndpoint("GET /offices").getSlowCallRate());
+    }
+
+    /**
+     * Test for a call waiting for the permit of its host timed by the concurrency limiter
+     * from when it is sent, so that the wait is not mistaken for server latency.
+     */
+    @Test
+    public void testLimiterTimesFromSend() throws Exception {
+        final List<Long> samples = Collections.synchronizedList(new ArrayList<Long>());
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter.limit(new ConcurrencyLimit() {
+            @Override
+            public int getLimit() {
+                return 2;
+            }
+
+            @Override
+            public void onSample(final long rttNanos, final int inFlight, final boolean dropped) {
+                samples.add(rttNanos);
+            }
+        }).build();
+        final ConcurrencyLimitingClient client = new ConcurrencyLimitingClient(
+            new OkHttpCallClient(new OkHttpClient(), 1), limiter);
+        final Future<Response> first = this.callers.submit(execute(client));
+        Assert.assertTrue(this.received.await(5, TimeUnit.SECONDS));
+        final Future<Response> second = this.callers.submit(execute(client));
+
+        Thread.sleep(500);
+        this.release.countDown();
+        Assert.assertEquals(200, first.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(200, second.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(2, samples.size());
+        Assert.assertTrue(Math.min(samples.get(0), samples.get(1)) < TimeUnit.MILLISECONDS.toNanos(300));
+        Assert.assertEquals(0, limiter.getInFlight());
+    }
+
+    private Request request() {
+        return new Request("GET", this.url, Collections.<Header>emptyList(), null);
+    }
+
+    private static Callable<Response> execute(final OkHttpCallClient.CancellableCall call) {
+        return new Callable<Response>() {
+            @Override
+            public Response call() throws IOException {
+                return drain(call.execute());
+            }
+        };
+    }
+
+    private Callable<Response> execute(final Client client) {
+        return new Callable<Response>() {
+            @Override
+            public Response call() throws IOException {
+                return drain(client.execute(request()));
+            }
+        };
+    }
+
+    private static Response drain(final Response response) throws IOException {
+        try (InputStream body = response.getBody().in()) {
+            while (body.read() != -1) {
+                // drains the body so that the connection is pooled
+            }
+        }
+        return response;
+    }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.http;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
+import org.mifos.sdk.internal.serializers.commands.group.SaveCollectionSheetSerializer;
+import retrofit.converter.GsonConverter;
+import retrofit.mime.TypedOutput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Test for {@link StreamingGsonConverter} and the bodies it streams.
+ */
+public class StreamingGsonConverterTest {
+
+    private Gson gson;
+    private StreamingGsonConverter converter;
+    private SaveCollectionSheetCommand command;
+
+    /**
+     * Creates a converter streaming the collection sheets.
+     */
+    @Before
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(SaveCollectionSheetCommand.class, new SaveCollectionSheetSerializer())
+            .create();
+        this.converter = new StreamingGsonConverter(this.gson, SaveCollectionSheetCommand.class);
+        this.command = SaveCollectionSheetCommand.calendarId(4L)
+            .transactionDate(new Date(1400000000000L))
+            .actualDisbursementDate(new Date(1400000000000L))
+            .dateFormat("dd MMMM yyyy")
+            .locale("en")
+            .build();
+    }
+
+    /**
+     * Test for a streamed body written as the buffered one, of unknown length.
+     */
+    @Test
+    public void testStreamedBody() throws IOException {
+        final TypedOutput streamed = this.converter.toBody(this.command);
+        final TypedOutput buffered = new GsonConverter(this.gson).toBody(this.command);
+
+        Assert.assertEquals(-1, streamed.length());
+        Assert.assertEquals(buffered.mimeType(), streamed.mimeType());
+        Assert.assertEquals(write(buffered), write(streamed));
+    }
+
+    /**
+     * Test for a streamed body written whole a second time, as when the request is sent
+     * again after a 401 or by the retries.
+     */
+    @Test
+    public void testStreamedBodyWrittenTwice() throws IOException {
+        final TypedOutput body = this.converter.toBody(this.command);
+
+        final String first = write(body);
+        Assert.assertTrue(first.startsWith("{\"dateFormat\":\"dd MMMM yyyy\""));
+        Assert.assertEquals(first, write(body));
+    }
+
+    /**
+     * Test for the bodies of the other types encoded as usual, with a known length.
+     */
+    @Test
+    public void testBufferedBody() throws IOException {
+        final TypedOutput body = this.converter.toBody(Collections.singletonMap("officeId", 2));
+
+        Assert.assertEquals("{\"officeId\":2}", write(body));
+        Assert.assertEquals(14, body.length());
+        Assert.assertEquals(write(body), write(body));
+    }
+
+    private static String write(final TypedOutput body) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString("UTF-8");
+    }
+
+}
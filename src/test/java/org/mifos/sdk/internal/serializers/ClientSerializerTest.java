@@ -0,0 +1,228 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertGraphEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertJsonEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.date;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.event;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.payload;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.status;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.timeline;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.client.domain.Client;
+import org.mifos.sdk.internal.accounts.Event;
+
+/**
+ * Test for {@link ClientSerializer} and the {@link StatusCodeSerializer} it reads the status with.
+ */
+public class ClientSerializerTest {
+
+    private Gson gson;
+
+    /**
+     * Registers the serializer as the client factory does.
+     */
+    @Before
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(Client.class, new ClientSerializer())
+            .create();
+    }
+
+    /**
+     * Test for an active client read from a recorded payload, every field the
+     * serializer knows being set and the others skipped.
+     */
+    @Test
+    public void testReadActiveClient() throws Exception {
+        final Client expected = Client.firstname("Petra")
+            .lastname("Yton")
+            .clientClassificationId(19L)
+            .clientTypeId(17L)
+            .accountNo("000000027")
+            .activationDate(date(2013, 1, 1))
+            .active(true)
+            .externalId("786YYH7")
+            .genderId(22L)
+            .mobileNo("0865347271")
+            .officeId(2L)
+            .staffId(3L)
+            .submittedOnDate(date(2013, 1, 1))
+            .build();
+        expected.setClientId(27L);
+        expected.setClientTypeName("Individual");
+        expected.setTimeline(timeline(
+            event(Event.Type.SUBMITTED, date(2013, 1, 1), "mifos", "App", "Administrator"),
+            event(Event.Type.ACTIVATED, date(2013, 1, 1), "mifos", "App", "Administrator")));
+        expected.setGenderName("Female");
+        expected.setImageId(1L);
+        expected.setImagePresent(true);
+        expected.setSavingsAccountId(57L);
+        expected.setStaffName("Kamau, Wanjiru");
+        expected.setDisplayName("Petra Yton");
+        expected.setOfficeName("Ruiru Branch");
+        expected.setStatus(status(300L, "clientStatusType.active", "Active"));
+
+        assertGraphEquals(expected, this.gson.fromJson(payload("client.json"), Client.class));
+    }
+
+    /**
+     * Test for a pending client read from a recorded payload, the absent fields being left unset.
+     */
+    @Test
+    public void testReadPendingClient() throws Exception {
+        final Client expected = Client.firstname("Amos")
+            .lastname("Otieno")
+            .accountNo("000000031")
+            .officeId(2L)
+            .submittedOnDate(date(2014, 2, 3))
+            .build();
+        expected.setClientId(31L);
+        expected.setTimeline(timeline(
+            event(Event.Type.SUBMITTED, date(2014, 2, 3), "mifos", "App", "Administrator")));
+        expected.setDisplayName("Amos Otieno");
+        expected.setOfficeName("Ruiru Branch");
+        expected.setStatus(status(100L, "clientStatusType.pending", "Pending"));
+
+        assertGraphEquals(expected, this.gson.fromJson(payload("client_pending.json"), Client.class));
+    }
+
+    /**
+     * Test for a client holding only the required fields, the client ID being read from
+     * {@code clientId} before {@code id}.
+     */
+    @Test
+    public void testReadMissingFields() {
+        final Client expected = Client.fullname("Petra Yton")
+            .officeId(2L)
+            .build();
+        expected.setClientId(27L);
+
+        assertGraphEquals(expected, this.gson.fromJson(
+            "{\"clientId\":27,\"id\":99,\"fullname\":\"Petra Yton\",\"officeId\":2}", Client.class));
+    }
+
+    /**
+     * Test for the JSON nulls read as absent values.
+     */
+    @Test
+    public void testReadNullFields() {
+        final Client expected = Client.fullname("Petra Yton")
+            .officeId(2L)
+            .build();
+
+        assertGraphEquals(expected, this.gson.fromJson("{\"fullname\":\"Petra Yton\",\"officeId\":2,"
+            + "\"externalId\":null,\"active\":null,\"activationDate\":null,\"gender\":null,"
+            + "\"clientType\":{\"id\":null,\"name\":null},\"staffId\":null,\"imagePresent\":null,"
+            + "\"status\":null,\"timeline\":null}", Client.class));
+    }
+
+    /**
+     * Test for the status codes read with their unknown fields skipped.
+     */
+    @Test
+    public void testReadStatusCode() throws Exception {
+        final StatusCodeSerializer serializer = new StatusCodeSerializer();
+
+        assertGraphEquals(status(300L, "clientStatusType.active", "Active"), serializer.fromJson(
+            "{\"id\":300,\"code\":\"clientStatusType.active\",\"value\":\"Active\",\"extra\":[1]}"));
+        assertGraphEquals(status(100L, null, null), serializer.fromJson("{\"id\":100,\"code\":null}"));
+        assertJsonEquals("{\"id\":300,\"code\":\"clientStatusType.active\",\"value\":\"Active\"}",
+            serializer.toJson(status(300L, "clientStatusType.active", "Active")));
+    }
+
+    /**
+     * Test for a null document read as a null client.
+     */
+    @Test
+    public void testReadNull() {
+        Assert.assertNull(this.gson.fromJson("null", Client.class));
+    }
+
+    /**
+     * Test for the payload of an active client created by its full name.
+     */
+    @Test
+    public void testWriteActiveClient() {
+        final Client client = Client.fullname("Petra Yton")
+            .officeId(2L)
+            .active(true)
+            .activationDate(date(2013, 1, 1))
+            .dateFormat("dd MMMM yyyy")
+            .locale("en")
+            .groupId(7L)
+            .externalId("786YYH7")
+            .accountNo("000000027")
+            .staffId(3L)
+            .mobileNo("0865347271")
+            .savingsProductId(4L)
+            .genderId(22L)
+            .clientTypeId(17L)
+            .clientClassificationId(19L)
+            .build();
+
+        assertJsonEquals("{\"officeId\":2,\"fullname\":\"Petra Yton\",\"active\":true,"
+            + "\"activationDate\":\"01 January 2013\",\"dateFormat\":\"dd MMMM yyyy\",\"locale\":\"en\","
+            + "\"groupId\":7,\"externalId\":\"786YYH7\",\"accountNo\":\"000000027\",\"staffId\":3,"
+            + "\"mobileNo\":\"0865347271\",\"savingsProductId\":4,\"genderId\":22,\"clientTypeId\":17,"
+            + "\"clientClassificationId\":19}", this.gson.toJson(client));
+    }
+
+    /**
+     * Test for the payload of a pending client created by its first and last names,
+     * the missing middle name being left out.
+     */
+    @Test
+    public void testWritePendingClient() {
+        final Client client = Client.firstname("Amos")
+            .lastname("Otieno")
+            .officeId(2L)
+            .build();
+
+        assertJsonEquals("{\"officeId\":2,\"firstname\":\"Amos\",\"lastname\":\"Otieno\",\"active\":false}",
+            this.gson.toJson(client));
+    }
+
+    /**
+     * Test for a decoded client written back as the payload of its creation.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Client client = this.gson.fromJson(payload("client_pending.json"), Client.class);
+
+        assertJsonEquals("{\"officeId\":2,\"firstname\":\"Amos\",\"lastname\":\"Otieno\",\"active\":false,"
+            + "\"accountNo\":\"000000031\"}", this.gson.toJson(client));
+    }
+
+    /**
+     * Test for an active client written without its activation date.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteWithoutActivationDate() {
+        this.gson.toJson(Client.fullname("Petra Yton")
+            .officeId(2L)
+            .active(true)
+            .build());
+    }
+
+    /**
+     * Test for a client written with an external ID of more than 100 characters.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteLongExternalId() {
+        this.gson.toJson(Client.fullname("Petra Yton")
+            .officeId(2L)
+            .externalId(new String(new char[101]).replace('\0', 'x'))
+            .build());
+    }
+
+}
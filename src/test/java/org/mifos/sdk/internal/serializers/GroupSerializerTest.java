@@ -0,0 +1,181 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertGraphEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertJsonEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.date;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.event;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.payload;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.status;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.timeline;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.group.domain.Group;
+import org.mifos.sdk.internal.accounts.Event;
+
+import java.util.Arrays;
+
+/**
+ * Test for {@link GroupSerializer}.
+ */
+public class GroupSerializerTest {
+
+    private Gson gson;
+
+    /**
+     * Registers the serializer as the client factory does.
+     */
+    @Before
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(Group.class, new GroupSerializer())
+            .create();
+    }
+
+    /**
+     * Test for an active group read from a recorded payload, its activation date
+     * being taken from the timeline.
+     */
+    @Test
+    public void testReadActiveGroup() throws Exception {
+        final Group expected = Group.name("Kanyama Women Group")
+            .active(true)
+            .externalId("KWG-0007")
+            .officeId(2L)
+            .staffId(3L)
+            .build();
+        expected.setStatus(status(300L, "groupingStatusType.active", "Active"));
+        expected.setResourceId(7L);
+        expected.setOfficeName("Ruiru Branch");
+        expected.setCenterId(5L);
+        expected.setCenterName("Kanyama Center");
+        expected.setStaffName("Kamau, Wanjiru");
+        expected.setTimeline(timeline(
+            event(Event.Type.SUBMITTED, date(2013, 3, 28), "mifos", "App", "Administrator"),
+            event(Event.Type.ACTIVATED, date(2013, 4, 1), "mifos", "App", "Administrator")));
+
+        final Group actual = this.gson.fromJson(payload("group.json"), Group.class);
+        assertGraphEquals(expected, actual);
+        Assert.assertEquals(date(2013, 4, 1), actual.getActivationDate());
+    }
+
+    /**
+     * Test for a pending group read from a recorded payload, the absent fields being left unset.
+     */
+    @Test
+    public void testReadPendingGroup() throws Exception {
+        final Group expected = Group.name("Githunguri Youth Group")
+            .officeId(2L)
+            .build();
+        expected.setStatus(status(100L, "groupingStatusType.pending", "Pending"));
+        expected.setResourceId(12L);
+        expected.setOfficeName("Ruiru Branch");
+        expected.setTimeline(timeline(
+            event(Event.Type.SUBMITTED, date(2014, 2, 3), "mifos", "App", "Administrator")));
+
+        assertGraphEquals(expected, this.gson.fromJson(payload("group_pending.json"), Group.class));
+    }
+
+    /**
+     * Test for the response of a creation, holding only the office and resource IDs,
+     * the resource ID being read from {@code resourceId} when there is no {@code id}.
+     */
+    @Test
+    public void testReadMissingFields() {
+        final Group expected = Group.name(null).officeId(2L).build();
+        expected.setResourceId(7L);
+
+        assertGraphEquals(expected, this.gson.fromJson("{\"officeId\":2,\"resourceId\":7}", Group.class));
+        assertGraphEquals(expected, this.gson.fromJson("{\"officeId\":2,\"resourceId\":9,\"id\":7}", Group.class));
+    }
+
+    /**
+     * Test for the JSON nulls read as absent values.
+     */
+    @Test
+    public void testReadNullFields() {
+        final Group expected = Group.name("Kanyama Women Group")
+            .officeId(2L)
+            .build();
+
+        assertGraphEquals(expected, this.gson.fromJson("{\"name\":\"Kanyama Women Group\",\"officeId\":2,"
+            + "\"active\":null,\"externalId\":null,\"staffId\":null,\"status\":null,\"id\":null,"
+            + "\"centerId\":null,\"centerName\":null,\"timeline\":null}", Group.class));
+    }
+
+    /**
+     * Test for a null document read as a null group.
+     */
+    @Test
+    public void testReadNull() {
+        Assert.assertNull(this.gson.fromJson("null", Group.class));
+    }
+
+    /**
+     * Test for the payload of an active group with its members.
+     */
+    @Test
+    public void testWriteActiveGroup() {
+        final Group group = Group.name("Kanyama Women Group")
+            .officeId(2L)
+            .active(true)
+            .activationDate(date(2013, 4, 1))
+            .dateFormat("dd MMMM yyyy")
+            .locale("en")
+            .externalId("KWG-0007")
+            .staffId(3L)
+            .clientMembers(Arrays.asList(27L, 31L))
+            .submittedOnDate(date(2013, 3, 28))
+            .build();
+
+        assertJsonEquals("{\"name\":\"Kanyama Women Group\",\"officeId\":2,\"active\":true,"
+            + "\"activationDate\":\"01 April 2013\",\"dateFormat\":\"dd MMMM yyyy\",\"locale\":\"en\","
+            + "\"externalId\":\"KWG-0007\",\"clientMembers\":\"[27,31]\",\"staffId\":3,"
+            + "\"submittedOnDate\":\"28 March 2013\"}", this.gson.toJson(group));
+    }
+
+    /**
+     * Test for the payload of a pending group submitted on a given date.
+     */
+    @Test
+    public void testWritePendingGroup() {
+        final Group group = Group.name("Githunguri Youth Group")
+            .officeId(2L)
+            .submittedOnDate(date(2014, 2, 3))
+            .dateFormat("dd MMMM yyyy")
+            .locale("en")
+            .build();
+
+        assertJsonEquals("{\"name\":\"Githunguri Youth Group\",\"officeId\":2,\"active\":false,"
+            + "\"submittedOnDate\":\"03 February 2014\",\"dateFormat\":\"dd MMMM yyyy\",\"locale\":\"en\"}",
+            this.gson.toJson(group));
+    }
+
+    /**
+     * Test for a group written without its name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteWithoutName() {
+        this.gson.toJson(Group.name("").officeId(2L).build());
+    }
+
+    /**
+     * Test for a pending group written with a submission date but no date format.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteWithoutDateFormat() {
+        this.gson.toJson(Group.name("Githunguri Youth Group")
+            .officeId(2L)
+            .submittedOnDate(date(2014, 2, 3))
+            .build());
+    }
+
+}
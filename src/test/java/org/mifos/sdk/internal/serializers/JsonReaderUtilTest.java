@@ -0,0 +1,61 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import static org.mifos.sdk.internal.serializers.SerializerAssert.date;
+
+import com.google.gson.stream.JsonReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+/**
+ * Test for {@link JsonReaderUtil}.
+ */
+public class JsonReaderUtilTest {
+
+    /**
+     * Test for the values read as sent.
+     */
+    @Test
+    public void testReadValues() throws IOException {
+        final JsonReader in = reader("[\"Ruiru\",27,\"1500.50\",true,[2013,4,1,0,0]]");
+
+        Assert.assertEquals("Ruiru", JsonReaderUtil.nextString(in));
+        Assert.assertEquals(Long.valueOf(27L), JsonReaderUtil.nextLong(in));
+        Assert.assertEquals(new BigDecimal("1500.50"), JsonReaderUtil.nextBigDecimal(in));
+        Assert.assertTrue(JsonReaderUtil.nextBoolean(in));
+        Assert.assertEquals(date(2013, 4, 1), JsonReaderUtil.nextDate(in));
+        in.endArray();
+    }
+
+    /**
+     * Test for the JSON nulls read as absent values, and consumed.
+     */
+    @Test
+    public void testReadNulls() throws IOException {
+        final JsonReader in = reader("[null,null,null,null,null,1]");
+
+        Assert.assertNull(JsonReaderUtil.nextString(in));
+        Assert.assertNull(JsonReaderUtil.nextLong(in));
+        Assert.assertNull(JsonReaderUtil.nextBigDecimal(in));
+        Assert.assertFalse(JsonReaderUtil.nextBoolean(in));
+        Assert.assertNull(JsonReaderUtil.nextDate(in));
+        Assert.assertFalse(JsonReaderUtil.skipNull(in));
+        Assert.assertEquals(Long.valueOf(1L), JsonReaderUtil.nextLong(in));
+        in.endArray();
+    }
+
+    private static JsonReader reader(final String json) throws IOException {
+        final JsonReader in = new JsonReader(new StringReader(json));
+        in.beginArray();
+        return in;
+    }
+
+}
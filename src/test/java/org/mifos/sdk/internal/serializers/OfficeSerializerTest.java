@@ -0,0 +1,126 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertGraphEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertJsonEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.date;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.payload;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.office.domain.Office;
+
+/**
+ * Test for {@link OfficeSerializer}.
+ */
+public class OfficeSerializerTest {
+
+    private Gson gson;
+
+    /**
+     * Registers the serializer as the client factory does.
+     */
+    @Before
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(Office.class, new OfficeSerializer())
+            .create();
+    }
+
+    /**
+     * Test for an office read from a recorded payload, its office ID being read from {@code id}.
+     */
+    @Test
+    public void testReadOffice() throws Exception {
+        final Office expected = Office.name("Ruiru Branch")
+            .externalId("RB-0002")
+            .nameDecorated("....Ruiru Branch")
+            .openingDate(date(2009, 1, 1))
+            .build();
+        expected.setOfficeId(2L);
+
+        assertGraphEquals(expected, this.gson.fromJson(payload("office.json"), Office.class));
+    }
+
+    /**
+     * Test for the response of a creation, holding only the office and resource IDs.
+     */
+    @Test
+    public void testReadMissingFields() {
+        final Office expected = Office.name(null).build();
+        expected.setOfficeId(4L);
+        expected.setResourceId(4L);
+
+        assertGraphEquals(expected, this.gson.fromJson("{\"officeId\":4,\"resourceId\":4}", Office.class));
+        assertGraphEquals(expected, this.gson.fromJson("{\"id\":9,\"officeId\":4,\"resourceId\":4}",
+            Office.class));
+    }
+
+    /**
+     * Test for the JSON nulls read as absent values.
+     */
+    @Test
+    public void testReadNullFields() {
+        final Office expected = Office.name("Ruiru Branch").build();
+
+        assertGraphEquals(expected, this.gson.fromJson("{\"name\":\"Ruiru Branch\",\"externalId\":null,"
+            + "\"nameDecorated\":null,\"openingDate\":null,\"officeId\":null,\"id\":null}", Office.class));
+    }
+
+    /**
+     * Test for a null document read as a null office.
+     */
+    @Test
+    public void testReadNull() {
+        Assert.assertNull(this.gson.fromJson("null", Office.class));
+    }
+
+    /**
+     * Test for the payload of an office.
+     */
+    @Test
+    public void testWriteOffice() {
+        final Office office = Office.name("Ruiru Branch")
+            .nameDecorated("....Ruiru Branch")
+            .dateFormat("dd MMMM yyyy")
+            .locale("en")
+            .openingDate(date(2009, 1, 1))
+            .parentId(1L)
+            .externalId("RB-0002")
+            .build();
+
+        assertJsonEquals("{\"name\":\"Ruiru Branch\",\"dateFormat\":\"dd MMMM yyyy\",\"locale\":\"en\","
+            + "\"parentId\":1,\"openingDate\":\"01 January 2009\",\"nameDecorated\":\"....Ruiru Branch\","
+            + "\"externalId\":\"RB-0002\"}", this.gson.toJson(office));
+    }
+
+    /**
+     * Test for a decoded office written without its parent ID.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteWithoutParentId() throws Exception {
+        this.gson.toJson(this.gson.fromJson(payload("office.json"), Office.class));
+    }
+
+    /**
+     * Test for an office written with an empty external ID.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteEmptyExternalId() {
+        this.gson.toJson(Office.name("Ruiru Branch")
+            .dateFormat("dd MMMM yyyy")
+            .locale("en")
+            .openingDate(date(2009, 1, 1))
+            .parentId(1L)
+            .externalId("")
+            .build());
+    }
+
+}
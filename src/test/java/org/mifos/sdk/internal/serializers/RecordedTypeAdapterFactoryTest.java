@@ -0,0 +1,63 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertGraphEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.date;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.event;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.timeline;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.mifos.sdk.internal.FlightRecorderEvents;
+import org.mifos.sdk.internal.accounts.Event;
+import org.mifos.sdk.internal.accounts.Timeline;
+
+/**
+ * Test for {@link RecordedTypeAdapterFactory}.
+ */
+public class RecordedTypeAdapterFactoryTest {
+
+    /**
+     * Test for the serializers left as they are on a JVM without Java Flight Recorder
+     * events, such as Java 7 and 8.
+     */
+    @Test
+    public void testPassThroughWhenUnsupported() {
+        Assume.assumeTrue(!FlightRecorderEvents.isSupported());
+        final TimelineSerializer adapter = new TimelineSerializer();
+        final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Timeline.class, adapter)
+            .registerTypeAdapterFactory(new RecordedTypeAdapterFactory(Timeline.class))
+            .create();
+
+        Assert.assertSame(adapter, RecordedTypeAdapterFactory.recorded(Timeline.class, adapter));
+        Assert.assertNull(new RecordedTypeAdapterFactory(Timeline.class).create(gson, TypeToken.get(Timeline.class)));
+        Assert.assertSame(adapter, gson.getAdapter(Timeline.class));
+    }
+
+    /**
+     * Test for a recorded serializer reading and writing as the serializer it records,
+     * whether the events are supported or not.
+     */
+    @Test
+    public void testRecordedReadsAndWritesAlike() throws Exception {
+        final TypeAdapter<Timeline> adapter = new TimelineSerializer();
+        final TypeAdapter<Timeline> recorded = RecordedTypeAdapterFactory.recorded(Timeline.class, adapter);
+        final Timeline timeline = timeline(
+            event(Event.Type.SUBMITTED, date(2013, 3, 12), "mifos", "App", "Administrator"));
+
+        final String json = adapter.toJson(timeline);
+        Assert.assertEquals(json, recorded.toJson(timeline));
+        assertGraphEquals(adapter.fromJson(json), recorded.fromJson(json));
+    }
+
+}
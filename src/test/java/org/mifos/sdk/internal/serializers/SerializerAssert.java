@@ -0,0 +1,165 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.mifos.sdk.internal.accounts.Event;
+import org.mifos.sdk.internal.accounts.StatusCode;
+import org.mifos.sdk.internal.accounts.Timeline;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+/**
+ * Assertions shared by the serializer tests, comparing decoded object graphs
+ * through their getters and encoded bodies as JSON trees.
+ */
+final class SerializerAssert {
+
+    private SerializerAssert() {}
+
+    /**
+     * Returns a recorded server payload of the test resources.
+     * @param name the file name of the payload under {@code /payloads}
+     */
+    static String payload(final String name) throws IOException {
+        return Resources.toString(Resources.getResource(SerializerAssert.class, "/payloads/" + name),
+            Charsets.UTF_8);
+    }
+
+    /**
+     * Returns the start of a day in the default time zone, as the server dates are decoded.
+     * @param year the year
+     * @param month the month, starting from 1 for January
+     * @param day the day of the month
+     */
+    static Date date(final int year, final int month, final int day) {
+        return new GregorianCalendar(year, month - 1, day).getTime();
+    }
+
+    /**
+     * Returns an {@link Event} of a timeline.
+     * @param type the {@link Event.Type}
+     * @param date the date of the event
+     * @param username the username of the user behind the event
+     * @param firstname the first name of the user
+     * @param lastname the last name of the user
+     */
+    static Event event(final Event.Type type, final Date date, final String username, final String firstname,
+                       final String lastname) {
+        final Event event = new Event();
+        event.setType(type);
+        event.setDate(date);
+        event.setUsername(username);
+        event.setFirstname(firstname);
+        event.setLastname(lastname);
+        return event;
+    }
+
+    /**
+     * Returns a {@link Timeline} holding the given events, in the order of their types.
+     * @param events the {@link Event}s
+     */
+    static Timeline timeline(final Event... events) {
+        final Timeline timeline = new Timeline();
+        timeline.setEvents(new ArrayList<>(Arrays.asList(events)));
+        return timeline;
+    }
+
+    /**
+     * Returns a {@link StatusCode}.
+     * @param id the ID of the status
+     * @param code the code of the status
+     * @param value the value of the status
+     */
+    static StatusCode status(final long id, final String code, final String value) {
+        final StatusCode status = new StatusCode();
+        status.setId(id);
+        status.setCode(code);
+        status.setValue(value);
+        return status;
+    }
+
+    /**
+     * Asserts that two JSON documents hold the same tree, whatever the order of their members.
+     * @param expected the expected JSON
+     * @param actual the actual JSON
+     */
+    static void assertJsonEquals(final String expected, final String actual) {
+        Assert.assertEquals(new JsonParser().parse(expected), new JsonParser().parse(actual));
+    }
+
+    /**
+     * Asserts that two object graphs return the same values from all their getters,
+     * descending into the SDK objects and the lists.
+     * @param expected the expected graph
+     * @param actual the actual graph
+     */
+    static void assertGraphEquals(final Object expected, final Object actual) {
+        assertGraphEquals("", expected, actual);
+    }
+
+    private static void assertGraphEquals(final String path, final Object expected, final Object actual) {
+        if (expected == null || actual == null) {
+            Assert.assertEquals(path, expected, actual);
+        } else if (expected instanceof List) {
+            final List<?> expectedList = (List<?>) expected;
+            final List<?> actualList = (List<?>) actual;
+            Assert.assertEquals(path + ".size", expectedList.size(), actualList.size());
+            for (int i = 0; i < expectedList.size(); i++) {
+                assertGraphEquals(path + "[" + i + "]", expectedList.get(i), actualList.get(i));
+            }
+        } else if (expected.getClass().getName().startsWith("org.mifos.sdk.")
+            && !expected.getClass().isEnum()) {
+            Assert.assertEquals(path, expected.getClass(), actual.getClass());
+            for (final Method getter : getters(expected.getClass())) {
+                assertGraphEquals(path + "." + getter.getName(), invoke(getter, expected), invoke(getter, actual));
+            }
+        } else {
+            Assert.assertEquals(path, expected, actual);
+        }
+    }
+
+    private static List<Method> getters(final Class<?> type) {
+        final List<Method> getters = new ArrayList<>();
+        for (final Method method : type.getMethods()) {
+            final String name = method.getName();
+            if (!Modifier.isStatic(method.getModifiers()) && method.getParameterTypes().length == 0
+                && method.getReturnType() != void.class && !"getClass".equals(name)
+                && (name.startsWith("get") || name.startsWith("is"))) {
+                getters.add(method);
+            }
+        }
+        Collections.sort(getters, new Comparator<Method>() {
+            @Override
+            public int compare(final Method first, final Method second) {
+                return first.getName().compareTo(second.getName());
+            }
+        });
+        return getters;
+    }
+
+    private static Object invoke(final Method getter, final Object target) {
+        try {
+            return getter.invoke(target);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new AssertionError("Cannot read " + getter.getName() + ": " + e);
+        }
+    }
+
+}
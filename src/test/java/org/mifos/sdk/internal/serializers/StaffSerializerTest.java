@@ -0,0 +1,135 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertGraphEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertJsonEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.date;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.payload;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.staff.domain.Staff;
+
+/**
+ * Test for {@link StaffSerializer}.
+ */
+public class StaffSerializerTest {
+
+    private Gson gson;
+
+    /**
+     * Registers the serializer as the client factory does.
+     */
+    @Before
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(Staff.class, new StaffSerializer())
+            .create();
+    }
+
+    /**
+     * Test for a staff member read from a recorded payload, its resource ID being read from {@code id}.
+     */
+    @Test
+    public void testReadStaff() throws Exception {
+        final Staff expected = Staff.officeId(2L)
+            .externalId("STF-0003")
+            .firstname("Wanjiru")
+            .lastname("Kamau")
+            .isActive(true)
+            .isLoanOfficer(true)
+            .joiningDate(date(2012, 6, 1))
+            .mobileNo("0722000003")
+            .build();
+        expected.setDisplayName("Kamau, Wanjiru");
+        expected.setResourceId(3L);
+        expected.setOfficeName("Ruiru Branch");
+
+        assertGraphEquals(expected, this.gson.fromJson(payload("staff.json"), Staff.class));
+    }
+
+    /**
+     * Test for the response of a creation, its resource ID being read from {@code resourceId}
+     * before {@code id}.
+     */
+    @Test
+    public void testReadMissingFields() {
+        final Staff expected = Staff.officeId(2L).build();
+        expected.setResourceId(8L);
+
+        assertGraphEquals(expected, this.gson.fromJson("{\"officeId\":2,\"resourceId\":8,\"id\":9}",
+            Staff.class));
+    }
+
+    /**
+     * Test for the JSON nulls read as absent values.
+     */
+    @Test
+    public void testReadNullFields() {
+        final Staff expected = Staff.officeId(2L).build();
+
+        assertGraphEquals(expected, this.gson.fromJson("{\"officeId\":2,\"externalId\":null,"
+            + "\"firstname\":null,\"isActive\":null,\"isLoanOfficer\":null,\"joiningDate\":null,"
+            + "\"displayName\":null,\"resourceId\":null,\"officeName\":null}", Staff.class));
+    }
+
+    /**
+     * Test for a null document read as a null staff member.
+     */
+    @Test
+    public void testReadNull() {
+        Assert.assertNull(this.gson.fromJson("null", Staff.class));
+    }
+
+    /**
+     * Test for the payload of a staff member.
+     */
+    @Test
+    public void testWriteStaff() {
+        final Staff staff = Staff.officeId(2L)
+            .firstname("Wanjiru")
+            .lastname("Kamau")
+            .externalId("STF-0003")
+            .mobileNo("0722000003")
+            .isActive(true)
+            .isLoanOfficer(true)
+            .locale("en")
+            .dateFormat("dd MMMM yyyy")
+            .joiningDate(date(2012, 6, 1))
+            .build();
+
+        assertJsonEquals("{\"officeId\":2,\"firstname\":\"Wanjiru\",\"lastname\":\"Kamau\","
+            + "\"externalId\":\"STF-0003\",\"mobileNo\":\"0722000003\",\"isActive\":true,"
+            + "\"isLoanOfficer\":true,\"locale\":\"en\",\"dateFormat\":\"dd MMMM yyyy\","
+            + "\"joiningDate\":\"01 June 2012\"}", this.gson.toJson(staff));
+    }
+
+    /**
+     * Test for a decoded staff member written back, the false flags and the missing
+     * joining date being left out.
+     */
+    @Test
+    public void testRoundTrip() {
+        final Staff staff = this.gson.fromJson("{\"id\":3,\"officeId\":2,\"firstname\":\"Wanjiru\","
+            + "\"lastname\":\"Kamau\",\"isActive\":false,\"isLoanOfficer\":false}", Staff.class);
+
+        assertJsonEquals("{\"officeId\":2,\"firstname\":\"Wanjiru\",\"lastname\":\"Kamau\"}",
+            this.gson.toJson(staff));
+    }
+
+    /**
+     * Test for a staff member written without a last name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteWithoutLastname() {
+        this.gson.toJson(Staff.officeId(2L).firstname("Wanjiru").build());
+    }
+
+}
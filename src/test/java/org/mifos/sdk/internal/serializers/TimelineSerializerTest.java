@@ -0,0 +1,142 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers;
+
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertGraphEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.assertJsonEquals;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.date;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.event;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.payload;
+import static org.mifos.sdk.internal.serializers.SerializerAssert.timeline;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.internal.accounts.Event;
+import org.mifos.sdk.internal.accounts.Timeline;
+
+/**
+ * Test for {@link TimelineSerializer}.
+ */
+public class TimelineSerializerTest {
+
+    /**
+     * The JSON prefix of the date field of every event type, and of its user fields.
+     */
+    private static final String[][] FIELDS = {
+        {"submittedOnDate", "submittedBy"},
+        {"activatedOnDate", "activatedBy"},
+        {"approvedOnDate", "approvedBy"},
+        {"withdrawnOnDate", "withdrawnBy"},
+        {"closedOnDate", "closedBy"},
+        {"rejectedOnDate", "rejectedBy"},
+        {"writeOffOnDate", "writeOffBy"},
+        {"actualDisbursementDate", "disbursedBy"}
+    };
+
+    private Gson gson;
+
+    /**
+     * Registers the serializer as the client factory does.
+     */
+    @Before
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(Timeline.class, new TimelineSerializer())
+            .create();
+    }
+
+    /**
+     * Test for every event type read from its own fields.
+     */
+    @Test
+    public void testReadEventTypes() {
+        Assert.assertEquals(Event.Type.values().length, FIELDS.length);
+        for (final Event.Type type : Event.Type.values()) {
+            final String[] fields = FIELDS[type.ordinal()];
+            final Timeline actual = this.gson.fromJson("{\"" + fields[0] + "\":[2013,3," + (type.ordinal() + 1)
+                + "],\"" + fields[1] + "Username\":\"mifos\",\"" + fields[1] + "Firstname\":\"App\",\""
+                + fields[1] + "Lastname\":\"Administrator\"}", Timeline.class);
+
+            assertGraphEquals(timeline(event(type, date(2013, 3, type.ordinal() + 1), "mifos", "App",
+                "Administrator")), actual);
+        }
+    }
+
+    /**
+     * Test for the events of a recorded loan timeline, in the order of their types
+     * whatever the order of the fields, the unknown fields being skipped.
+     */
+    @Test
+    public void testReadLoanTimeline() throws Exception {
+        assertGraphEquals(timeline(
+            event(Event.Type.SUBMITTED, date(2013, 3, 12), "mifos", "App", "Administrator"),
+            event(Event.Type.APPROVED, date(2013, 3, 14), "mifos", "App", "Administrator"),
+            event(Event.Type.CLOSED, date(2014, 3, 15), null, null, null),
+            event(Event.Type.DISBURSED, date(2013, 3, 15), "mifos", "App", "Administrator")),
+            this.gson.fromJson(payload("timeline_loan.json"), Timeline.class));
+    }
+
+    /**
+     * Test for the events of a recorded client timeline.
+     */
+    @Test
+    public void testReadClientTimeline() throws Exception {
+        assertGraphEquals(timeline(
+            event(Event.Type.SUBMITTED, date(2013, 1, 1), "mifos", "App", "Administrator"),
+            event(Event.Type.ACTIVATED, date(2013, 1, 1), "mifos", "App", "Administrator")),
+            this.gson.fromJson(payload("timeline_client.json"), Timeline.class));
+    }
+
+    /**
+     * Test for an event read from its user fields alone, and for the JSON nulls read as absent values.
+     */
+    @Test
+    public void testReadPartialEvents() {
+        assertGraphEquals(timeline(
+            event(Event.Type.WITHDRAWN, null, "mifos", null, null),
+            event(Event.Type.REJECTED, null, null, null, null)),
+            this.gson.fromJson("{\"rejectedOnDate\":null,\"withdrawnByUsername\":\"mifos\","
+                + "\"withdrawnByFirstname\":null}", Timeline.class));
+    }
+
+    /**
+     * Test for an empty timeline, and a null document read as a null timeline.
+     */
+    @Test
+    public void testReadEmpty() {
+        assertGraphEquals(timeline(), this.gson.fromJson("{}", Timeline.class));
+        Assert.assertNull(this.gson.fromJson("null", Timeline.class));
+    }
+
+    /**
+     * Test for a timeline written with the field names it is read from, the missing
+     * values being left out.
+     */
+    @Test
+    public void testWriteTimeline() {
+        final Timeline timeline = timeline(
+            event(Event.Type.SUBMITTED, date(2013, 3, 12), "mifos", "App", "Administrator"),
+            event(Event.Type.DISBURSED, null, "mifos", null, null));
+
+        assertJsonEquals("{\"submittedOnDate\":[2013,3,12],\"submittedByUsername\":\"mifos\","
+            + "\"submittedByFirstname\":\"App\",\"submittedByLastname\":\"Administrator\","
+            + "\"disbursedByUsername\":\"mifos\"}", this.gson.toJson(timeline));
+    }
+
+    /**
+     * Test for a recorded timeline read back after it is written.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Timeline timeline = this.gson.fromJson(payload("timeline_loan.json"), Timeline.class);
+
+        assertGraphEquals(timeline, this.gson.fromJson(this.gson.toJson(timeline), Timeline.class));
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.internal.serializers.commands.group;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.group.domain.commands.SaveCollectionSheetCommand;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+/**
+ * Test for {@link SaveCollectionSheetSerializer}.
+ */
+public class SaveCollectionSheetSerializerTest {
+
+    private Gson gson;
+    private Date date;
+
+    /**
+     * Registers the serializer as the client factory does.
+     */
+    @Before
+    public void setup() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(SaveCollectionSheetCommand.class, new SaveCollectionSheetSerializer())
+            .create();
+        this.date = new GregorianCalendar(2014, 4, 13).getTime();
+    }
+
+    /**
+     * Test for the exact body of a collection sheet, its attendance and transactions
+     * being written as nested arrays with the amounts as sent.
+     */
+    @Test
+    public void testWriteCollectionSheet() {
+        final List<SaveCollectionSheetCommand.ClientAttendance> attendance = new ArrayList<>();
+        final List<SaveCollectionSheetCommand.BulkRepaymentTransaction> repayments = new ArrayList<>();
+        final List<SaveCollectionSheetCommand.BulkDisbursementTransaction> disbursements = new ArrayList<>();
+        final SaveCollectionSheetCommand command = SaveCollectionSheetCommand.calendarId(4L)
+            .transactionDate(this.date)
+            .actualDisbursementDate(this.date)
+            .dateFormat("dd MMMM yyyy")
+            .locale("en")
+            .clientsAttendance(attendance)
+            .bulkRepaymentTransactions(repayments)
+            .bulkDisbursementTransactions(disbursements)
+            .build();
+
+        final SaveCollectionSheetCommand.ClientAttendance client = command.new ClientAttendance();
+        client.setClientId(27L);
+        client.setAttendanceType(SaveCollectionSheetCommand.ATTENDANCE_PRESENT);
+        attendance.add(client);
+        final SaveCollectionSheetCommand.BulkRepaymentTransaction repayment = command.new BulkRepaymentTransaction();
+        repayment.setLoanId(12L);
+        repayment.setTransactionAmount(new BigDecimal("1250.750"));
+        repayments.add(repayment);
+        final SaveCollectionSheetCommand.BulkDisbursementTransaction disbursement =
+            command.new BulkDisbursementTransaction();
+        disbursement.setLoanId(13L);
+        disbursement.setTransactionAmount(new BigDecimal("15000"));
+        disbursements.add(disbursement);
+
+        Assert.assertEquals("{\"dateFormat\":\"dd MMMM yyyy\",\"locale\":\"en\",\"calendarId\":4,"
+            + "\"transactionDate\":\"13 May 2014\",\"actualDisbursementDate\":\"13 May 2014\","
+            + "\"clientsAttendance\":[{\"clientId\":27,\"attendanceType\":1}],"
+            + "\"bulkDisbursementTransactions\":[{\"loanId\":13,\"transactionAmount\":15000}],"
+            + "\"bulkRepaymentTransactions\":[{\"loanId\":12,\"transactionAmount\":1250.750}]}",
+            this.gson.toJson(command));
+    }
+
+    /**
+     * Test for the exact body of a collection sheet without attendance nor transactions.
+     */
+    @Test
+    public void testWriteEmptyCollectionSheet() {
+        final SaveCollectionSheetCommand command = SaveCollectionSheetCommand.calendarId(4L)
+            .transactionDate(this.date)
+            .actualDisbursementDate(this.date)
+            .dateFormat("yyyy-MM-dd")
+            .locale("en")
+            .build();
+
+        Assert.assertEquals("{\"dateFormat\":\"yyyy-MM-dd\",\"locale\":\"en\",\"calendarId\":4,"
+            + "\"transactionDate\":\"2014-05-13\",\"actualDisbursementDate\":\"2014-05-13\"}",
+            this.gson.toJson(command));
+    }
+
+    /**
+     * Test for a collection sheet command, which is never read.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRead() {
+        this.gson.fromJson("{}", SaveCollectionSheetCommand.class);
+    }
+
+}
@@ -0,0 +1,148 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.limit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for {@link ConcurrencyLimiter} and the {@link ConcurrencyLimit} implementations.
+ */
+public class ConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Test for the AIMD limit growing under load and backing off on drops.
+     */
+    @Test
+    public void testAimdLimit() {
+        final AimdLimit limit = new AimdLimit(10, 20, 0.5, 1, TimeUnit.SECONDS);
+
+        limit.onSample(FAST, 10, false);
+        Assert.assertEquals(11, limit.getLimit());
+        limit.onSample(FAST, 1, false);
+        Assert.assertEquals(11, limit.getLimit());
+        limit.onSample(FAST, 10, true);
+        Assert.assertEquals(5, limit.getLimit());
+        limit.onSample(TimeUnit.SECONDS.toNanos(2), 5, false);
+        Assert.assertEquals(2, limit.getLimit());
+    }
+
+    /**
+     * Test for the gradient limit growing at the baseline latency and shrinking
+     * once the latency rises.
+     */
+    @Test
+    public void testGradientLimit() {
+        final GradientLimit limit = new GradientLimit(10, 100, 1.0);
+
+        limit.onSample(FAST, 10, false);
+        final int grown = limit.getLimit();
+        Assert.assertTrue(grown > 10);
+
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(FAST * 10, limit.getLimit(), false);
+        }
+        Assert.assertTrue(limit.getLimit() < grown);
+    }
+
+    /**
+     * Test for the requests beyond the limit and the queue rejected straight away.
+     */
+    @Test
+    public void testRejectionBeyondQueue() throws Exception {
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter
+            .limit(new AimdLimit(1, 1, 0.9, 1, TimeUnit.SECONDS))
+            .maxQueueDepth(0)
+            .build();
+
+        Assert.assertEquals(1, limiter.acquire());
+        try {
+            limiter.acquire();
+            Assert.fail();
+        } catch (ConcurrencyLimitExceededException e) {
+            Assert.assertEquals(1, limiter.getRejectedCount());
+        }
+        Assert.assertEquals(1, limiter.getInFlight());
+        Assert.assertEquals(1, limiter.getLimit());
+    }
+
+    /**
+     * Test for a queued request admitted once a permit is released.
+     */
+    @Test
+    public void testQueuedRequestAdmitted() throws Exception {
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter
+            .limit(new AimdLimit(1, 1, 0.9, 1, TimeUnit.SECONDS))
+            .maxQueueDepth(1)
+            .queueTimeout(5, TimeUnit.SECONDS)
+            .build();
+        final int inFlight = limiter.acquire();
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Integer> queued = executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    return limiter.acquire();
+                }
+            });
+            while (limiter.getQueueDepth() == 0) {
+                Thread.sleep(1);
+            }
+            limiter.release(inFlight, FAST, false);
+
+            Assert.assertEquals(1, (int) queued.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(0, limiter.getQueueDepth());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test for a permit returned by a request given up before being sent, leaving the
+     * limit unchanged.
+     */
+    @Test
+    public void testCancelledRequestLeavesLimit() throws Exception {
+        final AimdLimit limit = new AimdLimit(2, 4, 0.5, 1, TimeUnit.SECONDS);
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter.limit(limit).build();
+        limiter.acquire();
+        limiter.acquire();
+
+        limiter.cancel();
+
+        Assert.assertEquals(1, limiter.getInFlight());
+        Assert.assertEquals(2, limit.getLimit());
+    }
+
+    /**
+     * Test for a queued request rejected once the queue timeout has passed.
+     */
+    @Test
+    public void testQueueTimeout() throws Exception {
+        final ConcurrencyLimiter limiter = ConcurrencyLimiter
+            .limit(new AimdLimit(1, 1, 0.9, 1, TimeUnit.SECONDS))
+            .queueTimeout(10, TimeUnit.MILLISECONDS)
+            .build();
+        limiter.acquire();
+
+        try {
+            limiter.acquire();
+            Assert.fail();
+        } catch (ConcurrencyLimitExceededException e) {
+            Assert.assertEquals(0, limiter.getQueueDepth());
+        }
+    }
+
+}
@@ -0,0 +1,241 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.management;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.MifosXClient;
+import org.mifos.sdk.MifosXClientFactory;
+import org.mifos.sdk.MifosXClientRegistry;
+import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.internal.RestMifosXClient;
+import org.mifos.sdk.limit.AimdLimit;
+import org.mifos.sdk.limit.ConcurrencyLimiter;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for {@link ManagementBeans}.
+ */
+public class ManagementBeansTest {
+
+    private MBeanServer server;
+    private MifosXProperties properties;
+
+    /**
+     * Setup all the components before testing.
+     */
+    @Before
+    public void setup() {
+        this.server = ManagementFactory.getPlatformMBeanServer();
+        this.properties = MifosXProperties
+            .url("http://demo.openmf.org/mifosng-provider/api/v1")
+            .username("mifos")
+            .password("password")
+            .tenant("default")
+            .concurrencyLimiter(ConcurrencyLimiter.limit(new AimdLimit()).build())
+            .managementName("test")
+            .build();
+    }
+
+    /**
+     * Unregisters the beans after testing.
+     */
+    @After
+    public void teardown() throws Exception {
+        for (final ObjectName name : this.server.queryNames(new ObjectName(ManagementBeans.DOMAIN + ":*"), null)) {
+            this.server.unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Test for the beans of a client and its transport being registered.
+     */
+    @Test
+    public void testBeansRegistered() throws Exception {
+        MifosXClientFactory.get(this.properties);
+
+        final ObjectName client = new ObjectName("org.mifos.sdk:type=Client,name=test,tenant=default");
+        Assert.assertEquals(false, this.server.getAttribute(client, "LoggedIn"));
+        Assert.assertEquals("default", this.server.getAttribute(client, "Tenant"));
+        Assert.assertEquals("BASIC", this.server.getAttribute(client, "AuthenticationMode"));
+        Assert.assertEquals(0, this.server.getAttribute(new ObjectName("org.mifos.sdk:type=Transport,name=test"),
+            "ConnectionCount"));
+        Assert.assertTrue(this.server.isRegistered(new ObjectName("org.mifos.sdk:type=ConcurrencyLimiter,name=test")));
+        Assert.assertTrue(this.server.isRegistered(
+            new ObjectName("org.mifos.sdk:type=Service,name=test,tenant=default,service=ClientService")));
+        Assert.assertFalse(this.server.isRegistered(new ObjectName("org.mifos.sdk:type=CircuitBreakers,name=test")));
+    }
+
+    /**
+     * Test for the timeouts and the concurrency limits changed through the beans.
+     */
+    @Test
+    public void testWritableTunables() throws Exception {
+        MifosXClientFactory.get(this.properties);
+
+        final ObjectName transport = new ObjectName("org.mifos.sdk:type=Transport,name=test");
+        this.server.setAttribute(transport, new Attribute("ReadTimeoutMillis", 1234L));
+        Assert.assertEquals(1234L, this.server.getAttribute(transport, "ReadTimeoutMillis"));
+
+        final ObjectName limiter = new ObjectName("org.mifos.sdk:type=ConcurrencyLimiter,name=test");
+        Assert.assertEquals(AimdLimit.DEFAULT_INITIAL_LIMIT, this.server.getAttribute(limiter, "Limit"));
+        this.server.setAttribute(limiter, new Attribute("MaxInFlight", 2));
+        Assert.assertEquals(2, this.server.getAttribute(limiter, "Limit"));
+        Assert.assertEquals(2, this.properties.getConcurrencyLimiter().getLimit());
+    }
+
+    /**
+     * Test for the counters of a service taken from the metrics of its client.
+     */
+    @Test
+    public void testServiceCounters() throws Exception {
+        final MifosXClient client = MifosXClientFactory.get(this.properties);
+        client.metrics().record("ClientService.findClient", 2000000, 1000000, 0, 0, 100, null);
+        client.metrics().record("ClientService.findClient", 4000000, 3000000, 0, 0, 0, ErrorCode.CLIENT_NOT_FOUND);
+        client.metrics().record("GroupService.findGroup", 1000000, 1000000, 0, 0, 0, null);
+
+        final ObjectName service =
+            new ObjectName("org.mifos.sdk:type=Service,name=test,tenant=default,service=ClientService");
+        Assert.assertEquals(2L, this.server.getAttribute(service, "Calls"));
+        Assert.assertEquals(1L, this.server.getAttribute(service, "Errors"));
+        Assert.assertEquals(0.5, (Double) this.server.getAttribute(service, "ErrorRate"), 0.001);
+
+        final TabularData endpoints = (TabularData) this.server.getAttribute(service, "Endpoints");
+        Assert.assertEquals(1, endpoints.size());
+        final CompositeData findClient = (CompositeData) endpoints.get(new Object[] {"findClient"}).get("value");
+        Assert.assertEquals(2L, findClient.get("calls"));
+        Assert.assertEquals(100L, findClient.get("responseBytes"));
+    }
+
+    /**
+     * Test for the beans of an evicted tenant being unregistered while the shared
+     * transport keeps its own.
+     */
+    @Test
+    public void testEvictedTenantUnregistered() throws Exception {
+        final MifosXClientRegistry registry = MifosXClientRegistry.properties(this.properties).build();
+        registry.client("tenant1", "mifos", "password");
+
+        final ObjectName client = new ObjectName("org.mifos.sdk:type=Client,name=test,tenant=tenant1");
+        Assert.assertTrue(this.server.isRegistered(client));
+
+        registry.evict("tenant1");
+        Assert.assertFalse(this.server.isRegistered(client));
+        Assert.assertFalse(this.server.isRegistered(
+            new ObjectName("org.mifos.sdk:type=Service,name=test,tenant=tenant1,service=ClientService")));
+        Assert.assertTrue(this.server.isRegistered(new ObjectName("org.mifos.sdk:type=Transport,name=test")));
+    }
+
+    /**
+     * Test for a second client of the same tenant rejected under the management name
+     * of the first, whose beans are kept until it unregisters them.
+     */
+    @Test
+    public void testDuplicateClientRejected() throws Exception {
+        final RestMifosXClient first = (RestMifosXClient) MifosXClientFactory.get(this.properties);
+        try {
+            MifosXClientFactory.get(this.properties);
+
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+
+        final ObjectName service =
+            new ObjectName("org.mifos.sdk:type=Service,name=test,tenant=default,service=ClientService");
+        first.metrics().record("ClientService.findClient", 2000000, 1000000, 0, 0, 100, null);
+        Assert.assertEquals(1L, this.server.getAttribute(service, "Calls"));
+
+        ManagementBeans.unregisterClient(this.properties, first);
+        Assert.assertFalse(this.server.isRegistered(service));
+        MifosXClientFactory.get(this.properties);
+        Assert.assertEquals(0L, this.server.getAttribute(service, "Calls"));
+    }
+
+    /**
+     * Test for a tenant held by two registries under the same management name, the
+     * second registry failing to register it and leaving the beans of the first.
+     */
+    @Test
+    public void testTenantOfAnotherRegistryKept() throws Exception {
+        final MifosXClientRegistry registry = MifosXClientRegistry.properties(this.properties).build();
+        final MifosXClientRegistry other = MifosXClientRegistry.properties(this.properties).build();
+        registry.client("tenant1", "mifos", "password");
+        try {
+            other.client("tenant1", "mifos", "password");
+
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(0, other.size());
+        }
+
+        other.client("tenant2", "mifos", "password");
+        other.evict("tenant2");
+        Assert.assertTrue(this.server.isRegistered(
+            new ObjectName("org.mifos.sdk:type=Client,name=test,tenant=tenant1")));
+        Assert.assertFalse(this.server.isRegistered(
+            new ObjectName("org.mifos.sdk:type=Client,name=test,tenant=tenant2")));
+    }
+
+    /**
+     * Test for the beans of a tenant referring to the client held by the registry
+     * after its credentials change concurrently, the replacements losing the race
+     * being never registered.
+     */
+    @Test
+    public void testReplacedTenantRegistered() throws Exception {
+        final MifosXClientRegistry registry = MifosXClientRegistry.properties(this.properties).build();
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<MifosXClient>> clients = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final String password = "password" + (i % 2);
+                clients.add(executor.submit(new Callable<MifosXClient>() {
+                    @Override
+                    public MifosXClient call() throws Exception {
+                        start.await();
+                        MifosXClient client = null;
+                        for (int j = 0; j < 50; j++) {
+                            client = registry.client("tenant1", "mifos", password);
+                        }
+                        return client;
+                    }
+                }));
+            }
+            start.countDown();
+            for (final Future<MifosXClient> client : clients) {
+                client.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final MifosXClient client = registry.client("tenant1", "mifos", "password");
+        client.metrics().record("ClientService.findClient", 2000000, 1000000, 0, 0, 100, null);
+        Assert.assertEquals(1L, this.server.getAttribute(
+            new ObjectName("org.mifos.sdk:type=Service,name=test,tenant=tenant1,service=ClientService"), "Calls"));
+    }
+
+}
@@ -0,0 +1,159 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.metrics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.internal.http.CallMetrics;
+import org.mifos.sdk.internal.http.RetryingClient;
+import org.mifos.sdk.retry.RetryPolicy;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for {@link MetricsRecorder}, {@link LatencyHistogram} and the {@link CallMetrics}
+ * they are recorded from.
+ */
+public class MetricsRecorderTest {
+
+    private MetricsRecorder recorder;
+
+    /**
+     * Setup all the components before testing.
+     */
+    @Before
+    public void setup() {
+        this.recorder = new MetricsRecorder();
+    }
+
+    /**
+     * Test for the percentiles staying within the precision of the buckets.
+     */
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        Assert.assertEquals(1000, histogram.getCount());
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(500), histogram.getPercentileNanos(50));
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(990), histogram.getPercentileNanos(99));
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(999), histogram.getPercentileNanos(99.9));
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), histogram.getPercentileNanos(100));
+        Assert.assertEquals(0, new LatencyHistogram().getPercentileNanos(99));
+    }
+
+    /**
+     * Test for the calls of every endpoint and their errors counted separately.
+     */
+    @Test
+    public void testEndpointsRecorded() {
+        this.recorder.record("ClientService.findClient", 2000, 1500, 300, 0, 512, null);
+        this.recorder.record("ClientService.findClient", 3000, 2500, 0, 0, 0, ErrorCode.CLIENT_NOT_FOUND);
+        this.recorder.record("GroupService.saveCollectionSheet", 9000, 8000, 100, 4096, 64, ErrorCode.NOT_CONNECTED);
+
+        final EndpointMetrics findClient = this.recorder.getEndpoint("ClientService.findClient");
+        Assert.assertEquals(2, findClient.getCalls());
+        Assert.assertEquals(1, findClient.getErrors());
+        Assert.assertEquals(1, findClient.getErrors(ErrorCode.CLIENT_NOT_FOUND));
+        Assert.assertEquals(0, findClient.getErrors(ErrorCode.NOT_CONNECTED));
+        Assert.assertEquals(512, findClient.getResponseBytes());
+        Assert.assertEquals(3000, findClient.getLatency().getMaxNanos());
+        Assert.assertEquals(2000, findClient.getNetworkTime().getMeanNanos());
+
+        final EndpointMetrics saveCollectionSheet = this.recorder.getEndpoint("GroupService.saveCollectionSheet");
+        Assert.assertEquals(4096, saveCollectionSheet.getRequestBytes());
+        Assert.assertEquals(1, saveCollectionSheet.getErrors(ErrorCode.NOT_CONNECTED));
+        Assert.assertEquals(2, this.recorder.getEndpoints().size());
+    }
+
+    /**
+     * Test that no call is lost when recorded concurrently.
+     */
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        final int threads = 8;
+        final int calls = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        for (int call = 0; call < calls; call++) {
+                            recorder.record("StaffService.findStaff", call, call, 0, 0, 1, null);
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final EndpointMetrics metrics = this.recorder.getEndpoint("StaffService.findStaff");
+        Assert.assertEquals(threads * calls, metrics.getCalls());
+        Assert.assertEquals(threads * calls, metrics.getResponseBytes());
+        Assert.assertEquals(calls - 1, metrics.getLatency().getMaxNanos());
+    }
+
+    /**
+     * Test for the retries counted in the {@link CallMetrics} of the call in progress.
+     */
+    @Test
+    public void testRetriesCounted() throws IOException {
+        final Deque<Object> outcomes = new ArrayDeque<>();
+        outcomes.add(503);
+        outcomes.add(new IOException("connection reset"));
+        final RetryingClient client = new RetryingClient(new Client() {
+            @Override
+            public Response execute(final Request request) throws IOException {
+                final Object outcome = outcomes.isEmpty() ? 200 : outcomes.poll();
+                if (outcome instanceof IOException) {
+                    throw (IOException) outcome;
+                }
+                return new Response(request.getUrl(), (Integer) outcome, "", Collections.<Header>emptyList(), null);
+            }
+        }, RetryPolicy.maxAttempts(3).initialBackoff(1, TimeUnit.MILLISECONDS).build());
+
+        final CallMetrics metrics = CallMetrics.begin();
+        try {
+            client.execute(new Request("GET", "http://demo.openmf.org/mifosng-provider/api/v1/clients/1",
+                Collections.<Header>emptyList(), null));
+        } finally {
+            metrics.end();
+        }
+        Assert.assertEquals(2, metrics.getRetries());
+    }
+
+    private static void assertWithinPrecision(final long expected, final long actual) {
+        Assert.assertTrue(actual + " not within 12.5% of " + expected,
+            Math.abs(actual - expected) <= expected / 8);
+    }
+
+}
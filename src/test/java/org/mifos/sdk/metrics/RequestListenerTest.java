@@ -0,0 +1,182 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.metrics;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.MifosXClient;
+import org.mifos.sdk.MifosXClientFactory;
+import org.mifos.sdk.MifosXProperties;
+import org.mifos.sdk.MifosXResourceException;
+import org.mifos.sdk.internal.http.ConnectionTiming;
+import org.mifos.sdk.internal.http.OkHttpCallClient;
+import org.mifos.sdk.internal.http.RequestTimingClient;
+import org.mifos.sdk.limit.AimdLimit;
+import org.mifos.sdk.limit.ConcurrencyLimiter;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Test for the {@link RequestListener}s of {@link MifosXClientFactory}.
+ */
+public class RequestListenerTest {
+
+    private HttpServer server;
+    private List<RequestTimings> timings;
+    private RequestListener listener;
+    private MifosXClient client;
+
+    /**
+     * Setup all the components before testing.
+     */
+    @Before
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                final String path = exchange.getRequestURI().getPath();
+                final byte[] body;
+                final int status;
+                if (path.endsWith("/authentication")) {
+                    status = 200;
+                    body = "{\"base64EncodedAuthenticationKey\":\"key\"}".getBytes("UTF-8");
+                } else if (path.endsWith("/offices/1")) {
+                    status = 200;
+                    body = "{\"id\":1,\"name\":\"Head Office\"}".getBytes("UTF-8");
+                } else {
+                    status = 404;
+                    body = "{}".getBytes("UTF-8");
+                }
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        this.server.start();
+
+        this.timings = new CopyOnWriteArrayList<>();
+        this.listener = new RequestListener() {
+            @Override
+            public void requestCompleted(final RequestTimings requestTimings) {
+                timings.add(requestTimings);
+            }
+        };
+        MifosXClientFactory.addRequestListener(this.listener);
+        this.client = MifosXClientFactory.get(MifosXProperties
+            .url("http://127.0.0.1:" + this.server.getAddress().getPort() + "/mifosng-provider/api/v1")
+            .username("mifos")
+            .password("password")
+            .tenant("default")
+            .concurrencyLimiter(ConcurrencyLimiter.limit(new AimdLimit()).build())
+            .build());
+    }
+
+    /**
+     * Stops the server and removes the listener after testing.
+     */
+    @After
+    public void teardown() {
+        MifosXClientFactory.removeRequestListener(this.listener);
+        this.server.stop(0);
+    }
+
+    /**
+     * Test for the phases of the requests reported in order.
+     */
+    @Test
+    public void testPhasesReported() throws Exception {
+        this.client.login();
+        Assert.assertEquals("Head Office", this.client.officeService().findOffice(1L).getName());
+
+        Assert.assertEquals(2, this.timings.size());
+        final RequestTimings login = this.timings.get(0);
+        Assert.assertEquals("POST /authentication", login.getEndpoint());
+        Assert.assertEquals(200, login.getStatus());
+        Assert.assertEquals(0, login.getDnsNanos());
+        Assert.assertEquals(0, login.getConnectNanos());
+        Assert.assertEquals(0, login.getTlsNanos());
+
+        final RequestTimings findOffice = this.timings.get(1);
+        Assert.assertEquals("GET /offices/{id}", findOffice.getEndpoint());
+        Assert.assertEquals(200, findOffice.getStatus());
+        Assert.assertTrue(findOffice.getTimeToFirstByteNanos() > 0);
+        Assert.assertTrue(findOffice.getBodyReadNanos() > 0);
+        Assert.assertTrue(findOffice.getTotalNanos() >= findOffice.getQueueWaitNanos()
+            + findOffice.getConnectionAcquisitionNanos() + findOffice.getTimeToFirstByteNanos()
+            + findOffice.getBodyReadNanos() + findOffice.getConversionNanos());
+    }
+
+    /**
+     * Test for the connect phase of a new connection through an HTTP proxy timed,
+     * and left at 0 once the connection is pooled.
+     */
+    @Test
+    public void testProxiedConnectTimed() throws Exception {
+        final OkHttpClient httpClient = new OkHttpClient();
+        httpClient.setProxy(new Proxy(Proxy.Type.HTTP, this.server.getAddress()));
+        ConnectionTiming.install(httpClient);
+        final String baseUrl = "http://mifos.invalid/mifosng-provider/api/v1";
+        final RequestTimingClient transport = new RequestTimingClient(new OkHttpCallClient(httpClient, 1),
+            Collections.singletonList(this.listener), baseUrl);
+
+        for (int i = 0; i < 2; i++) {
+            final Response response = transport.execute(new Request("GET", baseUrl + "/offices/1",
+                Collections.<Header>emptyList(), null));
+            try (InputStream body = response.getBody().in()) {
+                while (body.read() != -1) {
+                    // drains the body so that the connection is pooled
+                }
+            }
+        }
+
+        Assert.assertEquals(2, this.timings.size());
+        final RequestTimings opened = this.timings.get(0);
+        Assert.assertEquals("GET /offices/{id}", opened.getEndpoint());
+        Assert.assertTrue(opened.getConnectNanos() > 0);
+        Assert.assertTrue(opened.getConnectionAcquisitionNanos() >= opened.getConnectNanos());
+        Assert.assertEquals(0, opened.getDnsNanos());
+        Assert.assertEquals(0, this.timings.get(1).getConnectNanos());
+        Assert.assertEquals(0, this.timings.get(1).getTlsNanos());
+    }
+
+    /**
+     * Test for a failed request reported with its status, and no request reported
+     * once the listener is removed.
+     */
+    @Test
+    public void testErrorsReportedUntilRemoved() throws Exception {
+        this.client.login();
+        try {
+            this.client.officeService().findOffice(2L);
+            Assert.fail();
+        } catch (MifosXResourceException e) {
+            Assert.assertEquals(404, this.timings.get(1).getStatus());
+        }
+
+        MifosXClientFactory.removeRequestListener(this.listener);
+        this.client.officeService().findOffice(1L);
+        Assert.assertEquals(2, this.timings.size());
+    }
+
+}
@@ -12,6 +12,7 @@ import org.mifos.sdk.MifosXConnectException;
 import org.mifos.sdk.MifosXProperties;
 import org.mifos.sdk.MifosXResourceException;
 import org.mifos.sdk.internal.ErrorCode;
+import org.mifos.sdk.limit.ConcurrencyLimitExceededException;
 import org.mifos.sdk.office.domain.Office;
 import retrofit.RestAdapter;
 import retrofit.RetrofitError;
@@ -115,6 +116,29 @@ public class RestOfficeServiceTest {
         }
     }
 
+    /**
+     * Test for {@link ErrorCode#OVERLOADED} exception for createOffice().
+     */
+    @Test
+    public void testCreateOfficeOverloadedException() {
+        final RetrofitError error = mock(RetrofitError.class);
+
+        when(error.getKind()).thenReturn(RetrofitError.Kind.NETWORK);
+        when(error.getCause()).thenReturn(new ConcurrencyLimitExceededException("queue full"));
+        when(this.retrofitOfficeService.createOffice(this.mockedAuthKey, this.properties.getTenant(),
+                this.defaultOffice)).thenThrow(error);
+
+        try {
+            this.officeService.createOffice(this.defaultOffice);
+
+            Assert.fail();
+        } catch (MifosXConnectException e) {
+            Assert.assertEquals(ErrorCode.OVERLOADED, e.getErrorCode());
+        } catch (MifosXResourceException e) {
+            Assert.fail();
+        }
+    }
+
     /**
      * Test for duplicate exception for createOffice().
      */
@@ -0,0 +1,169 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.retry;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.internal.http.HedgingClient;
+import org.mifos.sdk.internal.http.OkHttpCallClient;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for {@link HedgingPolicy} and {@link HedgingClient}.
+ */
+public class HedgingPolicyTest {
+
+    private static final long SLOW_MILLIS = 1000;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService hedgeExecutor;
+    private AtomicInteger hits;
+    private ConcurrentMap<Integer, Long> delays;
+    private String url;
+
+    /**
+     * Setup all the components before testing.
+     */
+    @Before
+    public void setup() throws IOException {
+        this.hits = new AtomicInteger();
+        this.delays = new ConcurrentHashMap<>();
+        this.serverExecutor = Executors.newCachedThreadPool();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.hedgeExecutor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                final Long delay = delays.get(hits.incrementAndGet());
+                try {
+                    if (delay != null) {
+                        Thread.sleep(delay);
+                    }
+                    final byte[] body = "{}".getBytes("UTF-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                } catch (InterruptedException | IOException e) {
+                    // the hedge won and the connection was closed
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        this.server.setExecutor(this.serverExecutor);
+        this.server.start();
+        this.url = "http://127.0.0.1:" + this.server.getAddress().getPort() + "/api/v1";
+    }
+
+    /**
+     * Stops the server after testing.
+     */
+    @After
+    public void teardown() {
+        this.server.stop(0);
+        this.serverExecutor.shutdownNow();
+        this.scheduler.shutdownNow();
+        this.hedgeExecutor.shutdownNow();
+    }
+
+    /**
+     * Test for a slow read answered by its hedge.
+     */
+    @Test
+    public void testSlowReadHedged() throws IOException {
+        final HedgingClient client = client(HedgingPolicy.percentile(50)
+            .minDelay(0, TimeUnit.MILLISECONDS)
+            .minSamples(5)
+            .maxExtraLoad(1)
+            .build());
+        warmUp(client, 5);
+        this.delays.put(6, SLOW_MILLIS);
+
+        final long start = System.nanoTime();
+        final Response response = client.execute(get());
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < SLOW_MILLIS / 2);
+        Assert.assertEquals(7, this.hits.get());
+    }
+
+    /**
+     * Test for a slow read not hedged once the extra load budget is spent.
+     */
+    @Test
+    public void testHedgesRateLimited() throws IOException {
+        final HedgingClient client = client(HedgingPolicy.percentile(50)
+            .minDelay(0, TimeUnit.MILLISECONDS)
+            .minSamples(5)
+            .maxExtraLoad(0.1)
+            .build());
+        warmUp(client, 5);
+        this.delays.put(6, SLOW_MILLIS);
+
+        final long start = System.nanoTime();
+        Assert.assertEquals(200, client.execute(get()).getStatus());
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= SLOW_MILLIS);
+        Assert.assertEquals(6, this.hits.get());
+    }
+
+    /**
+     * Test for a command never hedged.
+     */
+    @Test
+    public void testCommandNotHedged() throws IOException {
+        final HedgingClient client = client(HedgingPolicy.percentile(50)
+            .minDelay(50, TimeUnit.MILLISECONDS)
+            .minSamples(1)
+            .maxExtraLoad(1)
+            .build());
+        warmUp(client, 3);
+        this.delays.put(4, SLOW_MILLIS / 4);
+
+        final Request request = new Request("POST", this.url + "/clients/1?command=activate",
+            Collections.<Header>emptyList(), null);
+        Assert.assertEquals(200, client.execute(request).getStatus());
+        Assert.assertEquals(4, this.hits.get());
+    }
+
+    private HedgingClient client(final HedgingPolicy policy) {
+        return new HedgingClient(new OkHttpCallClient(new OkHttpClient(), 8), policy, this.url,
+            this.scheduler, this.hedgeExecutor);
+    }
+
+    private void warmUp(final HedgingClient client, final int requests) throws IOException {
+        for (int i = 0; i < requests; i++) {
+            Assert.assertEquals(200, client.execute(get()).getStatus());
+        }
+    }
+
+    private Request get() {
+        return new Request("GET", this.url + "/clients/1", Collections.<Header>emptyList(), null);
+    }
+
+}
@@ -0,0 +1,140 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifos.sdk.retry;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.sdk.breaker.CircuitBreakerOpenException;
+import org.mifos.sdk.internal.RestConstants;
+import org.mifos.sdk.internal.http.RetryingClient;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for {@link RetryPolicy} and {@link RetryingClient}.
+ */
+public class RetryPolicyTest {
+
+    private static final String URL = "http://demo.openmf.org/mifosng-provider/api/v1/clients/1";
+
+    private Deque<Object> outcomes;
+    private int attempts;
+    private RetryingClient client;
+
+    /**
+     * Setup all the components before testing.
+     */
+    @Before
+    public void setup() {
+        this.outcomes = new ArrayDeque<>();
+        this.attempts = 0;
+        final Client server = new Client() {
+            @Override
+            public Response execute(final Request request) throws IOException {
+                attempts++;
+                final Object outcome = outcomes.isEmpty() ? 200 : outcomes.poll();
+                if (outcome instanceof IOException) {
+                    throw (IOException) outcome;
+                }
+                return new Response(request.getUrl(), (Integer) outcome, "", Collections.<Header>emptyList(), null);
+            }
+        };
+        this.client = new RetryingClient(server, RetryPolicy.maxAttempts(3)
+            .initialBackoff(1, TimeUnit.MILLISECONDS)
+            .build());
+    }
+
+    /**
+     * Test for the backoff staying within its exponential bound.
+     */
+    @Test
+    public void testBackoffBounds() {
+        final RetryPolicy policy = RetryPolicy.maxAttempts(5)
+            .initialBackoff(100, TimeUnit.MILLISECONDS)
+            .maxBackoff(300, TimeUnit.MILLISECONDS)
+            .build();
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(policy.backoffMillis(1) <= 100);
+            Assert.assertTrue(policy.backoffMillis(2) <= 200);
+            Assert.assertTrue(policy.backoffMillis(4) <= 300);
+        }
+    }
+
+    /**
+     * Test for a read retried after a dropped connection and a 503 response.
+     */
+    @Test
+    public void testReadRetried() throws IOException {
+        this.outcomes.add(new IOException("connection reset"));
+        this.outcomes.add(503);
+
+        Assert.assertEquals(200, this.client.execute(request("GET", null)).getStatus());
+        Assert.assertEquals(3, this.attempts);
+    }
+
+    /**
+     * Test for the last failure returned once the attempts are exhausted.
+     */
+    @Test
+    public void testAttemptsExhausted() throws IOException {
+        this.outcomes.add(503);
+        this.outcomes.add(503);
+        this.outcomes.add(504);
+
+        Assert.assertEquals(504, this.client.execute(request("GET", null)).getStatus());
+        Assert.assertEquals(3, this.attempts);
+    }
+
+    /**
+     * Test for a command retried only with an idempotency key.
+     */
+    @Test
+    public void testCommandRetriedWithIdempotencyKey() throws IOException {
+        this.outcomes.add(new IOException("connection reset"));
+        try {
+            this.client.execute(request("POST", null));
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertEquals(1, this.attempts);
+        }
+
+        this.outcomes.add(new IOException("connection reset"));
+        Assert.assertEquals(200, this.client.execute(request("POST", "b7a4f1")).getStatus());
+        Assert.assertEquals(3, this.attempts);
+    }
+
+    /**
+     * Test for a request rejected by an open circuit breaker not being retried.
+     */
+    @Test
+    public void testOpenCircuitNotRetried() throws IOException {
+        this.outcomes.add(new CircuitBreakerOpenException("GET /clients/{id}"));
+        try {
+            this.client.execute(request("GET", null));
+            Assert.fail();
+        } catch (CircuitBreakerOpenException e) {
+            Assert.assertEquals(1, this.attempts);
+        }
+    }
+
+    private static Request request(final String method, final String idempotencyKey) {
+        final List<Header> headers = idempotencyKey == null ? Collections.<Header>emptyList()
+            : Collections.singletonList(new Header(RestConstants.HEADER_IDEMPOTENCY_KEY, idempotencyKey));
+        return new Request(method, URL, headers, null);
+    }
+
+}